@@ -0,0 +1,172 @@
+package com.example.rfidtracking.benchmark;
+
+import com.example.rfidtracking.RfidTrackingApplication;
+import com.example.rfidtracking.model.Filial;
+import com.example.rfidtracking.model.Moto;
+import com.example.rfidtracking.model.RegistroRFID;
+import com.example.rfidtracking.repository.FilialRepository;
+import com.example.rfidtracking.repository.MotoRepository;
+import com.example.rfidtracking.repository.RegistroRFIDRepository;
+import com.example.rfidtracking.service.MotoBuscaIndex;
+import com.example.rfidtracking.service.PosicaoMotoService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Contexto Spring sem servidor web sobre um H2 em memória exclusivo, populado com uma frota
+ * sintética de {@code motos} motos e {@code leituras} leituras RFID. Compartilhado pelos
+ * benchmarks da camada de serviço.
+ */
+@State(Scope.Benchmark)
+public class FrotaSintetica {
+
+    static final String[] MODELOS = {"Honda CG 160", "Honda Biz 125", "Yamaha Fazer 250", "Mottu Sport 110", "Mottu E"};
+    static final String[] STATUS = {"ATIVA", "MANUTENCAO", "INATIVA"};
+    static final String[] PONTOS = {"Portao A", "Portao B", "Patio 1", "Patio 2", "Oficina", "Saida"};
+    private static final int FILIAIS = 10;
+    private static final int LOTE = 1000;
+
+    @Param({"1000", "10000"})
+    public int motos;
+
+    @Param({"10000", "100000"})
+    public int leituras;
+
+    private ConfigurableApplicationContext contexto;
+    private long[] motoIds;
+    private String[] placas;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = new SpringApplicationBuilder(RfidTrackingApplication.class)
+                .web(WebApplicationType.NONE)
+                // Argumentos de linha de comando para prevalecer sobre application-dev.properties
+                .run("--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                        "--logging.level.com.example.rfidtracking=WARN");
+        popular();
+        // Os índices em memória são carregados no ApplicationReadyEvent, antes da carga sintética
+        bean(MotoBuscaIndex.class).carregar();
+        bean(PosicaoMotoService.class).carregar();
+        limparCaches();
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    public <T> T bean(Class<T> tipo) {
+        return contexto.getBean(tipo);
+    }
+
+    public long motoAleatoria(Random random) {
+        return motoIds[random.nextInt(motoIds.length)];
+    }
+
+    public String placaAleatoria(Random random) {
+        return placas[random.nextInt(placas.length)];
+    }
+
+    public void limparCaches() {
+        CacheManager cacheManager = bean(CacheManager.class);
+        cacheManager.getCacheNames().forEach(nome -> cacheManager.getCache(nome).clear());
+    }
+
+    private void popular() {
+        TransactionTemplate tx = new TransactionTemplate(bean(PlatformTransactionManager.class));
+        Random random = new Random(42);
+
+        List<Filial> filiais = tx.execute(status -> {
+            List<Filial> novas = new ArrayList<>();
+            for (int i = 0; i < FILIAIS; i++) {
+                Filial filial = new Filial();
+                filial.setNome("Filial " + i);
+                filial.setCidade("Cidade " + i);
+                filial.setEstado("SP");
+                novas.add(filial);
+            }
+            return bean(FilialRepository.class).saveAll(novas);
+        });
+
+        motoIds = new long[motos];
+        placas = new String[motos];
+        for (int inicio = 0; inicio < motos; inicio += LOTE) {
+            int fim = Math.min(motos, inicio + LOTE);
+            int base = inicio;
+            tx.executeWithoutResult(status -> {
+                List<Moto> lote = new ArrayList<>(fim - base);
+                for (int i = base; i < fim; i++) {
+                    Moto moto = new Moto();
+                    moto.setModelo(MODELOS[random.nextInt(MODELOS.length)]);
+                    moto.setPlaca(placa(i));
+                    moto.setStatus(STATUS[random.nextInt(STATUS.length)]);
+                    moto.setFilial(filiais.get(i % FILIAIS));
+                    lote.add(moto);
+                }
+                List<Moto> salvas = bean(MotoRepository.class).saveAll(lote);
+                for (int i = 0; i < salvas.size(); i++) {
+                    motoIds[base + i] = salvas.get(i).getId();
+                    placas[base + i] = salvas.get(i).getPlaca();
+                }
+            });
+        }
+
+        LocalDateTime agora = LocalDateTime.now();
+        for (int inicio = 0; inicio < leituras; inicio += LOTE) {
+            int quantidade = Math.min(LOTE, leituras - inicio);
+            tx.executeWithoutResult(status -> {
+                MotoRepository motoRepository = bean(MotoRepository.class);
+                List<RegistroRFID> lote = new ArrayList<>(quantidade);
+                for (int i = 0; i < quantidade; i++) {
+                    RegistroRFID registro = new RegistroRFID();
+                    registro.setMoto(motoRepository.getReferenceById(motoAleatoria(random)));
+                    registro.setPontoLeitura(PONTOS[random.nextInt(PONTOS.length)]);
+                    registro.setDataHora(agora.minusSeconds(random.nextInt(30 * 24 * 3600)));
+                    lote.add(registro);
+                }
+                bean(RegistroRFIDRepository.class).saveAll(lote);
+            });
+        }
+    }
+
+    /**
+     * Placas no padrão Mercosul (LLLNLNN) derivadas do índice, sem repetição.
+     */
+    private static String placa(int indice) {
+        char[] placa = new char[7];
+        int n = indice;
+        placa[6] = (char) ('0' + n % 10);
+        n /= 10;
+        placa[5] = (char) ('0' + n % 10);
+        n /= 10;
+        placa[4] = (char) ('A' + n % 26);
+        n /= 26;
+        placa[3] = (char) ('0' + n % 10);
+        n /= 10;
+        for (int i = 2; i >= 0; i--) {
+            placa[i] = (char) ('A' + n % 26);
+            n /= 26;
+        }
+        return new String(placa);
+    }
+}
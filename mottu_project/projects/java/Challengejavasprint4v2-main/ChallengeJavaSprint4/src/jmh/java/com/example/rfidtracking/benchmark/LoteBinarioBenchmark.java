@@ -0,0 +1,81 @@
+package com.example.rfidtracking.benchmark;
+
+import com.example.rfidtracking.dto.RegistroRFIDDTO;
+import com.example.rfidtracking.service.CodecLoteRegistros;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decodificação de um lote de {@value #LEITURAS} leituras em JSON (Jackson configurado como no
+ * Spring Boot, datas ISO) e no formato binário de {@link CodecLoteRegistros}, por leitura. Com o
+ * profiler gc, gc.alloc.rate.norm dá os bytes alocados por leitura decodificada.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoteBinarioBenchmark {
+
+    static final int LEITURAS = 1000;
+
+    private final CodecLoteRegistros codec = new CodecLoteRegistros(ZoneId.systemDefault());
+    private final ObjectReader leitorJson = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build()
+            .readerFor(new TypeReference<List<RegistroRFIDDTO>>() { });
+
+    private byte[] json;
+    private byte[] binario;
+
+    @Setup
+    public void preparar() throws IOException {
+        List<RegistroRFIDDTO> lote = new ArrayList<>(LEITURAS);
+        LocalDateTime inicio = LocalDateTime.now().withNano(0);
+        for (int i = 0; i < LEITURAS; i++) {
+            lote.add(new RegistroRFIDDTO(null, FrotaSintetica.PONTOS[i % FrotaSintetica.PONTOS.length],
+                    inicio.plusNanos(i * 350_000_000L), 1L + (i * 7919L) % 5000));
+        }
+        json = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build()
+                .writeValueAsBytes(lote);
+        binario = codec.codificar(lote);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LEITURAS)
+    public List<RegistroRFIDDTO> json() throws IOException {
+        return leitorJson.readValue(json);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LEITURAS)
+    public List<RegistroRFIDDTO> binario() {
+        return codec.decodificar(binario, binario.length, LEITURAS);
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.rfidtracking.benchmark;
+
+import com.example.rfidtracking.dto.FilialDTO;
+import com.example.rfidtracking.dto.MotoDTO;
+import com.example.rfidtracking.dto.RegistroRFIDDTO;
+import com.example.rfidtracking.mapper.FilialMapper;
+import com.example.rfidtracking.mapper.MotoMapper;
+import com.example.rfidtracking.mapper.RegistroRFIDMapper;
+import com.example.rfidtracking.model.Filial;
+import com.example.rfidtracking.model.Moto;
+import com.example.rfidtracking.model.RegistroRFID;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversão entidade -> DTO pelos mappers explícitos e pelo ModelMapper usado antes, por linha
+ * de uma página de {@value #LINHAS} linhas. Com o profiler gc (ativo no profile "benchmarks"),
+ * gc.alloc.rate.norm dá os bytes alocados por linha convertida.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    static final int LINHAS = 1000;
+
+    private final MotoMapper motoMapper = new MotoMapper();
+    private final FilialMapper filialMapper = new FilialMapper();
+    private final RegistroRFIDMapper registroRFIDMapper = new RegistroRFIDMapper();
+    private final ModelMapper modelMapper = new ModelMapper();
+
+    private Filial[] filiais;
+    private Moto[] motos;
+    private RegistroRFID[] registros;
+
+    @Setup
+    public void preparar() {
+        filiais = new Filial[LINHAS];
+        motos = new Moto[LINHAS];
+        registros = new RegistroRFID[LINHAS];
+        LocalDateTime agora = LocalDateTime.now();
+        for (int i = 0; i < LINHAS; i++) {
+            Filial filial = new Filial();
+            filial.setIdFilial((long) i);
+            filial.setNome("Filial " + i);
+            filial.setCidade("Cidade " + i);
+            filial.setEstado("SP");
+            filiais[i] = filial;
+
+            Moto moto = new Moto();
+            moto.setId((long) i);
+            moto.setModelo(FrotaSintetica.MODELOS[i % FrotaSintetica.MODELOS.length]);
+            moto.setPlaca("ABC" + (1000 + i));
+            moto.setStatus(FrotaSintetica.STATUS[i % FrotaSintetica.STATUS.length]);
+            moto.setFilial(filial);
+            motos[i] = moto;
+
+            RegistroRFID registro = new RegistroRFID();
+            registro.setId((long) i);
+            registro.setPontoLeitura(FrotaSintetica.PONTOS[i % FrotaSintetica.PONTOS.length]);
+            registro.setDataHora(agora.minusSeconds(i));
+            registro.setMoto(moto);
+            registros[i] = registro;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINHAS)
+    public void motoMapper(Blackhole bh) {
+        for (Moto moto : motos) {
+            bh.consume(motoMapper.toDto(moto));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINHAS)
+    public void motoModelMapper(Blackhole bh) {
+        for (Moto moto : motos) {
+            MotoDTO dto = modelMapper.map(moto, MotoDTO.class);
+            if (moto.getFilial() != null) {
+                dto.setFilialId(moto.getFilial().getIdFilial());
+                dto.setNomeFilial(moto.getFilial().getNome());
+            }
+            bh.consume(dto);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINHAS)
+    public void filialMapper(Blackhole bh) {
+        for (Filial filial : filiais) {
+            bh.consume(filialMapper.toDto(filial));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINHAS)
+    public void filialModelMapper(Blackhole bh) {
+        for (Filial filial : filiais) {
+            bh.consume(modelMapper.map(filial, FilialDTO.class));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINHAS)
+    public void registroMapper(Blackhole bh) {
+        for (RegistroRFID registro : registros) {
+            bh.consume(registroRFIDMapper.toDto(registro));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINHAS)
+    public void registroModelMapper(Blackhole bh) {
+        for (RegistroRFID registro : registros) {
+            RegistroRFIDDTO dto = modelMapper.map(registro, RegistroRFIDDTO.class);
+            if (registro.getMoto() != null) {
+                dto.setMotoId(registro.getMoto().getId());
+            }
+            bh.consume(dto);
+        }
+    }
+}
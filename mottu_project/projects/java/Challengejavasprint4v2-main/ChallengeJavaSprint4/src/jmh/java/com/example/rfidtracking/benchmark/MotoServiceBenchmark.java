@@ -0,0 +1,68 @@
+package com.example.rfidtracking.benchmark;
+
+import com.example.rfidtracking.dto.MotoDTO;
+import com.example.rfidtracking.service.MotoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listagem de motos com cada filtro do MotoSpecification, isolado e combinado.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MotoServiceBenchmark {
+
+    private static final Pageable PRIMEIRA_PAGINA = PageRequest.of(0, 20);
+
+    private MotoService service;
+    private final Random random = new Random();
+
+    @Setup
+    public void preparar(FrotaSintetica frota) {
+        service = frota.bean(MotoService.class);
+    }
+
+    @Benchmark
+    public Page<MotoDTO> semFiltro() {
+        return service.listar(PRIMEIRA_PAGINA, null, null, null);
+    }
+
+    @Benchmark
+    public Page<MotoDTO> porModelo() {
+        return service.listar(PRIMEIRA_PAGINA, "fazer", null, null);
+    }
+
+    @Benchmark
+    public Page<MotoDTO> porPlaca(FrotaSintetica frota) {
+        // Trecho do meio de uma placa existente, como na busca parcial da tela
+        return service.listar(PRIMEIRA_PAGINA, null, frota.placaAleatoria(random).substring(2, 6), null);
+    }
+
+    @Benchmark
+    public Page<MotoDTO> porStatus() {
+        return service.listar(PRIMEIRA_PAGINA, null, null, "MANUTENCAO");
+    }
+
+    @Benchmark
+    public Page<MotoDTO> combinado(FrotaSintetica frota) {
+        return service.listar(PRIMEIRA_PAGINA, "honda", frota.placaAleatoria(random).substring(0, 4), "ATIVA");
+    }
+}
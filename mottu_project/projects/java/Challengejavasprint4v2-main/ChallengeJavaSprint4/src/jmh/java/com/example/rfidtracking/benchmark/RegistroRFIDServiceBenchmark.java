@@ -0,0 +1,64 @@
+package com.example.rfidtracking.benchmark;
+
+import com.example.rfidtracking.dto.RegistroRFIDDTO;
+import com.example.rfidtracking.service.RegistroRFIDService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gravação unitária e listagem paginada de leituras, com o cache "registros" quente e frio.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RegistroRFIDServiceBenchmark {
+
+    private static final Pageable PRIMEIRA_PAGINA = PageRequest.of(0, 20);
+
+    private RegistroRFIDService service;
+    private final Random random = new Random();
+
+    @Setup
+    public void preparar(FrotaSintetica frota) {
+        service = frota.bean(RegistroRFIDService.class);
+    }
+
+    @Benchmark
+    public RegistroRFIDDTO salvar(FrotaSintetica frota) {
+        RegistroRFIDDTO dto = new RegistroRFIDDTO();
+        dto.setMotoId(frota.motoAleatoria(random));
+        dto.setPontoLeitura(FrotaSintetica.PONTOS[random.nextInt(FrotaSintetica.PONTOS.length)]);
+        dto.setDataHora(LocalDateTime.now());
+        return service.salvar(dto);
+    }
+
+    @Benchmark
+    public Page<RegistroRFIDDTO> listarCacheado() {
+        return service.listar("portao", PRIMEIRA_PAGINA);
+    }
+
+    @Benchmark
+    public Page<RegistroRFIDDTO> listarSemCache(FrotaSintetica frota) {
+        // Limpar o cache custa pouco perto da consulta e garante que toda chamada vá ao banco
+        frota.limparCaches();
+        return service.listar("portao", PRIMEIRA_PAGINA);
+    }
+}
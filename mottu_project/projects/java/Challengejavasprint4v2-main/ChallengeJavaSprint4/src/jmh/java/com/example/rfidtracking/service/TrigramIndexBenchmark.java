@@ -0,0 +1,69 @@
+package com.example.rfidtracking.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Busca por substring de placa no índice de trigramas contra a varredura linear que o
+ * LIKE '%x%' faz no banco. Fica no pacote do serviço porque o TrigramIndex é interno.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class TrigramIndexBenchmark {
+
+    @Param({"1000000"})
+    public int motos;
+
+    private final TrigramIndex index = new TrigramIndex();
+    private String[] placas;
+    private final Random random = new Random(42);
+
+    @Setup
+    public void preparar() {
+        placas = new String[motos];
+        for (int i = 0; i < motos; i++) {
+            placas[i] = String.format(Locale.ROOT, "%c%c%c%d%c%02d",
+                    'A' + random.nextInt(26), 'A' + random.nextInt(26), 'A' + random.nextInt(26),
+                    random.nextInt(10), 'A' + random.nextInt(26), random.nextInt(100));
+            index.adicionar(i, placas[i]);
+        }
+    }
+
+    private String termo() {
+        return placas[random.nextInt(placas.length)].substring(2, 6);
+    }
+
+    @Benchmark
+    public long[] indice() {
+        return index.buscar(termo());
+    }
+
+    @Benchmark
+    public int varredura() {
+        String termo = termo().toLowerCase(Locale.ROOT);
+        int encontrados = 0;
+        for (String placa : placas) {
+            if (placa.toLowerCase(Locale.ROOT).contains(termo)) {
+                encontrados++;
+            }
+        }
+        return encontrados;
+    }
+}
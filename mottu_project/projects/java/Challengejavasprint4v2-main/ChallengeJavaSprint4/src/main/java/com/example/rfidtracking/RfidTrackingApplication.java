@@ -4,9 +4,11 @@ package com.example.rfidtracking;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableCaching
+@EnableScheduling
 public class RfidTrackingApplication {
     public static void main(String[] args) {
         SpringApplication.run(RfidTrackingApplication.class, args);
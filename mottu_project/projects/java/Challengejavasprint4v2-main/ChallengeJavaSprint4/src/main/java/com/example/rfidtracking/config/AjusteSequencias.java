@@ -0,0 +1,60 @@
+package com.example.rfidtracking.config;
+
+import com.example.rfidtracking.service.Shards;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Leva as sequences que substituíram colunas IDENTITY para depois do maior id já gravado:
+ * {@code registro_rfid_seq} em cada shard e {@code filial_seq} no shard 0, onde ficam as filiais
+ * canônicas. Bases que vieram da época do IDENTITY já têm ids gravados, mas o {@code ddl-auto=update}
+ * cria a sequence começando em 1, e os primeiros INSERTs colidiriam com a chave primária. Só avança
+ * a sequence; numa base já alinhada não altera nada. No H2 (create-drop) as tabelas nascem vazias.
+ */
+@Component
+public class AjusteSequencias implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(AjusteSequencias.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Shards shards;
+
+    public AjusteSequencias(JdbcTemplate jdbcTemplate, Shards shards) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shards = shards;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        String banco = jdbcTemplate.execute((ConnectionCallback<String>) conexao -> conexao.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(banco)) {
+            return;
+        }
+        shards.paraCada(shard -> ajustar(shard, "registro_rfid_seq", "registrorfid", "id"));
+        // Nos shards de dados as filiais são cópias com o id do shard 0; a sequence só é lida lá
+        shards.global(() -> {
+            ajustar(0, "filial_seq", "filial", "id_filial");
+            return null;
+        });
+    }
+
+    private void ajustar(int shard, String sequence, String tabela, String coluna) {
+        if (!jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, sequence)) {
+            return;
+        }
+        // O optimizer pooled entrega os ids de (valor lido - incremento + 1) até o valor lido, então
+        // basta que o último valor da sequence alcance o maior id. Numa base alinhada o WHERE não devolve linha
+        List<Long> ajustada = jdbcTemplate.queryForList("SELECT setval('" + sequence + "', m.maior) "
+                + "FROM (SELECT MAX(" + coluna + ") AS maior FROM " + tabela + ") m, " + sequence + " s "
+                + "WHERE m.maior IS NOT NULL AND s.last_value < m.maior", Long.class);
+        if (!ajustada.isEmpty()) {
+            log.warn("Shard {}: {} estava atrás dos ids já gravados; avançada para {}", shard, sequence, ajustada.get(0));
+        }
+    }
+}
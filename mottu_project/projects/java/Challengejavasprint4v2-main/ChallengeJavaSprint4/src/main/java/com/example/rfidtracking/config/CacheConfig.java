@@ -0,0 +1,31 @@
+package com.example.rfidtracking.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(RfidCacheProperties.class)
+public class CacheConfig {
+
+    @Bean
+    public CacheManager cacheManager(RfidCacheProperties properties) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // Caches criados sob demanda (sem configuração própria) também ficam limitados
+        cacheManager.setCaffeine(builder(properties.getPadrao()));
+        properties.getCaches().forEach((nome, especificacao) ->
+                cacheManager.registerCustomCache(nome, builder(especificacao).build()));
+        return cacheManager;
+    }
+
+    private Caffeine<Object, Object> builder(RfidCacheProperties.Especificacao especificacao) {
+        // Caffeine usa W-TinyLFU como política de despejo quando o tamanho máximo é atingido
+        return Caffeine.newBuilder()
+                .maximumSize(especificacao.getTamanhoMaximo())
+                .expireAfterWrite(especificacao.getTtl())
+                .recordStats();
+    }
+}
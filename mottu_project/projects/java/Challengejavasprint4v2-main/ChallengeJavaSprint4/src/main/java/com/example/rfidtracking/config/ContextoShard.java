@@ -0,0 +1,44 @@
+package com.example.rfidtracking.config;
+
+/**
+ * Shard da thread atual, lido pelo {@link RoteadorShards} quando a conexão física é aberta. Como o
+ * DataSource fica atrás de um LazyConnectionDataSourceProxy, basta defini-lo antes do primeiro SQL
+ * da transação; a partir daí a transação continua no shard em que começou. Sem definição, o
+ * roteador usa o shard 0 apenas fora de transações (inicialização, esquema, consultas JDBC avulsas).
+ */
+public final class ContextoShard {
+
+    private static final ThreadLocal<Integer> ATUAL = new ThreadLocal<>();
+
+    private ContextoShard() {
+    }
+
+    public static int atual() {
+        Integer shard = ATUAL.get();
+        return shard == null ? 0 : shard;
+    }
+
+    /**
+     * Shard definido na thread, ou {@code null} se nenhum serviço o definiu.
+     */
+    public static Integer definido() {
+        return ATUAL.get();
+    }
+
+    /**
+     * Define o shard da thread e devolve o anterior, para ser passado a {@link #restaurar}.
+     */
+    public static Integer definir(int shard) {
+        Integer anterior = ATUAL.get();
+        ATUAL.set(shard);
+        return anterior;
+    }
+
+    public static void restaurar(Integer anterior) {
+        if (anterior == null) {
+            ATUAL.remove();
+        } else {
+            ATUAL.set(anterior);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.rfidtracking.config;
+
+import com.example.rfidtracking.dto.FilialDTO;
+import com.example.rfidtracking.repository.ReplicacaoFiliais;
+import com.example.rfidtracking.service.Shards;
+import org.hibernate.boot.Metadata;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.tool.hbm2ddl.SchemaUpdate;
+import org.hibernate.tool.hbm2ddl.SchemaValidator;
+import org.hibernate.tool.schema.TargetType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * Prepara os shards 1..N-1 na subida, depois que o Hibernate montou o esquema do shard 0: aplica o
+ * mesmo esquema (conforme spring.jpa.hibernate.ddl-auto), posiciona as sequences de moto e leitura
+ * no início da faixa de ids do shard e copia as filiais do shard 0.
+ */
+public class EsquemaShards implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(EsquemaShards.class);
+    // O optimizer pooled do Hibernate entrega ids até allocationSize - 1 abaixo do valor lido da
+    // sequence, então ela começa com folga dentro da faixa
+    private static final long FOLGA_SEQUENCE = 1000;
+
+    private final Metadados metadados;
+    private final int quantidade;
+    private final JdbcTemplate jdbcTemplate;
+    private final ReplicacaoFiliais replicacaoFiliais;
+    private final String ddlAuto;
+
+    public EsquemaShards(Metadados metadados, int quantidade, JdbcTemplate jdbcTemplate, ReplicacaoFiliais replicacaoFiliais,
+                         String ddlAuto) {
+        this.metadados = metadados;
+        this.quantidade = quantidade;
+        this.jdbcTemplate = jdbcTemplate;
+        this.replicacaoFiliais = replicacaoFiliais;
+        this.ddlAuto = ddlAuto;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        List<FilialDTO> filiais = replicacaoFiliais.listar();
+        for (int shard = 1; shard < quantidade; shard++) {
+            Integer anterior = ContextoShard.definir(shard);
+            try {
+                aplicarEsquema();
+                posicionarIds(shard * Shards.FAIXA_IDS);
+                filiais.forEach(replicacaoFiliais::gravar);
+            } finally {
+                ContextoShard.restaurar(anterior);
+            }
+            log.info("Shard {} pronto: ids a partir de {}, {} filiais copiadas", shard, shard * Shards.FAIXA_IDS, filiais.size());
+        }
+    }
+
+    private void aplicarEsquema() {
+        switch (ddlAuto) {
+            case "none":
+                return;
+            case "validate":
+                new SchemaValidator().validate(metadados.metadata, metadados.serviceRegistry);
+                return;
+            default:
+                // create e create-drop também viram update: um shard nunca é apagado pela aplicação
+                new SchemaUpdate().setHaltOnError(true)
+                        .execute(EnumSet.of(TargetType.DATABASE), metadados.metadata, metadados.serviceRegistry);
+        }
+    }
+
+    /**
+     * Só mexe nas sequences enquanto o shard não tem ids da própria faixa, ou seja, na primeira subida.
+     */
+    private void posicionarIds(long inicio) {
+        String banco = jdbcTemplate.execute((ConnectionCallback<String>) conexao -> conexao.getMetaData().getDatabaseProductName());
+        Long maiorLeitura = jdbcTemplate.queryForObject("SELECT MAX(id) FROM registrorfid", Long.class);
+        if (maiorLeitura == null || maiorLeitura < inicio) {
+            jdbcTemplate.execute("ALTER SEQUENCE registro_rfid_seq RESTART WITH " + (inicio + FOLGA_SEQUENCE));
+        }
+        Long maiorMoto = jdbcTemplate.queryForObject("SELECT MAX(id_moto) FROM moto", Long.class);
+        if (maiorMoto == null || maiorMoto < inicio) {
+            if ("PostgreSQL".equals(banco)) {
+                jdbcTemplate.queryForObject("SELECT setval(pg_get_serial_sequence('moto', 'id_moto'), ?, false)", Long.class, inicio + 1);
+            } else {
+                jdbcTemplate.execute("ALTER TABLE moto ALTER COLUMN id_moto RESTART WITH " + (inicio + 1));
+            }
+        }
+    }
+
+    /**
+     * Guarda o modelo de mapeamento montado pelo Hibernate para aplicá-lo aos outros shards.
+     * Registrado em hibernate.integrator_provider pelo {@link ShardingConfig}.
+     */
+    public static class Metadados implements Integrator {
+
+        private volatile Metadata metadata;
+        private volatile SessionFactoryServiceRegistry serviceRegistry;
+
+        @Override
+        public void integrate(Metadata metadata, SessionFactoryImplementor sessionFactory,
+                              SessionFactoryServiceRegistry serviceRegistry) {
+            this.metadata = metadata;
+            this.serviceRegistry = serviceRegistry;
+        }
+
+        @Override
+        public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+        }
+    }
+}
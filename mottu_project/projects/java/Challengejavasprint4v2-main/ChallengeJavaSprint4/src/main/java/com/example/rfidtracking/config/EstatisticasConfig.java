@@ -0,0 +1,27 @@
+package com.example.rfidtracking.config;
+
+import com.example.rfidtracking.repository.EstatisticasTabelas;
+import com.example.rfidtracking.repository.EstatisticasTabelasH2;
+import com.example.rfidtracking.repository.EstatisticasTabelasPostgres;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+
+@Configuration
+public class EstatisticasConfig {
+
+    @Bean
+    public EstatisticasTabelas estatisticasTabelas(DataSource dataSource, JdbcTemplate jdbcTemplate)
+            throws MetaDataAccessException {
+        String banco = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        if ("PostgreSQL".equals(banco)) {
+            return new EstatisticasTabelasPostgres(jdbcTemplate);
+        }
+        return new EstatisticasTabelasH2(jdbcTemplate);
+    }
+}
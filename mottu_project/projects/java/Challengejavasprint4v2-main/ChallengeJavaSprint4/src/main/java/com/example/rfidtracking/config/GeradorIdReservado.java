@@ -0,0 +1,20 @@
+package com.example.rfidtracking.config;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+import java.io.Serializable;
+
+/**
+ * Sequence que aceita um id reservado antes do persist: se a entidade já chega com id, ele é
+ * mantido; senão sai da sequence. Serve a quem precisa do id para preencher outros campos ainda no
+ * INSERT (ex.: o shard da filial), em vez de gravar e depois atualizar.
+ */
+public class GeradorIdReservado extends SequenceStyleGenerator {
+
+    @Override
+    public Serializable generate(SharedSessionContractImplementor session, Object object) {
+        Serializable reservado = session.getEntityPersister(null, object).getIdentifier(object, session);
+        return reservado != null ? reservado : super.generate(session, object);
+    }
+}
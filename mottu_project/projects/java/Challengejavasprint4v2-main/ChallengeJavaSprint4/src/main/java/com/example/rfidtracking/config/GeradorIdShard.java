@@ -0,0 +1,49 @@
+package com.example.rfidtracking.config;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.Optimizer;
+import org.hibernate.id.enhanced.OptimizerFactory;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sequence com um optimizer por shard. O optimizer pooled guarda em memória o bloco de ids lido da
+ * sequence; com um bloco só, ids lidos no shard 1 seriam entregues a leituras gravadas no shard 2 e
+ * ficariam fora da faixa dele. A sequence é lida pela conexão da sessão, que já é a do shard atual
+ * ({@link ContextoShard}). Sem sharding tudo roda no shard 0, pelo optimizer do próprio Hibernate.
+ */
+public class GeradorIdShard extends SequenceStyleGenerator {
+
+    private final Map<Integer, Optimizer> otimizadores = new ConcurrentHashMap<>();
+    private String estrategia;
+    private Class<?> tipo;
+    private int incremento;
+    private int valorInicial;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) {
+        super.configure(type, params, serviceRegistry);
+        // Mesmos parâmetros que o SequenceStyleGenerator usou para o optimizer do shard 0
+        valorInicial = determineInitialValue(params);
+        estrategia = determineOptimizationStrategy(params, determineIncrementSize(params));
+        incremento = determineAdjustedIncrementSize(estrategia, determineIncrementSize(params));
+        tipo = type.getReturnedClass();
+    }
+
+    @Override
+    public Serializable generate(SharedSessionContractImplementor session, Object object) {
+        int shard = ContextoShard.atual();
+        if (shard == 0) {
+            return super.generate(session, object);
+        }
+        Optimizer optimizer = otimizadores.computeIfAbsent(shard,
+                s -> OptimizerFactory.buildOptimizer(estrategia, tipo, incremento, valorInicial));
+        return optimizer.generate(getDatabaseStructure().buildCallback(session));
+    }
+}
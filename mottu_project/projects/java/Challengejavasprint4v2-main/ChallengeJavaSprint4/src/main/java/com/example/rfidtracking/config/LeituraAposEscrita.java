@@ -0,0 +1,97 @@
+package com.example.rfidtracking.config;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Read-your-writes: depois de confirmar uma escrita, as leituras do mesmo cliente vão ao primário
+ * por uma janela curta, até a réplica alcançá-lo. Em requisições HTTP o prazo segue num cookie;
+ * fora delas (threads da aplicação) vale para a própria thread.
+ */
+public class LeituraAposEscrita {
+
+    static final String COOKIE = "rfid-escrita";
+
+    private final long janelaMs;
+    private final ThreadLocal<Long> prazoDaThread = new ThreadLocal<>();
+
+    public LeituraAposEscrita(long janelaMs) {
+        this.janelaMs = janelaMs;
+    }
+
+    /**
+     * Chamado ao entregar uma conexão do primário para uma transação de escrita: o prazo só começa
+     * a valer se ela for confirmada.
+     */
+    void aoAbrirEscrita() {
+        if (janelaMs <= 0 || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                registrarEscrita();
+            }
+        });
+    }
+
+    boolean lerDoPrimario() {
+        if (janelaMs <= 0) {
+            return false;
+        }
+        long agora = System.currentTimeMillis();
+        HttpServletRequest request = requisicaoAtual();
+        if (request == null) {
+            Long prazo = prazoDaThread.get();
+            return prazo != null && prazo > agora;
+        }
+        // Escrita feita na própria requisição, antes de o cookie chegar ao cliente
+        Object prazoDaRequisicao = request.getAttribute(COOKIE);
+        if (prazoDaRequisicao != null && (Long) prazoDaRequisicao > agora) {
+            return true;
+        }
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (COOKIE.equals(cookie.getName())) {
+                    try {
+                        return Long.parseLong(cookie.getValue()) > agora;
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private void registrarEscrita() {
+        long prazo = System.currentTimeMillis() + janelaMs;
+        RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+        if (!(atributos instanceof ServletRequestAttributes)) {
+            prazoDaThread.set(prazo);
+            return;
+        }
+        ((ServletRequestAttributes) atributos).getRequest().setAttribute(COOKIE, prazo);
+        HttpServletResponse response = ((ServletRequestAttributes) atributos).getResponse();
+        if (response != null && !response.isCommitted()) {
+            Cookie cookie = new Cookie(COOKIE, Long.toString(prazo));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, (janelaMs + 999) / 1000));
+            response.addCookie(cookie);
+        }
+    }
+
+    private static HttpServletRequest requisicaoAtual() {
+        RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+        return atributos instanceof ServletRequestAttributes ? ((ServletRequestAttributes) atributos).getRequest() : null;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.rfidtracking.config;
+
+import com.example.rfidtracking.dto.RegistroRFIDDTO;
+import com.example.rfidtracking.service.CodecLoteRegistros;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Lê {@code List<RegistroRFIDDTO>} no formato {@link CodecLoteRegistros#MEDIA_TYPE}, ao lado do JSON,
+ * nos endpoints de lote. O corpo é lido num buffer reaproveitado pela thread da requisição.
+ */
+public class LoteBinarioHttpMessageConverter extends AbstractGenericHttpMessageConverter<List<RegistroRFIDDTO>> {
+
+    private static final int BUFFER_INICIAL = 8 * 1024;
+
+    private final CodecLoteRegistros codec;
+    private final int maxItens;
+    private final int maxBytes;
+    private final ThreadLocal<byte[]> buffers = ThreadLocal.withInitial(() -> new byte[BUFFER_INICIAL]);
+
+    public LoteBinarioHttpMessageConverter(CodecLoteRegistros codec, int maxItens, int maxBytes) {
+        super(MediaType.parseMediaType(CodecLoteRegistros.MEDIA_TYPE));
+        this.codec = codec;
+        this.maxItens = maxItens;
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return List.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        ResolvableType tipo = ResolvableType.forType(type);
+        return List.class.isAssignableFrom(tipo.toClass())
+                && RegistroRFIDDTO.class.equals(tipo.asCollection().resolveGeneric(0))
+                && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public List<RegistroRFIDDTO> read(Type type, Class<?> contextClass, HttpInputMessage inputMessage)
+            throws IOException, HttpMessageNotReadableException {
+        return readInternal(null, inputMessage);
+    }
+
+    @Override
+    protected List<RegistroRFIDDTO> readInternal(Class<? extends List<RegistroRFIDDTO>> clazz, HttpInputMessage inputMessage)
+            throws IOException, HttpMessageNotReadableException {
+        byte[] buffer = buffers.get();
+        int tamanho = 0;
+        InputStream corpo = inputMessage.getBody();
+        while (true) {
+            if (tamanho == buffer.length) {
+                if (buffer.length >= maxBytes) {
+                    throw new HttpMessageNotReadableException("Lote excede o limite de " + maxBytes + " bytes", inputMessage);
+                }
+                buffer = Arrays.copyOf(buffer, Math.min(buffer.length * 2, maxBytes));
+                buffers.set(buffer);
+            }
+            int lidos = corpo.read(buffer, tamanho, buffer.length - tamanho);
+            if (lidos < 0) {
+                break;
+            }
+            tamanho += lidos;
+        }
+        try {
+            return codec.decodificar(buffer, tamanho, maxItens);
+        } catch (IllegalArgumentException e) {
+            throw new HttpMessageNotReadableException(e.getMessage(), e, inputMessage);
+        }
+    }
+
+    @Override
+    protected void writeInternal(List<RegistroRFIDDTO> registros, Type type, HttpOutputMessage outputMessage)
+            throws HttpMessageNotWritableException {
+        throw new HttpMessageNotWritableException("Formato " + CodecLoteRegistros.MEDIA_TYPE + " é só de entrada");
+    }
+}
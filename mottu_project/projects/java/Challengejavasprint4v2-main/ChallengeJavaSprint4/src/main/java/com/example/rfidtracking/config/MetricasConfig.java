@@ -0,0 +1,98 @@
+package com.example.rfidtracking.config;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class MetricasConfig {
+
+    /**
+     * Mede os métodos públicos das classes anotadas com {@link Timed}. Fica por fora das transações
+     * e do cache, então inclui o commit e também os acertos de cache. Os histogramas (buckets) são
+     * configurados em management.metrics.distribution.* no application.properties.
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor temporizadorServicos(ObjectProvider<MeterRegistry> registry) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(new MetodosTemporizados(), new TemporizadorServicos(registry));
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
+    private static final class MetodosTemporizados extends StaticMethodMatcherPointcut {
+
+        MetodosTemporizados() {
+            setClassFilter(ClassFilter.TRUE);
+        }
+
+        @Override
+        public boolean matches(Method method, Class<?> targetClass) {
+            return AnnotatedElementUtils.hasAnnotation(targetClass, Timed.class)
+                    && Modifier.isPublic(method.getModifiers())
+                    && method.getDeclaringClass() != Object.class
+                    // bindTo roda enquanto o próprio MeterRegistry ainda está sendo criado
+                    && !(MeterBinder.class.isAssignableFrom(targetClass) && "bindTo".equals(method.getName()));
+        }
+    }
+
+    /**
+     * O timer de cada método é resolvido uma vez e guardado; na chamada só há a leitura do relógio
+     * e o registro no histograma.
+     */
+    private static final class TemporizadorServicos implements MethodInterceptor {
+
+        private final ObjectProvider<MeterRegistry> registry;
+        private final ConcurrentMap<Method, Timer> timers = new ConcurrentHashMap<>();
+
+        TemporizadorServicos(ObjectProvider<MeterRegistry> registry) {
+            this.registry = registry;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            long inicio = System.nanoTime();
+            try {
+                Object retorno = invocation.proceed();
+                timers.computeIfAbsent(invocation.getMethod(), metodo -> timer(invocation, "none"))
+                        .record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+                return retorno;
+            } catch (Throwable e) {
+                timer(invocation, e.getClass().getSimpleName()).record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+                throw e;
+            }
+        }
+
+        private Timer timer(MethodInvocation invocation, String excecao) {
+            Class<?> alvo = AopUtils.getTargetClass(invocation.getThis());
+            Timed timed = AnnotatedElementUtils.findMergedAnnotation(alvo, Timed.class);
+            return Timer.builder(timed.value().isEmpty() ? "rfid.servico" : timed.value())
+                    .description(timed.description().isEmpty() ? null : timed.description())
+                    .tag("class", alvo.getSimpleName())
+                    .tag("method", invocation.getMethod().getName())
+                    .tag("exception", excecao)
+                    .register(registry.getObject());
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.rfidtracking.config;
+
+import com.example.rfidtracking.repository.ParticionamentoRegistros;
+import com.example.rfidtracking.repository.ParticionamentoRegistrosH2;
+import com.example.rfidtracking.repository.ParticionamentoRegistrosPostgres;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+
+@Configuration
+public class ParticionamentoConfig {
+
+    @Bean
+    public ParticionamentoRegistros particionamentoRegistros(DataSource dataSource, JdbcTemplate jdbcTemplate,
+                                                             TransactionTemplate transactionTemplate,
+                                                             @Value("${rfid.retencao.esquema-arquivo:arquivo}") String esquemaArquivo,
+                                                             @Value("${rfid.retencao.converter-tabela:false}") boolean converterTabela)
+            throws MetaDataAccessException {
+        // O nome entra direto no DDL, então só aceita identificadores simples
+        if (!esquemaArquivo.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalArgumentException("Esquema de arquivo inválido: " + esquemaArquivo);
+        }
+        String banco = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        if ("PostgreSQL".equals(banco)) {
+            return new ParticionamentoRegistrosPostgres(jdbcTemplate, transactionTemplate, esquemaArquivo, converterTabela);
+        }
+        return new ParticionamentoRegistrosH2(jdbcTemplate, transactionTemplate);
+    }
+}
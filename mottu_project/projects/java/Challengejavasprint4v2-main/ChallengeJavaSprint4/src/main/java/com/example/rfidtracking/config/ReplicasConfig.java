@@ -0,0 +1,71 @@
+package com.example.rfidtracking.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Réplicas de leitura (rfid.datasource.replicas.*): as transações {@code readOnly} vão para as
+ * réplicas e as demais para o primário de spring.datasource.*. Sem a propriedade habilitada a
+ * aplicação usa só o DataSource padrão do Spring Boot.
+ */
+@Configuration
+@ConditionalOnProperty(name = "rfid.datasource.replicas.habilitado", havingValue = "true")
+public class ReplicasConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primarioDataSource(DataSourceProperties properties) {
+        HikariDataSource primario = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primario.setPoolName("primario");
+        return primario;
+    }
+
+    @Bean(destroyMethod = "fechar")
+    public RoteadorDataSource roteadorDataSource(HikariDataSource primarioDataSource, DataSourceProperties properties,
+                                                 @Value("${rfid.datasource.replicas.urls}") List<String> urls,
+                                                 @Value("${rfid.datasource.replicas.username:}") String username,
+                                                 @Value("${rfid.datasource.replicas.password:}") String password,
+                                                 @Value("${rfid.datasource.replicas.tamanho-pool:10}") int tamanhoPool,
+                                                 @Value("${rfid.datasource.replicas.timeout-conexao-ms:1000}") long timeoutConexaoMs,
+                                                 @Value("${rfid.datasource.replicas.max-atraso-ms:10000}") long maxAtrasoMs,
+                                                 @Value("${rfid.datasource.replicas.leitura-apos-escrita-ms:5000}") long leituraAposEscritaMs) {
+        if (urls.isEmpty()) {
+            throw new IllegalArgumentException("rfid.datasource.replicas.urls precisa de ao menos uma URL");
+        }
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + i);
+            replica.setJdbcUrl(urls.get(i).trim());
+            // Sem usuário próprio as réplicas usam as mesmas credenciais do primário
+            boolean credenciaisProprias = !username.isEmpty();
+            replica.setUsername(credenciaisProprias ? username : properties.determineUsername());
+            replica.setPassword(credenciaisProprias ? password : properties.determinePassword());
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setMaximumPoolSize(tamanhoPool);
+            replica.setReadOnly(true);
+            // Réplica fora do ar não pode segurar a leitura: desiste rápido e o roteador usa o primário
+            replica.setConnectionTimeout(timeoutConexaoMs);
+            replica.setInitializationFailTimeout(-1);
+            replicas.add(replica);
+        }
+        return new RoteadorDataSource(primarioDataSource, replicas, maxAtrasoMs, new LeituraAposEscrita(leituraAposEscritaMs));
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(RoteadorDataSource roteadorDataSource) {
+        return new LazyConnectionDataSourceProxy(roteadorDataSource);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.rfidtracking.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Limites dos caches da aplicação ({@code rfid.cache.*}). Caches sem entrada própria em
+ * {@code caches} usam a especificação {@code padrao}.
+ */
+@ConfigurationProperties(prefix = "rfid.cache")
+public class RfidCacheProperties {
+
+    private Especificacao padrao = new Especificacao();
+    private Map<String, Especificacao> caches = new LinkedHashMap<>();
+
+    public Especificacao getPadrao() {
+        return padrao;
+    }
+
+    public void setPadrao(Especificacao padrao) {
+        this.padrao = padrao;
+    }
+
+    public Map<String, Especificacao> getCaches() {
+        return caches;
+    }
+
+    public void setCaches(Map<String, Especificacao> caches) {
+        this.caches = caches;
+    }
+
+    public static class Especificacao {
+        private long tamanhoMaximo = 1000;
+        private Duration ttl = Duration.ofMinutes(10);
+
+        public long getTamanhoMaximo() {
+            return tamanhoMaximo;
+        }
+
+        public void setTamanhoMaximo(long tamanhoMaximo) {
+            this.tamanhoMaximo = tamanhoMaximo;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.rfidtracking.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Envia as transações somente leitura para as réplicas (em rodízio entre as saudáveis) e todo o
+ * resto para o primário. Precisa ficar atrás de um LazyConnectionDataSourceProxy, porque a
+ * transação só é marcada como somente leitura depois que o JpaTransactionManager pede a conexão.
+ * Uma réplica que falha ao entregar conexão é tirada do rodízio até a próxima verificação.
+ */
+public class RoteadorDataSource extends AbstractDataSource implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(RoteadorDataSource.class);
+    private static final int TIMEOUT_VALIDACAO_S = 2;
+    // Em dia quando tudo o que foi recebido já foi aplicado; senão, idade da última transação aplicada
+    private static final String ATRASO_POSTGRES = "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+
+    private final DataSource primario;
+    private final List<Replica> replicas;
+    private final long maxAtrasoMs;
+    private final LeituraAposEscrita leituraAposEscrita;
+    private final AtomicInteger proxima = new AtomicInteger();
+
+    private final LongAdder leiturasReplica = new LongAdder();
+    private final LongAdder leiturasPrimario = new LongAdder();
+    private final LongAdder escritas = new LongAdder();
+    private final LongAdder falhasReplica = new LongAdder();
+
+    public RoteadorDataSource(DataSource primario, List<HikariDataSource> replicas, long maxAtrasoMs,
+                              LeituraAposEscrita leituraAposEscrita) {
+        this.primario = primario;
+        this.replicas = replicas.stream().map(Replica::new).collect(Collectors.toList());
+        this.maxAtrasoMs = maxAtrasoMs;
+        this.leituraAposEscrita = leituraAposEscrita;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return conectar(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return conectar(destino -> destino.getConnection(username, password));
+    }
+
+    private Connection conectar(Conector conector) throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            escritas.increment();
+            leituraAposEscrita.aoAbrirEscrita();
+            return conector.abrir(primario);
+        }
+        if (!leituraAposEscrita.lerDoPrimario()) {
+            int n = replicas.size();
+            int inicio = Math.floorMod(proxima.getAndIncrement(), n);
+            for (int i = 0; i < n; i++) {
+                Replica replica = replicas.get((inicio + i) % n);
+                if (!replica.saudavel) {
+                    continue;
+                }
+                try {
+                    Connection conexao = conector.abrir(replica.pool);
+                    leiturasReplica.increment();
+                    return conexao;
+                } catch (SQLFeatureNotSupportedException e) {
+                    // O pool não aceita credenciais por chamada; a réplica continua saudável
+                    throw e;
+                } catch (SQLException e) {
+                    falhasReplica.increment();
+                    replica.marcar(false, e.getMessage());
+                }
+            }
+        }
+        leiturasPrimario.increment();
+        return conector.abrir(primario);
+    }
+
+    /**
+     * Testa cada réplica: conexão válida e, no PostgreSQL, atraso de replicação até {@code maxAtrasoMs}.
+     */
+    @Scheduled(fixedDelayString = "${rfid.datasource.replicas.intervalo-verificacao-ms:5000}")
+    public void verificarReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection conexao = replica.pool.getConnection()) {
+                if (!conexao.isValid(TIMEOUT_VALIDACAO_S)) {
+                    replica.marcar(false, "conexão inválida");
+                    continue;
+                }
+                long atrasoMs = atrasoMs(conexao);
+                if (atrasoMs > maxAtrasoMs) {
+                    replica.marcar(false, "atraso de replicação de " + atrasoMs + " ms");
+                } else {
+                    replica.marcar(true, null);
+                }
+            } catch (SQLException e) {
+                replica.marcar(false, e.getMessage());
+            }
+        }
+    }
+
+    private static long atrasoMs(Connection conexao) throws SQLException {
+        if (!"PostgreSQL".equals(conexao.getMetaData().getDatabaseProductName())) {
+            return 0;
+        }
+        try (Statement statement = conexao.createStatement(); ResultSet rs = statement.executeQuery(ATRASO_POSTGRES)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    private int quantidadeSaudaveis() {
+        return (int) replicas.stream().filter(replica -> replica.saudavel).count();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Replica replica : replicas) {
+            replica.pool.setMetricRegistry(registry);
+        }
+        Gauge.builder("rfid.datasource.replicas.saudaveis", this, RoteadorDataSource::quantidadeSaudaveis)
+                .register(registry);
+        conexoes(registry, "replica", leiturasReplica);
+        conexoes(registry, "primario_leitura", leiturasPrimario);
+        conexoes(registry, "primario_escrita", escritas);
+        FunctionCounter.builder("rfid.datasource.replicas.falhas", falhasReplica, LongAdder::sum)
+                .register(registry);
+    }
+
+    private static void conexoes(MeterRegistry registry, String destino, LongAdder valor) {
+        FunctionCounter.builder("rfid.datasource.conexoes", valor, LongAdder::sum)
+                .description("Conexões entregues pelo roteador, por destino")
+                .tag("destino", destino)
+                .register(registry);
+    }
+
+    public void fechar() {
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    @FunctionalInterface
+    private interface Conector {
+        Connection abrir(DataSource destino) throws SQLException;
+    }
+
+    private static final class Replica {
+        private final HikariDataSource pool;
+        // Disponível até a primeira verificação dizer o contrário
+        private volatile boolean saudavel = true;
+
+        private Replica(HikariDataSource pool) {
+            this.pool = pool;
+        }
+
+        private synchronized void marcar(boolean saudavel, String motivo) {
+            if (this.saudavel == saudavel) {
+                return;
+            }
+            this.saudavel = saudavel;
+            if (saudavel) {
+                log.info("Réplica {} voltou ao rodízio de leituras", pool.getPoolName());
+            } else {
+                log.warn("Réplica {} fora do rodízio de leituras: {}", pool.getPoolName(), motivo);
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.rfidtracking.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Entrega a conexão do shard definido em {@link ContextoShard}. O shard 0 é o banco de
+ * spring.datasource.*, que também guarda as tabelas globais (filiais, importações, agregados);
+ * os demais recebem só as motos e leituras das filiais mapeadas para eles.
+ */
+public class RoteadorShards extends AbstractRoutingDataSource implements MeterBinder {
+
+    private final List<HikariDataSource> shards;
+
+    public RoteadorShards(List<HikariDataSource> shards) {
+        this.shards = shards;
+        Map<Object, Object> destinos = new HashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            destinos.put(i, shards.get(i));
+        }
+        setTargetDataSources(destinos);
+        // Shard desconhecido é erro de roteamento, nunca motivo para cair no shard 0
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    public int quantidade() {
+        return shards.size();
+    }
+
+    /**
+     * Transação sem shard definido é falha de roteamento: cair no shard 0 gravaria motos e leituras
+     * de outro shard no lugar errado sem erro nenhum. Fora de transação (inicialização do esquema,
+     * scripts, JdbcTemplate avulso) o shard 0 continua sendo o padrão.
+     */
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Integer shard = ContextoShard.definido();
+        if (shard != null) {
+            return shard;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Transação aberta sem shard definido; use Shards.em/global antes do primeiro SQL");
+        }
+        return 0;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        // O shard 0 é um bean e já é instrumentado pelo Spring Boot
+        for (int i = 1; i < shards.size(); i++) {
+            shards.get(i).setMetricRegistry(registry);
+        }
+    }
+
+    public void fechar() {
+        for (int i = 1; i < shards.size(); i++) {
+            shards.get(i).close();
+        }
+    }
+}
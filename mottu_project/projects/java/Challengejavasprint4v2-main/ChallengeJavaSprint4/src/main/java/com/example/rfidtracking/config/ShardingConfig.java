@@ -0,0 +1,97 @@
+package com.example.rfidtracking.config;
+
+import com.example.rfidtracking.repository.ReplicacaoFiliais;
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Sharding por filial (rfid.sharding.*): o shard 0 é o banco de spring.datasource.* e cada URL de
+ * rfid.sharding.urls é um shard a mais. O shard de cada operação vem de {@link ContextoShard},
+ * definido pelos serviços através de com.example.rfidtracking.service.Shards. Sem a propriedade
+ * habilitada a aplicação usa só o DataSource padrão do Spring Boot.
+ */
+@Configuration
+@ConditionalOnProperty(name = "rfid.sharding.habilitado", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource shard0DataSource(DataSourceProperties properties,
+                                             @Value("${rfid.datasource.replicas.habilitado:false}") boolean replicas) {
+        // Cada shard precisaria das próprias réplicas; a combinação não é suportada
+        if (replicas) {
+            throw new IllegalStateException("rfid.sharding.habilitado e rfid.datasource.replicas.habilitado são exclusivos");
+        }
+        HikariDataSource shard0 = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        shard0.setPoolName("shard-0");
+        return shard0;
+    }
+
+    @Bean(destroyMethod = "fechar")
+    public RoteadorShards roteadorShards(HikariDataSource shard0DataSource, DataSourceProperties properties,
+                                         @Value("${rfid.sharding.urls}") List<String> urls,
+                                         @Value("${rfid.sharding.username:}") String username,
+                                         @Value("${rfid.sharding.password:}") String password,
+                                         @Value("${rfid.sharding.tamanho-pool:10}") int tamanhoPool) {
+        if (urls.isEmpty()) {
+            throw new IllegalArgumentException("rfid.sharding.urls precisa de ao menos uma URL");
+        }
+        List<HikariDataSource> shards = new ArrayList<>();
+        shards.add(shard0DataSource);
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource shard = new HikariDataSource();
+            shard.setPoolName("shard-" + (i + 1));
+            shard.setJdbcUrl(urls.get(i).trim());
+            // Sem usuário próprio os shards usam as mesmas credenciais do shard 0
+            boolean credenciaisProprias = !username.isEmpty();
+            shard.setUsername(credenciaisProprias ? username : properties.determineUsername());
+            shard.setPassword(credenciaisProprias ? password : properties.determinePassword());
+            shard.setDriverClassName(properties.determineDriverClassName());
+            shard.setMaximumPoolSize(tamanhoPool);
+            shards.add(shard);
+        }
+        return new RoteadorShards(shards);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(RoteadorShards roteadorShards) {
+        // A conexão só é escolhida no primeiro SQL, então o serviço pode definir o shard já dentro da transação
+        return new LazyConnectionDataSourceProxy(roteadorShards);
+    }
+
+    @Bean
+    public EsquemaShards.Metadados metadadosHibernate() {
+        return new EsquemaShards.Metadados();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer integradorMetadados(EsquemaShards.Metadados metadadosHibernate) {
+        return propriedades -> propriedades.put("hibernate.integrator_provider",
+                (IntegratorProvider) () -> Collections.singletonList(metadadosHibernate));
+    }
+
+    @Bean
+    public EsquemaShards esquemaShards(EntityManagerFactory entityManagerFactory, EsquemaShards.Metadados metadadosHibernate,
+                                       RoteadorShards roteadorShards, JdbcTemplate jdbcTemplate, ReplicacaoFiliais replicacaoFiliais,
+                                       @Value("${spring.jpa.hibernate.ddl-auto:none}") String ddlAuto) {
+        // entityManagerFactory só garante a ordem: o esquema do shard 0 precisa existir antes
+        return new EsquemaShards(metadadosHibernate, roteadorShards.quantidade(), jdbcTemplate, replicacaoFiliais, ddlAuto);
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.rfidtracking.config;
+
+import com.example.rfidtracking.model.RegistroRFID;
+import com.example.rfidtracking.service.CodecLoteRegistros;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final int maxItensLote;
+    private final int maxBytesLoteBinario;
+
+    public WebConfig(@Value("${rfid.ingest.batch.max-itens:1000}") int maxItensLote,
+                     @Value("${rfid.ingest.binario.max-bytes:262144}") int maxBytesLoteBinario) {
+        this.maxItensLote = maxItensLote;
+        this.maxBytesLoteBinario = maxBytesLoteBinario;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Só é escolhido quando o Content-Type é o do formato binário; JSON continua com o Jackson
+        converters.add(0, new LoteBinarioHttpMessageConverter(new CodecLoteRegistros(RegistroRFID.FUSO_DATA_HORA),
+                maxItensLote, maxBytesLoteBinario));
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.rfidtracking.controller;
+
+import com.example.rfidtracking.dto.AgregadoLeiturasDTO;
+import com.example.rfidtracking.service.AgregacaoLeiturasService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/agregados")
+public class AgregadoLeiturasController {
+
+    private final AgregacaoLeiturasService agregacaoLeiturasService;
+
+    public AgregadoLeiturasController(AgregacaoLeiturasService agregacaoLeiturasService) {
+        this.agregacaoLeiturasService = agregacaoLeiturasService;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<AgregadoLeiturasDTO>> listar(
+            @RequestParam(defaultValue = "HORA") String granularidade,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime de,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime ate,
+            @RequestParam(required = false) Long filialId,
+            @RequestParam(required = false) String pontoLeitura,
+            @RequestParam(defaultValue = "PONTO_FILIAL") AgregacaoLeiturasService.Agrupamento agrupamento) {
+        return ResponseEntity.ok(agregacaoLeiturasService.listar(granularidade, de, ate, filialId, pontoLeitura, agrupamento));
+    }
+
+    @PostMapping("/recalcular")
+    public ResponseEntity<Void> recalcular(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime de,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime ate) {
+        // Para preencher os agregados com histórico anterior à sua criação ou após correções em massa
+        agregacaoLeiturasService.recalcular(de, ate);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.rfidtracking.controller;
+
+import com.example.rfidtracking.dto.CacheStatsDTO;
+import com.example.rfidtracking.service.CacheStatsService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/cache")
+public class CacheController {
+
+    private final CacheStatsService cacheStatsService;
+
+    public CacheController(CacheStatsService cacheStatsService) {
+        this.cacheStatsService = cacheStatsService;
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<List<CacheStatsDTO>> estatisticas() {
+        return ResponseEntity.ok(cacheStatsService.listar());
+    }
+}
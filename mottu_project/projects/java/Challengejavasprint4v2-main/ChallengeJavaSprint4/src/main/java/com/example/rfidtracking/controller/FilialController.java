@@ -0,0 +1,63 @@
+package com.example.rfidtracking.controller;
+
+import com.example.rfidtracking.dto.FilialDTO;
+import com.example.rfidtracking.service.FilialService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/filiais")
+public class FilialController {
+
+    private final FilialService filialService;
+
+    public FilialController(FilialService filialService) {
+        this.filialService = filialService;
+    }
+
+    // Inclui o shard de cada filial (o mapeamento filial → shard)
+    @GetMapping
+    public ResponseEntity<List<FilialDTO>> listar(WebRequest request) {
+        List<FilialDTO> filiais = filialService.listarTodas();
+        String etag = RespostasCondicionais.etag(String.valueOf(filiais.size()), filiais, RespostasCondicionais::impressao);
+        return RespostasCondicionais.lista(request, filiais, etag);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<FilialDTO> buscarPorId(@PathVariable Long id, WebRequest request) {
+        return RespostasCondicionais.recurso(request, filialService.buscarVersao(id), () -> filialService.buscarPorId(id));
+    }
+
+    @PostMapping
+    public ResponseEntity<FilialDTO> criar(@RequestBody FilialDTO dto) {
+        FilialDTO filialSalva = filialService.salvar(dto);
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}")
+                .buildAndExpand(filialSalva.getIdFilial()).toUri();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setLocation(location);
+        return new ResponseEntity<>(filialSalva, headers, HttpStatus.CREATED);
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<FilialDTO> atualizar(@PathVariable Long id, @RequestBody FilialDTO dto) {
+        return ResponseEntity.ok(filialService.atualizar(id, dto));
+    }
+
+    @PutMapping("/{id}/shard")
+    public ResponseEntity<FilialDTO> definirShard(@PathVariable Long id, @RequestParam int shard) {
+        return ResponseEntity.ok(filialService.definirShard(id, shard));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deletar(@PathVariable Long id) {
+        filialService.deletar(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.rfidtracking.controller;
+
+import com.example.rfidtracking.dto.AnalisePermanenciaDTO;
+import com.example.rfidtracking.service.JornadaMotoService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/api/jornadas")
+public class JornadaController {
+
+    private final JornadaMotoService jornadaMotoService;
+
+    public JornadaController(JornadaMotoService jornadaMotoService) {
+        this.jornadaMotoService = jornadaMotoService;
+    }
+
+    @GetMapping("/permanencia")
+    public ResponseEntity<AnalisePermanenciaDTO> analisarPermanencia(
+            @RequestParam(required = false) Long filialId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime de,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime ate) {
+        return ResponseEntity.ok(jornadaMotoService.analisarPermanencia(filialId, de, ate));
+    }
+}
@@ -1,27 +1,48 @@
 package com.example.rfidtracking.controller;
 
+import com.example.rfidtracking.dto.FatiaDTO;
 import com.example.rfidtracking.dto.MotoDTO;
+import com.example.rfidtracking.dto.PosicaoMotoDTO;
+import com.example.rfidtracking.dto.RegistroRFIDDTO;
+import com.example.rfidtracking.dto.VisitaDTO;
+import com.example.rfidtracking.service.JornadaMotoService;
 import com.example.rfidtracking.service.MotoService;
+import com.example.rfidtracking.service.PosicaoMotoService;
+import com.example.rfidtracking.service.RegistroRFIDService;
 import javax.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/motos")
 public class MotoController {
 
     private final MotoService motoService;
+    private final RegistroRFIDService registroRFIDService;
+    private final PosicaoMotoService posicaoMotoService;
+    private final JornadaMotoService jornadaMotoService;
 
-    public MotoController(MotoService motoService) {
+    public MotoController(MotoService motoService, RegistroRFIDService registroRFIDService, PosicaoMotoService posicaoMotoService,
+                          JornadaMotoService jornadaMotoService) {
         this.motoService = motoService;
+        this.registroRFIDService = registroRFIDService;
+        this.posicaoMotoService = posicaoMotoService;
+        this.jornadaMotoService = jornadaMotoService;
     }
 
     @GetMapping
@@ -29,15 +50,67 @@ public class MotoController {
             Pageable pageable,
             @RequestParam(required = false) String modelo,
             @RequestParam(required = false) String placa,
-            @RequestParam(required = false) String status) {
+            @RequestParam(required = false) String status,
+            WebRequest request) {
         Page<MotoDTO> pagina = motoService.listar(pageable, modelo, placa, status);
-        return ResponseEntity.ok(pagina);
+        String etag = RespostasCondicionais.etag(pagina.getNumber() + "/" + pagina.getSize() + "/" + pagina.getTotalElements(),
+                pagina.getContent(), RespostasCondicionais::impressao);
+        return RespostasCondicionais.lista(request, pagina, etag);
+    }
+
+    // Sem contagem: para listas grandes, navegar com temProxima (e, sem filtros, exibir o total aproximado)
+    @GetMapping("/fatia")
+    public ResponseEntity<FatiaDTO<MotoDTO>> fatiar(
+            Pageable pageable,
+            @RequestParam(required = false) String modelo,
+            @RequestParam(required = false) String placa,
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "false") boolean totalAproximado,
+            WebRequest request) {
+        Slice<MotoDTO> fatia = motoService.fatiar(pageable, modelo, placa, status);
+        Long total = totalAproximado ? motoService.totalAproximado(modelo, placa, status) : null;
+        String etag = RespostasCondicionais.etag(fatia.getNumber() + "/" + fatia.getSize() + "/" + fatia.hasNext() + "/" + total,
+                fatia.getContent(), RespostasCondicionais::impressao);
+        return RespostasCondicionais.lista(request, new FatiaDTO<>(fatia, total), etag);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<MotoDTO> buscarPorId(@PathVariable Long id) {
-        MotoDTO dto = motoService.buscarPorId(id);
-        return ResponseEntity.ok(dto);
+    public ResponseEntity<MotoDTO> buscarPorId(@PathVariable Long id, WebRequest request) {
+        // Com If-None-Match/If-Modified-Since em dia, só a versão é consultada
+        return RespostasCondicionais.recurso(request, motoService.buscarVersao(id), () -> motoService.buscarPorId(id));
+    }
+
+    @GetMapping("/{id}/registros")
+    public ResponseEntity<Page<RegistroRFIDDTO>> listarRegistros(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime ate,
+            @PageableDefault(sort = "dataHora", direction = Sort.Direction.DESC) Pageable pageable,
+            WebRequest request) {
+        Page<RegistroRFIDDTO> pagina = registroRFIDService.listarPorMoto(id, null, de, ate, pageable);
+        String etag = RespostasCondicionais.etag(pagina.getNumber() + "/" + pagina.getSize() + "/" + pagina.getTotalElements(),
+                pagina.getContent(), RespostasCondicionais::impressao);
+        return RespostasCondicionais.lista(request, pagina, etag);
+    }
+
+    @GetMapping("/{id}/jornada")
+    public ResponseEntity<List<VisitaDTO>> reconstruirJornada(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime de,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime ate) {
+        return ResponseEntity.ok(jornadaMotoService.reconstruirJornada(id, de, ate));
+    }
+
+    @GetMapping("/{id}/posicao")
+    public ResponseEntity<PosicaoMotoDTO> buscarPosicao(@PathVariable Long id) {
+        return posicaoMotoService.buscarPorMoto(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/posicoes")
+    public ResponseEntity<List<PosicaoMotoDTO>> listarPosicoes(@RequestParam Long filialId) {
+        return ResponseEntity.ok(posicaoMotoService.listarPorFilial(filialId));
     }
 
     @PostMapping
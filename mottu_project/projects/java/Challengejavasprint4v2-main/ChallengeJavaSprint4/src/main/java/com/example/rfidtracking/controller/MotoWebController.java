@@ -10,6 +10,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -44,9 +45,11 @@ public class MotoWebController {
             Model model) {
         
         Pageable pageable = PageRequest.of(page, size, Sort.by("id").descending());
-        Page<MotoDTO> motos = motoService.listar(pageable, modelo, placa, status);
+        // Fatia em vez de Page: a listagem não paga o COUNT(*) com os filtros a cada navegação
+        Slice<MotoDTO> motos = motoService.fatiar(pageable, modelo, placa, status);
         
         model.addAttribute("motos", motos);
+        model.addAttribute("totalAproximado", motoService.totalAproximado(modelo, placa, status));
         return "motos/list";
     }
 
@@ -56,15 +59,11 @@ public class MotoWebController {
             MotoDTO moto = motoService.buscarPorId(id);
             model.addAttribute("moto", moto);
             
-            // Buscar registros RFID da moto
+            // Buscar os registros RFID mais recentes da moto
             try {
                 Pageable pageable = PageRequest.of(0, 10, Sort.by("dataHora").descending());
-                Page<RegistroRFIDDTO> registros = registroRFIDService.listar("", pageable);
-                // Filtrar registros da moto específica
-                List<RegistroRFIDDTO> registrosDaMoto = registros.getContent().stream()
-                    .filter(r -> r.getMotoId() != null && r.getMotoId().equals(id))
-                    .collect(java.util.stream.Collectors.toList());
-                model.addAttribute("registros", registrosDaMoto);
+                Page<RegistroRFIDDTO> registros = registroRFIDService.listarPorMoto(id, null, null, null, pageable);
+                model.addAttribute("registros", registros.getContent());
             } catch (Exception e) {
                 model.addAttribute("registros", java.util.Collections.emptyList());
             }
@@ -1,41 +1,178 @@
 package com.example.rfidtracking.controller;
 
+import com.example.rfidtracking.dto.DeduplicacaoStatsDTO;
+import com.example.rfidtracking.dto.FatiaDTO;
+import com.example.rfidtracking.dto.ImportacaoRFIDDTO;
+import com.example.rfidtracking.dto.IngestStatsDTO;
+import com.example.rfidtracking.dto.LeitoresStatsDTO;
+import com.example.rfidtracking.dto.RegistroRFIDBatchResultDTO;
+import com.example.rfidtracking.dto.RegistroRFIDCursorPageDTO;
 import com.example.rfidtracking.dto.RegistroRFIDDTO;
+import com.example.rfidtracking.service.DeduplicadorLeituras;
+import com.example.rfidtracking.service.FeedRegistrosService;
+import com.example.rfidtracking.service.FormatoExportacao;
+import com.example.rfidtracking.service.ReceptorLeitoresService;
+import com.example.rfidtracking.service.RegistroRFIDExportService;
+import com.example.rfidtracking.service.RegistroRFIDImportService;
+import com.example.rfidtracking.service.RegistroRFIDIngestService;
 import com.example.rfidtracking.service.RegistroRFIDService;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/registros")
 public class RegistroRFIDController {
 
     private final RegistroRFIDService registroRFIDService;
+    private final RegistroRFIDIngestService registroRFIDIngestService;
+    private final RegistroRFIDExportService registroRFIDExportService;
+    private final RegistroRFIDImportService registroRFIDImportService;
+    private final FeedRegistrosService feedRegistrosService;
+    private final DeduplicadorLeituras deduplicadorLeituras;
+    private final ReceptorLeitoresService receptorLeitoresService;
+    private final long timeoutExportacaoMs;
 
-    public RegistroRFIDController(RegistroRFIDService registroRFIDService) {
+    public RegistroRFIDController(RegistroRFIDService registroRFIDService, RegistroRFIDIngestService registroRFIDIngestService,
+                                  RegistroRFIDExportService registroRFIDExportService,
+                                  RegistroRFIDImportService registroRFIDImportService,
+                                  FeedRegistrosService feedRegistrosService, DeduplicadorLeituras deduplicadorLeituras,
+                                  ReceptorLeitoresService receptorLeitoresService,
+                                  @Value("${rfid.export.timeout-ms:1800000}") long timeoutExportacaoMs) {
         this.registroRFIDService = registroRFIDService;
+        this.registroRFIDIngestService = registroRFIDIngestService;
+        this.registroRFIDExportService = registroRFIDExportService;
+        this.registroRFIDImportService = registroRFIDImportService;
+        this.feedRegistrosService = feedRegistrosService;
+        this.deduplicadorLeituras = deduplicadorLeituras;
+        this.receptorLeitoresService = receptorLeitoresService;
+        this.timeoutExportacaoMs = timeoutExportacaoMs;
     }
 
     @GetMapping
     public ResponseEntity<Page<RegistroRFIDDTO>> listar(
             @RequestParam(required = false, defaultValue = "") String filtro,
-            Pageable pageable) {
+            Pageable pageable,
+            WebRequest request) {
         Page<RegistroRFIDDTO> pagina = registroRFIDService.listar(filtro, pageable);
-        return ResponseEntity.ok(pagina);
+        String etag = RespostasCondicionais.etag(pagina.getNumber() + "/" + pagina.getSize() + "/" + pagina.getTotalElements(),
+                pagina.getContent(), RespostasCondicionais::impressao);
+        return RespostasCondicionais.lista(request, pagina, etag);
+    }
+
+    @GetMapping("/fatia")
+    public ResponseEntity<FatiaDTO<RegistroRFIDDTO>> fatiar(
+            @RequestParam(required = false, defaultValue = "") String filtro,
+            @RequestParam(defaultValue = "false") boolean totalAproximado,
+            Pageable pageable,
+            WebRequest request) {
+        Slice<RegistroRFIDDTO> fatia = registroRFIDService.fatiar(filtro, pageable);
+        Long total = totalAproximado ? registroRFIDService.totalAproximado(filtro) : null;
+        String etag = RespostasCondicionais.etag(fatia.getNumber() + "/" + fatia.getSize() + "/" + fatia.hasNext() + "/" + total,
+                fatia.getContent(), RespostasCondicionais::impressao);
+        return RespostasCondicionais.lista(request, new FatiaDTO<>(fatia, total), etag);
+    }
+
+    @GetMapping("/cursor")
+    public ResponseEntity<RegistroRFIDCursorPageDTO> listarPorCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            WebRequest request) {
+        // A primeira página (sem cursor) é a consultada periodicamente; com ETag, o 304 evita reenviá-la
+        RegistroRFIDCursorPageDTO pagina = registroRFIDService.listarPorCursor(cursor, size);
+        String etag = RespostasCondicionais.etag(pagina.getSize() + "/" + pagina.getProximoCursor() + "/" + pagina.getCursorAnterior(),
+                pagina.getContent(), RespostasCondicionais::impressao);
+        return RespostasCondicionais.lista(request, pagina, etag);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> acompanhar(
+            @RequestParam(required = false) Long filialId,
+            @RequestParam(required = false) Long motoId,
+            @RequestParam(required = false) String pontoLeitura) {
+        // Leituras confirmadas chegam como eventos "registro"; em vez de consultar /api/registros periodicamente
+        return feedRegistrosService.assinar(filialId, motoId, pontoLeitura)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "5")
+                        .build());
+    }
+
+    @GetMapping("/export")
+    public WebAsyncTask<Void> exportar(
+            @RequestParam(defaultValue = "ndjson") String formato,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(required = false) Long motoId,
+            @RequestParam(required = false) String pontoLeitura,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime ate,
+            HttpServletResponse response) {
+        FormatoExportacao formatoExportacao = FormatoExportacao.de(formato);
+        String arquivo = "registros." + formatoExportacao.getExtensao() + (gzip ? ".gz" : "");
+
+        response.setHeader(HttpHeaders.CONTENT_TYPE, gzip ? "application/gzip" : formatoExportacao.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(arquivo).build().toString());
+
+        // O corpo é escrito fora da thread da requisição, à medida que as linhas saem do banco. O prazo
+        // vale só para esta tarefa; as demais respostas assíncronas seguem com o timeout padrão do MVC
+        return new WebAsyncTask<>(timeoutExportacaoMs, () -> {
+            OutputStream saida = response.getOutputStream();
+            if (gzip) {
+                GZIPOutputStream gzipSaida = new GZIPOutputStream(saida, 64 * 1024);
+                registroRFIDExportService.exportar(motoId, pontoLeitura, de, ate, formatoExportacao, gzipSaida);
+                gzipSaida.finish();
+            } else {
+                registroRFIDExportService.exportar(motoId, pontoLeitura, de, ate, formatoExportacao, saida);
+            }
+            saida.flush();
+            return null;
+        });
+    }
+
+    @PostMapping("/import")
+    public ResponseEntity<ImportacaoRFIDDTO> importar(
+            @RequestParam(defaultValue = "csv") String formato,
+            @RequestParam(required = false) Long importacaoId,
+            InputStream corpo) throws IOException {
+        // O corpo é lido em streaming pelo service; para retomar, reenvie o arquivo com o importacaoId devolvido
+        ImportacaoRFIDDTO importacao = registroRFIDImportService.importar(
+                RegistroRFIDImportService.Formato.de(formato), importacaoId, corpo);
+        return ResponseEntity.ok(importacao);
+    }
+
+    @GetMapping("/import/{id}")
+    public ResponseEntity<ImportacaoRFIDDTO> buscarImportacao(@PathVariable Long id) {
+        return ResponseEntity.ok(registroRFIDImportService.buscar(id));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<RegistroRFIDDTO> buscarPorId(@PathVariable Long id) {
-        RegistroRFIDDTO dto = registroRFIDService.buscarPorId(id);
-        return ResponseEntity.ok(dto);
+    public ResponseEntity<RegistroRFIDDTO> buscarPorId(@PathVariable Long id, WebRequest request) {
+        return RespostasCondicionais.recurso(request, registroRFIDService.buscarVersao(id), () -> registroRFIDService.buscarPorId(id));
     }
 
     @PostMapping
@@ -48,6 +185,43 @@ public class RegistroRFIDController {
         return new ResponseEntity<>(registroSalvo, headers, HttpStatus.CREATED);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<RegistroRFIDBatchResultDTO> criarEmLote(@RequestBody List<RegistroRFIDDTO> dtos) {
+        // A validação é feita item a item no service para que um registro inválido não derrube o lote inteiro
+        RegistroRFIDBatchResultDTO resultado = registroRFIDService.salvarEmLote(dtos);
+        return ResponseEntity.ok(resultado);
+    }
+
+    @PostMapping("/async")
+    public ResponseEntity<Map<String, Integer>> criarAssincrono(@RequestBody List<RegistroRFIDDTO> dtos) {
+        int aceitos = registroRFIDIngestService.enfileirar(dtos);
+        Map<String, Integer> corpo = new LinkedHashMap<>();
+        corpo.put("aceitos", aceitos);
+        corpo.put("recusados", dtos.size() - aceitos);
+        if (aceitos < dtos.size()) {
+            // Fila cheia: o leitor deve reenviar a partir do primeiro item recusado
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(corpo);
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(corpo);
+    }
+
+    @GetMapping("/async/stats")
+    public ResponseEntity<IngestStatsDTO> estatisticasAssincrono() {
+        return ResponseEntity.ok(registroRFIDIngestService.estatisticas());
+    }
+
+    @GetMapping("/dedup/stats")
+    public ResponseEntity<DeduplicacaoStatsDTO> estatisticasDeduplicacao() {
+        return ResponseEntity.ok(deduplicadorLeituras.estatisticas());
+    }
+
+    @GetMapping("/leitores/stats")
+    public ResponseEntity<LeitoresStatsDTO> estatisticasLeitores() {
+        return ResponseEntity.ok(receptorLeitoresService.estatisticas());
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<RegistroRFIDDTO> atualizar(@PathVariable Long id, @RequestBody @Valid RegistroRFIDDTO dto) {
         RegistroRFIDDTO registroAtualizado = registroRFIDService.atualizar(id, dto);
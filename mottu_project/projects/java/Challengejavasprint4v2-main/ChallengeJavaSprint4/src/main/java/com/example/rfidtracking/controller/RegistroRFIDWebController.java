@@ -2,6 +2,7 @@ package com.example.rfidtracking.controller;
 
 import com.example.rfidtracking.dto.RegistroRFIDDTO;
 import com.example.rfidtracking.dto.MotoDTO;
+import com.example.rfidtracking.model.RegistroRFID;
 import com.example.rfidtracking.service.RegistroRFIDService;
 import com.example.rfidtracking.service.MotoService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,7 +18,6 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import javax.validation.Valid;
 import java.time.LocalDateTime;
-import java.util.List;
 
 @Controller
 @RequestMapping("/registros")
@@ -40,17 +40,15 @@ public class RegistroRFIDWebController {
             Model model) {
         
         Pageable pageable = PageRequest.of(page, size, Sort.by("dataHora").descending());
-        Page<RegistroRFIDDTO> registros = registroRFIDService.listar(filtro != null ? filtro : "", pageable);
         
-        // Se há filtro por moto, aplicar filtro adicional
+        // Com filtro por moto a consulta vai direto ao histórico da moto no banco. Fatias em vez de Page:
+        // sem COUNT(*) por navegação, e o total exibido é o aproximado (só sem filtros)
         if (motoId != null) {
-            List<RegistroRFIDDTO> registrosFiltrados = registros.getContent().stream()
-                .filter(r -> r.getMotoId() != null && r.getMotoId().equals(motoId))
-                .collect(java.util.stream.Collectors.toList());
-            // Criar nova página com registros filtrados (simplificado)
-            model.addAttribute("registros", new org.springframework.data.domain.PageImpl<>(registrosFiltrados, pageable, registrosFiltrados.size()));
+            model.addAttribute("registros", registroRFIDService.fatiarPorMoto(motoId, filtro, pageable));
         } else {
-            model.addAttribute("registros", registros);
+            String filtroTexto = filtro != null ? filtro : "";
+            model.addAttribute("registros", registroRFIDService.fatiar(filtroTexto, pageable));
+            model.addAttribute("totalAproximado", registroRFIDService.totalAproximado(filtroTexto));
         }
         
         // Carregar lista de motos para o filtro
@@ -73,11 +71,8 @@ public class RegistroRFIDWebController {
                     
                     // Buscar outros registros da mesma moto
                     Pageable pageable = PageRequest.of(0, 10, Sort.by("dataHora").descending());
-                    Page<RegistroRFIDDTO> todosRegistros = registroRFIDService.listar("", pageable);
-                    List<RegistroRFIDDTO> outrosRegistros = todosRegistros.getContent().stream()
-                        .filter(r -> r.getMotoId() != null && r.getMotoId().equals(registro.getMotoId()))
-                        .collect(java.util.stream.Collectors.toList());
-                    model.addAttribute("outrosRegistros", outrosRegistros);
+                    Page<RegistroRFIDDTO> outrosRegistros = registroRFIDService.listarPorMoto(registro.getMotoId(), null, null, null, pageable);
+                    model.addAttribute("outrosRegistros", outrosRegistros.getContent());
                 } catch (Exception e) {
                     model.addAttribute("moto", null);
                 }
@@ -95,7 +90,7 @@ public class RegistroRFIDWebController {
         if (motoId != null) {
             registro.setMotoId(motoId);
         }
-        registro.setDataHora(LocalDateTime.now());
+        registro.setDataHora(LocalDateTime.now(RegistroRFID.FUSO_DATA_HORA));
         
         model.addAttribute("registro", registro);
         carregarMotos(model);
@@ -112,7 +107,7 @@ public class RegistroRFIDWebController {
         try {
             // Se dataHora não foi informada, usar agora
             if (registro.getDataHora() == null) {
-                registro.setDataHora(LocalDateTime.now());
+                registro.setDataHora(LocalDateTime.now(RegistroRFID.FUSO_DATA_HORA));
             }
             
             RegistroRFIDDTO registroSalvo = registroRFIDService.salvar(registro);
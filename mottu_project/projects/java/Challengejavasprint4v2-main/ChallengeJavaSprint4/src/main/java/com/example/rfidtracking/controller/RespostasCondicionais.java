@@ -0,0 +1,75 @@
+package com.example.rfidtracking.controller;
+
+import com.example.rfidtracking.dto.FilialDTO;
+import com.example.rfidtracking.dto.MotoDTO;
+import com.example.rfidtracking.dto.RegistroRFIDDTO;
+import com.example.rfidtracking.dto.VersaoDTO;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * GET condicional (If-None-Match / If-Modified-Since) para os recursos versionados. Devolver null
+ * de um handler depois de {@link WebRequest#checkNotModified} faz o Spring responder 304 sem corpo,
+ * com ETag e Last-Modified já escritos na resposta.
+ */
+final class RespostasCondicionais {
+
+    // O cliente pode guardar a resposta, mas revalida a cada uso; o 304 poupa a serialização e a rede
+    private static final CacheControl REVALIDAR = CacheControl.noCache().cachePrivate();
+
+    private RespostasCondicionais() {
+    }
+
+    /**
+     * Um recurso: a versão vem de uma consulta de poucas colunas, e o corpo só é carregado se mudou.
+     */
+    static <T> ResponseEntity<T> recurso(WebRequest request, VersaoDTO versao, Supplier<T> corpo) {
+        if (request.checkNotModified(versao.getEtag(), versao.getUltimaAlteracao())) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(REVALIDAR).body(corpo.get());
+    }
+
+    /**
+     * Uma listagem já montada, validada só pelo ETag. Não há Last-Modified: uma exclusão muda a
+     * lista sem deixar nenhuma linha com data mais nova, e o If-Modified-Since responderia 304.
+     */
+    static <T> ResponseEntity<T> lista(WebRequest request, T corpo, String etag) {
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(REVALIDAR).body(corpo);
+    }
+
+    /**
+     * ETag de uma listagem: hash dos metadados da página e, na ordem, da impressão de cada item
+     * (id, versão e os campos de outras entidades que aparecem na resposta).
+     */
+    static <T> String etag(String metadados, List<T> itens, Function<T, String> impressao) {
+        StringBuilder conteudo = new StringBuilder(metadados);
+        for (T item : itens) {
+            conteudo.append(';').append(impressao.apply(item));
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(conteudo.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    static String impressao(MotoDTO moto) {
+        return moto.getId() + ":" + moto.getVersao() + ":" + moto.getFilialId() + ":" + moto.getNomeFilial();
+    }
+
+    static String impressao(RegistroRFIDDTO registro) {
+        return registro.getId() + ":" + registro.getVersao() + ":" + registro.getMotoId() + ":"
+                + registro.getMotoModelo() + ":" + registro.getMotoPlaca();
+    }
+
+    static String impressao(FilialDTO filial) {
+        return filial.getIdFilial() + ":" + filial.getVersao();
+    }
+}
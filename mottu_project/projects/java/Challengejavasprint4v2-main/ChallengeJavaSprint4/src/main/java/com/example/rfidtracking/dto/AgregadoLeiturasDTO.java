@@ -0,0 +1,63 @@
+package com.example.rfidtracking.dto;
+
+import java.time.LocalDateTime;
+
+public class AgregadoLeiturasDTO {
+    private LocalDateTime inicio;
+    private Long filialId;
+    private String pontoLeitura;
+    private long quantidade;
+
+    public AgregadoLeiturasDTO() {
+    }
+
+    public AgregadoLeiturasDTO(LocalDateTime inicio, Long filialId, String pontoLeitura, long quantidade) {
+        this.inicio = inicio;
+        this.filialId = filialId;
+        this.pontoLeitura = pontoLeitura;
+        this.quantidade = quantidade;
+    }
+
+    // Totais por ponto (somando as filiais)
+    public AgregadoLeiturasDTO(LocalDateTime inicio, String pontoLeitura, Long quantidade) {
+        this(inicio, null, pontoLeitura, quantidade);
+    }
+
+    // Totais por filial (somando os pontos)
+    public AgregadoLeiturasDTO(LocalDateTime inicio, Long filialId, Long quantidade) {
+        this(inicio, filialId, null, quantidade);
+    }
+
+    // Getters and Setters
+    public LocalDateTime getInicio() {
+        return inicio;
+    }
+
+    public void setInicio(LocalDateTime inicio) {
+        this.inicio = inicio;
+    }
+
+    public Long getFilialId() {
+        return filialId;
+    }
+
+    public void setFilialId(Long filialId) {
+        this.filialId = filialId;
+    }
+
+    public String getPontoLeitura() {
+        return pontoLeitura;
+    }
+
+    public void setPontoLeitura(String pontoLeitura) {
+        this.pontoLeitura = pontoLeitura;
+    }
+
+    public long getQuantidade() {
+        return quantidade;
+    }
+
+    public void setQuantidade(long quantidade) {
+        this.quantidade = quantidade;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.rfidtracking.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class AnalisePermanenciaDTO {
+    private Long filialId;
+    private LocalDateTime de;
+    private LocalDateTime ate;
+    private long motos;
+    private long leituras;
+    private long visitas;
+    private List<PermanenciaPontoDTO> pontos;
+    private List<TransicaoPontosDTO> transicoes;
+    private long duracaoMs;
+
+    // Getters and Setters
+    public Long getFilialId() {
+        return filialId;
+    }
+
+    public void setFilialId(Long filialId) {
+        this.filialId = filialId;
+    }
+
+    public LocalDateTime getDe() {
+        return de;
+    }
+
+    public void setDe(LocalDateTime de) {
+        this.de = de;
+    }
+
+    public LocalDateTime getAte() {
+        return ate;
+    }
+
+    public void setAte(LocalDateTime ate) {
+        this.ate = ate;
+    }
+
+    public long getMotos() {
+        return motos;
+    }
+
+    public void setMotos(long motos) {
+        this.motos = motos;
+    }
+
+    public long getLeituras() {
+        return leituras;
+    }
+
+    public void setLeituras(long leituras) {
+        this.leituras = leituras;
+    }
+
+    public long getVisitas() {
+        return visitas;
+    }
+
+    public void setVisitas(long visitas) {
+        this.visitas = visitas;
+    }
+
+    public List<PermanenciaPontoDTO> getPontos() {
+        return pontos;
+    }
+
+    public void setPontos(List<PermanenciaPontoDTO> pontos) {
+        this.pontos = pontos;
+    }
+
+    public List<TransicaoPontosDTO> getTransicoes() {
+        return transicoes;
+    }
+
+    public void setTransicoes(List<TransicaoPontosDTO> transicoes) {
+        this.transicoes = transicoes;
+    }
+
+    public long getDuracaoMs() {
+        return duracaoMs;
+    }
+
+    public void setDuracaoMs(long duracaoMs) {
+        this.duracaoMs = duracaoMs;
+    }
+}
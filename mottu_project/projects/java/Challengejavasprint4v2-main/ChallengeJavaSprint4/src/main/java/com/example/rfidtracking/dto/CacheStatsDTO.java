@@ -0,0 +1,59 @@
+package com.example.rfidtracking.dto;
+
+public class CacheStatsDTO {
+    private String nome;
+    private long tamanho;
+    private long hits;
+    private long misses;
+    private double hitRatio;
+    private long despejos;
+
+    // Getters and Setters
+    public String getNome() {
+        return nome;
+    }
+
+    public void setNome(String nome) {
+        this.nome = nome;
+    }
+
+    public long getTamanho() {
+        return tamanho;
+    }
+
+    public void setTamanho(long tamanho) {
+        this.tamanho = tamanho;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public void setHits(long hits) {
+        this.hits = hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public void setMisses(long misses) {
+        this.misses = misses;
+    }
+
+    public double getHitRatio() {
+        return hitRatio;
+    }
+
+    public void setHitRatio(double hitRatio) {
+        this.hitRatio = hitRatio;
+    }
+
+    public long getDespejos() {
+        return despejos;
+    }
+
+    public void setDespejos(long despejos) {
+        this.despejos = despejos;
+    }
+}
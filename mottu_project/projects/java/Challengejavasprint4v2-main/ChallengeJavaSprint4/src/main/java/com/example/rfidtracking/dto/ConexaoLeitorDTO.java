@@ -0,0 +1,106 @@
+package com.example.rfidtracking.dto;
+
+import java.time.LocalDateTime;
+
+public class ConexaoLeitorDTO {
+    private long id;
+    private String remoto;
+    private LocalDateTime conectadaEm;
+    private long bytesRecebidos;
+    private long quadros;
+    private long aceitos;
+    private long tagsDesconhecidas;
+    private long invalidos;
+    private long pausas;
+    private boolean pausada;
+    private int pendentes;
+
+    // Getters and Setters
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public String getRemoto() {
+        return remoto;
+    }
+
+    public void setRemoto(String remoto) {
+        this.remoto = remoto;
+    }
+
+    public LocalDateTime getConectadaEm() {
+        return conectadaEm;
+    }
+
+    public void setConectadaEm(LocalDateTime conectadaEm) {
+        this.conectadaEm = conectadaEm;
+    }
+
+    public long getBytesRecebidos() {
+        return bytesRecebidos;
+    }
+
+    public void setBytesRecebidos(long bytesRecebidos) {
+        this.bytesRecebidos = bytesRecebidos;
+    }
+
+    public long getQuadros() {
+        return quadros;
+    }
+
+    public void setQuadros(long quadros) {
+        this.quadros = quadros;
+    }
+
+    public long getAceitos() {
+        return aceitos;
+    }
+
+    public void setAceitos(long aceitos) {
+        this.aceitos = aceitos;
+    }
+
+    public long getTagsDesconhecidas() {
+        return tagsDesconhecidas;
+    }
+
+    public void setTagsDesconhecidas(long tagsDesconhecidas) {
+        this.tagsDesconhecidas = tagsDesconhecidas;
+    }
+
+    public long getInvalidos() {
+        return invalidos;
+    }
+
+    public void setInvalidos(long invalidos) {
+        this.invalidos = invalidos;
+    }
+
+    public long getPausas() {
+        return pausas;
+    }
+
+    public void setPausas(long pausas) {
+        this.pausas = pausas;
+    }
+
+    public boolean isPausada() {
+        return pausada;
+    }
+
+    public void setPausada(boolean pausada) {
+        this.pausada = pausada;
+    }
+
+    public int getPendentes() {
+        return pendentes;
+    }
+
+    public void setPendentes(int pendentes) {
+        this.pendentes = pendentes;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.rfidtracking.dto;
+
+public class DeduplicacaoStatsDTO {
+    private boolean habilitado;
+    private long janelaMs;
+    private long chavesAtivas;
+    private long avaliadas;
+    private long suprimidas;
+    private double taxaSupressao;
+
+    // Getters and Setters
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    public void setHabilitado(boolean habilitado) {
+        this.habilitado = habilitado;
+    }
+
+    public long getJanelaMs() {
+        return janelaMs;
+    }
+
+    public void setJanelaMs(long janelaMs) {
+        this.janelaMs = janelaMs;
+    }
+
+    public long getChavesAtivas() {
+        return chavesAtivas;
+    }
+
+    public void setChavesAtivas(long chavesAtivas) {
+        this.chavesAtivas = chavesAtivas;
+    }
+
+    public long getAvaliadas() {
+        return avaliadas;
+    }
+
+    public void setAvaliadas(long avaliadas) {
+        this.avaliadas = avaliadas;
+    }
+
+    public long getSuprimidas() {
+        return suprimidas;
+    }
+
+    public void setSuprimidas(long suprimidas) {
+        this.suprimidas = suprimidas;
+    }
+
+    public double getTaxaSupressao() {
+        return taxaSupressao;
+    }
+
+    public void setTaxaSupressao(double taxaSupressao) {
+        this.taxaSupressao = taxaSupressao;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.rfidtracking.dto;
+
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+/**
+ * Página sem contagem exata: {@code temProxima} diz se há uma página seguinte. O total aproximado só
+ * vem quando pedido e quando a listagem não tem filtro (as estatísticas do banco são da tabela
+ * inteira); nos demais casos é null.
+ */
+public class FatiaDTO<T> {
+    private List<T> content;
+    private int number;
+    private int size;
+    private boolean temProxima;
+    private Long totalAproximado;
+
+    public FatiaDTO() {
+    }
+
+    public FatiaDTO(Slice<T> fatia, Long totalAproximado) {
+        this.content = fatia.getContent();
+        this.number = fatia.getNumber();
+        this.size = fatia.getSize();
+        this.temProxima = fatia.hasNext();
+        this.totalAproximado = totalAproximado;
+    }
+
+    // Getters and Setters
+    public List<T> getContent() {
+        return content;
+    }
+
+    public void setContent(List<T> content) {
+        this.content = content;
+    }
+
+    public int getNumber() {
+        return number;
+    }
+
+    public void setNumber(int number) {
+        this.number = number;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public boolean isTemProxima() {
+        return temProxima;
+    }
+
+    public void setTemProxima(boolean temProxima) {
+        this.temProxima = temProxima;
+    }
+
+    public Long getTotalAproximado() {
+        return totalAproximado;
+    }
+
+    public void setTotalAproximado(Long totalAproximado) {
+        this.totalAproximado = totalAproximado;
+    }
+}
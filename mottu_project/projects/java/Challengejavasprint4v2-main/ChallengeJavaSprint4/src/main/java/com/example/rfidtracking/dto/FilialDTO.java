@@ -1,10 +1,30 @@
 package com.example.rfidtracking.dto;
 
+import java.time.LocalDateTime;
+
 public class FilialDTO {
     private Long idFilial;
     private String nome;
     private String cidade;
     private String estado;
+    private Integer shard;
+    private Long versao;
+    private LocalDateTime atualizadoEm;
+
+    public FilialDTO() {
+    }
+
+    // Usado na projeção de FilialRepository.listarProjetado e na cópia das filiais entre os shards
+    public FilialDTO(Long idFilial, String nome, String cidade, String estado, Integer shard, Long versao,
+                     LocalDateTime atualizadoEm) {
+        this.idFilial = idFilial;
+        this.nome = nome;
+        this.cidade = cidade;
+        this.estado = estado;
+        this.shard = shard;
+        this.versao = versao;
+        this.atualizadoEm = atualizadoEm;
+    }
 
     // Getters and Setters
     public Long getIdFilial() {
@@ -38,5 +58,28 @@ public class FilialDTO {
     public void setEstado(String estado) {
         this.estado = estado;
     }
-}
 
+    public Integer getShard() {
+        return shard;
+    }
+
+    public void setShard(Integer shard) {
+        this.shard = shard;
+    }
+
+    public Long getVersao() {
+        return versao;
+    }
+
+    public void setVersao(Long versao) {
+        this.versao = versao;
+    }
+
+    public LocalDateTime getAtualizadoEm() {
+        return atualizadoEm;
+    }
+
+    public void setAtualizadoEm(LocalDateTime atualizadoEm) {
+        this.atualizadoEm = atualizadoEm;
+    }
+}
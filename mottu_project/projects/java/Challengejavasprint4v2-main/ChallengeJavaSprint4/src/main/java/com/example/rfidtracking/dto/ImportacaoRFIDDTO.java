@@ -0,0 +1,120 @@
+package com.example.rfidtracking.dto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ImportacaoRFIDDTO {
+    private Long id;
+    private String formato;
+    private String status;
+    private long linhasProcessadas;
+    private long aceitos;
+    private long rejeitados;
+    private LocalDateTime iniciadaEm;
+    private LocalDateTime atualizadaEm;
+    private List<Erro> erros = new ArrayList<>();
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getFormato() {
+        return formato;
+    }
+
+    public void setFormato(String formato) {
+        this.formato = formato;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public long getLinhasProcessadas() {
+        return linhasProcessadas;
+    }
+
+    public void setLinhasProcessadas(long linhasProcessadas) {
+        this.linhasProcessadas = linhasProcessadas;
+    }
+
+    public long getAceitos() {
+        return aceitos;
+    }
+
+    public void setAceitos(long aceitos) {
+        this.aceitos = aceitos;
+    }
+
+    public long getRejeitados() {
+        return rejeitados;
+    }
+
+    public void setRejeitados(long rejeitados) {
+        this.rejeitados = rejeitados;
+    }
+
+    public LocalDateTime getIniciadaEm() {
+        return iniciadaEm;
+    }
+
+    public void setIniciadaEm(LocalDateTime iniciadaEm) {
+        this.iniciadaEm = iniciadaEm;
+    }
+
+    public LocalDateTime getAtualizadaEm() {
+        return atualizadaEm;
+    }
+
+    public void setAtualizadaEm(LocalDateTime atualizadaEm) {
+        this.atualizadaEm = atualizadaEm;
+    }
+
+    public List<Erro> getErros() {
+        return erros;
+    }
+
+    public void setErros(List<Erro> erros) {
+        this.erros = erros;
+    }
+
+    public static class Erro {
+        // Número da linha no arquivo, contando o cabeçalho do CSV
+        private long linha;
+        private String mensagem;
+
+        public Erro() {
+        }
+
+        public Erro(long linha, String mensagem) {
+            this.linha = linha;
+            this.mensagem = mensagem;
+        }
+
+        public long getLinha() {
+            return linha;
+        }
+
+        public void setLinha(long linha) {
+            this.linha = linha;
+        }
+
+        public String getMensagem() {
+            return mensagem;
+        }
+
+        public void setMensagem(String mensagem) {
+            this.mensagem = mensagem;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.rfidtracking.dto;
+
+public class IngestStatsDTO {
+    private int profundidadeFila;
+    private int capacidadeFila;
+    private long recebidos;
+    private long recusadosFilaCheia;
+    private long gravados;
+    private long rejeitados;
+    private long suprimidos;
+    private long descartados;
+    private long lotesConfirmados;
+    private double latenciaCommitMediaMs;
+    private double latenciaCommitMaxMs;
+    private double ultimaLatenciaCommitMs;
+
+    // Getters and Setters
+    public int getProfundidadeFila() {
+        return profundidadeFila;
+    }
+
+    public void setProfundidadeFila(int profundidadeFila) {
+        this.profundidadeFila = profundidadeFila;
+    }
+
+    public int getCapacidadeFila() {
+        return capacidadeFila;
+    }
+
+    public void setCapacidadeFila(int capacidadeFila) {
+        this.capacidadeFila = capacidadeFila;
+    }
+
+    public long getRecebidos() {
+        return recebidos;
+    }
+
+    public void setRecebidos(long recebidos) {
+        this.recebidos = recebidos;
+    }
+
+    public long getRecusadosFilaCheia() {
+        return recusadosFilaCheia;
+    }
+
+    public void setRecusadosFilaCheia(long recusadosFilaCheia) {
+        this.recusadosFilaCheia = recusadosFilaCheia;
+    }
+
+    public long getGravados() {
+        return gravados;
+    }
+
+    public void setGravados(long gravados) {
+        this.gravados = gravados;
+    }
+
+    public long getRejeitados() {
+        return rejeitados;
+    }
+
+    public void setRejeitados(long rejeitados) {
+        this.rejeitados = rejeitados;
+    }
+
+    public long getSuprimidos() {
+        return suprimidos;
+    }
+
+    public void setSuprimidos(long suprimidos) {
+        this.suprimidos = suprimidos;
+    }
+
+    public long getDescartados() {
+        return descartados;
+    }
+
+    public void setDescartados(long descartados) {
+        this.descartados = descartados;
+    }
+
+    public long getLotesConfirmados() {
+        return lotesConfirmados;
+    }
+
+    public void setLotesConfirmados(long lotesConfirmados) {
+        this.lotesConfirmados = lotesConfirmados;
+    }
+
+    public double getLatenciaCommitMediaMs() {
+        return latenciaCommitMediaMs;
+    }
+
+    public void setLatenciaCommitMediaMs(double latenciaCommitMediaMs) {
+        this.latenciaCommitMediaMs = latenciaCommitMediaMs;
+    }
+
+    public double getLatenciaCommitMaxMs() {
+        return latenciaCommitMaxMs;
+    }
+
+    public void setLatenciaCommitMaxMs(double latenciaCommitMaxMs) {
+        this.latenciaCommitMaxMs = latenciaCommitMaxMs;
+    }
+
+    public double getUltimaLatenciaCommitMs() {
+        return ultimaLatenciaCommitMs;
+    }
+
+    public void setUltimaLatenciaCommitMs(double ultimaLatenciaCommitMs) {
+        this.ultimaLatenciaCommitMs = ultimaLatenciaCommitMs;
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.rfidtracking.dto;
+
+import java.util.List;
+
+public class LeitoresStatsDTO {
+    private boolean habilitado;
+    private int porta;
+    private String enquadramento;
+    private int tagsConhecidas;
+    private long conexoesAceitas;
+    private long conexoesRecusadas;
+    private long quadros;
+    private long aceitos;
+    private long tagsDesconhecidas;
+    private long invalidos;
+    private long descartados;
+    private List<ConexaoLeitorDTO> conexoes;
+
+    // Getters and Setters
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    public void setHabilitado(boolean habilitado) {
+        this.habilitado = habilitado;
+    }
+
+    public int getPorta() {
+        return porta;
+    }
+
+    public void setPorta(int porta) {
+        this.porta = porta;
+    }
+
+    public String getEnquadramento() {
+        return enquadramento;
+    }
+
+    public void setEnquadramento(String enquadramento) {
+        this.enquadramento = enquadramento;
+    }
+
+    public int getTagsConhecidas() {
+        return tagsConhecidas;
+    }
+
+    public void setTagsConhecidas(int tagsConhecidas) {
+        this.tagsConhecidas = tagsConhecidas;
+    }
+
+    public long getConexoesAceitas() {
+        return conexoesAceitas;
+    }
+
+    public void setConexoesAceitas(long conexoesAceitas) {
+        this.conexoesAceitas = conexoesAceitas;
+    }
+
+    public long getConexoesRecusadas() {
+        return conexoesRecusadas;
+    }
+
+    public void setConexoesRecusadas(long conexoesRecusadas) {
+        this.conexoesRecusadas = conexoesRecusadas;
+    }
+
+    public long getQuadros() {
+        return quadros;
+    }
+
+    public void setQuadros(long quadros) {
+        this.quadros = quadros;
+    }
+
+    public long getAceitos() {
+        return aceitos;
+    }
+
+    public void setAceitos(long aceitos) {
+        this.aceitos = aceitos;
+    }
+
+    public long getTagsDesconhecidas() {
+        return tagsDesconhecidas;
+    }
+
+    public void setTagsDesconhecidas(long tagsDesconhecidas) {
+        this.tagsDesconhecidas = tagsDesconhecidas;
+    }
+
+    public long getInvalidos() {
+        return invalidos;
+    }
+
+    public void setInvalidos(long invalidos) {
+        this.invalidos = invalidos;
+    }
+
+    public long getDescartados() {
+        return descartados;
+    }
+
+    public void setDescartados(long descartados) {
+        this.descartados = descartados;
+    }
+
+    public List<ConexaoLeitorDTO> getConexoes() {
+        return conexoes;
+    }
+
+    public void setConexoes(List<ConexaoLeitorDTO> conexoes) {
+        this.conexoes = conexoes;
+    }
+}
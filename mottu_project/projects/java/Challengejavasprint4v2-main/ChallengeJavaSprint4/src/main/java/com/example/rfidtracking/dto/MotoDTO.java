@@ -1,6 +1,7 @@
 package com.example.rfidtracking.dto;
 
 import javax.validation.constraints.NotBlank;
+import java.time.LocalDateTime;
 
 public class MotoDTO {
     private Long id;
@@ -13,9 +14,32 @@ public class MotoDTO {
 
     private String status; // Added status
 
+    private String codigoTag;
+
     private Long filialId; // Added to represent the Filial's ID
     private String nomeFilial; // Added to represent the Filial's name (optional, for read operations)
 
+    // Versão lida; enviada de volta no PUT, uma versão desatualizada é recusada com 409
+    private Long versao;
+    private LocalDateTime atualizadoEm;
+
+    public MotoDTO() {
+    }
+
+    // Usado na projeção da listagem (MotoProjecaoRepository)
+    public MotoDTO(Long id, String modelo, String placa, String status, String codigoTag, Long filialId, String nomeFilial,
+                   Long versao, LocalDateTime atualizadoEm) {
+        this.id = id;
+        this.modelo = modelo;
+        this.placa = placa;
+        this.status = status;
+        this.codigoTag = codigoTag;
+        this.filialId = filialId;
+        this.nomeFilial = nomeFilial;
+        this.versao = versao;
+        this.atualizadoEm = atualizadoEm;
+    }
+
 
     // Getters and Setters
     public Long getId() {
@@ -50,6 +74,14 @@ public class MotoDTO {
         this.status = status;
     }
 
+    public String getCodigoTag() {
+        return codigoTag;
+    }
+
+    public void setCodigoTag(String codigoTag) {
+        this.codigoTag = codigoTag;
+    }
+
     public Long getFilialId() {
         return filialId;
     }
@@ -65,5 +97,20 @@ public class MotoDTO {
     public void setNomeFilial(String nomeFilial) {
         this.nomeFilial = nomeFilial;
     }
-}
 
+    public Long getVersao() {
+        return versao;
+    }
+
+    public void setVersao(Long versao) {
+        this.versao = versao;
+    }
+
+    public LocalDateTime getAtualizadoEm() {
+        return atualizadoEm;
+    }
+
+    public void setAtualizadoEm(LocalDateTime atualizadoEm) {
+        this.atualizadoEm = atualizadoEm;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.rfidtracking.dto;
+
+/**
+ * Distribuição do tempo de permanência das visitas a um ponto de leitura, em segundos.
+ */
+public class PermanenciaPontoDTO {
+    private String pontoLeitura;
+    private long visitas;
+    private double mediaSegundos;
+    private long minimoSegundos;
+    private long p50Segundos;
+    private long p90Segundos;
+    private long p99Segundos;
+    private long maximoSegundos;
+
+    // Getters and Setters
+    public String getPontoLeitura() {
+        return pontoLeitura;
+    }
+
+    public void setPontoLeitura(String pontoLeitura) {
+        this.pontoLeitura = pontoLeitura;
+    }
+
+    public long getVisitas() {
+        return visitas;
+    }
+
+    public void setVisitas(long visitas) {
+        this.visitas = visitas;
+    }
+
+    public double getMediaSegundos() {
+        return mediaSegundos;
+    }
+
+    public void setMediaSegundos(double mediaSegundos) {
+        this.mediaSegundos = mediaSegundos;
+    }
+
+    public long getMinimoSegundos() {
+        return minimoSegundos;
+    }
+
+    public void setMinimoSegundos(long minimoSegundos) {
+        this.minimoSegundos = minimoSegundos;
+    }
+
+    public long getP50Segundos() {
+        return p50Segundos;
+    }
+
+    public void setP50Segundos(long p50Segundos) {
+        this.p50Segundos = p50Segundos;
+    }
+
+    public long getP90Segundos() {
+        return p90Segundos;
+    }
+
+    public void setP90Segundos(long p90Segundos) {
+        this.p90Segundos = p90Segundos;
+    }
+
+    public long getP99Segundos() {
+        return p99Segundos;
+    }
+
+    public void setP99Segundos(long p99Segundos) {
+        this.p99Segundos = p99Segundos;
+    }
+
+    public long getMaximoSegundos() {
+        return maximoSegundos;
+    }
+
+    public void setMaximoSegundos(long maximoSegundos) {
+        this.maximoSegundos = maximoSegundos;
+    }
+}
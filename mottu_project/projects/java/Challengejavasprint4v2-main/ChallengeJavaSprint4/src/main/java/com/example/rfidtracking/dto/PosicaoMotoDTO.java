@@ -0,0 +1,53 @@
+package com.example.rfidtracking.dto;
+
+import java.time.LocalDateTime;
+
+public class PosicaoMotoDTO {
+    private Long motoId;
+    private Long registroId;
+    private String pontoLeitura;
+    private LocalDateTime dataHora;
+
+    public PosicaoMotoDTO() {
+    }
+
+    public PosicaoMotoDTO(Long motoId, Long registroId, String pontoLeitura, LocalDateTime dataHora) {
+        this.motoId = motoId;
+        this.registroId = registroId;
+        this.pontoLeitura = pontoLeitura;
+        this.dataHora = dataHora;
+    }
+
+    // Getters and Setters
+    public Long getMotoId() {
+        return motoId;
+    }
+
+    public void setMotoId(Long motoId) {
+        this.motoId = motoId;
+    }
+
+    public Long getRegistroId() {
+        return registroId;
+    }
+
+    public void setRegistroId(Long registroId) {
+        this.registroId = registroId;
+    }
+
+    public String getPontoLeitura() {
+        return pontoLeitura;
+    }
+
+    public void setPontoLeitura(String pontoLeitura) {
+        this.pontoLeitura = pontoLeitura;
+    }
+
+    public LocalDateTime getDataHora() {
+        return dataHora;
+    }
+
+    public void setDataHora(LocalDateTime dataHora) {
+        this.dataHora = dataHora;
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.rfidtracking.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class RegistroRFIDBatchResultDTO {
+
+    public static final String ACEITO = "ACEITO";
+    public static final String REJEITADO = "REJEITADO";
+    public static final String SUPRIMIDO = "SUPRIMIDO";
+
+    private int totalRecebidos;
+    private int aceitos;
+    private int rejeitados;
+    private int suprimidos;
+    private List<Item> itens = new ArrayList<>();
+
+    public Item aceitar(int indice, Long id) {
+        Item item = new Item(indice, ACEITO, id, null);
+        itens.add(item);
+        aceitos++;
+        totalRecebidos++;
+        return item;
+    }
+
+    public void rejeitar(int indice, String erro) {
+        itens.add(new Item(indice, REJEITADO, null, erro));
+        rejeitados++;
+        totalRecebidos++;
+    }
+
+    public void suprimir(int indice) {
+        itens.add(new Item(indice, SUPRIMIDO, null, null));
+        suprimidos++;
+        totalRecebidos++;
+    }
+
+    // Getters and Setters
+    public int getTotalRecebidos() {
+        return totalRecebidos;
+    }
+
+    public void setTotalRecebidos(int totalRecebidos) {
+        this.totalRecebidos = totalRecebidos;
+    }
+
+    public int getAceitos() {
+        return aceitos;
+    }
+
+    public void setAceitos(int aceitos) {
+        this.aceitos = aceitos;
+    }
+
+    public int getRejeitados() {
+        return rejeitados;
+    }
+
+    public void setRejeitados(int rejeitados) {
+        this.rejeitados = rejeitados;
+    }
+
+    public int getSuprimidos() {
+        return suprimidos;
+    }
+
+    public void setSuprimidos(int suprimidos) {
+        this.suprimidos = suprimidos;
+    }
+
+    public List<Item> getItens() {
+        return itens;
+    }
+
+    public void setItens(List<Item> itens) {
+        this.itens = itens;
+    }
+
+    /**
+     * Resultado de um item do lote, identificado pela posição no array recebido.
+     */
+    public static class Item {
+        private int indice;
+        private String status;
+        private Long id;
+        private String erro;
+
+        public Item() {
+        }
+
+        public Item(int indice, String status, Long id, String erro) {
+            this.indice = indice;
+            this.status = status;
+            this.id = id;
+            this.erro = erro;
+        }
+
+        public int getIndice() {
+            return indice;
+        }
+
+        public void setIndice(int indice) {
+            this.indice = indice;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public void setStatus(String status) {
+            this.status = status;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getErro() {
+            return erro;
+        }
+
+        public void setErro(String erro) {
+            this.erro = erro;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.rfidtracking.dto;
+
+import java.util.List;
+
+/**
+ * Página obtida por keyset (dataHora, id). Não traz total de elementos: a navegação é feita
+ * pelos cursores opacos, que devem ser reenviados no parâmetro {@code cursor}.
+ */
+public class RegistroRFIDCursorPageDTO {
+    private List<RegistroRFIDDTO> content;
+    private int size;
+    private String proximoCursor;
+    private String cursorAnterior;
+
+    public RegistroRFIDCursorPageDTO() {
+    }
+
+    public RegistroRFIDCursorPageDTO(List<RegistroRFIDDTO> content, int size, String proximoCursor, String cursorAnterior) {
+        this.content = content;
+        this.size = size;
+        this.proximoCursor = proximoCursor;
+        this.cursorAnterior = cursorAnterior;
+    }
+
+    // Getters and Setters
+    public List<RegistroRFIDDTO> getContent() {
+        return content;
+    }
+
+    public void setContent(List<RegistroRFIDDTO> content) {
+        this.content = content;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public String getProximoCursor() {
+        return proximoCursor;
+    }
+
+    public void setProximoCursor(String proximoCursor) {
+        this.proximoCursor = proximoCursor;
+    }
+
+    public String getCursorAnterior() {
+        return cursorAnterior;
+    }
+
+    public void setCursorAnterior(String cursorAnterior) {
+        this.cursorAnterior = cursorAnterior;
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.rfidtracking.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import javax.validation.constraints.NotBlank;
 import java.time.LocalDateTime; // Import LocalDateTime
 import javax.validation.constraints.NotNull;
@@ -15,6 +17,41 @@ public class RegistroRFIDDTO {
     @NotNull(message = "A Moto deve ser selecionada.")
     private Long motoId;
 
+    // Só de leitura: preenchidos pelas listagens projetadas e omitidos do JSON quando ausentes
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String motoModelo;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String motoPlaca;
+
+    // Ausentes nas leituras ainda não gravadas (lote, feed) e na exportação
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long versao;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private LocalDateTime atualizadoEm;
+
+    public RegistroRFIDDTO() {
+    }
+
+    // Usado na projeção da exportação (RegistroRFIDExportRepository)
+    public RegistroRFIDDTO(Long id, String pontoLeitura, LocalDateTime dataHora, Long motoId) {
+        this.id = id;
+        this.pontoLeitura = pontoLeitura;
+        this.dataHora = dataHora;
+        this.motoId = motoId;
+    }
+
+    // Usado nas listagens projetadas (RegistroRFIDProjecaoRepository e consultas por cursor)
+    public RegistroRFIDDTO(Long id, String pontoLeitura, LocalDateTime dataHora, Long motoId, String motoModelo, String motoPlaca,
+                           Long versao, LocalDateTime atualizadoEm) {
+        this(id, pontoLeitura, dataHora, motoId);
+        this.motoModelo = motoModelo;
+        this.motoPlaca = motoPlaca;
+        this.versao = versao;
+        this.atualizadoEm = atualizadoEm;
+    }
+
     // Getters and Setters
     public Long getId() { 
         return id; 
@@ -47,5 +84,36 @@ public class RegistroRFIDDTO {
     public void setMotoId(Long motoId) { 
         this.motoId = motoId; 
     }
-}
 
+    public String getMotoModelo() {
+        return motoModelo;
+    }
+
+    public void setMotoModelo(String motoModelo) {
+        this.motoModelo = motoModelo;
+    }
+
+    public String getMotoPlaca() {
+        return motoPlaca;
+    }
+
+    public void setMotoPlaca(String motoPlaca) {
+        this.motoPlaca = motoPlaca;
+    }
+
+    public Long getVersao() {
+        return versao;
+    }
+
+    public void setVersao(Long versao) {
+        this.versao = versao;
+    }
+
+    public LocalDateTime getAtualizadoEm() {
+        return atualizadoEm;
+    }
+
+    public void setAtualizadoEm(LocalDateTime atualizadoEm) {
+        this.atualizadoEm = atualizadoEm;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.rfidtracking.dto;
+
+public class TransicaoPontosDTO {
+    private String origem;
+    private String destino;
+    private long quantidade;
+
+    public TransicaoPontosDTO() {
+    }
+
+    public TransicaoPontosDTO(String origem, String destino, long quantidade) {
+        this.origem = origem;
+        this.destino = destino;
+        this.quantidade = quantidade;
+    }
+
+    // Getters and Setters
+    public String getOrigem() {
+        return origem;
+    }
+
+    public void setOrigem(String origem) {
+        this.origem = origem;
+    }
+
+    public String getDestino() {
+        return destino;
+    }
+
+    public void setDestino(String destino) {
+        this.destino = destino;
+    }
+
+    public long getQuantidade() {
+        return quantidade;
+    }
+
+    public void setQuantidade(long quantidade) {
+        this.quantidade = quantidade;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.rfidtracking.dto;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Versão de um recurso lida sem carregar a entidade, para validar GETs condicionais. Quando a
+ * representação também mostra dados de outra entidade (o nome da filial na moto), a versão dela
+ * entra no ETag e a alteração mais recente das duas vira o Last-Modified.
+ */
+public class VersaoDTO {
+    private Long versao;
+    private LocalDateTime atualizadoEm;
+    private Long versaoRelacionada;
+    private LocalDateTime relacionadaAtualizadaEm;
+
+    public VersaoDTO(Long versao, LocalDateTime atualizadoEm) {
+        this(versao, atualizadoEm, null, null);
+    }
+
+    public VersaoDTO(Long versao, LocalDateTime atualizadoEm, Long versaoRelacionada, LocalDateTime relacionadaAtualizadaEm) {
+        this.versao = versao;
+        this.atualizadoEm = atualizadoEm;
+        this.versaoRelacionada = versaoRelacionada;
+        this.relacionadaAtualizadaEm = relacionadaAtualizadaEm;
+    }
+
+    /**
+     * ETag forte no formato "versao" ou "versao.versaoRelacionada".
+     */
+    public String getEtag() {
+        return "\"" + versao + (versaoRelacionada == null ? "" : "." + versaoRelacionada) + "\"";
+    }
+
+    /**
+     * Última alteração em epoch millis, ou -1 para linhas gravadas antes da coluna existir.
+     */
+    public long getUltimaAlteracao() {
+        return Math.max(paraMillis(atualizadoEm), paraMillis(relacionadaAtualizadaEm));
+    }
+
+    private static long paraMillis(LocalDateTime dataHora) {
+        return dataHora == null ? -1 : dataHora.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    // Getters and Setters
+    public Long getVersao() {
+        return versao;
+    }
+
+    public LocalDateTime getAtualizadoEm() {
+        return atualizadoEm;
+    }
+
+    public Long getVersaoRelacionada() {
+        return versaoRelacionada;
+    }
+
+    public LocalDateTime getRelacionadaAtualizadaEm() {
+        return relacionadaAtualizadaEm;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.rfidtracking.dto;
+
+import java.time.LocalDateTime;
+
+public class VisitaDTO {
+    private String pontoLeitura;
+    private LocalDateTime entrada;
+    private LocalDateTime saida;
+    private long permanenciaSegundos;
+    private int leituras;
+
+    public VisitaDTO() {
+    }
+
+    public VisitaDTO(String pontoLeitura, LocalDateTime entrada, LocalDateTime saida, long permanenciaSegundos, int leituras) {
+        this.pontoLeitura = pontoLeitura;
+        this.entrada = entrada;
+        this.saida = saida;
+        this.permanenciaSegundos = permanenciaSegundos;
+        this.leituras = leituras;
+    }
+
+    // Getters and Setters
+    public String getPontoLeitura() {
+        return pontoLeitura;
+    }
+
+    public void setPontoLeitura(String pontoLeitura) {
+        this.pontoLeitura = pontoLeitura;
+    }
+
+    public LocalDateTime getEntrada() {
+        return entrada;
+    }
+
+    public void setEntrada(LocalDateTime entrada) {
+        this.entrada = entrada;
+    }
+
+    public LocalDateTime getSaida() {
+        return saida;
+    }
+
+    public void setSaida(LocalDateTime saida) {
+        this.saida = saida;
+    }
+
+    public long getPermanenciaSegundos() {
+        return permanenciaSegundos;
+    }
+
+    public void setPermanenciaSegundos(long permanenciaSegundos) {
+        this.permanenciaSegundos = permanenciaSegundos;
+    }
+
+    public int getLeituras() {
+        return leituras;
+    }
+
+    public void setLeituras(int leituras) {
+        this.leituras = leituras;
+    }
+}
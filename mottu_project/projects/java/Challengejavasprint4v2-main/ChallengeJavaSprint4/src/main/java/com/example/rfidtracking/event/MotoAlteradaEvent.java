@@ -0,0 +1,36 @@
+package com.example.rfidtracking.event;
+
+import com.example.rfidtracking.dto.MotoDTO;
+
+/**
+ * Publicado pelo MotoService ao criar, alterar ou remover uma moto. {@code anterior} é nulo na
+ * criação e {@code atual} é nulo na remoção.
+ */
+public class MotoAlteradaEvent {
+
+    private final Long motoId;
+    private final MotoDTO anterior;
+    private final MotoDTO atual;
+
+    public MotoAlteradaEvent(Long motoId, MotoDTO anterior, MotoDTO atual) {
+        this.motoId = motoId;
+        this.anterior = anterior;
+        this.atual = atual;
+    }
+
+    public Long getMotoId() {
+        return motoId;
+    }
+
+    public MotoDTO getAnterior() {
+        return anterior;
+    }
+
+    public MotoDTO getAtual() {
+        return atual;
+    }
+
+    public boolean isRemocao() {
+        return atual == null;
+    }
+}
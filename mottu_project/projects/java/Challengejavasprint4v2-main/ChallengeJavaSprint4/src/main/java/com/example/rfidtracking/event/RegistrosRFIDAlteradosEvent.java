@@ -0,0 +1,90 @@
+package com.example.rfidtracking.event;
+
+import com.example.rfidtracking.model.RegistroRFID;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Publicado pelo RegistroRFIDService sempre que leituras são gravadas, alteradas ou removidas.
+ * Numa alteração a versão antiga vai em {@code removidas} e a nova em {@code gravadas}.
+ * Os ouvintes usam @TransactionalEventListener para reagir somente após o commit.
+ */
+public class RegistrosRFIDAlteradosEvent {
+
+    private final List<Leitura> gravadas;
+    private final List<Leitura> removidas;
+
+    public RegistrosRFIDAlteradosEvent(List<Leitura> gravadas, List<Leitura> removidas) {
+        this.gravadas = Collections.unmodifiableList(gravadas);
+        this.removidas = Collections.unmodifiableList(removidas);
+    }
+
+    public static RegistrosRFIDAlteradosEvent gravadas(List<Leitura> gravadas) {
+        return new RegistrosRFIDAlteradosEvent(gravadas, Collections.emptyList());
+    }
+
+    public static RegistrosRFIDAlteradosEvent removidas(List<Leitura> removidas) {
+        return new RegistrosRFIDAlteradosEvent(Collections.emptyList(), removidas);
+    }
+
+    public List<Leitura> getGravadas() {
+        return gravadas;
+    }
+
+    public List<Leitura> getRemovidas() {
+        return removidas;
+    }
+
+    /**
+     * Fotografia imutável de uma leitura, independente da sessão JPA que a gravou.
+     */
+    public static class Leitura {
+        private final Long id;
+        private final Long motoId;
+        private final Long filialId;
+        private final String pontoLeitura;
+        private final LocalDateTime dataHora;
+
+        public Leitura(Long id, Long motoId, Long filialId, String pontoLeitura, LocalDateTime dataHora) {
+            this.id = id;
+            this.motoId = motoId;
+            this.filialId = filialId;
+            this.pontoLeitura = pontoLeitura;
+            this.dataHora = dataHora;
+        }
+
+        public static Leitura de(RegistroRFID registro) {
+            Long motoId = null;
+            Long filialId = null;
+            if (registro.getMoto() != null) {
+                motoId = registro.getMoto().getId();
+                if (registro.getMoto().getFilial() != null) {
+                    filialId = registro.getMoto().getFilial().getIdFilial();
+                }
+            }
+            return new Leitura(registro.getId(), motoId, filialId, registro.getPontoLeitura(), registro.getDataHora());
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public Long getMotoId() {
+            return motoId;
+        }
+
+        public Long getFilialId() {
+            return filialId;
+        }
+
+        public String getPontoLeitura() {
+            return pontoLeitura;
+        }
+
+        public LocalDateTime getDataHora() {
+            return dataHora;
+        }
+    }
+}
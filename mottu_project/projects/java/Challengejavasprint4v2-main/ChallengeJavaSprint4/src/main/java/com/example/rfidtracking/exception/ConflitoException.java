@@ -0,0 +1,11 @@
+package com.example.rfidtracking.exception;
+
+/**
+ * Requisição válida que conflita com o estado atual do recurso (respondida com 409).
+ */
+public class ConflitoException extends RuntimeException {
+
+    public ConflitoException(String message) {
+        super(message);
+    }
+}
@@ -1,6 +1,7 @@
 
 package com.example.rfidtracking.exception;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -20,4 +21,36 @@ public class GlobalExceptionHandler {
                 errors.put(error.getField(), error.getDefaultMessage()));
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errors);
     }
+
+    @ExceptionHandler(RequisicaoInvalidaException.class)
+    public ResponseEntity<Map<String, String>> handleRequisicaoInvalida(RequisicaoInvalidaException ex) {
+        Map<String, String> errors = new HashMap<>();
+        errors.put("erro", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errors);
+    }
+
+    @ExceptionHandler(ConflitoException.class)
+    public ResponseEntity<Map<String, String>> handleConflito(ConflitoException ex) {
+        Map<String, String> errors = new HashMap<>();
+        errors.put("erro", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(errors);
+    }
+
+    // Dois PUTs simultâneos sobre a mesma versão: o segundo a gravar perde no @Version
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, String>> handleOptimisticLocking(OptimisticLockingFailureException ex) {
+        Map<String, String> errors = new HashMap<>();
+        errors.put("erro", "O registro foi alterado por outra requisição; leia-o novamente antes de gravar.");
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(errors);
+    }
+
+    // Parte do lote já confirmou em outros shards: o cliente precisa reenviar só os índices pendentes
+    @ExceptionHandler(LoteParcialException.class)
+    public ResponseEntity<Map<String, Object>> handleLoteParcial(LoteParcialException ex) {
+        Map<String, Object> corpo = new HashMap<>();
+        corpo.put("erro", "Parte do lote não foi gravada; reenvie apenas os itens pendentes.");
+        corpo.put("pendentes", ex.getPendentes());
+        corpo.put("gravados", ex.getConfirmado());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(corpo);
+    }
 }
@@ -0,0 +1,30 @@
+package com.example.rfidtracking.exception;
+
+import com.example.rfidtracking.dto.RegistroRFIDBatchResultDTO;
+
+import java.util.List;
+
+/**
+ * Lote gravado só em parte: com sharding, a parte de cada shard confirma na própria transação, e a
+ * falha de um shard não desfaz as demais. {@link #getConfirmado()} traz os itens dos shards que
+ * confirmaram e {@link #getPendentes()} os índices, no lote recebido, que não foram gravados.
+ */
+public class LoteParcialException extends RuntimeException {
+
+    private final RegistroRFIDBatchResultDTO confirmado;
+    private final List<Integer> pendentes;
+
+    public LoteParcialException(RegistroRFIDBatchResultDTO confirmado, List<Integer> pendentes, RuntimeException causa) {
+        super(pendentes.size() + " leituras do lote não foram gravadas: " + causa.getMessage(), causa);
+        this.confirmado = confirmado;
+        this.pendentes = pendentes;
+    }
+
+    public RegistroRFIDBatchResultDTO getConfirmado() {
+        return confirmado;
+    }
+
+    public List<Integer> getPendentes() {
+        return pendentes;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.rfidtracking.exception;
+
+/**
+ * Parâmetro ou corpo recusado pela validação do serviço (respondido com 400). Erros internos
+ * continuam como IllegalArgumentException/IllegalStateException e viram 500.
+ */
+public class RequisicaoInvalidaException extends RuntimeException {
+
+    public RequisicaoInvalidaException(String message) {
+        super(message);
+    }
+
+    public RequisicaoInvalidaException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
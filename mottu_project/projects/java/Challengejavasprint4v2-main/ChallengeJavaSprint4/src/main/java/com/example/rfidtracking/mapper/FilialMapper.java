@@ -0,0 +1,34 @@
+package com.example.rfidtracking.mapper;
+
+import com.example.rfidtracking.dto.FilialDTO;
+import com.example.rfidtracking.model.Filial;
+import org.springframework.stereotype.Component;
+
+/**
+ * Conversão explícita entre Filial e FilialDTO, campo a campo, sem reflexão.
+ */
+@Component
+public class FilialMapper {
+
+    public FilialDTO toDto(Filial filial) {
+        FilialDTO dto = new FilialDTO();
+        dto.setIdFilial(filial.getIdFilial());
+        dto.setNome(filial.getNome());
+        dto.setCidade(filial.getCidade());
+        dto.setEstado(filial.getEstado());
+        dto.setShard(filial.getShard());
+        dto.setVersao(filial.getVersao());
+        dto.setAtualizadoEm(filial.getAtualizadoEm());
+        return dto;
+    }
+
+    public Filial toEntity(FilialDTO dto) {
+        Filial filial = new Filial();
+        filial.setIdFilial(dto.getIdFilial());
+        filial.setNome(dto.getNome());
+        filial.setCidade(dto.getCidade());
+        filial.setEstado(dto.getEstado());
+        filial.setShard(dto.getShard());
+        return filial;
+    }
+}
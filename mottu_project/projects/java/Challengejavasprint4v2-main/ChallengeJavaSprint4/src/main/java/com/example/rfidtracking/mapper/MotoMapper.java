@@ -0,0 +1,45 @@
+package com.example.rfidtracking.mapper;
+
+import com.example.rfidtracking.dto.MotoDTO;
+import com.example.rfidtracking.model.Filial;
+import com.example.rfidtracking.model.Moto;
+import com.example.rfidtracking.service.TagMotoIndex;
+import org.springframework.stereotype.Component;
+
+/**
+ * Conversão explícita entre Moto e MotoDTO, achatando a filial em filialId/nomeFilial.
+ */
+@Component
+public class MotoMapper {
+
+    public MotoDTO toDto(Moto moto) {
+        MotoDTO dto = new MotoDTO();
+        dto.setId(moto.getId());
+        dto.setModelo(moto.getModelo());
+        dto.setPlaca(moto.getPlaca());
+        dto.setStatus(moto.getStatus());
+        dto.setCodigoTag(moto.getCodigoTag());
+        dto.setVersao(moto.getVersao());
+        dto.setAtualizadoEm(moto.getAtualizadoEm());
+        Filial filial = moto.getFilial();
+        if (filial != null) {
+            dto.setFilialId(filial.getIdFilial());
+            dto.setNomeFilial(filial.getNome());
+        }
+        return dto;
+    }
+
+    /**
+     * Copia apenas os campos simples de uma moto nova; a associação com a filial é resolvida pelo
+     * serviço a partir de filialId. O id do corpo não é copiado: quem cria é o banco, e uma moto com id
+     * e sem versão seria levada ao persist como entidade destacada.
+     */
+    public Moto toEntity(MotoDTO dto) {
+        Moto moto = new Moto();
+        moto.setModelo(dto.getModelo());
+        moto.setPlaca(dto.getPlaca());
+        moto.setStatus(dto.getStatus());
+        moto.setCodigoTag(TagMotoIndex.normalizar(dto.getCodigoTag()));
+        return moto;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.rfidtracking.mapper;
+
+import com.example.rfidtracking.dto.RegistroRFIDDTO;
+import com.example.rfidtracking.model.Moto;
+import com.example.rfidtracking.model.RegistroRFID;
+import org.springframework.stereotype.Component;
+
+/**
+ * Conversão explícita de RegistroRFID para RegistroRFIDDTO, achatando a moto em motoId.
+ */
+@Component
+public class RegistroRFIDMapper {
+
+    public RegistroRFIDDTO toDto(RegistroRFID registro) {
+        RegistroRFIDDTO dto = new RegistroRFIDDTO();
+        dto.setId(registro.getId());
+        dto.setPontoLeitura(registro.getPontoLeitura());
+        dto.setDataHora(registro.getDataHora());
+        dto.setVersao(registro.getVersao());
+        dto.setAtualizadoEm(registro.getAtualizadoEm());
+        Moto moto = registro.getMoto();
+        if (moto != null) {
+            dto.setMotoId(moto.getId());
+        }
+        return dto;
+    }
+}
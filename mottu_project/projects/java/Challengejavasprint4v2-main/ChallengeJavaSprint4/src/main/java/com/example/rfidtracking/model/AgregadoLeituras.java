@@ -0,0 +1,53 @@
+package com.example.rfidtracking.model;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Contagem pré-agregada de leituras por hora ou por dia, ponto de leitura e filial. Mantida de forma
+ * incremental pelo AgregacaoLeiturasService; os gráficos operacionais consultam esta tabela em vez
+ * de agrupar a tabela de leituras.
+ */
+@Entity
+@Table(name = "AGREGADO_LEITURAS",
+        uniqueConstraints = @UniqueConstraint(name = "uk_agregado_leituras",
+                columnNames = {"granularidade", "inicio", "filial_id", "ponto_leitura"}),
+        indexes = @Index(name = "idx_agregado_leituras_inicio", columnList = "granularidade, inicio"))
+public class AgregadoLeituras {
+
+    public static final String HORA = "HORA";
+    public static final String DIA = "DIA";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String granularidade;
+
+    // Início do intervalo (hora cheia ou meia-noite)
+    @Column(nullable = false)
+    private LocalDateTime inicio;
+
+    // Filial da moto no momento da leitura; sem FK para que o histórico sobreviva à remoção da filial
+    @Column(name = "filial_id")
+    private Long filialId;
+
+    @Column(name = "ponto_leitura")
+    private String pontoLeitura;
+
+    private long quantidade;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getGranularidade() { return granularidade; }
+    public void setGranularidade(String granularidade) { this.granularidade = granularidade; }
+    public LocalDateTime getInicio() { return inicio; }
+    public void setInicio(LocalDateTime inicio) { this.inicio = inicio; }
+    public Long getFilialId() { return filialId; }
+    public void setFilialId(Long filialId) { this.filialId = filialId; }
+    public String getPontoLeitura() { return pontoLeitura; }
+    public void setPontoLeitura(String pontoLeitura) { this.pontoLeitura = pontoLeitura; }
+    public long getQuantidade() { return quantidade; }
+    public void setQuantidade(long quantidade) { this.quantidade = quantidade; }
+}
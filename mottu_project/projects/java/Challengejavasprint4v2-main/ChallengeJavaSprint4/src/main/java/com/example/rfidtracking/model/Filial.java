@@ -1,13 +1,24 @@
 package com.example.rfidtracking.model;
 
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
 import javax.persistence.*;
+import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "FILIAL")
 public class Filial {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY) // Assuming sequence/identity for Oracle, adjust if needed based on actual DDL
+    // Sequence em vez de IDENTITY: o FilialService reserva o id antes do INSERT para já gravar o shard nele
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "filial_seq")
+    @GenericGenerator(name = "filial_seq", strategy = "com.example.rfidtracking.config.GeradorIdReservado", parameters = {
+            @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "filial_seq"),
+            @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = "1")
+    })
     @Column(name = "id_filial")
     private Long idFilial;
 
@@ -20,6 +31,19 @@ public class Filial {
     @Column(name = "estado")
     private String estado;
 
+    // Shard dos dados (motos e leituras) da filial; nulo nas filiais anteriores ao sharding, que ficam no shard 0
+    @Column(name = "shard")
+    private Integer shard;
+
+    // Também entra no ETag das motos, que exibem o nome da filial
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "versao", nullable = false)
+    private Long versao;
+
+    @Column(name = "atualizado_em")
+    private LocalDateTime atualizadoEm;
+
     // Getters and Setters
     public Long getIdFilial() {
         return idFilial;
@@ -53,6 +77,32 @@ public class Filial {
         this.estado = estado;
     }
 
+    public Integer getShard() {
+        return shard;
+    }
+
+    public void setShard(Integer shard) {
+        this.shard = shard;
+    }
+
+    public Long getVersao() {
+        return versao;
+    }
+
+    public void setVersao(Long versao) {
+        this.versao = versao;
+    }
+
+    public LocalDateTime getAtualizadoEm() {
+        return atualizadoEm;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void registrarAlteracao() {
+        atualizadoEm = LocalDateTime.now();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,96 @@
+package com.example.rfidtracking.model;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Progresso de uma importação de leituras em massa. Atualizado na mesma transação de cada
+ * chunk gravado, então {@code linhasProcessadas} é sempre um ponto seguro para retomar.
+ */
+@Entity
+@Table(name = "IMPORTACAO_RFID")
+public class ImportacaoRFID {
+
+    public static final String EM_ANDAMENTO = "EM_ANDAMENTO";
+    public static final String INTERROMPIDA = "INTERROMPIDA";
+    public static final String CONCLUIDA = "CONCLUIDA";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String formato;
+
+    @Column(nullable = false)
+    private String status;
+
+    // Linhas do arquivo (cabeçalho incluído) já confirmadas; numa retomada elas são puladas
+    private long linhasProcessadas;
+
+    private long aceitos;
+
+    private long rejeitados;
+
+    private LocalDateTime iniciadaEm;
+
+    private LocalDateTime atualizadaEm;
+
+    @ElementCollection
+    @CollectionTable(name = "IMPORTACAO_RFID_ERRO", joinColumns = @JoinColumn(name = "importacao_id"))
+    @OrderColumn(name = "posicao")
+    private List<ErroImportacao> erros = new ArrayList<>();
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getFormato() { return formato; }
+    public void setFormato(String formato) { this.formato = formato; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public long getLinhasProcessadas() { return linhasProcessadas; }
+    public void setLinhasProcessadas(long linhasProcessadas) { this.linhasProcessadas = linhasProcessadas; }
+    public long getAceitos() { return aceitos; }
+    public void setAceitos(long aceitos) { this.aceitos = aceitos; }
+    public long getRejeitados() { return rejeitados; }
+    public void setRejeitados(long rejeitados) { this.rejeitados = rejeitados; }
+    public LocalDateTime getIniciadaEm() { return iniciadaEm; }
+    public void setIniciadaEm(LocalDateTime iniciadaEm) { this.iniciadaEm = iniciadaEm; }
+    public LocalDateTime getAtualizadaEm() { return atualizadaEm; }
+    public void setAtualizadaEm(LocalDateTime atualizadaEm) { this.atualizadaEm = atualizadaEm; }
+    public List<ErroImportacao> getErros() { return erros; }
+    public void setErros(List<ErroImportacao> erros) { this.erros = erros; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ImportacaoRFID that = (ImportacaoRFID) o;
+        return id != null && id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31;
+    }
+
+    @Embeddable
+    public static class ErroImportacao {
+        private long linha;
+
+        @Column(length = 1000)
+        private String mensagem;
+
+        protected ErroImportacao() {
+        }
+
+        public ErroImportacao(long linha, String mensagem) {
+            this.linha = linha;
+            this.mensagem = mensagem;
+        }
+
+        public long getLinha() { return linha; }
+        public String getMensagem() { return mensagem; }
+    }
+}
@@ -1,7 +1,10 @@
 package com.example.rfidtracking.model;
 
+import org.hibernate.annotations.ColumnDefault;
+
 import javax.persistence.*;
 import javax.validation.constraints.NotBlank;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
@@ -24,6 +27,10 @@ public class Moto {
     @Column(name = "status")
     private String status;
 
+    // Código gravado na tag RFID da moto (EPC), pelo qual os leitores fixos a identificam
+    @Column(name = "codigo_tag", unique = true)
+    private String codigoTag;
+
     @ManyToOne(fetch = FetchType.LAZY) // Lazy fetching is generally a good default
     @JoinColumn(name = "filial_id")
     private Filial filial;
@@ -31,6 +38,15 @@ public class Moto {
     @OneToMany(mappedBy = "moto", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<RegistroRFID> registros;
 
+    // Controle otimista e base do ETag/Last-Modified das respostas (default 0 para as linhas já existentes)
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "versao", nullable = false)
+    private Long versao;
+
+    @Column(name = "atualizado_em")
+    private LocalDateTime atualizadoEm;
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -64,6 +80,14 @@ public class Moto {
         this.status = status;
     }
 
+    public String getCodigoTag() {
+        return codigoTag;
+    }
+
+    public void setCodigoTag(String codigoTag) {
+        this.codigoTag = codigoTag;
+    }
+
     public Filial getFilial() {
         return filial;
     }
@@ -80,6 +104,24 @@ public class Moto {
         this.registros = registros;
     }
 
+    public Long getVersao() {
+        return versao;
+    }
+
+    public void setVersao(Long versao) {
+        this.versao = versao;
+    }
+
+    public LocalDateTime getAtualizadoEm() {
+        return atualizadoEm;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void registrarAlteracao() {
+        atualizadoEm = LocalDateTime.now();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
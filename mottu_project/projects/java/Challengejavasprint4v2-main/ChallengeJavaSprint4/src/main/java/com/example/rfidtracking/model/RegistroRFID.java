@@ -1,25 +1,64 @@
 
 package com.example.rfidtracking.model;
 
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
 import javax.persistence.*;
 import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_registro_rfid_data_hora_id", columnList = "dataHora DESC, id DESC"),
+        // Histórico por moto (detalhe da moto, filtro por moto e faixa de tempo)
+        @Index(name = "idx_registro_rfid_moto_data_hora", columnList = "moto_id, dataHora DESC")
+})
 public class RegistroRFID {
+
+    /**
+     * Fuso de {@link #dataHora}: instantes recebidos em epoch (leitores TCP, lote binário) e o "agora"
+     * das leituras sem data são convertidos nele. A deduplicação, as jornadas e a posição das motos
+     * comparam as datas como UTC, e um fuso com horário de verão criaria buracos e horas repetidas.
+     */
+    public static final ZoneOffset FUSO_DATA_HORA = ZoneOffset.UTC;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Sequence (em vez de IDENTITY) para que o Hibernate consiga agrupar os INSERTs em batch JDBC
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "registro_rfid_seq")
+    // GeradorIdShard: mesma sequence, mas com o bloco de ids em memória separado por shard
+    @GenericGenerator(name = "registro_rfid_seq", strategy = "com.example.rfidtracking.config.GeradorIdShard", parameters = {
+            @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "registro_rfid_seq"),
+            @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = "50")
+    })
     private Long id;
 
     @NotBlank
     private String pontoLeitura;
 
+    // Chave de partição da tabela (ver ParticionamentoRegistros) e posição do cursor; os serviços usam o
+    // instante da gravação quando a leitura chega sem data
+    @NotNull
+    @Column(nullable = false)
     private LocalDateTime dataHora;
 
-    @ManyToOne
+    // LAZY: listagens projetam os campos da moto na própria consulta (RegistroRFIDProjecaoRepository)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "moto_id", nullable = false)
     private Moto moto;
 
+    // Leituras raramente são editadas; a versão serve ao PUT concorrente e ao ETag de GET /api/registros/{id}
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long versao;
+
+    private LocalDateTime atualizadoEm;
+
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
     public String getPontoLeitura() { return pontoLeitura; }
@@ -29,6 +68,17 @@ public class RegistroRFID {
     public Moto getMoto() { return moto; }
     public void setMoto(Moto moto) { this.moto = moto; }
 
+    public Long getVersao() { return versao; }
+    public void setVersao(Long versao) { this.versao = versao; }
+
+    public LocalDateTime getAtualizadoEm() { return atualizadoEm; }
+
+    @PrePersist
+    @PreUpdate
+    void registrarAlteracao() {
+        atualizadoEm = LocalDateTime.now();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,53 @@
+package com.example.rfidtracking.repository;
+
+import com.example.rfidtracking.dto.AgregadoLeiturasDTO;
+import com.example.rfidtracking.model.AgregadoLeituras;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AgregadoLeiturasRepository extends JpaRepository<AgregadoLeituras, Long> {
+
+    List<AgregadoLeituras> findByGranularidadeAndInicioIn(String granularidade, Collection<LocalDateTime> inicios);
+
+    List<AgregadoLeituras> findByGranularidadeAndInicioGreaterThanEqualAndInicioLessThan(String granularidade,
+                                                                                         LocalDateTime de, LocalDateTime ate);
+
+    @Modifying
+    @Query("delete from AgregadoLeituras a where a.granularidade = :granularidade and a.inicio >= :de and a.inicio < :ate")
+    int apagarIntervalo(@Param("granularidade") String granularidade, @Param("de") LocalDateTime de, @Param("ate") LocalDateTime ate);
+
+    // As consultas percorrem só os intervalos pedidos pelo índice (granularidade, inicio): o custo depende
+    // do período e do número de pontos/filiais, não do tamanho do histórico de leituras
+
+    @Query("select new com.example.rfidtracking.dto.AgregadoLeiturasDTO(a.inicio, a.filialId, a.pontoLeitura, a.quantidade) "
+            + "from AgregadoLeituras a where a.granularidade = :granularidade and a.inicio >= :de and a.inicio < :ate "
+            + "and (:filialId is null or a.filialId = :filialId) and (:pontoLeitura is null or a.pontoLeitura = :pontoLeitura) "
+            + "order by a.inicio, a.filialId, a.pontoLeitura")
+    List<AgregadoLeiturasDTO> listar(@Param("granularidade") String granularidade, @Param("de") LocalDateTime de,
+                                     @Param("ate") LocalDateTime ate, @Param("filialId") Long filialId,
+                                     @Param("pontoLeitura") String pontoLeitura);
+
+    @Query("select new com.example.rfidtracking.dto.AgregadoLeiturasDTO(a.inicio, a.pontoLeitura, sum(a.quantidade)) "
+            + "from AgregadoLeituras a where a.granularidade = :granularidade and a.inicio >= :de and a.inicio < :ate "
+            + "and (:filialId is null or a.filialId = :filialId) and (:pontoLeitura is null or a.pontoLeitura = :pontoLeitura) "
+            + "group by a.inicio, a.pontoLeitura order by a.inicio, a.pontoLeitura")
+    List<AgregadoLeiturasDTO> somarPorPonto(@Param("granularidade") String granularidade, @Param("de") LocalDateTime de,
+                                            @Param("ate") LocalDateTime ate, @Param("filialId") Long filialId,
+                                            @Param("pontoLeitura") String pontoLeitura);
+
+    @Query("select new com.example.rfidtracking.dto.AgregadoLeiturasDTO(a.inicio, a.filialId, sum(a.quantidade)) "
+            + "from AgregadoLeituras a where a.granularidade = :granularidade and a.inicio >= :de and a.inicio < :ate "
+            + "and (:filialId is null or a.filialId = :filialId) and (:pontoLeitura is null or a.pontoLeitura = :pontoLeitura) "
+            + "group by a.inicio, a.filialId order by a.inicio, a.filialId")
+    List<AgregadoLeiturasDTO> somarPorFilial(@Param("granularidade") String granularidade, @Param("de") LocalDateTime de,
+                                             @Param("ate") LocalDateTime ate, @Param("filialId") Long filialId,
+                                             @Param("pontoLeitura") String pontoLeitura);
+}
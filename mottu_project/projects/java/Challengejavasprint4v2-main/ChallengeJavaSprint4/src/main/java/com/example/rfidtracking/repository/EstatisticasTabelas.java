@@ -0,0 +1,16 @@
+package com.example.rfidtracking.repository;
+
+import java.util.OptionalLong;
+
+/**
+ * Quantidade aproximada de linhas de uma tabela, lida das estatísticas que o banco já mantém para o
+ * otimizador, sem varrer a tabela nem o índice. Vale para a tabela inteira, ou seja, para listagens
+ * sem filtro.
+ */
+public interface EstatisticasTabelas {
+
+    /**
+     * Linhas estimadas de {@code tabela}; vazio enquanto o banco ainda não tiver estatística dela.
+     */
+    OptionalLong linhasEstimadas(String tabela);
+}
@@ -0,0 +1,26 @@
+package com.example.rfidtracking.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Estimativa do H2 (dev e testes): o MVStore mantém a contagem de linhas de cada tabela e a expõe em
+ * {@code INFORMATION_SCHEMA.TABLES}, sem percorrer os dados.
+ */
+public class EstatisticasTabelasH2 implements EstatisticasTabelas {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public EstatisticasTabelasH2(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public OptionalLong linhasEstimadas(String tabela) {
+        List<Long> linhas = jdbcTemplate.queryForList("SELECT ROW_COUNT_ESTIMATE FROM INFORMATION_SCHEMA.TABLES"
+                + " WHERE TABLE_SCHEMA = SCHEMA() AND UPPER(TABLE_NAME) = UPPER(?)", Long.class, tabela);
+        return linhas.isEmpty() || linhas.get(0) == null ? OptionalLong.empty() : OptionalLong.of(linhas.get(0));
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.rfidtracking.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.OptionalLong;
+
+/**
+ * Estimativa do PostgreSQL a partir de {@code pg_class}, do mesmo jeito que o planner faz: a densidade
+ * do último ANALYZE (reltuples / relpages) vezes o tamanho atual da tabela, para que a estimativa
+ * acompanhe o crescimento entre uma passada do autovacuum e outra. Tabelas particionadas (como
+ * {@code registrorfid}) somam as partições.
+ */
+public class EstatisticasTabelasPostgres implements EstatisticasTabelas {
+
+    // relkind 'r' exclui o pai particionado, que não guarda linhas; reltuples < 0 é "nunca analisada"
+    private static final String SQL = "SELECT CAST(SUM(CASE WHEN c.relpages > 0"
+            + " THEN c.reltuples / c.relpages * (pg_relation_size(c.oid) / current_setting('block_size')::int)"
+            + " ELSE GREATEST(c.reltuples, 0) END) AS bigint) AS linhas, BOOL_OR(c.reltuples >= 0) AS analisada"
+            + " FROM pg_class c"
+            + " WHERE c.relkind = 'r' AND (c.oid = to_regclass(?)"
+            + " OR c.oid IN (SELECT i.inhrelid FROM pg_inherits i WHERE i.inhparent = to_regclass(?)))";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public EstatisticasTabelasPostgres(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public OptionalLong linhasEstimadas(String tabela) {
+        return jdbcTemplate.queryForObject(SQL, (rs, linha) -> rs.getBoolean("analisada")
+                ? OptionalLong.of(rs.getLong("linhas"))
+                : OptionalLong.empty(), tabela, tabela);
+    }
+}
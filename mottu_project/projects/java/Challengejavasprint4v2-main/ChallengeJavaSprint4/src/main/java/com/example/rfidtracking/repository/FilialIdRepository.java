@@ -0,0 +1,13 @@
+package com.example.rfidtracking.repository;
+
+/**
+ * Reserva de ids de filial antes da gravação.
+ */
+public interface FilialIdRepository {
+
+    /**
+     * Próximo valor do gerador da entidade. A filial que recebe esse id antes do save é gravada com
+     * ele num único INSERT.
+     */
+    Long reservarId();
+}
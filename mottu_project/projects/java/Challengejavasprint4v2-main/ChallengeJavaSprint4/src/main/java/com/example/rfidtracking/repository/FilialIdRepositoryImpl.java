@@ -0,0 +1,21 @@
+package com.example.rfidtracking.repository;
+
+import com.example.rfidtracking.model.Filial;
+import org.hibernate.engine.spi.SessionImplementor;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+class FilialIdRepositoryImpl implements FilialIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Long reservarId() {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        // Uma filial sem id faz o GeradorIdReservado ir à sequence
+        return (Long) session.getFactory().getMetamodel().entityPersister(Filial.class)
+                .getIdentifierGenerator().generate(session, new Filial());
+    }
+}
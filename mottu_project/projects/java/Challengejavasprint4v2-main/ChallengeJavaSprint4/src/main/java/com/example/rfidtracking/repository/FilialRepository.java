@@ -1,10 +1,23 @@
 package com.example.rfidtracking.repository;
 
+import com.example.rfidtracking.dto.FilialDTO;
+import com.example.rfidtracking.dto.VersaoDTO;
 import com.example.rfidtracking.model.Filial;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
-public interface FilialRepository extends JpaRepository<Filial, Long> {
-}
+public interface FilialRepository extends JpaRepository<Filial, Long>, FilialIdRepository {
 
+    // Projeção para combos e listagens: uma consulta, sem entidades no contexto de persistência
+    @Query("select new com.example.rfidtracking.dto.FilialDTO(f.idFilial, f.nome, f.cidade, f.estado, f.shard, f.versao, f.atualizadoEm) from Filial f")
+    List<FilialDTO> listarProjetado();
+
+    @Query("select new com.example.rfidtracking.dto.VersaoDTO(f.versao, f.atualizadoEm) from Filial f where f.idFilial = :id")
+    Optional<VersaoDTO> buscarVersao(@Param("id") Long id);
+}
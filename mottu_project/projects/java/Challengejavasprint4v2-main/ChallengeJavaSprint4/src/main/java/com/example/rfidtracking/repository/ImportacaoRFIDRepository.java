@@ -0,0 +1,9 @@
+package com.example.rfidtracking.repository;
+
+import com.example.rfidtracking.model.ImportacaoRFID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ImportacaoRFIDRepository extends JpaRepository<ImportacaoRFID, Long> {
+}
@@ -0,0 +1,25 @@
+package com.example.rfidtracking.repository;
+
+import com.example.rfidtracking.dto.MotoDTO;
+import com.example.rfidtracking.model.Moto;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Listagem de motos projetada direto em DTO, com o nome da filial vindo de um LEFT JOIN no mesmo SELECT.
+ */
+public interface MotoProjecaoRepository {
+
+    /**
+     * Página de motos que atendem à especificação, com no máximo duas consultas (conteúdo e contagem).
+     */
+    Page<MotoDTO> listarProjetado(Specification<Moto> spec, Pageable pageable);
+
+    /**
+     * Fatia de motos sem a consulta de contagem: busca uma linha além do tamanho da página só para
+     * saber se existe uma próxima.
+     */
+    Slice<MotoDTO> fatiarProjetado(Specification<Moto> spec, Pageable pageable);
+}
@@ -0,0 +1,86 @@
+package com.example.rfidtracking.repository;
+
+import com.example.rfidtracking.dto.MotoDTO;
+import com.example.rfidtracking.model.Filial;
+import com.example.rfidtracking.model.Moto;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.List;
+
+class MotoProjecaoRepositoryImpl implements MotoProjecaoRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<MotoDTO> listarProjetado(Specification<Moto> spec, Pageable pageable) {
+        TypedQuery<MotoDTO> typedQuery = consulta(spec, pageable.getSort());
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset()).setMaxResults(pageable.getPageSize());
+        }
+        List<MotoDTO> conteudo = typedQuery.getResultList();
+        return PageableExecutionUtils.getPage(conteudo, pageable, () -> contar(spec));
+    }
+
+    @Override
+    public Slice<MotoDTO> fatiarProjetado(Specification<Moto> spec, Pageable pageable) {
+        TypedQuery<MotoDTO> typedQuery = consulta(spec, pageable.getSort());
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(typedQuery.getResultList(), pageable, false);
+        }
+        List<MotoDTO> conteudo = typedQuery.setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        boolean temProxima = conteudo.size() > pageable.getPageSize();
+        return new SliceImpl<>(temProxima ? conteudo.subList(0, pageable.getPageSize()) : conteudo, pageable, temProxima);
+    }
+
+    private TypedQuery<MotoDTO> consulta(Specification<Moto> spec, Sort sort) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<MotoDTO> query = builder.createQuery(MotoDTO.class);
+        Root<Moto> root = query.from(Moto.class);
+        // LEFT JOIN porque a filial é opcional; sem ele o acesso ao nome carregaria a filial moto a moto
+        Join<Moto, Filial> filial = root.join("filial", JoinType.LEFT);
+
+        query.select(builder.construct(MotoDTO.class, root.get("id"), root.get("modelo"), root.get("placa"),
+                root.get("status"), root.get("codigoTag"), filial.get("idFilial"), filial.get("nome"),
+                root.get("versao"), root.get("atualizadoEm")));
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, builder));
+        }
+        return entityManager.createQuery(query).setHint(QueryHints.HINT_READONLY, true);
+    }
+
+    private long contar(Specification<Moto> spec) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = builder.createQuery(Long.class);
+        Root<Moto> root = query.from(Moto.class);
+        query.select(builder.count(root));
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
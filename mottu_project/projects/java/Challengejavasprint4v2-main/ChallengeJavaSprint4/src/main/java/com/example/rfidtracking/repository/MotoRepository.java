@@ -1,14 +1,45 @@
 package com.example.rfidtracking.repository;
 
+import com.example.rfidtracking.dto.VersaoDTO;
 import com.example.rfidtracking.model.Moto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
-public interface MotoRepository extends JpaRepository<Moto, Long>, JpaSpecificationExecutor<Moto> {
+public interface MotoRepository extends JpaRepository<Moto, Long>, JpaSpecificationExecutor<Moto>, MotoProjecaoRepository {
+
+    @Query("select m.id from Moto m where m.filial.idFilial = :filialId")
+    List<Long> findIdsByFilialId(@Param("filialId") Long filialId);
+
+    boolean existsByFilial_IdFilial(Long filialId);
+
+    // Validação de GET condicional; a filial entra porque o nome dela faz parte da resposta
+    @Query("select new com.example.rfidtracking.dto.VersaoDTO(m.versao, m.atualizadoEm, f.versao, f.atualizadoEm) "
+            + "from Moto m left join m.filial f where m.id = :id")
+    Optional<VersaoDTO> buscarVersao(@Param("id") Long id);
+
+    @Query("select m.id from Moto m where m.codigoTag = :codigoTag")
+    Optional<Long> findIdByCodigoTag(@Param("codigoTag") String codigoTag);
+
+    // Carga do mapa de tags dos leitores fixos
+    @Query("select m.id, m.codigoTag from Moto m where m.codigoTag is not null")
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Object[]> streamTags();
 
+    // Carga do índice de busca: id, placa e modelo lidos em streaming para não materializar a frota inteira
+    @Query("select m.id, m.placa, m.modelo from Moto m order by m.id")
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Object[]> streamTextosIndexados();
 }
 
@@ -0,0 +1,23 @@
+package com.example.rfidtracking.repository;
+
+import java.time.YearMonth;
+
+/**
+ * Particionamento mensal da tabela de leituras por {@code data_hora}. A retenção trabalha com meses
+ * inteiros: descartar um mês é remover a partição, não apagar linha a linha. A entidade e o
+ * repositório JPA não mudam; a tabela continua se chamando {@code registrorfid} para o Hibernate.
+ */
+public interface ParticionamentoRegistros {
+
+    String TABELA = "registrorfid";
+
+    /**
+     * Garante que a tabela esteja particionada e que existam partições de {@code de} até {@code ate}.
+     */
+    void prepararParticoes(YearMonth de, YearMonth ate);
+
+    /**
+     * Remove (ou move para o arquivo) todas as leituras dos meses anteriores a {@code limite}.
+     */
+    void descartarAnterioresA(YearMonth limite, boolean arquivar);
+}
@@ -0,0 +1,58 @@
+package com.example.rfidtracking.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.YearMonth;
+
+/**
+ * Equivalente do particionamento para o H2 (dev e testes), que não tem partições nativas: cada mês
+ * é uma faixa do índice por data, e a retenção apaga (ou arquiva) um mês por transação usando essa
+ * faixa, sem varrer a tabela.
+ */
+public class ParticionamentoRegistrosH2 implements ParticionamentoRegistros {
+
+    private static final Logger log = LoggerFactory.getLogger(ParticionamentoRegistrosH2.class);
+    private static final String TABELA_ARQUIVO = TABELA + "_arquivo";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public ParticionamentoRegistrosH2(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public void prepararParticoes(YearMonth de, YearMonth ate) {
+        // O índice (data_hora, id) já delimita cada mês; não há estrutura a criar
+    }
+
+    @Override
+    public void descartarAnterioresA(YearMonth limite, boolean arquivar) {
+        Timestamp maisAntiga = jdbcTemplate.queryForObject("SELECT MIN(data_hora) FROM " + TABELA, Timestamp.class);
+        if (maisAntiga == null) {
+            return;
+        }
+        if (arquivar) {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + TABELA_ARQUIVO + " AS SELECT * FROM " + TABELA + " WITH NO DATA");
+        }
+        for (YearMonth mes = YearMonth.from(maisAntiga.toLocalDateTime()); mes.isBefore(limite); mes = mes.plusMonths(1)) {
+            Timestamp inicio = Timestamp.valueOf(mes.atDay(1).atStartOfDay());
+            Timestamp fim = Timestamp.valueOf(mes.plusMonths(1).atDay(1).atStartOfDay());
+            Integer removidas = transactionTemplate.execute(status -> {
+                if (arquivar) {
+                    jdbcTemplate.update("INSERT INTO " + TABELA_ARQUIVO + " SELECT * FROM " + TABELA
+                            + " WHERE data_hora >= ? AND data_hora < ?", inicio, fim);
+                }
+                return jdbcTemplate.update("DELETE FROM " + TABELA + " WHERE data_hora >= ? AND data_hora < ?", inicio, fim);
+            });
+            if (removidas != null && removidas > 0) {
+                log.info("Retenção: {} leituras de {} {}", removidas, mes, arquivar ? "arquivadas" : "removidas");
+            }
+        }
+    }
+}
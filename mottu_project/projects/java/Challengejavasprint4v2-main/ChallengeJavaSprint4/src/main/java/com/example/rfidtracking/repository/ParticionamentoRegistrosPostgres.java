@@ -0,0 +1,250 @@
+package com.example.rfidtracking.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Partições nativas do PostgreSQL: {@code registrorfid} é particionada por faixa de {@code data_hora},
+ * com uma partição por mês ({@code registrorfid_pAAAA_MM}) e uma partição padrão para o que não tiver
+ * mês criado. Consultas com faixa de data só visitam as partições do período (partition pruning).
+ * Todo DDL roda sob um advisory lock do banco, para que várias instâncias da aplicação apontando
+ * para o mesmo banco não criem, convertam ou descartem partições ao mesmo tempo.
+ */
+public class ParticionamentoRegistrosPostgres implements ParticionamentoRegistros {
+
+    private static final Logger log = LoggerFactory.getLogger(ParticionamentoRegistrosPostgres.class);
+    private static final String PADRAO = TABELA + "_default";
+    private static final String LEGADO = TABELA + "_legado";
+    private static final Pattern NOME_PARTICAO = Pattern.compile(TABELA + "_p(\\d{4})_(\\d{2})");
+    // Chave do pg_advisory_lock que serializa o DDL de partições entre instâncias
+    private static final String CHAVE_BLOQUEIO = "hashtext('" + TABELA + ".particionamento')";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final String esquemaArquivo;
+    private final boolean converterTabela;
+
+    public ParticionamentoRegistrosPostgres(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                            String esquemaArquivo, boolean converterTabela) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.esquemaArquivo = esquemaArquivo;
+        this.converterTabela = converterTabela;
+    }
+
+    /**
+     * Uma tabela comum vazia (recém-criada pelo Hibernate) é convertida direto; com leituras, a
+     * conversão copia a tabela inteira e só roda com {@code rfid.retencao.converter-tabela=true}.
+     * Meses que já têm leituras na partição padrão ganham partição própria, além de {@code de..ate}.
+     */
+    @Override
+    public void prepararParticoes(YearMonth de, YearMonth ate) {
+        comBloqueio(() -> {
+            String tipo = tipoTabela();
+            if (tipo == null) {
+                return;
+            }
+            if (!"p".equals(tipo)) {
+                boolean vazia = !jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM " + TABELA + ")", Boolean.class);
+                if (!vazia && !converterTabela) {
+                    log.warn("{} não é particionada; partições e retenção ficam desativadas até a conversão, "
+                            + "habilitada com rfid.retencao.converter-tabela=true (copia a tabela inteira sob bloqueio exclusivo)", TABELA);
+                    return;
+                }
+                transactionTemplate.executeWithoutResult(status -> converter());
+            }
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + PADRAO + " PARTITION OF " + TABELA + " DEFAULT");
+            for (YearMonth mes = de; !mes.isAfter(ate); mes = mes.plusMonths(1)) {
+                YearMonth atual = mes;
+                transactionTemplate.executeWithoutResult(status -> criarParticao(atual));
+            }
+            // Histórico importado ou com datas fora da faixa criada cai na partição padrão; cada mês dele
+            // vira partição, e a retenção passa a descartá-lo inteiro em vez de apagar linha a linha
+            for (YearMonth mes : meses(PADRAO)) {
+                transactionTemplate.executeWithoutResult(status -> criarParticao(mes));
+            }
+        });
+    }
+
+    @Override
+    public void descartarAnterioresA(YearMonth limite, boolean arquivar) {
+        comBloqueio(() -> {
+            if (!"p".equals(tipoTabela())) {
+                log.warn("Retenção ignorada: {} não é particionada", TABELA);
+                return;
+            }
+            descartar(limite, arquivar);
+        });
+    }
+
+    private void descartar(YearMonth limite, boolean arquivar) {
+        if (arquivar) {
+            jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS " + esquemaArquivo);
+        }
+        List<String> particoes = jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i "
+                + "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = to_regclass(?) ORDER BY c.relname", String.class, TABELA);
+        for (String particao : particoes) {
+            YearMonth mes = mesDa(particao);
+            if (mes == null || !mes.isBefore(limite)) {
+                continue;
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.execute("ALTER TABLE " + TABELA + " DETACH PARTITION " + particao);
+                if (arquivar) {
+                    // A partição desanexada continua consultável no esquema de arquivo
+                    jdbcTemplate.execute("ALTER TABLE " + particao + " SET SCHEMA " + esquemaArquivo);
+                } else {
+                    jdbcTemplate.execute("DROP TABLE " + particao);
+                }
+            });
+            log.info("Retenção: partição {} {}", particao, arquivar ? "arquivada" : "removida");
+        }
+
+        // Leituras anteriores à primeira partição mensal ficam na partição padrão, que deve ser pequena
+        Timestamp corte = Timestamp.valueOf(limite.atDay(1).atStartOfDay());
+        Integer removidas = transactionTemplate.execute(status -> {
+            if (arquivar) {
+                String avulsas = esquemaArquivo + "." + TABELA + "_avulsas";
+                jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + avulsas + " (LIKE " + TABELA + " INCLUDING DEFAULTS)");
+                return jdbcTemplate.update("WITH movidas AS (DELETE FROM " + PADRAO + " WHERE data_hora < ? RETURNING *) "
+                        + "INSERT INTO " + avulsas + " SELECT * FROM movidas", corte);
+            }
+            return jdbcTemplate.update("DELETE FROM " + PADRAO + " WHERE data_hora < ?", corte);
+        });
+        if (removidas != null && removidas > 0) {
+            log.info("Retenção: {} leituras anteriores a {} {} da partição padrão", removidas, limite,
+                    arquivar ? "arquivadas" : "removidas");
+        }
+    }
+
+    /**
+     * Cria a partição do mês como tabela avulsa, traz as leituras do mês que tinham caído na partição
+     * padrão e só então a anexa, porque o PostgreSQL recusa criar uma partição cujo intervalo já
+     * tenha linhas na partição padrão.
+     */
+    private void criarParticao(YearMonth mes) {
+        String nome = nomeParticao(mes);
+        if (jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, nome)) {
+            return;
+        }
+        Timestamp inicio = Timestamp.valueOf(mes.atDay(1).atStartOfDay());
+        Timestamp fim = Timestamp.valueOf(mes.plusMonths(1).atDay(1).atStartOfDay());
+        jdbcTemplate.execute("CREATE TABLE " + nome + " (LIKE " + TABELA + " INCLUDING DEFAULTS)");
+        jdbcTemplate.update("WITH movidas AS (DELETE FROM " + PADRAO + " WHERE data_hora >= ? AND data_hora < ? RETURNING *) "
+                + "INSERT INTO " + nome + " SELECT * FROM movidas", inicio, fim);
+        jdbcTemplate.execute("ALTER TABLE " + TABELA + " ATTACH PARTITION " + nome
+                + " FOR VALUES FROM ('" + inicio + "') TO ('" + fim + "')");
+    }
+
+    /**
+     * Conversão única de uma tabela comum (criada pelo Hibernate) em particionada. Roda numa única
+     * transação, copiando as leituras existentes; em bases grandes deve ser feita numa janela de manutenção.
+     * Leituras sem {@code data_hora} não cabem em nenhuma partição e não são inventadas aqui: a conversão
+     * é abortada, sem alterar nada, até que sejam corrigidas ou removidas.
+     */
+    private void converter() {
+        log.warn("Convertendo {} em tabela particionada por mês; as leituras existentes serão copiadas", TABELA);
+        jdbcTemplate.execute("LOCK TABLE " + TABELA + " IN ACCESS EXCLUSIVE MODE");
+        Long semData = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + TABELA + " WHERE data_hora IS NULL", Long.class);
+        if (semData != null && semData > 0) {
+            throw new IllegalStateException("Conversão de " + TABELA + " abortada: " + semData + " leituras sem data_hora. "
+                    + "A chave primária da tabela particionada é (id, data_hora); preencha ou remova essas linhas "
+                    + "(SELECT * FROM " + TABELA + " WHERE data_hora IS NULL) e reinicie.");
+        }
+
+        // Definições lidas antes do rename, para que continuem apontando para registrorfid
+        List<Map<String, Object>> indices = jdbcTemplate.queryForList("SELECT c.relname AS nome, pg_get_indexdef(i.indexrelid) AS definicao "
+                + "FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid WHERE i.indrelid = to_regclass(?) AND NOT i.indisprimary", TABELA);
+        List<Map<String, Object>> chavesEstrangeiras = jdbcTemplate.queryForList("SELECT conname AS nome, pg_get_constraintdef(oid) AS definicao "
+                + "FROM pg_constraint WHERE conrelid = to_regclass(?) AND contype = 'f'", TABELA);
+        List<String> chavesPrimarias = jdbcTemplate.queryForList("SELECT conname FROM pg_constraint "
+                + "WHERE conrelid = to_regclass(?) AND contype = 'p'", String.class, TABELA);
+
+        jdbcTemplate.execute("ALTER TABLE " + TABELA + " RENAME TO " + LEGADO);
+        for (Map<String, Object> indice : indices) {
+            jdbcTemplate.execute("DROP INDEX \"" + indice.get("nome") + "\"");
+        }
+        for (String chavePrimaria : chavesPrimarias) {
+            jdbcTemplate.execute("ALTER TABLE " + LEGADO + " DROP CONSTRAINT \"" + chavePrimaria + "\"");
+        }
+        jdbcTemplate.execute("CREATE TABLE " + TABELA + " (LIKE " + LEGADO + " INCLUDING DEFAULTS) PARTITION BY RANGE (data_hora)");
+        // Em tabela particionada a chave primária precisa conter a coluna de partição
+        jdbcTemplate.execute("ALTER TABLE " + TABELA + " ADD PRIMARY KEY (id, data_hora)");
+        for (Map<String, Object> indice : indices) {
+            jdbcTemplate.execute((String) indice.get("definicao"));
+        }
+        for (Map<String, Object> chave : chavesEstrangeiras) {
+            jdbcTemplate.execute("ALTER TABLE " + TABELA + " ADD CONSTRAINT \"" + chave.get("nome") + "\" " + chave.get("definicao"));
+        }
+        jdbcTemplate.execute("CREATE TABLE " + PADRAO + " PARTITION OF " + TABELA + " DEFAULT");
+
+        // Uma partição por mês com leituras, inclusive os que já passaram da retenção: a próxima execução
+        // dela descarta esses meses inteiros
+        for (YearMonth mes : meses(LEGADO)) {
+            criarParticao(mes);
+        }
+        int copiadas = jdbcTemplate.update("INSERT INTO " + TABELA + " SELECT * FROM " + LEGADO);
+        jdbcTemplate.execute("DROP TABLE " + LEGADO);
+        log.info("{} particionada; {} leituras copiadas", TABELA, copiadas);
+    }
+
+    /**
+     * Executa {@code trabalho} segurando o advisory lock numa conexão própria, fora das transações do
+     * trabalho: o bloqueio de sessão dura todas elas. Outra instância espera e, ao entrar, encontra o
+     * DDL já feito.
+     */
+    private void comBloqueio(Runnable trabalho) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) conexao -> {
+            try (Statement statement = conexao.createStatement()) {
+                statement.execute("SELECT pg_advisory_lock(" + CHAVE_BLOQUEIO + ")");
+            }
+            try {
+                trabalho.run();
+            } finally {
+                try (Statement statement = conexao.createStatement()) {
+                    statement.execute("SELECT pg_advisory_unlock(" + CHAVE_BLOQUEIO + ")");
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Meses distintos de {@code data_hora} em {@code tabela}, em ordem.
+     */
+    private List<YearMonth> meses(String tabela) {
+        return jdbcTemplate.queryForList("SELECT DISTINCT date_trunc('month', data_hora) FROM " + tabela
+                        + " WHERE data_hora IS NOT NULL ORDER BY 1", Timestamp.class).stream()
+                .map(inicio -> YearMonth.from(inicio.toLocalDateTime()))
+                .collect(Collectors.toList());
+    }
+
+    private static String nomeParticao(YearMonth mes) {
+        return String.format("%s_p%04d_%02d", TABELA, mes.getYear(), mes.getMonthValue());
+    }
+
+    private static YearMonth mesDa(String particao) {
+        Matcher matcher = NOME_PARTICAO.matcher(particao);
+        if (!matcher.matches()) {
+            return null;
+        }
+        return YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+    }
+
+    private String tipoTabela() {
+        List<String> tipos = jdbcTemplate.queryForList("SELECT relkind::text FROM pg_class WHERE oid = to_regclass(?)", String.class, TABELA);
+        return tipos.isEmpty() ? null : tipos.get(0);
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.rfidtracking.repository;
+
+import com.example.rfidtracking.dto.RegistroRFIDDTO;
+import com.example.rfidtracking.model.RegistroRFID;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.stream.Stream;
+
+/**
+ * Leitura em streaming do histórico de leituras para exportação.
+ */
+public interface RegistroRFIDExportRepository {
+
+    /**
+     * Leituras que atendem à especificação em ordem cronológica, já projetadas em DTO e lidas por um
+     * cursor forward-only. Deve ser consumido (e fechado) dentro de uma transação.
+     */
+    Stream<RegistroRFIDDTO> streamParaExportacao(Specification<RegistroRFID> spec, int fetchSize);
+}
@@ -0,0 +1,42 @@
+package com.example.rfidtracking.repository;
+
+import com.example.rfidtracking.dto.RegistroRFIDDTO;
+import com.example.rfidtracking.model.RegistroRFID;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.stream.Stream;
+
+class RegistroRFIDExportRepositoryImpl implements RegistroRFIDExportRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Stream<RegistroRFIDDTO> streamParaExportacao(Specification<RegistroRFID> spec, int fetchSize) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<RegistroRFIDDTO> query = builder.createQuery(RegistroRFIDDTO.class);
+        Root<RegistroRFID> root = query.from(RegistroRFID.class);
+
+        // Projeção direta em DTO: nenhuma entidade entra no contexto de persistência, então a
+        // memória fica estável independentemente do tamanho da exportação
+        query.select(builder.construct(RegistroRFIDDTO.class,
+                root.get("id"), root.get("pontoLeitura"), root.get("dataHora"), root.get("moto").get("id")));
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(builder.asc(root.get("dataHora")), builder.asc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .getResultStream();
+    }
+}
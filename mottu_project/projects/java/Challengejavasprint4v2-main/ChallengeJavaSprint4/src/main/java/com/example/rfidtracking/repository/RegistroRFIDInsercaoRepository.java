@@ -0,0 +1,18 @@
+package com.example.rfidtracking.repository;
+
+import com.example.rfidtracking.model.RegistroRFID;
+
+import java.util.List;
+
+/**
+ * Inserção em massa de leituras novas, usada pela importação de histórico.
+ */
+public interface RegistroRFIDInsercaoRepository {
+
+    /**
+     * Grava as leituras sem colocá-las no contexto de persistência: os ids saem do mesmo gerador da
+     * entidade e ficam preenchidos nos objetos recebidos, que continuam transientes. Deve rodar dentro
+     * de uma transação, e cada leitura precisa de moto e dataHora.
+     */
+    void inserirEmMassa(List<RegistroRFID> registros);
+}
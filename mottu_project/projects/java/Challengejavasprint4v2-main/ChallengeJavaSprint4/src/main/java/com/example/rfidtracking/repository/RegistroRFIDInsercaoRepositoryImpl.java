@@ -0,0 +1,123 @@
+package com.example.rfidtracking.repository;
+
+import com.example.rfidtracking.model.RegistroRFID;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+class RegistroRFIDInsercaoRepositoryImpl implements RegistroRFIDInsercaoRepository {
+
+    private static final String COLUNAS = "(id, ponto_leitura, data_hora, moto_id, versao, atualizado_em)";
+    private static final int TAMANHO_BATCH = 1000;
+    private static final int TAMANHO_BUFFER_COPY = 64 * 1024;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void inserirEmMassa(List<RegistroRFID> registros) {
+        if (registros.isEmpty()) {
+            return;
+        }
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        IdentifierGenerator gerador = session.getFactory().getMetamodel()
+                .entityPersister(RegistroRFID.class).getIdentifierGenerator();
+        for (RegistroRFID registro : registros) {
+            registro.setId((Long) gerador.generate(session, registro));
+            registro.setVersao(0L);
+        }
+        LocalDateTime agora = LocalDateTime.now();
+        // Mesma conexão (e transação) da sessão, que já aponta para o shard atual
+        session.doWork(conexao -> {
+            if (conexao.isWrapperFor(PGConnection.class)) {
+                copiar(conexao.unwrap(PGConnection.class), registros, agora);
+            } else {
+                inserirEmBatch(conexao, registros, agora);
+            }
+        });
+    }
+
+    /**
+     * COPY em CSV: uma única instrução por chamada, sem o custo de planejar e executar um INSERT por
+     * grupo de linhas. Os timestamps vão como texto local, igual ao que o Hibernate grava para LocalDateTime.
+     */
+    private static void copiar(PGConnection conexao, List<RegistroRFID> registros, LocalDateTime agora) throws SQLException {
+        String atualizadoEm = Timestamp.valueOf(agora).toString();
+        CopyIn copia = conexao.getCopyAPI().copyIn("COPY " + ParticionamentoRegistros.TABELA + " " + COLUNAS
+                + " FROM STDIN WITH (FORMAT csv)");
+        try {
+            StringBuilder linhas = new StringBuilder(TAMANHO_BUFFER_COPY + 256);
+            for (RegistroRFID registro : registros) {
+                linhas.append(registro.getId()).append(',');
+                campoCsv(linhas, registro.getPontoLeitura());
+                linhas.append(',').append(Timestamp.valueOf(registro.getDataHora()))
+                        .append(',').append(registro.getMoto().getId())
+                        .append(",0,").append(atualizadoEm).append('\n');
+                if (linhas.length() >= TAMANHO_BUFFER_COPY) {
+                    escrever(copia, linhas);
+                }
+            }
+            escrever(copia, linhas);
+            copia.endCopy();
+        } finally {
+            if (copia.isActive()) {
+                copia.cancelCopy();
+            }
+        }
+    }
+
+    private static void escrever(CopyIn copia, StringBuilder linhas) throws SQLException {
+        byte[] bytes = linhas.toString().getBytes(StandardCharsets.UTF_8);
+        copia.writeToCopy(bytes, 0, bytes.length);
+        linhas.setLength(0);
+    }
+
+    private static void campoCsv(StringBuilder linhas, String valor) {
+        linhas.append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == '"') {
+                linhas.append('"');
+            }
+            linhas.append(c);
+        }
+        linhas.append('"');
+    }
+
+    /**
+     * Demais bancos (H2 no perfil dev): INSERT em batch JDBC, sem passar pelo flush do Hibernate.
+     */
+    private static void inserirEmBatch(Connection conexao, List<RegistroRFID> registros, LocalDateTime agora) throws SQLException {
+        Timestamp atualizadoEm = Timestamp.valueOf(agora);
+        try (PreparedStatement insert = conexao.prepareStatement("INSERT INTO " + ParticionamentoRegistros.TABELA + " "
+                + COLUNAS + " VALUES (?, ?, ?, ?, 0, ?)")) {
+            int pendentes = 0;
+            for (RegistroRFID registro : registros) {
+                insert.setLong(1, registro.getId());
+                insert.setString(2, registro.getPontoLeitura());
+                insert.setTimestamp(3, Timestamp.valueOf(registro.getDataHora()));
+                insert.setLong(4, registro.getMoto().getId());
+                insert.setTimestamp(5, atualizadoEm);
+                insert.addBatch();
+                if (++pendentes == TAMANHO_BATCH) {
+                    insert.executeBatch();
+                    pendentes = 0;
+                }
+            }
+            if (pendentes > 0) {
+                insert.executeBatch();
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.rfidtracking.repository;
+
+import com.example.rfidtracking.dto.RegistroRFIDDTO;
+import com.example.rfidtracking.model.RegistroRFID;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Listagens de leituras projetadas direto em DTO, com modelo e placa da moto vindos do mesmo SELECT.
+ */
+public interface RegistroRFIDProjecaoRepository {
+
+    /**
+     * Página de leituras que atendem à especificação: uma consulta para o conteúdo e, quando o total
+     * não puder ser deduzido da própria página, uma de contagem, qualquer que seja o tamanho da página.
+     */
+    Page<RegistroRFIDDTO> listarProjetado(Specification<RegistroRFID> spec, Pageable pageable);
+
+    /**
+     * Fatia de leituras sem a consulta de contagem: busca uma linha além do tamanho da página só para
+     * saber se existe uma próxima.
+     */
+    Slice<RegistroRFIDDTO> fatiarProjetado(Specification<RegistroRFID> spec, Pageable pageable);
+}
@@ -0,0 +1,85 @@
+package com.example.rfidtracking.repository;
+
+import com.example.rfidtracking.dto.RegistroRFIDDTO;
+import com.example.rfidtracking.model.Moto;
+import com.example.rfidtracking.model.RegistroRFID;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.List;
+
+class RegistroRFIDProjecaoRepositoryImpl implements RegistroRFIDProjecaoRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<RegistroRFIDDTO> listarProjetado(Specification<RegistroRFID> spec, Pageable pageable) {
+        TypedQuery<RegistroRFIDDTO> typedQuery = consulta(spec, pageable.getSort());
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset()).setMaxResults(pageable.getPageSize());
+        }
+        List<RegistroRFIDDTO> conteudo = typedQuery.getResultList();
+        return PageableExecutionUtils.getPage(conteudo, pageable, () -> contar(spec));
+    }
+
+    @Override
+    public Slice<RegistroRFIDDTO> fatiarProjetado(Specification<RegistroRFID> spec, Pageable pageable) {
+        TypedQuery<RegistroRFIDDTO> typedQuery = consulta(spec, pageable.getSort());
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(typedQuery.getResultList(), pageable, false);
+        }
+        List<RegistroRFIDDTO> conteudo = typedQuery.setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        boolean temProxima = conteudo.size() > pageable.getPageSize();
+        return new SliceImpl<>(temProxima ? conteudo.subList(0, pageable.getPageSize()) : conteudo, pageable, temProxima);
+    }
+
+    private TypedQuery<RegistroRFIDDTO> consulta(Specification<RegistroRFID> spec, Sort sort) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<RegistroRFIDDTO> query = builder.createQuery(RegistroRFIDDTO.class);
+        Root<RegistroRFID> root = query.from(RegistroRFID.class);
+        Join<RegistroRFID, Moto> moto = root.join("moto");
+
+        // A moto entra como colunas do mesmo SELECT; nenhuma entidade é carregada por linha
+        query.select(builder.construct(RegistroRFIDDTO.class, root.get("id"), root.get("pontoLeitura"),
+                root.get("dataHora"), moto.get("id"), moto.get("modelo"), moto.get("placa"),
+                root.get("versao"), root.get("atualizadoEm")));
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, builder));
+        }
+        return entityManager.createQuery(query).setHint(QueryHints.HINT_READONLY, true);
+    }
+
+    private long contar(Specification<RegistroRFID> spec) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = builder.createQuery(Long.class);
+        Root<RegistroRFID> root = query.from(RegistroRFID.class);
+        query.select(builder.count(root));
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
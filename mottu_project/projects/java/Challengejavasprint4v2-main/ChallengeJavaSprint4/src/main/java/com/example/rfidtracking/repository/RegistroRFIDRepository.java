@@ -1,13 +1,80 @@
 package com.example.rfidtracking.repository;
 
+import com.example.rfidtracking.dto.PosicaoMotoDTO;
+import com.example.rfidtracking.dto.RegistroRFIDDTO;
+import com.example.rfidtracking.dto.VersaoDTO;
 import com.example.rfidtracking.model.RegistroRFID;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
-public interface RegistroRFIDRepository extends JpaRepository<RegistroRFID, Long> {
-    Page<RegistroRFID> findByPontoLeituraContainingIgnoreCase(String filtro, Pageable pageable);
+public interface RegistroRFIDRepository extends JpaRepository<RegistroRFID, Long>, JpaSpecificationExecutor<RegistroRFID>,
+        RegistroRFIDExportRepository, RegistroRFIDProjecaoRepository, RegistroRFIDInsercaoRepository {
+    // Keyset pagination sobre (dataHora, id): o Pageable recebido serve apenas como LIMIT e não gera COUNT.
+    // A condição "dataHora <= :dataHora" vem separada para que o banco use o índice como faixa.
+    // Projetadas em DTO com a moto no mesmo SELECT, para não carregar uma Moto por linha.
+    String PROJECAO_CURSOR = "select new com.example.rfidtracking.dto.RegistroRFIDDTO(r.id, r.pontoLeitura, r.dataHora, "
+            + "m.id, m.modelo, m.placa, r.versao, r.atualizadoEm) from RegistroRFID r join r.moto m ";
+
+    @Query("select new com.example.rfidtracking.dto.VersaoDTO(r.versao, r.atualizadoEm) from RegistroRFID r where r.id = :id")
+    Optional<VersaoDTO> buscarVersao(@Param("id") Long id);
+
+    // Linhas antigas sem dataHora (anteriores à coluna ser obrigatória) não têm posição no keyset;
+    // as duas consultas seguintes já as excluem pela comparação
+    @Query(PROJECAO_CURSOR + "where r.dataHora is not null order by r.dataHora desc, r.id desc")
+    List<RegistroRFIDDTO> buscarMaisRecentes(Pageable limite);
+
+    @Query(PROJECAO_CURSOR + "where r.dataHora <= :dataHora and (r.dataHora < :dataHora or r.id < :id) "
+            + "order by r.dataHora desc, r.id desc")
+    List<RegistroRFIDDTO> buscarApos(@Param("dataHora") LocalDateTime dataHora, @Param("id") Long id, Pageable limite);
+
+    @Query(PROJECAO_CURSOR + "where r.dataHora >= :dataHora and (r.dataHora > :dataHora or r.id > :id) "
+            + "order by r.dataHora asc, r.id asc")
+    List<RegistroRFIDDTO> buscarAntes(@Param("dataHora") LocalDateTime dataHora, @Param("id") Long id, Pageable limite);
+
+    // Última leitura de cada moto; empates de dataHora são resolvidos por quem consome (maior id)
+    @Query("select new com.example.rfidtracking.dto.PosicaoMotoDTO(r.moto.id, r.id, r.pontoLeitura, r.dataHora) "
+            + "from RegistroRFID r where r.dataHora = "
+            + "(select max(r2.dataHora) from RegistroRFID r2 where r2.moto = r.moto)")
+    List<PosicaoMotoDTO> buscarUltimasPosicoes();
+
+    Optional<RegistroRFID> findFirstByMoto_IdOrderByDataHoraDescIdDesc(Long motoId);
+
+    // Leituras de um período em ordem de moto e tempo, só com as colunas da reconstrução de jornadas,
+    // lidas por cursor para que cada janela de tempo seja percorrida uma única vez
+    @Query("select m.id, r.pontoLeitura, r.dataHora from RegistroRFID r join r.moto m "
+            + "where r.dataHora >= :de and r.dataHora < :ate order by m.id, r.dataHora, r.id")
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Object[]> streamTrajetos(@Param("de") LocalDateTime de, @Param("ate") LocalDateTime ate);
+
+    @Query("select m.id, r.pontoLeitura, r.dataHora from RegistroRFID r join r.moto m "
+            + "where m.filial.idFilial = :filialId and r.dataHora >= :de and r.dataHora < :ate order by m.id, r.dataHora, r.id")
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Object[]> streamTrajetosDaFilial(@Param("filialId") Long filialId, @Param("de") LocalDateTime de,
+                                            @Param("ate") LocalDateTime ate);
+
+    @Query("select r.moto.id, r.pontoLeitura, r.dataHora from RegistroRFID r "
+            + "where r.moto.id = :motoId and r.dataHora >= :de and r.dataHora < :ate order by r.dataHora, r.id")
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Object[]> streamTrajetoDaMoto(@Param("motoId") Long motoId, @Param("de") LocalDateTime de,
+                                         @Param("ate") LocalDateTime ate);
+
+    // Recontagem por hora, ponto e filial para o recálculo dos agregados. SQL nativo porque o HQL não tipa
+    // date_trunc no select; a função existe com a mesma sintaxe no PostgreSQL e no H2
+    @Query(value = "SELECT date_trunc('hour', r.data_hora), m.filial_id, r.ponto_leitura, COUNT(*) FROM registrorfid r "
+            + "JOIN moto m ON m.id_moto = r.moto_id WHERE r.data_hora >= :de AND r.data_hora < :ate "
+            + "GROUP BY date_trunc('hour', r.data_hora), m.filial_id, r.ponto_leitura", nativeQuery = true)
+    List<Object[]> contarPorHora(@Param("de") LocalDateTime de, @Param("ate") LocalDateTime ate);
 }
 
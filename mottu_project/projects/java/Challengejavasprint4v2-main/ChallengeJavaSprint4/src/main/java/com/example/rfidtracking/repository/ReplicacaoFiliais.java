@@ -0,0 +1,49 @@
+package com.example.rfidtracking.repository;
+
+import com.example.rfidtracking.dto.FilialDTO;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Cópias da tabela de filiais nos shards de dados, onde a FK de moto.filial_id precisa delas. A
+ * filial canônica fica no shard 0; as cópias mantêm o mesmo id, por isso o SQL é explícito em vez de
+ * passar pelo JPA (que geraria um id novo ao gravar). A versão e a data de alteração também são
+ * copiadas, já que entram no ETag das motos lidas em cada shard. Cada operação roda no shard da thread.
+ */
+@Repository
+public class ReplicacaoFiliais {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ReplicacaoFiliais(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<FilialDTO> listar() {
+        return jdbcTemplate.query("SELECT id_filial, nome, cidade, estado, shard, versao, atualizado_em FROM filial",
+                (rs, i) -> new FilialDTO(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                        rs.getObject(5) == null ? null : rs.getInt(5), rs.getLong(6),
+                        rs.getObject(7, LocalDateTime.class)));
+    }
+
+    public void gravar(FilialDTO filial) {
+        long versao = filial.getVersao() == null ? 0 : filial.getVersao();
+        int alteradas = jdbcTemplate.update("UPDATE filial SET nome = ?, cidade = ?, estado = ?, shard = ?, versao = ?,"
+                        + " atualizado_em = ? WHERE id_filial = ?",
+                filial.getNome(), filial.getCidade(), filial.getEstado(), filial.getShard(), versao,
+                filial.getAtualizadoEm(), filial.getIdFilial());
+        if (alteradas == 0) {
+            jdbcTemplate.update("INSERT INTO filial (id_filial, nome, cidade, estado, shard, versao, atualizado_em)"
+                            + " VALUES (?, ?, ?, ?, ?, ?, ?)",
+                    filial.getIdFilial(), filial.getNome(), filial.getCidade(), filial.getEstado(), filial.getShard(),
+                    versao, filial.getAtualizadoEm());
+        }
+    }
+
+    public void remover(Long idFilial) {
+        jdbcTemplate.update("DELETE FROM filial WHERE id_filial = ?", idFilial);
+    }
+}
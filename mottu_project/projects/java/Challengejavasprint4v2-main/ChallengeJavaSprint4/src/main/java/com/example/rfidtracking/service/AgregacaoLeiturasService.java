@@ -0,0 +1,303 @@
+package com.example.rfidtracking.service;
+
+import com.example.rfidtracking.dto.AgregadoLeiturasDTO;
+import com.example.rfidtracking.event.RegistrosRFIDAlteradosEvent;
+import com.example.rfidtracking.event.RegistrosRFIDAlteradosEvent.Leitura;
+import com.example.rfidtracking.exception.RequisicaoInvalidaException;
+import com.example.rfidtracking.model.AgregadoLeituras;
+import com.example.rfidtracking.model.RegistroRFID;
+import com.example.rfidtracking.repository.AgregadoLeiturasRepository;
+import com.example.rfidtracking.repository.RegistroRFIDRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * Contagens de leituras por hora e por dia, por ponto de leitura e filial. Cada leitura confirmada
+ * soma um delta em memória, e os deltas são aplicados em lote nos agregados periodicamente, para que
+ * a ingestão não dispute as mesmas linhas de contagem. Um recálculo periódico reconta as últimas
+ * horas a partir das leituras e corrige o que o caminho incremental não viu.
+ */
+@Service
+public class AgregacaoLeiturasService {
+
+    private static final Logger log = LoggerFactory.getLogger(AgregacaoLeiturasService.class);
+
+    public enum Agrupamento {
+        PONTO,
+        FILIAL,
+        PONTO_FILIAL
+    }
+
+    private final AgregadoLeiturasRepository agregadoRepository;
+    private final RegistroRFIDRepository registroRFIDRepository;
+    private final Shards shards;
+    private final TransactionTemplate transactionTemplate;
+    private final RetencaoRegistrosService retencaoRegistrosService;
+    private final long janelaRecalculoHoras;
+    private final long maxIntervaloDias;
+
+    private final ConcurrentMap<Chave, Long> pendentes = new ConcurrentHashMap<>();
+    // Aplicação de deltas e recálculo não podem se intercalar, senão uma leitura seria contada duas vezes
+    private final Object lock = new Object();
+
+    public AgregacaoLeiturasService(AgregadoLeiturasRepository agregadoRepository, RegistroRFIDRepository registroRFIDRepository,
+                                    Shards shards, TransactionTemplate transactionTemplate,
+                                    RetencaoRegistrosService retencaoRegistrosService,
+                                    @Value("${rfid.agregados.janela-recalculo-horas:48}") long janelaRecalculoHoras,
+                                    @Value("${rfid.agregados.max-intervalo-dias:366}") long maxIntervaloDias) {
+        this.agregadoRepository = agregadoRepository;
+        this.registroRFIDRepository = registroRFIDRepository;
+        this.shards = shards;
+        this.transactionTemplate = transactionTemplate;
+        this.retencaoRegistrosService = retencaoRegistrosService;
+        this.janelaRecalculoHoras = janelaRecalculoHoras;
+        this.maxIntervaloDias = maxIntervaloDias;
+    }
+
+    @TransactionalEventListener
+    public void aoAlterarRegistros(RegistrosRFIDAlteradosEvent event) {
+        for (Leitura gravada : event.getGravadas()) {
+            acumular(gravada, 1);
+        }
+        for (Leitura removida : event.getRemovidas()) {
+            acumular(removida, -1);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<AgregadoLeiturasDTO> listar(String granularidade, LocalDateTime de, LocalDateTime ate,
+                                            Long filialId, String pontoLeitura, Agrupamento agrupamento) {
+        String nivel = granularidade == null ? AgregadoLeituras.HORA : granularidade.toUpperCase(Locale.ROOT);
+        if (!AgregadoLeituras.HORA.equals(nivel) && !AgregadoLeituras.DIA.equals(nivel)) {
+            throw new RequisicaoInvalidaException("Granularidade inválida: " + granularidade + " (use HORA ou DIA).");
+        }
+        validarPeriodo(de, ate);
+        String ponto = pontoLeitura == null || pontoLeitura.isEmpty() ? null : pontoLeitura;
+        return shards.global(() -> {
+            switch (agrupamento) {
+                case PONTO:
+                    return agregadoRepository.somarPorPonto(nivel, de, ate, filialId, ponto);
+                case FILIAL:
+                    return agregadoRepository.somarPorFilial(nivel, de, ate, filialId, ponto);
+                default:
+                    return agregadoRepository.listar(nivel, de, ate, filialId, ponto);
+            }
+        });
+    }
+
+    /**
+     * Aplica os deltas acumulados. Se a transação falhar, eles voltam para a próxima tentativa.
+     */
+    @Scheduled(fixedDelayString = "${rfid.agregados.intervalo-aplicacao-ms:5000}")
+    public void aplicarPendentes() {
+        synchronized (lock) {
+            Map<Chave, Long> lote = new HashMap<>();
+            for (Chave chave : pendentes.keySet()) {
+                Long delta = pendentes.remove(chave);
+                if (delta != null && delta != 0) {
+                    lote.put(chave, delta);
+                }
+            }
+            if (lote.isEmpty()) {
+                return;
+            }
+            try {
+                shards.global(() -> transactionTemplate.execute(status -> {
+                    aplicar(lote);
+                    return null;
+                }));
+            } catch (RuntimeException e) {
+                log.warn("Falha ao aplicar {} deltas de agregados; nova tentativa no próximo ciclo", lote.size(), e);
+                lote.forEach((chave, delta) -> pendentes.merge(chave, delta, Long::sum));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        // A ingestão já drenou a fila (SmartLifecycle para antes da destruição dos beans)
+        aplicarPendentes();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recalcularAoIniciar() {
+        recalcularRecentes();
+    }
+
+    @Scheduled(cron = "${rfid.agregados.recalculo-cron:0 5 * * * *}")
+    public void recalcularRecentes() {
+        LocalDateTime agora = LocalDateTime.now(RegistroRFID.FUSO_DATA_HORA);
+        recalcular(agora.minusHours(janelaRecalculoHoras), agora.plusHours(1));
+    }
+
+    /**
+     * Reconta a partir das leituras as horas de {@code de} a {@code ate} (estendidas para horas cheias)
+     * e refaz os dias que as contêm. Também serve para preencher histórico anterior aos agregados.
+     * O início é limitado ao período retido: antes dele as leituras já foram descartadas, e recontar
+     * apagaria agregados que só existem lá.
+     */
+    public void recalcular(LocalDateTime de, LocalDateTime ate) {
+        validarPeriodo(de, ate);
+        Optional<LocalDateTime> inicioRetido = retencaoRegistrosService.inicioRetido();
+        if (inicioRetido.isPresent() && de.isBefore(inicioRetido.get())) {
+            if (!ate.isAfter(inicioRetido.get())) {
+                log.info("Recálculo de {} a {} ignorado: período anterior à retenção ({})", de, ate, inicioRetido.get());
+                return;
+            }
+            de = inicioRetido.get();
+        }
+        LocalDateTime inicio = de.truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime fim = ate.truncatedTo(ChronoUnit.HOURS).equals(ate) ? ate : ate.truncatedTo(ChronoUnit.HOURS).plusHours(1);
+        synchronized (lock) {
+            aplicarPendentes();
+            shards.global(() -> transactionTemplate.execute(status -> {
+                agregadoRepository.apagarIntervalo(AgregadoLeituras.HORA, inicio, fim);
+                List<AgregadoLeituras> horas = new ArrayList<>();
+                // Os agregados ficam no shard 0; as contagens vêm de todos os shards. A chave inclui a
+                // filial, que está num único shard, então as linhas dos shards não se sobrepõem
+                for (List<Object[]> contagens : shards.consultarTodos(shard -> registroRFIDRepository.contarPorHora(inicio, fim))) {
+                    for (Object[] linha : contagens) {
+                        horas.add(novo(new Chave(AgregadoLeituras.HORA, paraLocalDateTime(linha[0]), linha[1] == null ? null : ((Number) linha[1]).longValue(), (String) linha[2]),
+                                ((Number) linha[3]).longValue()));
+                    }
+                }
+                agregadoRepository.saveAll(horas);
+
+                // Os dias tocados são refeitos somando as horas, inclusive as que ficaram fora do intervalo
+                LocalDateTime primeiroDia = inicio.truncatedTo(ChronoUnit.DAYS);
+                LocalDateTime fimDias = fim.minusNanos(1).truncatedTo(ChronoUnit.DAYS).plusDays(1);
+                agregadoRepository.apagarIntervalo(AgregadoLeituras.DIA, primeiroDia, fimDias);
+                Map<Chave, Long> dias = agregadoRepository
+                        .findByGranularidadeAndInicioGreaterThanEqualAndInicioLessThan(AgregadoLeituras.HORA, primeiroDia, fimDias)
+                        .stream()
+                        .collect(Collectors.groupingBy(
+                                a -> new Chave(AgregadoLeituras.DIA, a.getInicio().truncatedTo(ChronoUnit.DAYS), a.getFilialId(), a.getPontoLeitura()),
+                                Collectors.summingLong(AgregadoLeituras::getQuantidade)));
+                agregadoRepository.saveAll(dias.entrySet().stream()
+                        .map(e -> novo(e.getKey(), e.getValue()))
+                        .collect(Collectors.toList()));
+                return null;
+            }));
+        }
+        log.info("Agregados recalculados de {} a {}", inicio, fim);
+    }
+
+    private void validarPeriodo(LocalDateTime de, LocalDateTime ate) {
+        if (!de.isBefore(ate)) {
+            throw new RequisicaoInvalidaException("O início do período deve ser anterior ao fim.");
+        }
+        if (Duration.between(de, ate).toDays() > maxIntervaloDias) {
+            throw new RequisicaoInvalidaException("O período excede o máximo de " + maxIntervaloDias + " dias.");
+        }
+    }
+
+    private void acumular(Leitura leitura, long delta) {
+        if (leitura.getDataHora() == null) {
+            return;
+        }
+        LocalDateTime hora = leitura.getDataHora().truncatedTo(ChronoUnit.HOURS);
+        pendentes.merge(new Chave(AgregadoLeituras.HORA, hora, leitura.getFilialId(), leitura.getPontoLeitura()), delta, Long::sum);
+        pendentes.merge(new Chave(AgregadoLeituras.DIA, hora.truncatedTo(ChronoUnit.DAYS), leitura.getFilialId(), leitura.getPontoLeitura()),
+                delta, Long::sum);
+    }
+
+    private void aplicar(Map<Chave, Long> lote) {
+        Map<String, Set<LocalDateTime>> inicios = lote.keySet().stream()
+                .collect(Collectors.groupingBy(c -> c.granularidade, Collectors.mapping(c -> c.inicio, Collectors.toSet())));
+        Map<Chave, AgregadoLeituras> existentes = new HashMap<>();
+        inicios.forEach((granularidade, conjunto) -> agregadoRepository.findByGranularidadeAndInicioIn(granularidade, conjunto)
+                .forEach(a -> existentes.put(Chave.de(a), a)));
+
+        List<AgregadoLeituras> alterados = new ArrayList<>();
+        List<AgregadoLeituras> zerados = new ArrayList<>();
+        lote.forEach((chave, delta) -> {
+            AgregadoLeituras agregado = existentes.get(chave);
+            if (agregado == null) {
+                // Delta negativo sem contagem existente: o recálculo acerta essa linha
+                if (delta > 0) {
+                    alterados.add(novo(chave, delta));
+                }
+                return;
+            }
+            agregado.setQuantidade(agregado.getQuantidade() + delta);
+            (agregado.getQuantidade() > 0 ? alterados : zerados).add(agregado);
+        });
+        agregadoRepository.saveAll(alterados);
+        agregadoRepository.deleteAll(zerados);
+    }
+
+    private static AgregadoLeituras novo(Chave chave, long quantidade) {
+        AgregadoLeituras agregado = new AgregadoLeituras();
+        agregado.setGranularidade(chave.granularidade);
+        agregado.setInicio(chave.inicio);
+        agregado.setFilialId(chave.filialId);
+        agregado.setPontoLeitura(chave.pontoLeitura);
+        agregado.setQuantidade(quantidade);
+        return agregado;
+    }
+
+    private static LocalDateTime paraLocalDateTime(Object valor) {
+        return valor instanceof Timestamp ? ((Timestamp) valor).toLocalDateTime() : (LocalDateTime) valor;
+    }
+
+    private static final class Chave {
+        private final String granularidade;
+        private final LocalDateTime inicio;
+        private final Long filialId;
+        private final String pontoLeitura;
+
+        private Chave(String granularidade, LocalDateTime inicio, Long filialId, String pontoLeitura) {
+            this.granularidade = granularidade;
+            this.inicio = inicio;
+            this.filialId = filialId;
+            this.pontoLeitura = pontoLeitura;
+        }
+
+        private static Chave de(AgregadoLeituras agregado) {
+            return new Chave(agregado.getGranularidade(), agregado.getInicio(), agregado.getFilialId(), agregado.getPontoLeitura());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Chave)) {
+                return false;
+            }
+            Chave outra = (Chave) o;
+            return granularidade.equals(outra.granularidade) && inicio.equals(outra.inicio)
+                    && Objects.equals(filialId, outra.filialId) && Objects.equals(pontoLeitura, outra.pontoLeitura);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(granularidade, inicio, filialId, pontoLeitura);
+        }
+    }
+}
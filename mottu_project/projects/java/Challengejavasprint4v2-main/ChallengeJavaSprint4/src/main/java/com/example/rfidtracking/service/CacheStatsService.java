@@ -0,0 +1,46 @@
+package com.example.rfidtracking.service;
+
+import com.example.rfidtracking.dto.CacheStatsDTO;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+@Service
+public class CacheStatsService {
+
+    private final CacheManager cacheManager;
+
+    public CacheStatsService(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    public List<CacheStatsDTO> listar() {
+        return cacheManager.getCacheNames().stream()
+                .sorted()
+                .map(cacheManager::getCache)
+                .filter(Objects::nonNull)
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+    }
+
+    private CacheStatsDTO convertToDto(Cache cache) {
+        CacheStatsDTO dto = new CacheStatsDTO();
+        dto.setNome(cache.getName());
+        if (cache instanceof CaffeineCache) {
+            com.github.benmanes.caffeine.cache.Cache<Object, Object> nativo = ((CaffeineCache) cache).getNativeCache();
+            CacheStats stats = nativo.stats();
+            dto.setTamanho(nativo.estimatedSize());
+            dto.setHits(stats.hitCount());
+            dto.setMisses(stats.missCount());
+            dto.setHitRatio(stats.hitRate());
+            dto.setDespejos(stats.evictionCount());
+        }
+        return dto;
+    }
+}
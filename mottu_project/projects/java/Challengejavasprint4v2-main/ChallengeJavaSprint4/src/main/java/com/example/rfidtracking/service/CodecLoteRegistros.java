@@ -0,0 +1,182 @@
+package com.example.rfidtracking.service;
+
+import com.example.rfidtracking.dto.RegistroRFIDDTO;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Formato binário compacto dos lotes enviados pelos leitores ({@value #MEDIA_TYPE}):
+ * <pre>
+ * 'R' 'L' versão(1)
+ * varint quantidadePontos, e para cada ponto: varint tamanho + bytes UTF-8
+ * varint quantidadeLeituras, e para cada leitura:
+ *     varint motoId
+ *     varint índice do ponto no dicionário
+ *     varint zigzag da diferença em ms para a leitura anterior (a primeira é o próprio epoch millis)
+ * </pre>
+ * Os instantes viram {@link LocalDateTime} no fuso informado (o de RegistroRFID.dataHora). A
+ * decodificação cria só uma String por ponto do dicionário e os objetos da própria leitura.
+ */
+public final class CodecLoteRegistros {
+
+    public static final String MEDIA_TYPE = "application/x-rfid-lote";
+    private static final byte VERSAO = 1;
+    private static final int MAX_TAMANHO_PONTO = 255;
+
+    private final ZoneId zona;
+    private final ZoneOffset offsetFixo;
+
+    public CodecLoteRegistros(ZoneId zona) {
+        this.zona = zona;
+        ZoneRules regras = zona.getRules();
+        // Fuso sem horário de verão (ex.: UTC nos containers): converte sem criar Instant por leitura
+        this.offsetFixo = regras.isFixedOffset() ? regras.getOffset(Instant.EPOCH) : null;
+    }
+
+    /**
+     * Decodifica {@code bytes[0, tamanho)}. Recusa com {@link IllegalArgumentException} cabeçalho
+     * desconhecido, dados truncados, índices fora do dicionário e lotes acima de {@code maxLeituras}.
+     */
+    public List<RegistroRFIDDTO> decodificar(byte[] bytes, int tamanho, int maxLeituras) {
+        Leitor leitor = new Leitor(bytes, tamanho);
+        if (tamanho < 3 || bytes[0] != 'R' || bytes[1] != 'L') {
+            throw new IllegalArgumentException("Corpo não está no formato " + MEDIA_TYPE);
+        }
+        if (bytes[2] != VERSAO) {
+            throw new IllegalArgumentException("Versão do formato não suportada: " + bytes[2]);
+        }
+        leitor.posicao = 3;
+
+        int quantidadePontos = leitor.inteiro(tamanho);
+        String[] pontos = new String[quantidadePontos];
+        for (int i = 0; i < quantidadePontos; i++) {
+            int n = leitor.inteiro(MAX_TAMANHO_PONTO);
+            leitor.exigir(n);
+            pontos[i] = new String(bytes, leitor.posicao, n, StandardCharsets.UTF_8);
+            leitor.posicao += n;
+        }
+
+        int quantidade = leitor.inteiro(Integer.MAX_VALUE);
+        if (quantidade > maxLeituras) {
+            throw new IllegalArgumentException("Lote excede o limite de " + maxLeituras + " itens");
+        }
+        // Cada leitura ocupa pelo menos 3 bytes; evita reservar memória por uma contagem forjada
+        List<RegistroRFIDDTO> registros = new ArrayList<>(Math.min(quantidade, (tamanho - leitor.posicao) / 3 + 1));
+        long epochMillis = 0;
+        for (int i = 0; i < quantidade; i++) {
+            long motoId = leitor.varint();
+            int indice = leitor.inteiro(quantidadePontos - 1);
+            long delta = leitor.varint();
+            epochMillis += (delta >>> 1) ^ -(delta & 1);
+            registros.add(new RegistroRFIDDTO(null, pontos[indice], paraDataHora(epochMillis), motoId));
+        }
+        if (leitor.posicao != tamanho) {
+            throw new IllegalArgumentException("Bytes sobrando após a última leitura do lote");
+        }
+        return registros;
+    }
+
+    /**
+     * Codifica o lote; usado por clientes Java e pelo benchmark. Leituras sem data usam o instante atual.
+     */
+    public byte[] codificar(List<RegistroRFIDDTO> registros) {
+        Map<String, Integer> indices = new HashMap<>();
+        List<String> pontos = new ArrayList<>();
+        for (RegistroRFIDDTO dto : registros) {
+            if (indices.putIfAbsent(dto.getPontoLeitura(), pontos.size()) == null) {
+                pontos.add(dto.getPontoLeitura());
+            }
+        }
+
+        ByteArrayOutputStream saida = new ByteArrayOutputStream(16 + registros.size() * 8);
+        saida.write('R');
+        saida.write('L');
+        saida.write(VERSAO);
+        escreverVarint(saida, pontos.size());
+        for (String ponto : pontos) {
+            byte[] utf8 = ponto.getBytes(StandardCharsets.UTF_8);
+            escreverVarint(saida, utf8.length);
+            saida.write(utf8, 0, utf8.length);
+        }
+        escreverVarint(saida, registros.size());
+        long anterior = 0;
+        LocalDateTime agora = LocalDateTime.now(zona);
+        for (RegistroRFIDDTO dto : registros) {
+            LocalDateTime dataHora = dto.getDataHora() != null ? dto.getDataHora() : agora;
+            long epochMillis = dataHora.atZone(zona).toInstant().toEpochMilli();
+            long delta = epochMillis - anterior;
+            escreverVarint(saida, dto.getMotoId());
+            escreverVarint(saida, indices.get(dto.getPontoLeitura()));
+            escreverVarint(saida, (delta << 1) ^ (delta >> 63));
+            anterior = epochMillis;
+        }
+        return saida.toByteArray();
+    }
+
+    private LocalDateTime paraDataHora(long epochMillis) {
+        if (offsetFixo != null) {
+            return LocalDateTime.ofEpochSecond(Math.floorDiv(epochMillis, 1000L),
+                    (int) Math.floorMod(epochMillis, 1000L) * 1_000_000, offsetFixo);
+        }
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), zona);
+    }
+
+    private static void escreverVarint(ByteArrayOutputStream saida, long valor) {
+        while ((valor & ~0x7FL) != 0) {
+            saida.write((int) ((valor & 0x7F) | 0x80));
+            valor >>>= 7;
+        }
+        saida.write((int) valor);
+    }
+
+    private static final class Leitor {
+        private final byte[] bytes;
+        private final int limite;
+        private int posicao;
+
+        private Leitor(byte[] bytes, int limite) {
+            this.bytes = bytes;
+            this.limite = limite;
+        }
+
+        private long varint() {
+            long valor = 0;
+            for (int deslocamento = 0; deslocamento < 64; deslocamento += 7) {
+                exigir(1);
+                byte b = bytes[posicao++];
+                valor |= (long) (b & 0x7F) << deslocamento;
+                if (b >= 0) {
+                    return valor;
+                }
+            }
+            throw new IllegalArgumentException("Varint malformado na posição " + posicao);
+        }
+
+        /**
+         * Varint que deve caber em {@code [0, maximo]}.
+         */
+        private int inteiro(int maximo) {
+            long valor = varint();
+            if (valor < 0 || valor > maximo) {
+                throw new IllegalArgumentException("Valor fora do intervalo na posição " + posicao + ": " + valor);
+            }
+            return (int) valor;
+        }
+
+        private void exigir(int n) {
+            if (n > limite - posicao) {
+                throw new IllegalArgumentException("Lote truncado na posição " + posicao);
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.rfidtracking.service;
+
+import com.example.rfidtracking.dto.DeduplicacaoStatsDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Supressão de leituras repetidas de um portal: enquanto a mesma moto continua sendo lida no mesmo
+ * ponto com intervalos menores que a janela, só a primeira leitura vira registro e as demais apenas
+ * atualizam o último instante visto e o contador de suprimidas. A janela desliza a cada leitura, pelo
+ * horário da própria leitura, e as chaves expiram sozinhas depois de uma janela sem leituras.
+ */
+@Component
+public class DeduplicadorLeituras {
+
+    private final boolean habilitado;
+    private final long janelaNanos;
+    private final Cache<Chave, Janela> janelas;
+    private final ConcurrentMap<Chave, Janela> mapa;
+
+    private final LongAdder avaliadas = new LongAdder();
+    private final LongAdder suprimidas = new LongAdder();
+
+    public DeduplicadorLeituras(@Value("${rfid.dedup.habilitado:true}") boolean habilitado,
+                                @Value("${rfid.dedup.janela-ms:2000}") long janelaMs,
+                                @Value("${rfid.dedup.max-chaves:100000}") long maxChaves) {
+        this.habilitado = habilitado && janelaMs > 0;
+        this.janelaNanos = Duration.ofMillis(janelaMs).toNanos();
+        // Limite de chaves mantém a memória constante; despejar uma chave ativa só deixa passar uma leitura a mais
+        this.janelas = Caffeine.newBuilder()
+                .maximumSize(maxChaves)
+                .expireAfterWrite(Duration.ofMillis(Math.max(1, janelaMs)))
+                .build();
+        this.mapa = janelas.asMap();
+    }
+
+    /**
+     * Decide se a leitura deve ser gravada. Devolve o aceite a desfazer caso a transação seja revertida,
+     * ou {@code null} quando a leitura é uma repetição dentro da janela e deve ser descartada.
+     */
+    Aceite avaliar(Long motoId, String pontoLeitura, LocalDateTime dataHora) {
+        if (!habilitado) {
+            return Aceite.SEM_DEDUPLICACAO;
+        }
+        avaliadas.increment();
+        Chave chave = new Chave(motoId, pontoLeitura);
+        long instante = paraNanos(dataHora);
+        Janela[] aceita = new Janela[1];
+        mapa.compute(chave, (k, atual) -> {
+            if (atual != null && Math.abs(instante - atual.ultimaVista) <= janelaNanos) {
+                atual.ultimaVista = Math.max(atual.ultimaVista, instante);
+                return atual;
+            }
+            aceita[0] = new Janela(instante);
+            return aceita[0];
+        });
+        if (aceita[0] == null) {
+            suprimidas.increment();
+            return null;
+        }
+        return new Aceite(chave, aceita[0]);
+    }
+
+    /**
+     * Se a transação corrente for revertida, remove as janelas abertas pelos aceites para que o reenvio
+     * das mesmas leituras não seja tratado como repetição de algo que nunca foi gravado.
+     */
+    void desfazerSeReverter(List<Aceite> aceites) {
+        if (aceites.isEmpty() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    for (Aceite aceite : aceites) {
+                        if (aceite.chave != null) {
+                            mapa.remove(aceite.chave, aceite.janela);
+                        }
+                    }
+                }
+            }
+        });
+    }
+
+    public DeduplicacaoStatsDTO estatisticas() {
+        DeduplicacaoStatsDTO stats = new DeduplicacaoStatsDTO();
+        stats.setHabilitado(habilitado);
+        stats.setJanelaMs(Duration.ofNanos(janelaNanos).toMillis());
+        stats.setChavesAtivas(janelas.estimatedSize());
+        long total = avaliadas.sum();
+        long descartadas = suprimidas.sum();
+        stats.setAvaliadas(total);
+        stats.setSuprimidas(descartadas);
+        stats.setTaxaSupressao(total == 0 ? 0 : (double) descartadas / total);
+        return stats;
+    }
+
+    private static long paraNanos(LocalDateTime dataHora) {
+        return dataHora.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + dataHora.getNano();
+    }
+
+    /**
+     * Leitura aceita pela deduplicação, guardada para ser desfeita se o lote não chegar ao banco.
+     */
+    static final class Aceite {
+        private static final Aceite SEM_DEDUPLICACAO = new Aceite(null, null);
+
+        private final Chave chave;
+        private final Janela janela;
+
+        private Aceite(Chave chave, Janela janela) {
+            this.chave = chave;
+            this.janela = janela;
+        }
+    }
+
+    private static final class Chave {
+        private final Long motoId;
+        private final String pontoLeitura;
+
+        private Chave(Long motoId, String pontoLeitura) {
+            this.motoId = motoId;
+            this.pontoLeitura = pontoLeitura;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Chave)) {
+                return false;
+            }
+            Chave outra = (Chave) o;
+            return Objects.equals(motoId, outra.motoId) && Objects.equals(pontoLeitura, outra.pontoLeitura);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Objects.hashCode(motoId) + Objects.hashCode(pontoLeitura);
+        }
+    }
+
+    /**
+     * Estado de uma chave; só é alterado dentro do compute do mapa, que serializa o acesso por chave.
+     */
+    private static final class Janela {
+        private long ultimaVista;
+
+        private Janela(long instante) {
+            this.ultimaVista = instante;
+        }
+    }
+}
@@ -0,0 +1,403 @@
+package com.example.rfidtracking.service;
+
+import com.example.rfidtracking.dto.RegistroRFIDDTO;
+import com.example.rfidtracking.event.RegistrosRFIDAlteradosEvent;
+import com.example.rfidtracking.event.RegistrosRFIDAlteradosEvent.Leitura;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Feed ao vivo das leituras confirmadas via Server-Sent Events. Cada assinante tem uma fila
+ * limitada própria: o ouvinte do commit só enfileira (nunca bloqueia a ingestão) e um pequeno
+ * pool de escritores drena as filas para as conexões. Assinaturas são indexadas por filial e
+ * por moto para que cada leitura só visite os assinantes interessados.
+ */
+@Service
+public class FeedRegistrosService {
+
+    private static final Logger log = LoggerFactory.getLogger(FeedRegistrosService.class);
+    private static final int MAX_EVENTOS_POR_DRENAGEM = 64;
+    private static final MediaType TEXTO_UTF8 = new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8);
+    // Comentário SSE: ignorado pelo EventSource, só mantém a conexão ativa
+    private static final Evento HEARTBEAT = new Evento(null, null, null, "ping");
+
+    public enum PoliticaFilaCheia {
+        // Descarta a leitura nova e avisa o assinante quantas perdeu no próximo envio
+        DESCARTAR,
+        // Encerra a conexão; o EventSource do navegador reconecta sozinho
+        DESCONECTAR
+    }
+
+    private final ObjectMapper objectMapper;
+    private final int capacidadeFila;
+    private final PoliticaFilaCheia politica;
+    private final int maxAssinantes;
+    private final long timeoutMs;
+
+    private final Set<Assinatura> todas = ConcurrentHashMap.newKeySet();
+    private final Set<Assinatura> semFiltroDeIndice = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Set<Assinatura>> porFilial = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Assinatura>> porMoto = new ConcurrentHashMap<>();
+
+    private final ExecutorService escritores;
+    private final ScheduledExecutorService heartbeat;
+
+    public FeedRegistrosService(ObjectMapper objectMapper,
+                                @Value("${rfid.feed.capacidade-fila:256}") int capacidadeFila,
+                                @Value("${rfid.feed.politica-fila-cheia:DESCARTAR}") PoliticaFilaCheia politica,
+                                @Value("${rfid.feed.max-assinantes:1000}") int maxAssinantes,
+                                @Value("${rfid.feed.escritores:4}") int escritores,
+                                @Value("${rfid.feed.heartbeat-ms:15000}") long heartbeatMs,
+                                @Value("${rfid.feed.timeout-ms:3600000}") long timeoutMs) {
+        this.objectMapper = objectMapper;
+        this.capacidadeFila = capacidadeFila;
+        this.politica = politica;
+        this.maxAssinantes = maxAssinantes;
+        this.timeoutMs = timeoutMs;
+
+        AtomicInteger contador = new AtomicInteger();
+        this.escritores = Executors.newFixedThreadPool(escritores, r -> {
+            Thread thread = new Thread(r, "rfid-feed-" + contador.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "rfid-feed-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Comentários periódicos mantêm proxies abertos e revelam conexões mortas
+        heartbeat.scheduleWithFixedDelay(this::enviarHeartbeat, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Abre uma assinatura filtrada (filtros nulos não restringem). Vazio quando o limite de
+     * assinantes foi atingido.
+     */
+    public Optional<SseEmitter> assinar(Long filialId, Long motoId, String pontoLeitura) {
+        if (todas.size() >= maxAssinantes) {
+            return Optional.empty();
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Assinatura assinatura = new Assinatura(emitter, filialId, motoId, pontoLeitura);
+        emitter.onCompletion(() -> remover(assinatura));
+        emitter.onTimeout(() -> remover(assinatura));
+        emitter.onError(e -> remover(assinatura));
+
+        todas.add(assinatura);
+        if (motoId != null) {
+            porMoto.computeIfAbsent(motoId, k -> ConcurrentHashMap.newKeySet()).add(assinatura);
+        } else if (filialId != null) {
+            porFilial.computeIfAbsent(filialId, k -> ConcurrentHashMap.newKeySet()).add(assinatura);
+        } else {
+            semFiltroDeIndice.add(assinatura);
+        }
+        return Optional.of(emitter);
+    }
+
+    public int getAssinantes() {
+        return todas.size();
+    }
+
+    @TransactionalEventListener
+    public void aoAlterarRegistros(RegistrosRFIDAlteradosEvent event) {
+        if (todas.isEmpty()) {
+            return;
+        }
+        for (Leitura leitura : event.getGravadas()) {
+            publicar(leitura);
+        }
+    }
+
+    private void publicar(Leitura leitura) {
+        List<Assinatura> destinos = new ArrayList<>();
+        coletar(semFiltroDeIndice, leitura, destinos);
+        if (leitura.getFilialId() != null) {
+            coletar(porFilial.get(leitura.getFilialId()), leitura, destinos);
+        }
+        if (leitura.getMotoId() != null) {
+            coletar(porMoto.get(leitura.getMotoId()), leitura, destinos);
+        }
+        if (destinos.isEmpty()) {
+            return;
+        }
+
+        // Serializa a leitura uma única vez, não por assinante
+        Evento evento;
+        try {
+            RegistroRFIDDTO dto = new RegistroRFIDDTO(leitura.getId(), leitura.getPontoLeitura(), leitura.getDataHora(), leitura.getMotoId());
+            evento = new Evento(String.valueOf(leitura.getId()), "registro", objectMapper.writeValueAsString(dto), null);
+        } catch (JsonProcessingException e) {
+            log.warn("Falha ao serializar a leitura {} para o feed", leitura.getId(), e);
+            return;
+        }
+        for (Assinatura assinatura : destinos) {
+            assinatura.oferecer(evento);
+        }
+    }
+
+    private static void coletar(Set<Assinatura> candidatas, Leitura leitura, List<Assinatura> destinos) {
+        if (candidatas == null) {
+            return;
+        }
+        for (Assinatura assinatura : candidatas) {
+            if (assinatura.aceita(leitura)) {
+                destinos.add(assinatura);
+            }
+        }
+    }
+
+    private void remover(Assinatura assinatura) {
+        if (!todas.remove(assinatura)) {
+            return;
+        }
+        semFiltroDeIndice.remove(assinatura);
+        if (assinatura.motoId != null) {
+            porMoto.computeIfPresent(assinatura.motoId, (k, set) -> {
+                set.remove(assinatura);
+                return set.isEmpty() ? null : set;
+            });
+        }
+        if (assinatura.filialId != null) {
+            porFilial.computeIfPresent(assinatura.filialId, (k, set) -> {
+                set.remove(assinatura);
+                return set.isEmpty() ? null : set;
+            });
+        }
+    }
+
+    private void enviarHeartbeat() {
+        for (Assinatura assinatura : todas) {
+            assinatura.oferecer(HEARTBEAT);
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        heartbeat.shutdownNow();
+        escritores.shutdownNow();
+        for (Assinatura assinatura : todas) {
+            assinatura.emitter.complete();
+        }
+    }
+
+    /**
+     * Evento já pronto para a fila de um assinante; o JSON da leitura é serializado uma vez e
+     * compartilhado entre todas as filas.
+     */
+    private static final class Evento {
+        private final String id;
+        private final String nome;
+        private final String dados;
+        private final String comentario;
+
+        private Evento(String id, String nome, String dados, String comentario) {
+            this.id = id;
+            this.nome = nome;
+            this.dados = dados;
+            this.comentario = comentario;
+        }
+
+        private void escreverEm(LoteSse lote) {
+            if (comentario != null) {
+                lote.comment(comentario);
+            }
+            if (id != null) {
+                lote.id(id);
+            }
+            if (nome != null) {
+                lote.name(nome);
+            }
+            if (dados != null) {
+                lote.data(dados);
+            }
+            lote.proximo();
+        }
+    }
+
+    /**
+     * Builder SSE que acumula vários eventos num só texto. O {@code SseEmitter.event()} padrão gera
+     * uma escrita com flush para cada campo de cada evento; aqui a drenagem inteira sai numa única
+     * escrita. Os métodos seguem o formato do builder padrão, e {@link #proximo()} fecha o evento atual.
+     */
+    private final class LoteSse implements SseEmitter.SseEventBuilder {
+        private final StringBuilder texto = new StringBuilder();
+        private boolean eventoAberto;
+
+        @Override
+        public SseEmitter.SseEventBuilder comment(String comment) {
+            return campo(":", comment);
+        }
+
+        @Override
+        public SseEmitter.SseEventBuilder name(String eventName) {
+            return campo("event:", eventName);
+        }
+
+        @Override
+        public SseEmitter.SseEventBuilder id(String id) {
+            return campo("id:", id);
+        }
+
+        @Override
+        public SseEmitter.SseEventBuilder reconnectTime(long reconnectTimeMillis) {
+            return campo("retry:", String.valueOf(reconnectTimeMillis));
+        }
+
+        @Override
+        public SseEmitter.SseEventBuilder data(Object object) {
+            return data(object, null);
+        }
+
+        @Override
+        public SseEmitter.SseEventBuilder data(Object object, MediaType mediaType) {
+            String valor;
+            try {
+                valor = object instanceof String ? (String) object : objectMapper.writeValueAsString(object);
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Dado do evento SSE não serializável", e);
+            }
+            // Quebras de linha no dado viram várias linhas data:, que o EventSource junta de volta
+            for (String linha : valor.split("\n", -1)) {
+                campo("data:", linha);
+            }
+            return this;
+        }
+
+        private SseEmitter.SseEventBuilder campo(String prefixo, String valor) {
+            texto.append(prefixo).append(valor).append('\n');
+            eventoAberto = true;
+            return this;
+        }
+
+        private void proximo() {
+            if (eventoAberto) {
+                texto.append('\n');
+                eventoAberto = false;
+            }
+        }
+
+        private boolean vazio() {
+            return texto.length() == 0;
+        }
+
+        @Override
+        public Set<ResponseBodyEmitter.DataWithMediaType> build() {
+            proximo();
+            return Collections.singleton(new ResponseBodyEmitter.DataWithMediaType(texto.toString(), TEXTO_UTF8));
+        }
+    }
+
+    private final class Assinatura {
+        private final SseEmitter emitter;
+        private final Long filialId;
+        private final Long motoId;
+        private final String pontoLeitura;
+        private final BlockingQueue<Evento> fila = new ArrayBlockingQueue<>(capacidadeFila);
+        private final AtomicBoolean agendada = new AtomicBoolean();
+        private final AtomicLong descartadas = new AtomicLong();
+
+        private Assinatura(SseEmitter emitter, Long filialId, Long motoId, String pontoLeitura) {
+            this.emitter = emitter;
+            this.filialId = filialId;
+            this.motoId = motoId;
+            this.pontoLeitura = pontoLeitura == null || pontoLeitura.isEmpty() ? null : pontoLeitura.toLowerCase(Locale.ROOT);
+        }
+
+        private boolean aceita(Leitura leitura) {
+            if (motoId != null && !motoId.equals(leitura.getMotoId())) {
+                return false;
+            }
+            if (filialId != null && !filialId.equals(leitura.getFilialId())) {
+                return false;
+            }
+            return pontoLeitura == null
+                    || (leitura.getPontoLeitura() != null && leitura.getPontoLeitura().toLowerCase(Locale.ROOT).contains(pontoLeitura));
+        }
+
+        private void oferecer(Evento evento) {
+            if (!fila.offer(evento)) {
+                if (politica == PoliticaFilaCheia.DESCONECTAR) {
+                    log.info("Assinante do feed desconectado por não acompanhar o ritmo ({} eventos na fila)", fila.size());
+                    remover(this);
+                    emitter.complete();
+                    return;
+                }
+                descartadas.incrementAndGet();
+            }
+            agendar();
+        }
+
+        private void agendar() {
+            if (agendada.compareAndSet(false, true)) {
+                try {
+                    escritores.execute(this::drenar);
+                } catch (RuntimeException e) {
+                    // Pool encerrado no desligamento
+                    agendada.set(false);
+                }
+            }
+        }
+
+        private void drenar() {
+            try {
+                LoteSse lote = new LoteSse();
+                long perdidas = descartadas.getAndSet(0);
+                if (perdidas > 0) {
+                    lote.name("descartadas").data(String.valueOf(perdidas));
+                    lote.proximo();
+                }
+                for (int i = 0; i < MAX_EVENTOS_POR_DRENAGEM; i++) {
+                    Evento evento = fila.poll();
+                    if (evento == null) {
+                        break;
+                    }
+                    evento.escreverEm(lote);
+                }
+                if (!lote.vazio()) {
+                    emitter.send(lote);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Cliente foi embora (ou o emitter já estava encerrado)
+                remover(this);
+                emitter.completeWithError(e);
+                return;
+            } finally {
+                agendada.set(false);
+            }
+            // Devolve a thread ao pool entre rajadas para não monopolizá-la com um único assinante
+            if (!fila.isEmpty() || descartadas.get() > 0) {
+                agendar();
+            }
+        }
+    }
+}
@@ -1,75 +1,189 @@
 package com.example.rfidtracking.service;
 
 import com.example.rfidtracking.dto.FilialDTO;
+import com.example.rfidtracking.dto.VersaoDTO;
+import com.example.rfidtracking.exception.ConflitoException;
+import com.example.rfidtracking.mapper.FilialMapper;
 import com.example.rfidtracking.model.Filial;
 import com.example.rfidtracking.repository.FilialRepository;
-import org.modelmapper.ModelMapper;
+import com.example.rfidtracking.repository.MotoRepository;
+import com.example.rfidtracking.repository.ReplicacaoFiliais;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import javax.persistence.EntityNotFoundException;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.IntConsumer;
 
+/**
+ * Filiais e o mapeamento filial → shard. A filial canônica fica no shard 0; depois de cada commit
+ * a alteração é copiada para os demais shards, onde as motos a referenciam.
+ */
 @Service
+@Timed("rfid.servico")
 public class FilialService {
 
+    private static final Logger log = LoggerFactory.getLogger(FilialService.class);
+
     private final FilialRepository filialRepository;
-    private final ModelMapper modelMapper;
+    private final FilialMapper filialMapper;
+    private final MotoRepository motoRepository;
+    private final ReplicacaoFiliais replicacaoFiliais;
+    private final Shards shards;
 
-    public FilialService(FilialRepository filialRepository, ModelMapper modelMapper) {
+    public FilialService(FilialRepository filialRepository, FilialMapper filialMapper, MotoRepository motoRepository,
+                         ReplicacaoFiliais replicacaoFiliais, Shards shards) {
         this.filialRepository = filialRepository;
-        this.modelMapper = modelMapper;
+        this.filialMapper = filialMapper;
+        this.motoRepository = motoRepository;
+        this.replicacaoFiliais = replicacaoFiliais;
+        this.shards = shards;
     }
 
     @Transactional(readOnly = true)
     public List<FilialDTO> listarTodas() {
-        List<Filial> filiais = filialRepository.findAll();
-        return filiais.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return shards.global(filialRepository::listarProjetado);
     }
 
     @Transactional(readOnly = true)
     public FilialDTO buscarPorId(Long id) {
-        Filial filial = filialRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Filial não encontrada com ID: " + id));
-        return convertToDto(filial);
+        return shards.global(() -> filialRepository.findById(id)
+                .map(this::convertToDto)
+                .orElseThrow(() -> new RuntimeException("Filial não encontrada com ID: " + id)));
+    }
+
+    @Transactional(readOnly = true)
+    public VersaoDTO buscarVersao(Long id) {
+        return shards.global(() -> filialRepository.buscarVersao(id)
+                .orElseThrow(() -> new EntityNotFoundException("Filial não encontrada com ID: " + id)));
     }
 
     @Transactional
     public FilialDTO salvar(FilialDTO dto) {
+        if (dto.getShard() != null) {
+            shards.validar(dto.getShard());
+        }
         Filial filial = convertToEntity(dto);
-        Filial filialSalva = filialRepository.save(filial);
-        return convertToDto(filialSalva);
+        FilialDTO resultado = shards.global(() -> {
+            // O shard padrão depende do id: reservá-lo antes permite gravar tudo num só INSERT, na versão 0
+            filial.setIdFilial(filialRepository.reservarId());
+            if (filial.getShard() == null) {
+                // Gravado na criação, para que a filial não mude de shard quando outros forem acrescentados
+                filial.setShard(shards.shardPadrao(filial.getIdFilial()));
+            }
+            return convertToDto(filialRepository.save(filial));
+        });
+        replicarAposCommit(resultado);
+        return resultado;
     }
 
     @Transactional
     public FilialDTO atualizar(Long id, FilialDTO dto) {
-        Filial filialExistente = filialRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Filial não encontrada com ID: " + id));
+        FilialDTO resultado = shards.global(() -> {
+            Filial filialExistente = filialRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Filial não encontrada com ID: " + id));
+            if (dto.getVersao() != null && !dto.getVersao().equals(filialExistente.getVersao())) {
+                throw new ConflitoException("A filial " + id + " está na versão " + filialExistente.getVersao()
+                        + ", não na " + dto.getVersao() + " enviada.");
+            }
+
+            filialExistente.setNome(dto.getNome());
+            filialExistente.setCidade(dto.getCidade());
+            filialExistente.setEstado(dto.getEstado());
 
-        filialExistente.setNome(dto.getNome());
-        filialExistente.setCidade(dto.getCidade());
-        filialExistente.setEstado(dto.getEstado());
+            return convertToDto(filialRepository.saveAndFlush(filialExistente));
+        });
+        replicarAposCommit(resultado);
+        return resultado;
+    }
 
-        Filial filialAtualizada = filialRepository.save(filialExistente);
-        return convertToDto(filialAtualizada);
+    /**
+     * Muda o shard dos dados da filial. Só é permitido enquanto ela não tem motos: motos e leituras
+     * já gravadas não são migradas entre bancos.
+     */
+    @Transactional
+    public FilialDTO definirShard(Long id, int shard) {
+        shards.validar(shard);
+        FilialDTO resultado = shards.global(() -> {
+            Filial filial = filialRepository.findById(id)
+                    .orElseThrow(() -> new EntityNotFoundException("Filial não encontrada com ID: " + id));
+            int atual = shards.doFilial(id);
+            if (atual != shard && shards.lerEm(atual, () -> motoRepository.existsByFilial_IdFilial(id))) {
+                throw new ConflitoException("A filial " + id + " tem motos no shard " + atual
+                        + "; só filiais sem motos podem mudar de shard.");
+            }
+            filial.setShard(shard);
+            return convertToDto(filialRepository.saveAndFlush(filial));
+        });
+        replicarAposCommit(resultado);
+        return resultado;
     }
 
     @Transactional
     public void deletar(Long id) {
-        if (!filialRepository.existsById(id)) {
-            throw new RuntimeException("Filial não encontrada com ID: " + id);
+        shards.global(() -> {
+            if (!filialRepository.existsById(id)) {
+                throw new RuntimeException("Filial não encontrada com ID: " + id);
+            }
+            // A FK das motos fica no shard de dados: sem esta verificação a filial sairia do shard 0 e
+            // continuaria referenciada lá
+            if (shards.quantidade() > 1 && shards.lerEm(shards.doFilial(id), () -> motoRepository.existsByFilial_IdFilial(id))) {
+                throw new ConflitoException("A filial " + id + " ainda tem motos.");
+            }
+            filialRepository.deleteById(id);
+            return null;
+        });
+        aposCommit(() -> {
+            shards.esquecer(id);
+            copiarParaShards(id, shard -> replicacaoFiliais.remover(id));
+        });
+    }
+
+    private void replicarAposCommit(FilialDTO filial) {
+        aposCommit(() -> {
+            shards.mapear(filial.getIdFilial(), filial.getShard() == null ? 0 : filial.getShard());
+            copiarParaShards(filial.getIdFilial(), shard -> replicacaoFiliais.gravar(filial));
+        });
+    }
+
+    /**
+     * Aplica a alteração em cada shard de dados, cada um na sua transação. Uma falha não desfaz a
+     * filial já confirmada no shard 0: a cópia é refeita na próxima subida (EsquemaShards).
+     */
+    private void copiarParaShards(Long id, IntConsumer copia) {
+        for (int shard = 1; shard < shards.quantidade(); shard++) {
+            int destino = shard;
+            try {
+                shards.emTransacao(destino, () -> {
+                    copia.accept(destino);
+                    return null;
+                });
+            } catch (RuntimeException e) {
+                log.error("Filial {} não foi copiada para o shard {}: {}", id, destino, e.getMessage());
+            }
         }
-        filialRepository.deleteById(id);
+    }
+
+    private static void aposCommit(Runnable acao) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                acao.run();
+            }
+        });
     }
 
     private FilialDTO convertToDto(Filial filial) {
-        return modelMapper.map(filial, FilialDTO.class);
+        return filialMapper.toDto(filial);
     }
 
     private Filial convertToEntity(FilialDTO dto) {
-        return modelMapper.map(dto, Filial.class);
+        return filialMapper.toEntity(dto);
     }
 }
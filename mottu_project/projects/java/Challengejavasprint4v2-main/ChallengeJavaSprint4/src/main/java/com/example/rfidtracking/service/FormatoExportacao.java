@@ -0,0 +1,116 @@
+package com.example.rfidtracking.service;
+
+import com.example.rfidtracking.dto.RegistroRFIDDTO;
+import com.example.rfidtracking.exception.RequisicaoInvalidaException;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * Formatos de exportação do histórico de leituras. Cada linha é escrita direto no Writer,
+ * sem montar o documento em memória.
+ */
+public enum FormatoExportacao {
+
+    NDJSON("application/x-ndjson", "ndjson") {
+        @Override
+        void escreverCabecalho(Writer writer) {
+        }
+
+        @Override
+        void escrever(Writer writer, RegistroRFIDDTO registro) throws IOException {
+            writer.write("{\"id\":");
+            writer.write(String.valueOf(registro.getId()));
+            writer.write(",\"pontoLeitura\":");
+            escreverTextoJson(writer, registro.getPontoLeitura());
+            writer.write(",\"dataHora\":");
+            escreverTextoJson(writer, registro.getDataHora() == null ? null : formatar(registro.getDataHora()));
+            writer.write(",\"motoId\":");
+            writer.write(String.valueOf(registro.getMotoId()));
+            writer.write("}\n");
+        }
+    },
+
+    CSV("text/csv", "csv") {
+        @Override
+        void escreverCabecalho(Writer writer) throws IOException {
+            writer.write("id,pontoLeitura,dataHora,motoId\n");
+        }
+
+        @Override
+        void escrever(Writer writer, RegistroRFIDDTO registro) throws IOException {
+            writer.write(String.valueOf(registro.getId()));
+            writer.write(',');
+            escreverCampoCsv(writer, registro.getPontoLeitura());
+            writer.write(',');
+            if (registro.getDataHora() != null) {
+                writer.write(formatar(registro.getDataHora()));
+            }
+            writer.write(',');
+            if (registro.getMotoId() != null) {
+                writer.write(String.valueOf(registro.getMotoId()));
+            }
+            writer.write('\n');
+        }
+    };
+
+    private final String contentType;
+    private final String extensao;
+
+    FormatoExportacao(String contentType, String extensao) {
+        this.contentType = contentType;
+        this.extensao = extensao;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtensao() {
+        return extensao;
+    }
+
+    abstract void escreverCabecalho(Writer writer) throws IOException;
+
+    abstract void escrever(Writer writer, RegistroRFIDDTO registro) throws IOException;
+
+    public static FormatoExportacao de(String nome) {
+        try {
+            return valueOf(nome.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new RequisicaoInvalidaException("Formato de exportação inválido: " + nome + " (use ndjson ou csv).");
+        }
+    }
+
+    // Mesmo formato da API JSON (segundos sempre presentes, ao contrário de LocalDateTime.toString)
+    private static String formatar(LocalDateTime dataHora) {
+        return DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(dataHora);
+    }
+
+    private static void escreverTextoJson(Writer writer, String texto) throws IOException {
+        if (texto == null) {
+            writer.write("null");
+            return;
+        }
+        writer.write('"');
+        writer.write(JsonStringEncoder.getInstance().quoteAsString(texto));
+        writer.write('"');
+    }
+
+    private static void escreverCampoCsv(Writer writer, String texto) throws IOException {
+        if (texto == null) {
+            return;
+        }
+        if (texto.indexOf(',') < 0 && texto.indexOf('"') < 0 && texto.indexOf('\n') < 0 && texto.indexOf('\r') < 0) {
+            writer.write(texto);
+            return;
+        }
+        writer.write('"');
+        writer.write(texto.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,444 @@
+package com.example.rfidtracking.service;
+
+import com.example.rfidtracking.dto.AnalisePermanenciaDTO;
+import com.example.rfidtracking.dto.PermanenciaPontoDTO;
+import com.example.rfidtracking.dto.TransicaoPontosDTO;
+import com.example.rfidtracking.dto.VisitaDTO;
+import com.example.rfidtracking.exception.RequisicaoInvalidaException;
+import com.example.rfidtracking.repository.MotoRepository;
+import com.example.rfidtracking.repository.RegistroRFIDRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityNotFoundException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Reconstrução das jornadas das motos a partir das leituras: cada sequência de leituras de uma moto
+ * no mesmo ponto vira uma visita (entrada, saída, permanência). A visita termina quando a moto é lida
+ * em outro ponto, e a saída é essa leitura; se a moto passar mais que o intervalo máximo sem ser
+ * lida, a saída é a última leitura no ponto, porque não há como saber quando ela saiu.
+ * <p>
+ * O período é percorrido em janelas de tempo: cada janela é lida uma vez, em ordem de moto e tempo,
+ * para buffers primitivos por moto, e as motos da janela são processadas em paralelo num pool
+ * fork/join. A visita em aberto de cada moto passa de uma janela para a seguinte, então o resultado
+ * não depende do tamanho da janela, só a memória usada.
+ */
+@Service
+public class JornadaMotoService {
+
+    private static final Logger log = LoggerFactory.getLogger(JornadaMotoService.class);
+
+    private final RegistroRFIDRepository registroRFIDRepository;
+    private final MotoRepository motoRepository;
+    private final Shards shards;
+    private final TransactionTemplate leituraTemplate;
+    private final ForkJoinPool pool;
+    private final Duration janela;
+    private final long intervaloMaxMs;
+    private final long maxIntervaloDias;
+    private final int motosPorTarefa;
+
+    public JornadaMotoService(RegistroRFIDRepository registroRFIDRepository, MotoRepository motoRepository,
+                              Shards shards, TransactionTemplate transactionTemplate,
+                              @Value("${rfid.jornada.janela-horas:24}") long janelaHoras,
+                              @Value("${rfid.jornada.intervalo-max-min:120}") long intervaloMaxMin,
+                              @Value("${rfid.jornada.max-intervalo-dias:92}") long maxIntervaloDias,
+                              @Value("${rfid.jornada.motos-por-tarefa:16}") int motosPorTarefa,
+                              @Value("${rfid.jornada.paralelismo:0}") int paralelismo) {
+        this.registroRFIDRepository = registroRFIDRepository;
+        this.motoRepository = motoRepository;
+        this.shards = shards;
+        this.leituraTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.leituraTemplate.setReadOnly(true);
+        this.janela = Duration.ofHours(Math.max(1, janelaHoras));
+        this.intervaloMaxMs = Duration.ofMinutes(intervaloMaxMin).toMillis();
+        this.maxIntervaloDias = maxIntervaloDias;
+        this.motosPorTarefa = Math.max(1, motosPorTarefa);
+        // Pool próprio: a análise é CPU-bound e não deve ocupar o commonPool usado por streams paralelos
+        this.pool = new ForkJoinPool(paralelismo > 0 ? paralelismo : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Visitas de uma moto no período, em ordem cronológica.
+     */
+    public List<VisitaDTO> reconstruirJornada(Long motoId, LocalDateTime de, LocalDateTime ate) {
+        validarPeriodo(de, ate);
+        int shard = shards.doId(motoId);
+        if (!shards.em(shard, () -> motoRepository.existsById(motoId))) {
+            throw new EntityNotFoundException("Moto não encontrada com ID: " + motoId);
+        }
+        Pontos pontos = new Pontos();
+        Map<Long, Trajeto> trajetos = new HashMap<>();
+        List<VisitaDTO> visitas = new ArrayList<>();
+        Destino coletor = new Destino() {
+            @Override
+            public void visita(int ponto, long entrada, long saida, int leituras) {
+                visitas.add(new VisitaDTO(pontos.nome(ponto), paraData(entrada), paraData(saida),
+                        (saida - entrada) / 1000, leituras));
+            }
+
+            @Override
+            public void transicao(int origem, int destino) {
+            }
+        };
+
+        percorrer(new int[] {shard}, de, ate, (inicio, fim) -> registroRFIDRepository.streamTrajetoDaMoto(motoId, inicio, fim), pontos, trajetos,
+                ativos -> ativos.forEach(trajeto -> trajeto.processar(coletor, intervaloMaxMs)));
+        trajetos.values().forEach(trajeto -> trajeto.finalizar(coletor));
+        return visitas;
+    }
+
+    /**
+     * Distribuição da permanência por ponto e contagem de transições entre pontos, para todas as motos
+     * de uma filial (ou da frota, se {@code filialId} for nulo) no período. A frota é lida de todos
+     * os shards; como cada moto está num só shard, os trajetos não se misturam.
+     */
+    public AnalisePermanenciaDTO analisarPermanencia(Long filialId, LocalDateTime de, LocalDateTime ate) {
+        validarPeriodo(de, ate);
+        long inicioNanos = System.nanoTime();
+        Pontos pontos = new Pontos();
+        Map<Long, Trajeto> trajetos = new LinkedHashMap<>();
+        Acumulador total = new Acumulador();
+
+        int[] alvo = filialId == null ? IntStream.range(0, shards.quantidade()).toArray() : new int[] {shards.doFilial(filialId)};
+        long leituras = percorrer(alvo, de, ate, (inicio, fim) -> filialId == null
+                        ? registroRFIDRepository.streamTrajetos(inicio, fim)
+                        : registroRFIDRepository.streamTrajetosDaFilial(filialId, inicio, fim),
+                pontos, trajetos, ativos -> total.juntar(pool.invoke(new TarefaTrajetos(ativos, 0, ativos.size()))));
+        // Visitas ainda abertas no fim do período terminam na última leitura
+        trajetos.values().forEach(trajeto -> trajeto.finalizar(total));
+
+        AnalisePermanenciaDTO analise = new AnalisePermanenciaDTO();
+        analise.setFilialId(filialId);
+        analise.setDe(de);
+        analise.setAte(ate);
+        analise.setMotos(trajetos.size());
+        analise.setLeituras(leituras);
+        analise.setVisitas(total.visitas);
+        analise.setPontos(total.permanencias(pontos));
+        analise.setTransicoes(total.transicoes(pontos));
+        analise.setDuracaoMs(Duration.ofNanos(System.nanoTime() - inicioNanos).toMillis());
+        log.info("Análise de permanência: {} leituras de {} motos em {} ms", leituras, trajetos.size(), analise.getDuracaoMs());
+        return analise;
+    }
+
+    /**
+     * Lê o período janela a janela, acrescentando as leituras aos trajetos, e entrega ao processamento
+     * os trajetos que receberam leituras em cada janela. Devolve o total de leituras lidas. Cada
+     * janela é lida de cada shard em {@code alvo}, um depois do outro.
+     */
+    private long percorrer(int[] alvo, LocalDateTime de, LocalDateTime ate, BiFunction<LocalDateTime, LocalDateTime, Stream<Object[]>> consulta,
+                           Pontos pontos, Map<Long, Trajeto> trajetos, Consumer<List<Trajeto>> processar) {
+        long total = 0;
+        for (LocalDateTime corte = de; corte.isBefore(ate); corte = corte.plus(janela)) {
+            LocalDateTime inicio = corte;
+            LocalDateTime fim = corte.plus(janela).isBefore(ate) ? corte.plus(janela) : ate;
+            List<Trajeto> ativos = new ArrayList<>();
+            for (int shard : alvo) {
+                Long lidas = shards.em(shard, () -> leituraTemplate.execute(status -> {
+                    long contador = 0;
+                    try (Stream<Object[]> linhas = consulta.apply(inicio, fim)) {
+                        Trajeto atual = null;
+                        for (Object[] linha : (Iterable<Object[]>) linhas::iterator) {
+                            Long motoId = (Long) linha[0];
+                            // As linhas vêm agrupadas por moto, então só há busca no mapa na troca de moto
+                            if (atual == null || !atual.motoId.equals(motoId)) {
+                                atual = trajetos.computeIfAbsent(motoId, Trajeto::new);
+                                ativos.add(atual);
+                            }
+                            atual.adicionar(paraMillis((LocalDateTime) linha[2]), pontos.indice((String) linha[1]));
+                            contador++;
+                        }
+                    }
+                    return contador;
+                }));
+                total += lidas == null ? 0 : lidas;
+            }
+            if (!ativos.isEmpty()) {
+                processar.accept(ativos);
+            }
+        }
+        return total;
+    }
+
+    private void validarPeriodo(LocalDateTime de, LocalDateTime ate) {
+        if (!de.isBefore(ate)) {
+            throw new RequisicaoInvalidaException("O início do período deve ser anterior ao fim.");
+        }
+        if (Duration.between(de, ate).toDays() > maxIntervaloDias) {
+            throw new RequisicaoInvalidaException("O período excede o máximo de " + maxIntervaloDias + " dias.");
+        }
+    }
+
+    private static long paraMillis(LocalDateTime dataHora) {
+        return dataHora.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static LocalDateTime paraData(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+    }
+
+    /**
+     * Recebe as visitas fechadas e as trocas de ponto de um trajeto.
+     */
+    private interface Destino {
+        void visita(int ponto, long entrada, long saida, int leituras);
+
+        void transicao(int origem, int destino);
+    }
+
+    /**
+     * Dicionário dos nomes de ponto; os trajetos guardam só o índice. Alimentado apenas pela thread
+     * que lê as janelas, antes de o processamento paralelo começar.
+     */
+    private static final class Pontos {
+        private final Map<String, Integer> indices = new HashMap<>();
+        private final List<String> nomes = new ArrayList<>();
+
+        int indice(String nome) {
+            Integer indice = indices.get(nome);
+            if (indice == null) {
+                indice = nomes.size();
+                indices.put(nome, indice);
+                nomes.add(nome);
+            }
+            return indice;
+        }
+
+        String nome(int indice) {
+            return nomes.get(indice);
+        }
+    }
+
+    /**
+     * Leituras de uma moto na janela corrente e a visita que ficou aberta da janela anterior. Cada
+     * trajeto é processado por uma única tarefa por janela, e as janelas são sequenciais.
+     */
+    private static final class Trajeto {
+        private final Long motoId;
+        private long[] instantes = new long[16];
+        private int[] pontos = new int[16];
+        private int tamanho;
+
+        private int pontoAberto = -1;
+        private long entrada;
+        private long ultimaLeitura;
+        private int leituras;
+
+        private Trajeto(Long motoId) {
+            this.motoId = motoId;
+        }
+
+        void adicionar(long instante, int ponto) {
+            if (tamanho == instantes.length) {
+                instantes = Arrays.copyOf(instantes, tamanho * 2);
+                pontos = Arrays.copyOf(pontos, tamanho * 2);
+            }
+            instantes[tamanho] = instante;
+            pontos[tamanho] = ponto;
+            tamanho++;
+        }
+
+        void processar(Destino destino, long intervaloMaxMs) {
+            for (int i = 0; i < tamanho; i++) {
+                long instante = instantes[i];
+                int ponto = pontos[i];
+                if (pontoAberto < 0) {
+                    abrir(ponto, instante);
+                } else if (instante - ultimaLeitura > intervaloMaxMs) {
+                    destino.visita(pontoAberto, entrada, ultimaLeitura, leituras);
+                    abrir(ponto, instante);
+                } else if (ponto == pontoAberto) {
+                    ultimaLeitura = instante;
+                    leituras++;
+                } else {
+                    destino.visita(pontoAberto, entrada, instante, leituras);
+                    destino.transicao(pontoAberto, ponto);
+                    abrir(ponto, instante);
+                }
+            }
+            tamanho = 0;
+        }
+
+        void finalizar(Destino destino) {
+            if (pontoAberto >= 0) {
+                destino.visita(pontoAberto, entrada, ultimaLeitura, leituras);
+                pontoAberto = -1;
+            }
+        }
+
+        private void abrir(int ponto, long instante) {
+            pontoAberto = ponto;
+            entrada = instante;
+            ultimaLeitura = instante;
+            leituras = 1;
+        }
+    }
+
+    /**
+     * Permanências (em ms) e transições acumuladas por uma tarefa. Não é thread-safe: cada tarefa tem o
+     * seu, e os resultados são juntados no join.
+     */
+    private static final class Acumulador implements Destino {
+        private Duracoes[] porPonto = new Duracoes[0];
+        private final Map<Long, long[]> transicoes = new HashMap<>();
+        private long visitas;
+
+        @Override
+        public void visita(int ponto, long entrada, long saida, int leituras) {
+            duracoes(ponto).adicionar(saida - entrada);
+            visitas++;
+        }
+
+        @Override
+        public void transicao(int origem, int destino) {
+            transicoes.computeIfAbsent(((long) origem << 32) | destino, chave -> new long[1])[0]++;
+        }
+
+        Acumulador juntar(Acumulador outro) {
+            for (int ponto = 0; ponto < outro.porPonto.length; ponto++) {
+                if (outro.porPonto[ponto] != null) {
+                    duracoes(ponto).adicionar(outro.porPonto[ponto]);
+                }
+            }
+            outro.transicoes.forEach((chave, quantidade) ->
+                    transicoes.computeIfAbsent(chave, c -> new long[1])[0] += quantidade[0]);
+            visitas += outro.visitas;
+            return this;
+        }
+
+        List<PermanenciaPontoDTO> permanencias(Pontos pontos) {
+            List<PermanenciaPontoDTO> resultado = new ArrayList<>();
+            for (int ponto = 0; ponto < porPonto.length; ponto++) {
+                if (porPonto[ponto] != null && porPonto[ponto].tamanho > 0) {
+                    resultado.add(porPonto[ponto].resumir(pontos.nome(ponto)));
+                }
+            }
+            resultado.sort(Comparator.comparing(PermanenciaPontoDTO::getPontoLeitura));
+            return resultado;
+        }
+
+        List<TransicaoPontosDTO> transicoes(Pontos pontos) {
+            List<TransicaoPontosDTO> resultado = new ArrayList<>();
+            transicoes.forEach((chave, quantidade) -> resultado.add(new TransicaoPontosDTO(
+                    pontos.nome((int) (chave >>> 32)), pontos.nome((int) (long) chave), quantidade[0])));
+            resultado.sort(Comparator.comparingLong(TransicaoPontosDTO::getQuantidade).reversed()
+                    .thenComparing(TransicaoPontosDTO::getOrigem)
+                    .thenComparing(TransicaoPontosDTO::getDestino));
+            return resultado;
+        }
+
+        private Duracoes duracoes(int ponto) {
+            if (ponto >= porPonto.length) {
+                porPonto = Arrays.copyOf(porPonto, Math.max(ponto + 1, porPonto.length * 2));
+            }
+            if (porPonto[ponto] == null) {
+                porPonto[ponto] = new Duracoes();
+            }
+            return porPonto[ponto];
+        }
+    }
+
+    /**
+     * Lista primitiva de durações; os percentis são exatos, calculados sobre a lista ordenada.
+     */
+    private static final class Duracoes {
+        private long[] valores = new long[64];
+        private int tamanho;
+
+        void adicionar(long valor) {
+            if (tamanho == valores.length) {
+                valores = Arrays.copyOf(valores, tamanho * 2);
+            }
+            valores[tamanho++] = valor;
+        }
+
+        void adicionar(Duracoes outras) {
+            if (tamanho + outras.tamanho > valores.length) {
+                valores = Arrays.copyOf(valores, Math.max(tamanho + outras.tamanho, valores.length * 2));
+            }
+            System.arraycopy(outras.valores, 0, valores, tamanho, outras.tamanho);
+            tamanho += outras.tamanho;
+        }
+
+        PermanenciaPontoDTO resumir(String pontoLeitura) {
+            Arrays.sort(valores, 0, tamanho);
+            long soma = 0;
+            for (int i = 0; i < tamanho; i++) {
+                soma += valores[i];
+            }
+            PermanenciaPontoDTO dto = new PermanenciaPontoDTO();
+            dto.setPontoLeitura(pontoLeitura);
+            dto.setVisitas(tamanho);
+            dto.setMediaSegundos(soma / 1000.0 / tamanho);
+            dto.setMinimoSegundos(valores[0] / 1000);
+            dto.setP50Segundos(percentil(0.50) / 1000);
+            dto.setP90Segundos(percentil(0.90) / 1000);
+            dto.setP99Segundos(percentil(0.99) / 1000);
+            dto.setMaximoSegundos(valores[tamanho - 1] / 1000);
+            return dto;
+        }
+
+        private long percentil(double fracao) {
+            int posicao = (int) Math.ceil(fracao * tamanho) - 1;
+            return valores[Math.max(0, Math.min(posicao, tamanho - 1))];
+        }
+    }
+
+    /**
+     * Divide os trajetos da janela ao meio até {@code motosPorTarefa} e junta os acumuladores na volta.
+     */
+    private final class TarefaTrajetos extends RecursiveTask<Acumulador> {
+        private final List<Trajeto> trajetos;
+        private final int inicio;
+        private final int fim;
+
+        private TarefaTrajetos(List<Trajeto> trajetos, int inicio, int fim) {
+            this.trajetos = trajetos;
+            this.inicio = inicio;
+            this.fim = fim;
+        }
+
+        @Override
+        protected Acumulador compute() {
+            if (fim - inicio <= motosPorTarefa) {
+                Acumulador acumulador = new Acumulador();
+                for (int i = inicio; i < fim; i++) {
+                    trajetos.get(i).processar(acumulador, intervaloMaxMs);
+                }
+                return acumulador;
+            }
+            int meio = (inicio + fim) >>> 1;
+            TarefaTrajetos esquerda = new TarefaTrajetos(trajetos, inicio, meio);
+            esquerda.fork();
+            Acumulador direita = new TarefaTrajetos(trajetos, meio, fim).compute();
+            return esquerda.join().juntar(direita);
+        }
+    }
+}
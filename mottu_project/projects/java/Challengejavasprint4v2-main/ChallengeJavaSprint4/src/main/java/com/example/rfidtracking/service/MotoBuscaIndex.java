@@ -0,0 +1,102 @@
+package com.example.rfidtracking.service;
+
+import com.example.rfidtracking.dto.MotoDTO;
+import com.example.rfidtracking.event.MotoAlteradaEvent;
+import com.example.rfidtracking.repository.MotoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Índice de trigramas em memória sobre placa e modelo das motos. Converte os filtros por
+ * substring do MotoService em um conjunto de ids antes de consultar o banco, evitando o
+ * LIKE '%x%' sobre a tabela inteira.
+ */
+@Component
+public class MotoBuscaIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(MotoBuscaIndex.class);
+
+    private final MotoRepository motoRepository;
+    private final Shards shards;
+    private final int maxCandidatos;
+
+    private final TrigramIndex placas = new TrigramIndex();
+    private final TrigramIndex modelos = new TrigramIndex();
+    private volatile boolean pronto;
+
+    public MotoBuscaIndex(MotoRepository motoRepository, Shards shards,
+                          @Value("${rfid.moto-busca.max-candidatos:2000}") int maxCandidatos) {
+        this.motoRepository = motoRepository;
+        this.shards = shards;
+        this.maxCandidatos = maxCandidatos;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void carregar() {
+        long inicio = System.currentTimeMillis();
+        AtomicLong total = new AtomicLong();
+        // Shards em ordem: as faixas de ids crescem com o shard, então os ids continuam chegando em ordem
+        shards.lerDeCada(shard -> {
+            try (Stream<Object[]> linhas = motoRepository.streamTextosIndexados()) {
+                for (Object[] linha : (Iterable<Object[]>) linhas::iterator) {
+                    indexar((Long) linha[0], (String) linha[1], (String) linha[2]);
+                    total.incrementAndGet();
+                }
+            }
+        });
+        pronto = true;
+        log.info("Índice de busca de motos carregado com {} motos em {} ms", total.get(), System.currentTimeMillis() - inicio);
+    }
+
+    /**
+     * Ids que podem casar com os filtros de modelo e placa, ou {@code null} quando o índice não ajuda
+     * (ainda carregando, termos com menos de 3 caracteres ou candidatos demais para um IN).
+     * Os ids são um superconjunto: o filtro LIKE continua sendo aplicado sobre eles no banco.
+     */
+    public long[] candidatos(String modelo, String placa) {
+        if (!pronto) {
+            return null;
+        }
+        long[] porModelo = modelo == null || modelo.isEmpty() ? null : modelos.buscar(modelo);
+        long[] porPlaca = placa == null || placa.isEmpty() ? null : placas.buscar(placa);
+
+        long[] resultado;
+        if (porModelo != null && porPlaca != null) {
+            resultado = TrigramIndex.intersecao(porModelo, porPlaca);
+        } else {
+            resultado = porModelo != null ? porModelo : porPlaca;
+        }
+        if (resultado == null || resultado.length > maxCandidatos) {
+            return null;
+        }
+        return resultado;
+    }
+
+    @TransactionalEventListener
+    public void aoAlterarMoto(MotoAlteradaEvent event) {
+        MotoDTO anterior = event.getAnterior();
+        if (anterior != null) {
+            placas.remover(event.getMotoId(), anterior.getPlaca());
+            modelos.remover(event.getMotoId(), anterior.getModelo());
+        }
+        MotoDTO atual = event.getAtual();
+        if (atual != null) {
+            indexar(event.getMotoId(), atual.getPlaca(), atual.getModelo());
+        }
+    }
+
+    private void indexar(Long id, String placa, String modelo) {
+        placas.adicionar(id, placa);
+        modelos.adicionar(id, modelo);
+    }
+}
@@ -1,100 +1,207 @@
 package com.example.rfidtracking.service;
 
 import com.example.rfidtracking.dto.MotoDTO;
+import com.example.rfidtracking.dto.VersaoDTO;
+import com.example.rfidtracking.event.MotoAlteradaEvent;
+import com.example.rfidtracking.event.RegistrosRFIDAlteradosEvent;
+import com.example.rfidtracking.event.RegistrosRFIDAlteradosEvent.Leitura;
+import com.example.rfidtracking.exception.ConflitoException;
+import com.example.rfidtracking.mapper.MotoMapper;
 import com.example.rfidtracking.model.Filial;
 import com.example.rfidtracking.model.Moto;
 import com.example.rfidtracking.repository.FilialRepository;
 import com.example.rfidtracking.repository.MotoRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.data.jpa.domain.Specification;
 import javax.persistence.EntityNotFoundException;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
 @Service
+@Timed("rfid.servico")
 public class MotoService {
 
     private final MotoRepository motoRepository;
     private final FilialRepository filialRepository;
-    private final ModelMapper modelMapper;
-
-    public MotoService(MotoRepository motoRepository, FilialRepository filialRepository, ModelMapper modelMapper) {
+    private final MotoMapper motoMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MotoBuscaIndex motoBuscaIndex;
+    private final Shards shards;
+    private final TotaisAproximadosService totaisAproximados;
+
+    public MotoService(MotoRepository motoRepository, FilialRepository filialRepository, MotoMapper motoMapper,
+                       ApplicationEventPublisher eventPublisher, MotoBuscaIndex motoBuscaIndex, Shards shards,
+                       TotaisAproximadosService totaisAproximados) {
         this.motoRepository = motoRepository;
         this.filialRepository = filialRepository;
-        this.modelMapper = modelMapper;
+        this.motoMapper = motoMapper;
+        this.eventPublisher = eventPublisher;
+        this.motoBuscaIndex = motoBuscaIndex;
+        this.shards = shards;
+        this.totaisAproximados = totaisAproximados;
     }
 
     @Transactional(readOnly = true)
     public Page<MotoDTO> listar(Pageable pageable, String modelo, String placa, String status) {
-        Specification<Moto> spec = Specification.where(MotoSpecification.byModelo(modelo))
+        // O índice de trigramas reduz os filtros de substring a um conjunto de ids; o LIKE continua
+        // na consulta para descartar os falsos positivos do índice
+        long[] candidatos = motoBuscaIndex.candidatos(modelo, placa);
+        if (candidatos != null && candidatos.length == 0) {
+            return Page.empty(pageable);
+        }
+        Specification<Moto> spec = especificacao(candidatos, modelo, placa, status);
+
+        // Com sharding, cada shard filtra e ordena a sua parte e as páginas são intercaladas por id
+        return shards.consultarPagina(pageable, Sort.by("id"), MotoDTO.class, p -> motoRepository.listarProjetado(spec, p));
+    }
+
+    /**
+     * Como {@link #listar}, sem o COUNT(*) com os filtros: só informa se há uma próxima página.
+     */
+    @Transactional(readOnly = true)
+    public Slice<MotoDTO> fatiar(Pageable pageable, String modelo, String placa, String status) {
+        long[] candidatos = motoBuscaIndex.candidatos(modelo, placa);
+        if (candidatos != null && candidatos.length == 0) {
+            return new SliceImpl<>(Collections.emptyList(), pageable, false);
+        }
+        Specification<Moto> spec = especificacao(candidatos, modelo, placa, status);
+        return shards.consultarFatia(pageable, Sort.by("id"), MotoDTO.class, p -> motoRepository.fatiarProjetado(spec, p));
+    }
+
+    /**
+     * Total aproximado da frota, só para a listagem sem filtros; com algum filtro devolve null.
+     */
+    public Long totalAproximado(String modelo, String placa, String status) {
+        boolean semFiltro = Stream.of(modelo, placa, status).allMatch(filtro -> filtro == null || filtro.isEmpty());
+        return semFiltro ? totaisAproximados.estimar(TotaisAproximadosService.MOTOS) : null;
+    }
+
+    private static Specification<Moto> especificacao(long[] candidatos, String modelo, String placa, String status) {
+        return Specification.where(MotoSpecification.byIds(candidatos))
+                .and(MotoSpecification.byModelo(modelo))
                 .and(MotoSpecification.byPlaca(placa))
                 .and(MotoSpecification.byStatus(status));
-
-        return motoRepository.findAll(spec, pageable).map(this::convertToDto);
     }
 
     @Transactional(readOnly = true)
     public MotoDTO buscarPorId(Long id) {
-        Moto moto = motoRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Moto não encontrada com ID: " + id));
-        return convertToDto(moto);
+        return shards.em(shards.doId(id), () -> {
+            Moto moto = motoRepository.findById(id)
+                    .orElseThrow(() -> new EntityNotFoundException("Moto não encontrada com ID: " + id));
+            return convertToDto(moto);
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public VersaoDTO buscarVersao(Long id) {
+        return shards.em(shards.doId(id), () -> motoRepository.buscarVersao(id)
+                .orElseThrow(() -> new EntityNotFoundException("Moto não encontrada com ID: " + id)));
     }
 
     @Transactional
     public MotoDTO salvar(MotoDTO dto) {
         Moto moto = convertToEntity(dto);
+        // A moto nasce no shard da filial, e o id gerado lá já identifica o shard
+        return shards.em(shards.doFilial(dto.getFilialId()), () -> {
+            verificarTagLivre(moto.getCodigoTag(), null);
             if (dto.getFilialId() != null) {
                 moto.setFilial(buscarFilialPorId(dto.getFilialId()));
             }
-        Moto motoSalva = motoRepository.save(moto);
-        return convertToDto(motoSalva);
+            Moto motoSalva = motoRepository.save(moto);
+            MotoDTO resultado = convertToDto(motoSalva);
+            eventPublisher.publishEvent(new MotoAlteradaEvent(resultado.getId(), null, resultado));
+            return resultado;
+        });
     }
 
     @Transactional
     public MotoDTO atualizar(Long id, MotoDTO dto) {
-        Moto motoExistente = motoRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Moto não encontrada com ID: " + id));
-
-        // Update fields from DTO
-        motoExistente.setModelo(dto.getModelo());
-        motoExistente.setPlaca(dto.getPlaca());
-        motoExistente.setStatus(dto.getStatus());
-
-        if (dto.getFilialId() != null) {
-            motoExistente.setFilial(buscarFilialPorId(dto.getFilialId()));
-        } else {
-            motoExistente.setFilial(null); // Or handle as per business logic if filialId is null
+        int shard = shards.doId(id);
+        if (shards.doFilial(dto.getFilialId()) != shard) {
+            throw new ConflitoException("A filial " + dto.getFilialId() + " fica em outro shard; motos não são movidas entre shards.");
         }
+        return shards.em(shard, () -> {
+            Moto motoExistente = motoRepository.findById(id)
+                    .orElseThrow(() -> new EntityNotFoundException("Moto não encontrada com ID: " + id));
+            if (dto.getVersao() != null && !dto.getVersao().equals(motoExistente.getVersao())) {
+                throw new ConflitoException("A moto " + id + " foi alterada desde a leitura (versão atual "
+                        + motoExistente.getVersao() + ").");
+            }
+            MotoDTO anterior = convertToDto(motoExistente);
+
+            // Update fields from DTO
+            motoExistente.setModelo(dto.getModelo());
+            motoExistente.setPlaca(dto.getPlaca());
+            motoExistente.setStatus(dto.getStatus());
+            motoExistente.setCodigoTag(TagMotoIndex.normalizar(dto.getCodigoTag()));
+            verificarTagLivre(motoExistente.getCodigoTag(), id);
+
+            if (dto.getFilialId() != null) {
+                motoExistente.setFilial(buscarFilialPorId(dto.getFilialId()));
+            } else {
+                motoExistente.setFilial(null); // Or handle as per business logic if filialId is null
+            }
 
-        Moto motoAtualizada = motoRepository.save(motoExistente);
-        return convertToDto(motoAtualizada);
+            Moto motoAtualizada = motoRepository.saveAndFlush(motoExistente);
+            MotoDTO resultado = convertToDto(motoAtualizada);
+            eventPublisher.publishEvent(new MotoAlteradaEvent(id, anterior, resultado));
+            return resultado;
+        });
     }
 
     @Transactional
     public void deletar(Long id) {
-        if (!motoRepository.existsById(id)) {
-            throw new EntityNotFoundException("Moto não encontrada com ID: " + id);
-        }
-        motoRepository.deleteById(id);
+        shards.em(shards.doId(id), () -> {
+            Moto moto = motoRepository.findById(id)
+                    .orElseThrow(() -> new EntityNotFoundException("Moto não encontrada com ID: " + id));
+            MotoDTO anterior = convertToDto(moto);
+            // As leituras saem junto (cascade); os agregados e as posições precisam saber de cada uma
+            List<Leitura> removidas = moto.getRegistros().stream().map(Leitura::de).collect(Collectors.toList());
+            motoRepository.delete(moto);
+            if (!removidas.isEmpty()) {
+                eventPublisher.publishEvent(RegistrosRFIDAlteradosEvent.removidas(removidas));
+            }
+            eventPublisher.publishEvent(new MotoAlteradaEvent(id, anterior, null));
+            return null;
+        });
     }
 
     private MotoDTO convertToDto(Moto moto) {
-        MotoDTO dto = modelMapper.map(moto, MotoDTO.class);
-        if (moto.getFilial() != null) {
-            dto.setFilialId(moto.getFilial().getIdFilial());
-            dto.setNomeFilial(moto.getFilial().getNome()); // Populate filial name for DTO
-        }
-        return dto;
+        return motoMapper.toDto(moto);
     }
 
     private Moto convertToEntity(MotoDTO dto) {
-        return modelMapper.map(dto, Moto.class);
+        return motoMapper.toEntity(dto);
         // Note: Filial association is handled separately in save/update methods
     }
 
+    // A tag é única na frota inteira: com sharding, todos os shards são consultados
+    private void verificarTagLivre(String codigoTag, Long motoId) {
+        if (codigoTag == null) {
+            return;
+        }
+        shards.consultarTodos(shard -> motoRepository.findIdByCodigoTag(codigoTag)).stream()
+                .flatMap(Optional::stream)
+                .filter(dono -> !dono.equals(motoId))
+                .findFirst()
+                .ifPresent(dono -> {
+                    throw new ConflitoException("A tag " + codigoTag + " já está associada à moto " + dono + ".");
+                });
+    }
+
     private Filial buscarFilialPorId(Long filialId) {
         return filialRepository.findById(filialId)
                 .orElseThrow(() -> new EntityNotFoundException("Filial não encontrada com ID: " + filialId));
@@ -3,6 +3,8 @@ package com.example.rfidtracking.service;
 import com.example.rfidtracking.model.Moto;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.util.Arrays;
+
 public class MotoSpecification {
 
     public static Specification<Moto> byModelo(String modelo) {
@@ -23,6 +25,15 @@ public class MotoSpecification {
         };
     }
 
+    public static Specification<Moto> byIds(long[] ids) {
+        return (root, query, builder) -> {
+            if (ids == null) {
+                return builder.conjunction();
+            }
+            return root.get("id").in(Arrays.stream(ids).boxed().toArray());
+        };
+    }
+
     public static Specification<Moto> byStatus(String status) {
         return (root, query, builder) -> {
             if (status == null || status.isEmpty()) {
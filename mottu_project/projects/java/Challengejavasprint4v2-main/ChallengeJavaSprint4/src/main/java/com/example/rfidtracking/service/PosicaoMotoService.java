@@ -0,0 +1,150 @@
+package com.example.rfidtracking.service;
+
+import com.example.rfidtracking.dto.PosicaoMotoDTO;
+import com.example.rfidtracking.event.MotoAlteradaEvent;
+import com.example.rfidtracking.event.RegistrosRFIDAlteradosEvent;
+import com.example.rfidtracking.event.RegistrosRFIDAlteradosEvent.Leitura;
+import com.example.rfidtracking.repository.MotoRepository;
+import com.example.rfidtracking.repository.RegistroRFIDRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * Última posição conhecida de cada moto, mantida em memória a partir das leituras gravadas.
+ * Responde "onde está a moto X agora" sem consultar a tabela de leituras.
+ */
+@Service
+public class PosicaoMotoService {
+
+    private static final Logger log = LoggerFactory.getLogger(PosicaoMotoService.class);
+
+    private final RegistroRFIDRepository registroRFIDRepository;
+    private final MotoRepository motoRepository;
+    private final Shards shards;
+
+    private final ConcurrentMap<Long, Posicao> posicoes;
+    // Poucos pontos de leitura distintos: cada Posicao aponta para a mesma instância de String
+    private final ConcurrentMap<String, String> pontos = new ConcurrentHashMap<>();
+
+    public PosicaoMotoService(RegistroRFIDRepository registroRFIDRepository, MotoRepository motoRepository, Shards shards,
+                              @Value("${rfid.posicao.capacidade-inicial:1024}") int capacidadeInicial) {
+        this.registroRFIDRepository = registroRFIDRepository;
+        this.motoRepository = motoRepository;
+        this.shards = shards;
+        this.posicoes = new ConcurrentHashMap<>(capacidadeInicial);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void carregar() {
+        shards.lerDeCada(shard -> registroRFIDRepository.buscarUltimasPosicoes()
+                .forEach(p -> registrar(p.getMotoId(), p.getRegistroId(), p.getPontoLeitura(), p.getDataHora())));
+        log.info("Índice de posições carregado com {} motos", posicoes.size());
+    }
+
+    public Optional<PosicaoMotoDTO> buscarPorMoto(Long motoId) {
+        return Optional.ofNullable(posicoes.get(motoId)).map(p -> p.toDto(motoId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<PosicaoMotoDTO> listarPorFilial(Long filialId) {
+        return shards.em(shards.doFilial(filialId), () -> motoRepository.findIdsByFilialId(filialId)).stream()
+                .map(motoId -> {
+                    Posicao posicao = posicoes.get(motoId);
+                    return posicao == null ? null : posicao.toDto(motoId);
+                })
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @TransactionalEventListener
+    public void aoAlterarRegistros(RegistrosRFIDAlteradosEvent event) {
+        // Remoções primeiro: numa alteração a versão antiga sai antes de a nova entrar
+        for (Leitura removida : event.getRemovidas()) {
+            Posicao atual = posicoes.get(removida.getMotoId());
+            if (atual != null && atual.registroId == removida.getId()) {
+                recarregar(removida.getMotoId());
+            }
+        }
+        for (Leitura gravada : event.getGravadas()) {
+            registrar(gravada.getMotoId(), gravada.getId(), gravada.getPontoLeitura(), gravada.getDataHora());
+        }
+    }
+
+    @TransactionalEventListener
+    public void aoAlterarMoto(MotoAlteradaEvent event) {
+        if (event.isRemocao()) {
+            posicoes.remove(event.getMotoId());
+        }
+    }
+
+    /**
+     * Esquece as motos cuja última leitura é anterior a {@code limite}, depois que a retenção removeu essas leituras.
+     */
+    public void descartarAnterioresA(LocalDateTime limite) {
+        long limiteNanos = paraNanos(limite);
+        posicoes.values().removeIf(p -> p.dataHoraNanos < limiteNanos);
+    }
+
+    private void registrar(Long motoId, Long registroId, String pontoLeitura, LocalDateTime dataHora) {
+        if (motoId == null || registroId == null || pontoLeitura == null || dataHora == null) {
+            return;
+        }
+        Posicao nova = new Posicao(registroId, pontos.computeIfAbsent(pontoLeitura, p -> p), paraNanos(dataHora));
+        posicoes.merge(motoId, nova, (atual, candidata) -> candidata.maisRecenteQue(atual) ? candidata : atual);
+    }
+
+    private void recarregar(Long motoId) {
+        posicoes.remove(motoId);
+        shards.em(shards.doId(motoId), () -> registroRFIDRepository.findFirstByMoto_IdOrderByDataHoraDescIdDesc(motoId))
+                .ifPresent(r -> registrar(motoId, r.getId(), r.getPontoLeitura(), r.getDataHora()));
+    }
+
+    private static long paraNanos(LocalDateTime dataHora) {
+        return dataHora.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + dataHora.getNano();
+    }
+
+    /**
+     * Entrada compacta (id, referência ao ponto e instante em nanos desde a época) para que
+     * centenas de milhares de motos caibam com folga no heap.
+     */
+    private static final class Posicao {
+        private final long registroId;
+        private final String pontoLeitura;
+        private final long dataHoraNanos;
+
+        private Posicao(long registroId, String pontoLeitura, long dataHoraNanos) {
+            this.registroId = registroId;
+            this.pontoLeitura = pontoLeitura;
+            this.dataHoraNanos = dataHoraNanos;
+        }
+
+        private boolean maisRecenteQue(Posicao outra) {
+            if (dataHoraNanos != outra.dataHoraNanos) {
+                return dataHoraNanos > outra.dataHoraNanos;
+            }
+            return registroId > outra.registroId;
+        }
+
+        private PosicaoMotoDTO toDto(Long motoId) {
+            LocalDateTime dataHora = LocalDateTime.ofEpochSecond(Math.floorDiv(dataHoraNanos, 1_000_000_000L),
+                    (int) Math.floorMod(dataHoraNanos, 1_000_000_000L), ZoneOffset.UTC);
+            return new PosicaoMotoDTO(motoId, registroId, pontoLeitura, dataHora);
+        }
+    }
+}
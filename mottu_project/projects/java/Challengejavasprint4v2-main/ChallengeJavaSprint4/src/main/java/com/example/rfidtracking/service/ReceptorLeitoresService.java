@@ -0,0 +1,515 @@
+package com.example.rfidtracking.service;
+
+import com.example.rfidtracking.dto.ConexaoLeitorDTO;
+import com.example.rfidtracking.dto.LeitoresStatsDTO;
+import com.example.rfidtracking.dto.RegistroRFIDDTO;
+import com.example.rfidtracking.model.RegistroRFID;
+import com.example.rfidtracking.service.TagMotoIndex.ChaveTag;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Recepção direta das leituras dos leitores fixos por TCP, sem passar por HTTP. Cada quadro traz
+ * {@code TAG,PONTO[,EPOCH_MILLIS]} em ASCII, delimitado por quebra de linha ({@code LINHA}) ou
+ * precedido do tamanho em 2 bytes big-endian ({@code PREFIXO}). Sem o instante, vale o da recepção;
+ * os dois viram {@code dataHora} em {@link RegistroRFID#FUSO_DATA_HORA}.
+ * <p>
+ * Uma única thread atende todas as conexões com um {@link Selector}. Os quadros são lidos direto do
+ * buffer de cada conexão, sem cópia para String: a tag é resolvida pelo {@link TagMotoIndex} com uma
+ * chave reaproveitada, e o nome do ponto é reaproveitado enquanto o leitor repetir o mesmo ponto.
+ * As leituras seguem para a mesma fila da ingestão assíncrona ({@code POST /api/registros/async}).
+ * Quando a fila está cheia, a conexão deixa de ser lida até as pendentes caberem; o TCP do leitor
+ * então enche a janela e o próprio leitor desacelera.
+ */
+@Service
+public class ReceptorLeitoresService implements SmartLifecycle, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(ReceptorLeitoresService.class);
+    private static final int MAX_TAG_BYTES = 64;
+
+    public enum Enquadramento {
+        LINHA,
+        PREFIXO
+    }
+
+    private final RegistroRFIDIngestService ingestService;
+    private final TagMotoIndex tagMotoIndex;
+    private final boolean habilitado;
+    private final String endereco;
+    private final int porta;
+    private final Enquadramento enquadramento;
+    private final int tamanhoBuffer;
+    private final int maxQuadroBytes;
+    private final int maxConexoes;
+    private final long intervaloRetentativaMs;
+
+    private final Map<Long, Conexao> conexoes = new ConcurrentHashMap<>();
+    private final Set<Conexao> pausadas = new LinkedHashSet<>();
+    private final AtomicLong proximoId = new AtomicLong();
+
+    private final LongAdder conexoesAceitas = new LongAdder();
+    private final LongAdder conexoesRecusadas = new LongAdder();
+    private final LongAdder quadros = new LongAdder();
+    private final LongAdder aceitos = new LongAdder();
+    private final LongAdder tagsDesconhecidas = new LongAdder();
+    private final LongAdder invalidos = new LongAdder();
+    private final LongAdder descartados = new LongAdder();
+
+    private Selector selector;
+    private ServerSocketChannel servidor;
+    private Thread thread;
+    private volatile int portaEmUso;
+    private volatile boolean running;
+
+    public ReceptorLeitoresService(RegistroRFIDIngestService ingestService, TagMotoIndex tagMotoIndex,
+                                   @Value("${rfid.leitor.habilitado:false}") boolean habilitado,
+                                   @Value("${rfid.leitor.endereco:0.0.0.0}") String endereco,
+                                   @Value("${rfid.leitor.porta:5055}") int porta,
+                                   @Value("${rfid.leitor.enquadramento:LINHA}") String enquadramento,
+                                   @Value("${rfid.leitor.tamanho-buffer:16384}") int tamanhoBuffer,
+                                   @Value("${rfid.leitor.max-quadro-bytes:512}") int maxQuadroBytes,
+                                   @Value("${rfid.leitor.max-conexoes:256}") int maxConexoes,
+                                   @Value("${rfid.leitor.intervalo-retentativa-ms:50}") long intervaloRetentativaMs) {
+        this.ingestService = ingestService;
+        this.tagMotoIndex = tagMotoIndex;
+        this.habilitado = habilitado;
+        this.endereco = endereco;
+        this.porta = porta;
+        this.enquadramento = Enquadramento.valueOf(enquadramento.toUpperCase(Locale.ROOT));
+        this.maxQuadroBytes = Math.min(maxQuadroBytes, 0xFFFF);
+        // O buffer precisa comportar ao menos um quadro inteiro com o prefixo
+        this.tamanhoBuffer = Math.max(tamanhoBuffer, this.maxQuadroBytes + 2);
+        this.maxConexoes = maxConexoes;
+        this.intervaloRetentativaMs = intervaloRetentativaMs;
+    }
+
+    public LeitoresStatsDTO estatisticas() {
+        LeitoresStatsDTO stats = new LeitoresStatsDTO();
+        stats.setHabilitado(habilitado);
+        stats.setPorta(portaEmUso);
+        stats.setEnquadramento(enquadramento.name());
+        stats.setTagsConhecidas(tagMotoIndex.tamanho());
+        stats.setConexoesAceitas(conexoesAceitas.sum());
+        stats.setConexoesRecusadas(conexoesRecusadas.sum());
+        stats.setQuadros(quadros.sum());
+        stats.setAceitos(aceitos.sum());
+        stats.setTagsDesconhecidas(tagsDesconhecidas.sum());
+        stats.setInvalidos(invalidos.sum());
+        stats.setDescartados(descartados.sum());
+        stats.setConexoes(conexoes.values().stream()
+                .sorted(Comparator.comparingLong(conexao -> conexao.id))
+                .map(Conexao::paraDto)
+                .collect(Collectors.toList()));
+        return stats;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("rfid.leitor.conexoes", conexoes, Map::size)
+                .description("Conexões de leitores abertas")
+                .register(registry);
+        FunctionCounter.builder("rfid.leitor.conexoes.recusadas", conexoesRecusadas, LongAdder::sum)
+                .register(registry);
+        quadros(registry, "aceito", aceitos);
+        quadros(registry, "tag_desconhecida", tagsDesconhecidas);
+        quadros(registry, "invalido", invalidos);
+        quadros(registry, "descartado", descartados);
+    }
+
+    private static void quadros(MeterRegistry registry, String resultado, LongAdder valor) {
+        FunctionCounter.builder("rfid.leitor.quadros", valor, LongAdder::sum)
+                .tag("resultado", resultado)
+                .register(registry);
+    }
+
+    @Override
+    public void start() {
+        if (!habilitado) {
+            return;
+        }
+        try {
+            selector = Selector.open();
+            servidor = ServerSocketChannel.open();
+            servidor.bind(new InetSocketAddress(endereco, porta));
+            servidor.configureBlocking(false);
+            servidor.register(selector, SelectionKey.OP_ACCEPT);
+            portaEmUso = ((InetSocketAddress) servidor.getLocalAddress()).getPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível abrir a porta " + porta + " dos leitores RFID", e);
+        }
+        running = true;
+        thread = new Thread(this::atender, "rfid-leitores");
+        thread.start();
+        log.info("Recepção de leitores RFID em {}:{} ({})", endereco, portaEmUso, enquadramento);
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        selector.wakeup();
+        try {
+            thread.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // Para antes da ingestão assíncrona, para que a fila ainda seja drenada depois do último quadro
+        return Integer.MAX_VALUE - 1024;
+    }
+
+    private void atender() {
+        try {
+            while (running) {
+                selector.select(pausadas.isEmpty() ? 1000 : intervaloRetentativaMs);
+                Iterator<SelectionKey> chaves = selector.selectedKeys().iterator();
+                while (chaves.hasNext()) {
+                    SelectionKey chave = chaves.next();
+                    chaves.remove();
+                    if (!chave.isValid()) {
+                        continue;
+                    }
+                    if (chave.isAcceptable()) {
+                        aceitar();
+                    } else if (chave.isReadable()) {
+                        ((Conexao) chave.attachment()).ler();
+                    }
+                }
+                retomarPausadas();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Recepção de leitores RFID interrompida", e);
+        } finally {
+            for (Conexao conexao : new ArrayList<>(conexoes.values())) {
+                conexao.fechar();
+            }
+            fecharSilenciosamente(servidor);
+            fecharSilenciosamente(selector);
+            running = false;
+        }
+    }
+
+    private void aceitar() throws IOException {
+        SocketChannel canal = servidor.accept();
+        if (canal == null) {
+            return;
+        }
+        if (conexoes.size() >= maxConexoes) {
+            conexoesRecusadas.increment();
+            fecharSilenciosamente(canal);
+            return;
+        }
+        canal.configureBlocking(false);
+        Conexao conexao = new Conexao(proximoId.incrementAndGet(), canal);
+        conexao.chave = canal.register(selector, SelectionKey.OP_READ, conexao);
+        conexoes.put(conexao.id, conexao);
+        conexoesAceitas.increment();
+    }
+
+    private void retomarPausadas() {
+        for (Iterator<Conexao> it = pausadas.iterator(); it.hasNext(); ) {
+            Conexao conexao = it.next();
+            if (conexao.enviar()) {
+                it.remove();
+                conexao.pausada = false;
+                if (conexao.chave.isValid()) {
+                    conexao.chave.interestOps(SelectionKey.OP_READ);
+                }
+            }
+        }
+    }
+
+    private static void fecharSilenciosamente(Closeable recurso) {
+        if (recurso == null) {
+            return;
+        }
+        try {
+            recurso.close();
+        } catch (IOException e) {
+            // Nada a fazer: o recurso está sendo descartado
+        }
+    }
+
+    /**
+     * Estado de uma conexão de leitor. Só a thread do selector altera os campos; os contadores são
+     * voláteis para que as estatísticas lidas por outras threads não fiquem presas em cache.
+     */
+    private final class Conexao {
+        private final long id;
+        private final SocketChannel canal;
+        private final String remoto;
+        private final LocalDateTime conectadaEm = LocalDateTime.now();
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(tamanhoBuffer);
+        private final ChaveTag sonda = ChaveTag.reutilizavel(MAX_TAG_BYTES);
+        private final List<RegistroRFIDDTO> pendentes = new ArrayList<>();
+        private SelectionKey chave;
+        // Bytes do início do buffer já varridos sem encontrar fim de linha
+        private int varrido;
+
+        // Último ponto recebido, reaproveitado enquanto os bytes forem os mesmos
+        private final byte[] pontoBytes = new byte[maxQuadroBytes];
+        private int pontoTamanho = -1;
+        private String ponto;
+
+        private volatile long bytesRecebidos;
+        private volatile long quadros;
+        private volatile long aceitos;
+        private volatile long tagsDesconhecidas;
+        private volatile long invalidos;
+        private volatile long pausas;
+        private volatile boolean pausada;
+
+        private Conexao(long id, SocketChannel canal) throws IOException {
+            this.id = id;
+            this.canal = canal;
+            this.remoto = String.valueOf(canal.getRemoteAddress());
+        }
+
+        void ler() {
+            int lidos;
+            try {
+                lidos = canal.read(buffer);
+            } catch (IOException e) {
+                fechar();
+                return;
+            }
+            if (lidos < 0) {
+                enviar();
+                fechar();
+                return;
+            }
+            bytesRecebidos += lidos;
+            buffer.flip();
+            boolean valido = enquadramento == Enquadramento.LINHA ? extrairLinhas() : extrairPrefixados();
+            buffer.compact();
+            if (!valido) {
+                log.warn("Leitor {} enviou quadro maior que {} bytes; conexão encerrada", remoto, maxQuadroBytes);
+                enviar();
+                fechar();
+                return;
+            }
+            if (!enviar()) {
+                // Fila cheia: para de ler até as pendentes serem aceitas
+                pausada = true;
+                pausas++;
+                chave.interestOps(0);
+                pausadas.add(this);
+            }
+        }
+
+        private boolean extrairLinhas() {
+            int inicio = buffer.position();
+            int limite = buffer.limit();
+            for (int i = inicio + varrido; i < limite; i++) {
+                if (buffer.get(i) == '\n') {
+                    int fim = i > inicio && buffer.get(i - 1) == '\r' ? i - 1 : i;
+                    if (fim > inicio) {
+                        processar(inicio, fim);
+                    }
+                    inicio = i + 1;
+                }
+            }
+            buffer.position(inicio);
+            varrido = limite - inicio;
+            return varrido <= maxQuadroBytes;
+        }
+
+        private boolean extrairPrefixados() {
+            while (buffer.remaining() >= 2) {
+                int posicao = buffer.position();
+                int tamanho = buffer.getShort(posicao) & 0xFFFF;
+                if (tamanho > maxQuadroBytes) {
+                    return false;
+                }
+                if (buffer.remaining() < 2 + tamanho) {
+                    break;
+                }
+                processar(posicao + 2, posicao + 2 + tamanho);
+                buffer.position(posicao + 2 + tamanho);
+            }
+            return true;
+        }
+
+        /**
+         * Interpreta o quadro {@code [inicio, fim)} do buffer sem copiá-lo.
+         */
+        private void processar(int inicio, int fim) {
+            quadros++;
+            ReceptorLeitoresService.this.quadros.increment();
+            int virgulaTag = indiceDe(',', inicio, fim);
+            if (virgulaTag <= inicio) {
+                invalido();
+                return;
+            }
+            int virgulaPonto = indiceDe(',', virgulaTag + 1, fim);
+            int fimPonto = virgulaPonto < 0 ? fim : virgulaPonto;
+            if (fimPonto == virgulaTag + 1 || !sonda.definir(buffer, inicio, virgulaTag)) {
+                invalido();
+                return;
+            }
+            LocalDateTime dataHora;
+            if (virgulaPonto < 0) {
+                dataHora = LocalDateTime.now(RegistroRFID.FUSO_DATA_HORA);
+            } else {
+                long millis = lerNumero(virgulaPonto + 1, fim);
+                if (millis < 0) {
+                    invalido();
+                    return;
+                }
+                dataHora = LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), RegistroRFID.FUSO_DATA_HORA);
+            }
+
+            Long motoId = tagMotoIndex.buscar(sonda);
+            if (motoId == null) {
+                tagsDesconhecidas++;
+                ReceptorLeitoresService.this.tagsDesconhecidas.increment();
+                return;
+            }
+            String nomePonto = ponto(virgulaTag + 1, fimPonto);
+            if (nomePonto.isEmpty()) {
+                invalido();
+                return;
+            }
+            pendentes.add(new RegistroRFIDDTO(null, nomePonto, dataHora, motoId));
+        }
+
+        private String ponto(int inicio, int fim) {
+            int tamanho = fim - inicio;
+            boolean igual = tamanho == pontoTamanho;
+            for (int i = 0; igual && i < tamanho; i++) {
+                igual = pontoBytes[i] == buffer.get(inicio + i);
+            }
+            if (!igual) {
+                for (int i = 0; i < tamanho; i++) {
+                    pontoBytes[i] = buffer.get(inicio + i);
+                }
+                pontoTamanho = tamanho;
+                ponto = new String(pontoBytes, 0, tamanho, StandardCharsets.UTF_8).trim();
+            }
+            return ponto;
+        }
+
+        private int indiceDe(char caractere, int inicio, int fim) {
+            for (int i = inicio; i < fim; i++) {
+                if (buffer.get(i) == caractere) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private long lerNumero(int inicio, int fim) {
+            if (inicio >= fim || fim - inicio > 18) {
+                return -1;
+            }
+            long valor = 0;
+            for (int i = inicio; i < fim; i++) {
+                byte b = buffer.get(i);
+                if (b < '0' || b > '9') {
+                    return -1;
+                }
+                valor = valor * 10 + (b - '0');
+            }
+            return valor;
+        }
+
+        private void invalido() {
+            invalidos++;
+            ReceptorLeitoresService.this.invalidos.increment();
+        }
+
+        /**
+         * Entrega as pendentes à fila de ingestão; devolve {@code true} se todas foram aceitas.
+         */
+        boolean enviar() {
+            if (pendentes.isEmpty()) {
+                return true;
+            }
+            int livre = ingestService.capacidadeLivre();
+            if (livre == 0) {
+                return false;
+            }
+            int entregues = ingestService.enfileirar(livre >= pendentes.size() ? pendentes : pendentes.subList(0, livre));
+            aceitos += entregues;
+            ReceptorLeitoresService.this.aceitos.add(entregues);
+            if (entregues == pendentes.size()) {
+                pendentes.clear();
+                return true;
+            }
+            pendentes.subList(0, entregues).clear();
+            return false;
+        }
+
+        void fechar() {
+            if (!pendentes.isEmpty()) {
+                descartados.add(pendentes.size());
+                pendentes.clear();
+            }
+            conexoes.remove(id);
+            pausadas.remove(this);
+            if (chave != null) {
+                chave.cancel();
+            }
+            fecharSilenciosamente(canal);
+        }
+
+        ConexaoLeitorDTO paraDto() {
+            ConexaoLeitorDTO dto = new ConexaoLeitorDTO();
+            dto.setId(id);
+            dto.setRemoto(remoto);
+            dto.setConectadaEm(conectadaEm);
+            dto.setBytesRecebidos(bytesRecebidos);
+            dto.setQuadros(quadros);
+            dto.setAceitos(aceitos);
+            dto.setTagsDesconhecidas(tagsDesconhecidas);
+            dto.setInvalidos(invalidos);
+            dto.setPausas(pausas);
+            dto.setPausada(pausada);
+            // Tamanho lido fora da thread do selector: apenas indicativo
+            dto.setPendentes(pendentes.size());
+            return dto;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.rfidtracking.service;
+
+import com.example.rfidtracking.dto.RegistroRFIDDTO;
+import com.example.rfidtracking.exception.RequisicaoInvalidaException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * Posição de keyset na ordenação (dataHora DESC, id DESC), serializada como texto opaco.
+ * {@code proximo} pede as linhas depois da posição; caso contrário, as linhas antes dela.
+ */
+final class RegistroCursor {
+
+    private static final String PROXIMO = "P";
+    private static final String ANTERIOR = "A";
+
+    private final boolean proximo;
+    private final LocalDateTime dataHora;
+    private final long id;
+
+    private RegistroCursor(boolean proximo, LocalDateTime dataHora, long id) {
+        this.proximo = proximo;
+        this.dataHora = dataHora;
+        this.id = id;
+    }
+
+    static RegistroCursor proximo(RegistroRFIDDTO registro) {
+        return new RegistroCursor(true, posicao(registro), registro.getId());
+    }
+
+    static RegistroCursor anterior(RegistroRFIDDTO registro) {
+        return new RegistroCursor(false, posicao(registro), registro.getId());
+    }
+
+    // As consultas do cursor não devolvem leituras sem dataHora; um cursor com "null" não seria decodificável
+    private static LocalDateTime posicao(RegistroRFIDDTO registro) {
+        return Objects.requireNonNull(registro.getDataHora(), "Leitura sem dataHora na página do cursor: " + registro.getId());
+    }
+
+    static RegistroCursor decodificar(String cursor) {
+        try {
+            String[] partes = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (partes.length != 3 || !(PROXIMO.equals(partes[0]) || ANTERIOR.equals(partes[0]))) {
+                throw new RequisicaoInvalidaException("Cursor inválido.");
+            }
+            return new RegistroCursor(PROXIMO.equals(partes[0]), LocalDateTime.parse(partes[1]), Long.parseLong(partes[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            // Base64 malformado e número inválido chegam como IllegalArgumentException
+            throw new RequisicaoInvalidaException("Cursor inválido.", e);
+        }
+    }
+
+    String codificar() {
+        String texto = (proximo ? PROXIMO : ANTERIOR) + "|" + dataHora + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    boolean isProximo() {
+        return proximo;
+    }
+
+    LocalDateTime getDataHora() {
+        return dataHora;
+    }
+
+    long getId() {
+        return id;
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.rfidtracking.service;
+
+import com.example.rfidtracking.dto.RegistroRFIDDTO;
+import com.example.rfidtracking.model.RegistroRFID;
+import com.example.rfidtracking.repository.RegistroRFIDRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Exportação do histórico de leituras em streaming: as linhas saem do cursor do banco direto
+ * para a resposta, com memória constante qualquer que seja o período exportado.
+ */
+@Service
+public class RegistroRFIDExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(RegistroRFIDExportService.class);
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+
+    // Ordem do stream de exportação (RegistroRFIDExportRepositoryImpl), usada para intercalar os shards
+    private static final Comparator<RegistroRFIDDTO> ORDEM = Comparator.comparing(RegistroRFIDDTO::getDataHora)
+            .thenComparing(RegistroRFIDDTO::getId);
+
+    private final RegistroRFIDRepository registroRFIDRepository;
+    private final Shards shards;
+    private final int fetchSize;
+
+    public RegistroRFIDExportService(RegistroRFIDRepository registroRFIDRepository, Shards shards,
+                                     @Value("${rfid.export.fetch-size:1000}") int fetchSize) {
+        this.registroRFIDRepository = registroRFIDRepository;
+        this.shards = shards;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Escreve as leituras filtradas em {@code saida} e devolve quantas foram exportadas. Não fecha
+     * {@code saida}; quem chama decide (ex.: finalizar o gzip).
+     */
+    @Transactional(readOnly = true)
+    public long exportar(Long motoId, String pontoLeitura, LocalDateTime de, LocalDateTime ate,
+                         FormatoExportacao formato, OutputStream saida) throws IOException {
+        Specification<RegistroRFID> spec = Specification.where(RegistroRFIDSpecification.byMoto(motoId))
+                .and(RegistroRFIDSpecification.byPontoLeitura(pontoLeitura))
+                .and(RegistroRFIDSpecification.byPeriodo(de, ate));
+
+        long inicio = System.currentTimeMillis();
+        AtomicLong total = new AtomicLong();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8), TAMANHO_BUFFER);
+        formato.escreverCabecalho(writer);
+        Consumer<RegistroRFIDDTO> escrever = registro -> {
+            try {
+                formato.escrever(writer, registro);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            total.incrementAndGet();
+        };
+        try {
+            if (motoId != null) {
+                // O histórico de uma moto está todo no shard dela
+                shards.em(shards.doId(motoId), () -> {
+                    try (Stream<RegistroRFIDDTO> registros = registroRFIDRepository.streamParaExportacao(spec, fetchSize)) {
+                        registros.forEachOrdered(escrever);
+                    }
+                    return null;
+                });
+            } else {
+                // Com sharding, os streams de todos os shards são intercalados na mesma ordem do arquivo
+                shards.percorrerOrdenado(shard -> registroRFIDRepository.streamParaExportacao(spec, fetchSize), ORDEM, escrever);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        log.info("Exportadas {} leituras em {} ({} ms)", total.get(), formato, System.currentTimeMillis() - inicio);
+        return total.get();
+    }
+}
@@ -0,0 +1,359 @@
+package com.example.rfidtracking.service;
+
+import com.example.rfidtracking.dto.ImportacaoRFIDDTO;
+import com.example.rfidtracking.dto.RegistroRFIDBatchResultDTO;
+import com.example.rfidtracking.dto.RegistroRFIDDTO;
+import com.example.rfidtracking.exception.ConflitoException;
+import com.example.rfidtracking.exception.RequisicaoInvalidaException;
+import com.example.rfidtracking.model.ImportacaoRFID;
+import com.example.rfidtracking.model.ImportacaoRFID.ErroImportacao;
+import com.example.rfidtracking.repository.ImportacaoRFIDRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityNotFoundException;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Importação em massa de leituras históricas (CSV ou NDJSON). O arquivo é lido linha a linha
+ * e gravado em chunks, cada um na sua transação junto com o progresso da importação, o que
+ * permite retomar a partir do último chunk confirmado reenviando o mesmo arquivo.
+ */
+@Service
+public class RegistroRFIDImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(RegistroRFIDImportService.class);
+
+    public enum Formato {
+        CSV, NDJSON;
+
+        public static Formato de(String nome) {
+            try {
+                return valueOf(nome.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new RequisicaoInvalidaException("Formato de importação inválido: " + nome + " (use csv ou ndjson).");
+            }
+        }
+    }
+
+    private final RegistroRFIDService registroRFIDService;
+    private final ImportacaoRFIDRepository importacaoRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Shards shards;
+    private final int tamanhoChunk;
+    private final int maxErrosRegistrados;
+
+    // Uma mesma importação não pode ser retomada por duas requisições ao mesmo tempo
+    private final Set<Long> emAndamento = ConcurrentHashMap.newKeySet();
+
+    public RegistroRFIDImportService(RegistroRFIDService registroRFIDService, ImportacaoRFIDRepository importacaoRepository,
+                                     ObjectMapper objectMapper, PlatformTransactionManager transactionManager, Shards shards,
+                                     @Value("${rfid.import.tamanho-chunk:5000}") int tamanhoChunk,
+                                     @Value("${rfid.import.max-erros-registrados:1000}") int maxErrosRegistrados) {
+        this.registroRFIDService = registroRFIDService;
+        this.importacaoRepository = importacaoRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shards = shards;
+        this.tamanhoChunk = tamanhoChunk;
+        this.maxErrosRegistrados = maxErrosRegistrados;
+    }
+
+    /**
+     * Importa {@code entrada} em chunks. Com {@code importacaoId} retoma uma importação anterior,
+     * pulando as linhas já confirmadas; sem ele, cria uma nova.
+     */
+    public ImportacaoRFIDDTO importar(Formato formato, Long importacaoId, InputStream entrada) throws IOException {
+        ImportacaoRFID importacao = importacaoId == null ? criar(formato) : carregar(importacaoId, formato);
+        Long id = importacao.getId();
+        if (ImportacaoRFID.CONCLUIDA.equals(importacao.getStatus())) {
+            return buscar(id);
+        }
+        if (!emAndamento.add(id)) {
+            throw new ConflitoException("A importação " + id + " já está em andamento.");
+        }
+
+        long inicio = System.currentTimeMillis();
+        long jaProcessadas = importacao.getLinhasProcessadas();
+        Chunk chunk = new Chunk(jaProcessadas);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8), 64 * 1024)) {
+            Map<String, Integer> colunas = formato == Formato.CSV ? lerCabecalho(reader) : null;
+            long numero = formato == Formato.CSV ? 1 : 0;
+
+            String linha;
+            while ((linha = reader.readLine()) != null) {
+                numero++;
+                if (numero <= jaProcessadas) {
+                    continue;
+                }
+                if (!linha.isBlank()) {
+                    try {
+                        chunk.adicionar(numero, formato == Formato.CSV ? lerCsv(linha, colunas) : lerNdjson(linha));
+                    } catch (IllegalArgumentException e) {
+                        chunk.rejeitar(numero, e.getMessage());
+                    }
+                }
+                chunk.ultimaLinha = numero;
+                if (chunk.dtos.size() >= tamanhoChunk) {
+                    confirmar(id, chunk, false);
+                    chunk = new Chunk(numero);
+                }
+            }
+            confirmar(id, chunk, true);
+        } catch (IOException | RuntimeException e) {
+            // O que já foi confirmado fica; o cliente retoma reenviando o arquivo com o mesmo importacaoId
+            marcarInterrompida(id);
+            throw e;
+        } finally {
+            emAndamento.remove(id);
+        }
+
+        ImportacaoRFIDDTO resultado = buscar(id);
+        log.info("Importação {} concluída: {} aceitas, {} rejeitadas em {} ms",
+                id, resultado.getAceitos(), resultado.getRejeitados(), System.currentTimeMillis() - inicio);
+        return resultado;
+    }
+
+    public ImportacaoRFIDDTO buscar(Long id) {
+        // TransactionTemplate em vez de @Transactional: também é chamado de dentro de importar()
+        return shards.global(() -> transactionTemplate.execute(status -> importacaoRepository.findById(id)
+                .map(this::convertToDto)
+                .orElseThrow(() -> new EntityNotFoundException("Importação não encontrada com ID: " + id))));
+    }
+
+    /**
+     * Grava as leituras do chunk e avança o progresso numa única transação. Com sharding, a parte
+     * de cada shard de dados confirma na própria transação antes do progresso (shard 0): uma queda
+     * entre as duas faz o chunk ser importado de novo na retomada.
+     */
+    private void confirmar(Long id, Chunk chunk, boolean ultimo) {
+        shards.global(() -> transactionTemplate.execute(status -> {
+            ImportacaoRFID importacao = importacaoRepository.findById(id)
+                    .orElseThrow(() -> new EntityNotFoundException("Importação não encontrada com ID: " + id));
+
+            long aceitos = 0;
+            if (!chunk.dtos.isEmpty()) {
+                // Histórico: sem deduplicação e gravado em massa (COPY no PostgreSQL)
+                RegistroRFIDBatchResultDTO resultado = registroRFIDService.gravarLote(chunk.dtos, true);
+                aceitos = resultado.getAceitos();
+                for (RegistroRFIDBatchResultDTO.Item item : resultado.getItens()) {
+                    if (RegistroRFIDBatchResultDTO.REJEITADO.equals(item.getStatus())) {
+                        chunk.rejeitar(chunk.linhas.get(item.getIndice()), item.getErro());
+                    }
+                }
+            }
+
+            importacao.setAceitos(importacao.getAceitos() + aceitos);
+            importacao.setRejeitados(importacao.getRejeitados() + chunk.rejeitados);
+            importacao.setLinhasProcessadas(chunk.ultimaLinha);
+            List<ErroImportacao> erros = importacao.getErros();
+            chunk.erros.sort(Comparator.comparingLong(ErroImportacao::getLinha));
+            for (ErroImportacao erro : chunk.erros) {
+                if (erros.size() >= maxErrosRegistrados) {
+                    break;
+                }
+                erros.add(erro);
+            }
+            importacao.setAtualizadaEm(LocalDateTime.now());
+            if (ultimo) {
+                importacao.setStatus(ImportacaoRFID.CONCLUIDA);
+            }
+            return null;
+        }));
+    }
+
+    private ImportacaoRFID criar(Formato formato) {
+        return shards.global(() -> transactionTemplate.execute(status -> {
+            ImportacaoRFID importacao = new ImportacaoRFID();
+            importacao.setFormato(formato.name());
+            importacao.setStatus(ImportacaoRFID.EM_ANDAMENTO);
+            importacao.setIniciadaEm(LocalDateTime.now());
+            importacao.setAtualizadaEm(importacao.getIniciadaEm());
+            return importacaoRepository.save(importacao);
+        }));
+    }
+
+    private ImportacaoRFID carregar(Long id, Formato formato) {
+        return shards.global(() -> transactionTemplate.execute(status -> {
+            ImportacaoRFID importacao = importacaoRepository.findById(id)
+                    .orElseThrow(() -> new EntityNotFoundException("Importação não encontrada com ID: " + id));
+            if (!importacao.getFormato().equals(formato.name())) {
+                throw new RequisicaoInvalidaException("A importação " + id + " foi iniciada no formato " + importacao.getFormato() + ".");
+            }
+            if (!ImportacaoRFID.CONCLUIDA.equals(importacao.getStatus())) {
+                importacao.setStatus(ImportacaoRFID.EM_ANDAMENTO);
+            }
+            return importacao;
+        }));
+    }
+
+    private void marcarInterrompida(Long id) {
+        try {
+            shards.global(() -> transactionTemplate.execute(status -> {
+                importacaoRepository.findById(id).ifPresent(importacao -> importacao.setStatus(ImportacaoRFID.INTERROMPIDA));
+                return null;
+            }));
+        } catch (RuntimeException e) {
+            log.warn("Não foi possível marcar a importação {} como interrompida", id, e);
+        }
+    }
+
+    private Map<String, Integer> lerCabecalho(BufferedReader reader) throws IOException {
+        String cabecalho = reader.readLine();
+        if (cabecalho == null) {
+            throw new RequisicaoInvalidaException("Arquivo CSV vazio.");
+        }
+        if (cabecalho.startsWith("\uFEFF")) {
+            cabecalho = cabecalho.substring(1);
+        }
+        Map<String, Integer> colunas = new HashMap<>();
+        List<String> nomes = camposCsv(cabecalho);
+        for (int i = 0; i < nomes.size(); i++) {
+            colunas.put(nomes.get(i).trim(), i);
+        }
+        if (!colunas.containsKey("motoId") || !colunas.containsKey("pontoLeitura")) {
+            throw new RequisicaoInvalidaException("O cabeçalho do CSV deve ter as colunas motoId e pontoLeitura (dataHora é opcional).");
+        }
+        return colunas;
+    }
+
+    private RegistroRFIDDTO lerCsv(String linha, Map<String, Integer> colunas) {
+        List<String> campos = camposCsv(linha);
+        RegistroRFIDDTO dto = new RegistroRFIDDTO();
+        String motoId = campo(campos, colunas.get("motoId"));
+        if (motoId != null) {
+            try {
+                dto.setMotoId(Long.valueOf(motoId));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("motoId inválido: " + motoId);
+            }
+        }
+        dto.setPontoLeitura(campo(campos, colunas.get("pontoLeitura")));
+        String dataHora = campo(campos, colunas.get("dataHora"));
+        if (dataHora != null) {
+            try {
+                dto.setDataHora(LocalDateTime.parse(dataHora.replace(' ', 'T')));
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("dataHora inválida: " + dataHora);
+            }
+        }
+        return dto;
+    }
+
+    private RegistroRFIDDTO lerNdjson(String linha) {
+        try {
+            RegistroRFIDDTO dto = objectMapper.readValue(linha, RegistroRFIDDTO.class);
+            // O id do arquivo de origem (ex.: uma exportação) não é reaproveitado
+            dto.setId(null);
+            return dto;
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("JSON inválido: " + e.getOriginalMessage());
+        }
+    }
+
+    private static String campo(List<String> campos, Integer indice) {
+        if (indice == null || indice >= campos.size()) {
+            return null;
+        }
+        String valor = campos.get(indice).trim();
+        return valor.isEmpty() ? null : valor;
+    }
+
+    /**
+     * Campos de uma linha CSV (RFC 4180, sem quebras de linha dentro de aspas).
+     */
+    private static List<String> camposCsv(String linha) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder atual = new StringBuilder();
+        boolean entreAspas = false;
+        for (int i = 0; i < linha.length(); i++) {
+            char c = linha.charAt(i);
+            if (entreAspas) {
+                if (c == '"' && i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+                    atual.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreAspas = false;
+                } else {
+                    atual.append(c);
+                }
+            } else if (c == '"') {
+                entreAspas = true;
+            } else if (c == ',') {
+                campos.add(atual.toString());
+                atual.setLength(0);
+            } else {
+                atual.append(c);
+            }
+        }
+        if (entreAspas) {
+            throw new IllegalArgumentException("Aspas não fechadas na linha.");
+        }
+        campos.add(atual.toString());
+        return campos;
+    }
+
+    private ImportacaoRFIDDTO convertToDto(ImportacaoRFID importacao) {
+        ImportacaoRFIDDTO dto = new ImportacaoRFIDDTO();
+        dto.setId(importacao.getId());
+        dto.setFormato(importacao.getFormato());
+        dto.setStatus(importacao.getStatus());
+        dto.setLinhasProcessadas(importacao.getLinhasProcessadas());
+        dto.setAceitos(importacao.getAceitos());
+        dto.setRejeitados(importacao.getRejeitados());
+        dto.setIniciadaEm(importacao.getIniciadaEm());
+        dto.setAtualizadaEm(importacao.getAtualizadaEm());
+        dto.setErros(importacao.getErros().stream()
+                .map(e -> new ImportacaoRFIDDTO.Erro(e.getLinha(), e.getMensagem()))
+                .collect(Collectors.toList()));
+        return dto;
+    }
+
+    /**
+     * Leituras lidas desde o último chunk confirmado, com o número da linha de cada uma
+     * para relatar os erros de validação.
+     */
+    private static final class Chunk {
+        private final List<RegistroRFIDDTO> dtos = new ArrayList<>();
+        private final List<Long> linhas = new ArrayList<>();
+        private final List<ErroImportacao> erros = new ArrayList<>();
+        private long rejeitados;
+        private long ultimaLinha;
+
+        private Chunk(long ultimaLinha) {
+            this.ultimaLinha = ultimaLinha;
+        }
+
+        private void adicionar(long linha, RegistroRFIDDTO dto) {
+            dtos.add(dto);
+            linhas.add(linha);
+        }
+
+        private void rejeitar(long linha, String erro) {
+            erros.add(new ErroImportacao(linha, erro));
+            rejeitados++;
+        }
+    }
+}
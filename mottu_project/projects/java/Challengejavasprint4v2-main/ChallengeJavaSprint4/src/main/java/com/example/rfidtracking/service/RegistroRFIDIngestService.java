@@ -0,0 +1,289 @@
+package com.example.rfidtracking.service;
+
+import com.example.rfidtracking.dto.IngestStatsDTO;
+import com.example.rfidtracking.dto.RegistroRFIDBatchResultDTO;
+import com.example.rfidtracking.dto.RegistroRFIDDTO;
+import com.example.rfidtracking.exception.LoteParcialException;
+import com.example.rfidtracking.exception.RequisicaoInvalidaException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Ingestão assíncrona de leituras RFID: as leituras entram numa fila limitada e são
+ * confirmadas ao leitor imediatamente; um pequeno grupo de escritores drena a fila e grava
+ * em lotes (group commit) fechados por quantidade ou por tempo.
+ */
+@Service
+public class RegistroRFIDIngestService implements SmartLifecycle, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(RegistroRFIDIngestService.class);
+    private static final int MAX_TENTATIVAS = 3;
+
+    private final RegistroRFIDService registroRFIDService;
+    private final BlockingQueue<RegistroRFIDDTO> fila;
+    private final int escritores;
+    private final int tamanhoLote;
+    private final long intervaloMaxNanos;
+    private final long timeoutDesligamentoMs;
+
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean running;
+    // Leitura: cada enfileirar (checagem de running + offers); escrita: o stop. Nenhuma leitura entra
+    // na fila depois que o desligamento começou a contar o que sobrou nela
+    private final ReadWriteLock desligamento = new ReentrantReadWriteLock();
+
+    private final LongAdder recebidos = new LongAdder();
+    private final LongAdder recusadosFilaCheia = new LongAdder();
+    private final LongAdder gravados = new LongAdder();
+    private final LongAdder rejeitados = new LongAdder();
+    private final LongAdder suprimidos = new LongAdder();
+    private final LongAdder descartados = new LongAdder();
+    private final LongAdder lotesConfirmados = new LongAdder();
+    private final LongAdder latenciaTotalNanos = new LongAdder();
+    private final AtomicLong latenciaMaxNanos = new AtomicLong();
+    private volatile long ultimaLatenciaNanos;
+
+    public RegistroRFIDIngestService(RegistroRFIDService registroRFIDService,
+                                     @Value("${rfid.ingest.async.capacidade-fila:10000}") int capacidadeFila,
+                                     @Value("${rfid.ingest.async.escritores:2}") int escritores,
+                                     @Value("${rfid.ingest.async.tamanho-lote:500}") int tamanhoLote,
+                                     @Value("${rfid.ingest.async.intervalo-max-ms:200}") long intervaloMaxMs,
+                                     @Value("${rfid.ingest.async.timeout-desligamento-ms:30000}") long timeoutDesligamentoMs,
+                                     @Value("${rfid.ingest.batch.max-itens:1000}") int maxItensPorLote) {
+        this.registroRFIDService = registroRFIDService;
+        this.fila = new ArrayBlockingQueue<>(capacidadeFila);
+        this.escritores = escritores;
+        // Cada group commit passa por salvarEmLote, que recusa lotes acima do máximo configurado
+        this.tamanhoLote = Math.min(tamanhoLote, maxItensPorLote);
+        this.intervaloMaxNanos = TimeUnit.MILLISECONDS.toNanos(intervaloMaxMs);
+        this.timeoutDesligamentoMs = timeoutDesligamentoMs;
+    }
+
+    /**
+     * Enfileira as leituras na ordem recebida sem bloquear. Para na primeira leitura que não couber
+     * na fila e devolve quantas foram aceitas, para que o leitor reenvie apenas o restante. Um item
+     * nulo recusa a requisição inteira antes de enfileirar qualquer leitura.
+     */
+    public int enfileirar(List<RegistroRFIDDTO> dtos) {
+        for (int i = 0; i < dtos.size(); i++) {
+            if (dtos.get(i) == null) {
+                throw new RequisicaoInvalidaException("Item " + i + " do lote é nulo.");
+            }
+        }
+        int aceitos = 0;
+        desligamento.readLock().lock();
+        try {
+            if (running) {
+                for (RegistroRFIDDTO dto : dtos) {
+                    if (!fila.offer(dto)) {
+                        break;
+                    }
+                    aceitos++;
+                }
+            }
+        } finally {
+            desligamento.readLock().unlock();
+        }
+        recebidos.add(aceitos);
+        recusadosFilaCheia.add(dtos.size() - aceitos);
+        return aceitos;
+    }
+
+    /**
+     * Quantas leituras cabem agora na fila; usado por quem segura as leituras e tenta de novo
+     * (leitores TCP) para não contar cada nova tentativa como recusa.
+     */
+    public int capacidadeLivre() {
+        return running ? fila.remainingCapacity() : 0;
+    }
+
+    public IngestStatsDTO estatisticas() {
+        IngestStatsDTO stats = new IngestStatsDTO();
+        stats.setProfundidadeFila(fila.size());
+        stats.setCapacidadeFila(fila.size() + fila.remainingCapacity());
+        stats.setRecebidos(recebidos.sum());
+        stats.setRecusadosFilaCheia(recusadosFilaCheia.sum());
+        stats.setGravados(gravados.sum());
+        stats.setRejeitados(rejeitados.sum());
+        stats.setSuprimidos(suprimidos.sum());
+        stats.setDescartados(descartados.sum());
+        long lotes = lotesConfirmados.sum();
+        stats.setLotesConfirmados(lotes);
+        stats.setLatenciaCommitMediaMs(lotes == 0 ? 0 : nanosParaMs(latenciaTotalNanos.sum()) / lotes);
+        stats.setLatenciaCommitMaxMs(nanosParaMs(latenciaMaxNanos.get()));
+        stats.setUltimaLatenciaCommitMs(nanosParaMs(ultimaLatenciaNanos));
+        return stats;
+    }
+
+    /**
+     * Métricas da fila; o resultado das gravações aparece em rfid.ingest.leituras, do RegistroRFIDService.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("rfid.ingest.fila.profundidade", fila, BlockingQueue::size)
+                .description("Leituras aguardando gravação na fila assíncrona")
+                .register(registry);
+        Gauge.builder("rfid.ingest.fila.capacidade", fila, f -> f.size() + f.remainingCapacity())
+                .register(registry);
+        FunctionCounter.builder("rfid.ingest.fila.leituras", recebidos, LongAdder::sum)
+                .tag("resultado", "recebida")
+                .register(registry);
+        FunctionCounter.builder("rfid.ingest.fila.leituras", recusadosFilaCheia, LongAdder::sum)
+                .tag("resultado", "recusada")
+                .register(registry);
+        FunctionCounter.builder("rfid.ingest.fila.leituras", descartados, LongAdder::sum)
+                .tag("resultado", "descartada")
+                .register(registry);
+        FunctionTimer.builder("rfid.ingest.commit", this, s -> s.lotesConfirmados.sum(),
+                        s -> s.latenciaTotalNanos.sum(), TimeUnit.NANOSECONDS)
+                .description("Group commits dos escritores da fila")
+                .register(registry);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        for (int i = 0; i < escritores; i++) {
+            Thread thread = new Thread(this::escrever, "rfid-ingest-" + i);
+            threads.add(thread);
+            thread.start();
+        }
+    }
+
+    /**
+     * Para de aceitar leituras e espera os escritores drenarem o que já estava na fila. O que ainda
+     * estiver nela quando o prazo expira é descartado e contado em rfid.ingest.fila.leituras.
+     */
+    @Override
+    public void stop() {
+        desligamento.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            desligamento.writeLock().unlock();
+        }
+        long limite = System.currentTimeMillis() + timeoutDesligamentoMs;
+        for (Thread thread : threads) {
+            try {
+                thread.join(Math.max(1, limite - System.currentTimeMillis()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        List<RegistroRFIDDTO> restantes = new ArrayList<>();
+        fila.drainTo(restantes);
+        if (!restantes.isEmpty()) {
+            descartados.add(restantes.size());
+            log.error("Desligamento da ingestão assíncrona expirou após {} ms; {} leituras da fila descartadas",
+                    timeoutDesligamentoMs, restantes.size());
+        }
+        threads.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // Para depois do servidor web, que já não aceita requisições quando a fila começa a ser drenada
+        return Integer.MAX_VALUE - 2048;
+    }
+
+    private void escrever() {
+        List<RegistroRFIDDTO> lote = new ArrayList<>(tamanhoLote);
+        while (running || !fila.isEmpty()) {
+            try {
+                RegistroRFIDDTO primeiro = fila.poll(100, TimeUnit.MILLISECONDS);
+                if (primeiro == null) {
+                    continue;
+                }
+                lote.add(primeiro);
+                long prazo = System.nanoTime() + intervaloMaxNanos;
+                while (lote.size() < tamanhoLote) {
+                    if (fila.drainTo(lote, tamanhoLote - lote.size()) > 0) {
+                        continue;
+                    }
+                    long restante = prazo - System.nanoTime();
+                    if (restante <= 0 || !running) {
+                        break;
+                    }
+                    RegistroRFIDDTO proximo = fila.poll(restante, TimeUnit.NANOSECONDS);
+                    if (proximo == null) {
+                        break;
+                    }
+                    lote.add(proximo);
+                }
+                gravar(lote);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lote.clear();
+            }
+        }
+    }
+
+    void gravar(List<RegistroRFIDDTO> lote) throws InterruptedException {
+        List<RegistroRFIDDTO> pendentes = lote;
+        for (int tentativa = 1; tentativa <= MAX_TENTATIVAS; tentativa++) {
+            long inicio = System.nanoTime();
+            try {
+                contabilizar(registroRFIDService.salvarEmLote(pendentes));
+                registrarCommit(System.nanoTime() - inicio);
+                return;
+            } catch (LoteParcialException e) {
+                // Os shards que confirmaram já estão gravados; reenviá-los duplicaria as leituras
+                contabilizar(e.getConfirmado());
+                List<RegistroRFIDDTO> anteriores = pendentes;
+                pendentes = e.getPendentes().stream().map(anteriores::get).collect(Collectors.toList());
+                log.warn("Lote gravado em parte; {} leituras ficam para a próxima tentativa ({}/{})",
+                        pendentes.size(), tentativa, MAX_TENTATIVAS, e);
+                Thread.sleep(100L * tentativa);
+            } catch (RuntimeException e) {
+                log.warn("Falha ao gravar lote de {} leituras (tentativa {}/{})", pendentes.size(), tentativa, MAX_TENTATIVAS, e);
+                Thread.sleep(100L * tentativa);
+            }
+        }
+        log.error("Descartando {} leituras após {} tentativas", pendentes.size(), MAX_TENTATIVAS);
+        descartados.add(pendentes.size());
+    }
+
+    private void contabilizar(RegistroRFIDBatchResultDTO resultado) {
+        gravados.add(resultado.getAceitos());
+        rejeitados.add(resultado.getRejeitados());
+        suprimidos.add(resultado.getSuprimidos());
+    }
+
+    private void registrarCommit(long nanos) {
+        lotesConfirmados.increment();
+        latenciaTotalNanos.add(nanos);
+        latenciaMaxNanos.accumulateAndGet(nanos, Math::max);
+        ultimaLatenciaNanos = nanos;
+    }
+
+    private static double nanosParaMs(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
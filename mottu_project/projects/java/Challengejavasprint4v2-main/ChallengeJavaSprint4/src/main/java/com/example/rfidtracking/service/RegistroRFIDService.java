@@ -1,77 +1,378 @@
 package com.example.rfidtracking.service;
 
+import com.example.rfidtracking.dto.RegistroRFIDBatchResultDTO;
+import com.example.rfidtracking.dto.RegistroRFIDCursorPageDTO;
 import com.example.rfidtracking.dto.RegistroRFIDDTO;
+import com.example.rfidtracking.dto.VersaoDTO;
+import com.example.rfidtracking.event.RegistrosRFIDAlteradosEvent;
+import com.example.rfidtracking.event.RegistrosRFIDAlteradosEvent.Leitura;
+import com.example.rfidtracking.exception.ConflitoException;
+import com.example.rfidtracking.exception.LoteParcialException;
+import com.example.rfidtracking.exception.RequisicaoInvalidaException;
+import com.example.rfidtracking.mapper.RegistroRFIDMapper;
 import com.example.rfidtracking.model.Moto;
 import com.example.rfidtracking.model.RegistroRFID;
 import com.example.rfidtracking.repository.MotoRepository;
 import com.example.rfidtracking.repository.RegistroRFIDRepository;
 import javax.persistence.EntityNotFoundException;
-import org.modelmapper.ModelMapper;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
-public class RegistroRFIDService {
+@Timed("rfid.servico")
+public class RegistroRFIDService implements MeterBinder {
 
     private final RegistroRFIDRepository registroRFIDRepository;
     private final MotoRepository motoRepository;
-    private final ModelMapper modelMapper;
+    private final RegistroRFIDMapper registroRFIDMapper;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DeduplicadorLeituras deduplicador;
+    private final Shards shards;
+    private final TotaisAproximadosService totaisAproximados;
 
-    public RegistroRFIDService(RegistroRFIDRepository registroRFIDRepository, MotoRepository motoRepository, ModelMapper modelMapper) {
+    // Todas as gravações em lote passam por aqui (API, fila assíncrona, leitores TCP e importação)
+    private final LongAdder leiturasGravadas = new LongAdder();
+    private final LongAdder leiturasRejeitadas = new LongAdder();
+    private final LongAdder leiturasSuprimidas = new LongAdder();
+
+    // Ordem da paginação por cursor: (dataHora DESC, id DESC)
+    private static final Comparator<RegistroRFIDDTO> ORDEM_CURSOR = Comparator.comparing(RegistroRFIDDTO::getDataHora)
+            .thenComparing(RegistroRFIDDTO::getId).reversed();
+
+    @Value("${rfid.ingest.batch.max-itens:1000}")
+    private int maxItensPorLote;
+
+    @Value("${rfid.registros.cursor.max-size:500}")
+    private int maxTamanhoCursor;
+
+    public RegistroRFIDService(RegistroRFIDRepository registroRFIDRepository, MotoRepository motoRepository,
+                               RegistroRFIDMapper registroRFIDMapper, Validator validator, ApplicationEventPublisher eventPublisher,
+                               DeduplicadorLeituras deduplicador, Shards shards, TotaisAproximadosService totaisAproximados) {
         this.registroRFIDRepository = registroRFIDRepository;
         this.motoRepository = motoRepository;
-        this.modelMapper = modelMapper;
+        this.registroRFIDMapper = registroRFIDMapper;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.deduplicador = deduplicador;
+        this.shards = shards;
+        this.totaisAproximados = totaisAproximados;
     }
 
     @Transactional(readOnly = true)
-    @Cacheable(value = "registros", key = "#filtro + '_' + #pageable.pageNumber + '_' + #pageable.pageSize + '_' + #pageable.sort")
+    // A chave estruturada permite que o RegistrosCacheInvalidator descarte só as páginas afetadas por uma escrita
+    @Cacheable(value = "registros", key = "T(com.example.rfidtracking.service.RegistrosCacheKey).of(#filtro, #pageable)")
     public Page<RegistroRFIDDTO> listar(String filtro, Pageable pageable) {
-        if (filtro != null && !filtro.isEmpty()) {
-            return registroRFIDRepository.findByPontoLeituraContainingIgnoreCase(filtro, pageable)
-                    .map(this::convertToDto);
+        // Com sharding, a página é montada intercalando as páginas de cada shard por dataHora
+        return shards.consultarPagina(pageable, Sort.by(Sort.Direction.DESC, "dataHora"), RegistroRFIDDTO.class,
+                p -> registroRFIDRepository.listarProjetado(RegistroRFIDSpecification.byPontoLeitura(filtro), p));
+    }
+
+    /**
+     * Como {@link #listar}, sem o COUNT(*) com o LIKE do filtro: só informa se há uma próxima página.
+     */
+    @Transactional(readOnly = true)
+    @Cacheable(value = "registros", key = "T(com.example.rfidtracking.service.RegistrosCacheKey).fatia(#filtro, #pageable)")
+    public Slice<RegistroRFIDDTO> fatiar(String filtro, Pageable pageable) {
+        return shards.consultarFatia(pageable, Sort.by(Sort.Direction.DESC, "dataHora"), RegistroRFIDDTO.class,
+                p -> registroRFIDRepository.fatiarProjetado(RegistroRFIDSpecification.byPontoLeitura(filtro), p));
+    }
+
+    /**
+     * Total aproximado das leituras, só para a listagem sem filtro; com filtro devolve null.
+     */
+    public Long totalAproximado(String filtro) {
+        return filtro == null || filtro.isEmpty() ? totaisAproximados.estimar(TotaisAproximadosService.REGISTROS) : null;
+    }
+
+    /**
+     * Histórico de leituras de uma moto, opcionalmente restrito a um período e a um ponto de leitura.
+     * A consulta é resolvida pelo índice (moto_id, data_hora), então o custo não cresce com a tabela.
+     */
+    @Transactional(readOnly = true)
+    public Page<RegistroRFIDDTO> listarPorMoto(Long motoId, String filtro, LocalDateTime de, LocalDateTime ate, Pageable pageable) {
+        Specification<RegistroRFID> spec = Specification.where(RegistroRFIDSpecification.byMoto(motoId))
+                .and(RegistroRFIDSpecification.byPeriodo(de, ate))
+                .and(RegistroRFIDSpecification.byPontoLeitura(filtro));
+
+        return shards.em(shards.doId(motoId), () -> registroRFIDRepository.listarProjetado(spec, pageable));
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<RegistroRFIDDTO> fatiarPorMoto(Long motoId, String filtro, Pageable pageable) {
+        Specification<RegistroRFID> spec = Specification.where(RegistroRFIDSpecification.byMoto(motoId))
+                .and(RegistroRFIDSpecification.byPontoLeitura(filtro));
+
+        return shards.em(shards.doId(motoId), () -> registroRFIDRepository.fatiarProjetado(spec, pageable));
+    }
+
+    /**
+     * Paginação por keyset em (dataHora DESC, id DESC), sem OFFSET e sem COUNT: o custo de cada página
+     * não depende da profundidade. Sem cursor, devolve as leituras mais recentes. Com sharding, cada
+     * shard devolve a sua página a partir do mesmo cursor e elas são intercaladas em (dataHora, id),
+     * que é uma ordem total porque os ids não se repetem entre shards.
+     */
+    @Transactional(readOnly = true)
+    public RegistroRFIDCursorPageDTO listarPorCursor(String cursor, int size) {
+        int tamanho = Math.max(1, Math.min(size, maxTamanhoCursor));
+        PageRequest limite = PageRequest.of(0, tamanho + 1);
+
+        if (cursor == null || cursor.isEmpty()) {
+            List<RegistroRFIDDTO> linhas = juntar(shards.consultarTodos(shard -> registroRFIDRepository.buscarMaisRecentes(limite)),
+                    ORDEM_CURSOR, tamanho + 1);
+            return montarPaginaCursor(linhas, tamanho, linhas.size() > tamanho, false);
         }
-        return registroRFIDRepository.findAll(pageable).map(this::convertToDto);
+
+        RegistroCursor posicao = RegistroCursor.decodificar(cursor);
+        if (posicao.isProximo()) {
+            List<RegistroRFIDDTO> linhas = juntar(shards.consultarTodos(
+                    shard -> registroRFIDRepository.buscarApos(posicao.getDataHora(), posicao.getId(), limite)), ORDEM_CURSOR, tamanho + 1);
+            return montarPaginaCursor(linhas, tamanho, linhas.size() > tamanho, true);
+        }
+
+        // Voltando: a consulta vem em ordem crescente a partir do cursor e é invertida para DESC
+        List<RegistroRFIDDTO> linhas = new ArrayList<>(juntar(shards.consultarTodos(
+                shard -> registroRFIDRepository.buscarAntes(posicao.getDataHora(), posicao.getId(), limite)), ORDEM_CURSOR.reversed(), tamanho + 1));
+        boolean temAnterior = linhas.size() > tamanho;
+        if (temAnterior) {
+            linhas = linhas.subList(0, tamanho);
+        }
+        Collections.reverse(linhas);
+        return montarPaginaCursor(linhas, tamanho, true, temAnterior);
     }
 
     @Transactional(readOnly = true)
     @Cacheable(value = "registro", key = "#id")
     public RegistroRFIDDTO buscarPorId(Long id) {
-        RegistroRFID registro = registroRFIDRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Registro RFID não encontrado com ID: " + id));
-        return convertToDto(registro);
+        return shards.em(shards.doId(id), () -> {
+            RegistroRFID registro = registroRFIDRepository.findById(id)
+                    .orElseThrow(() -> new EntityNotFoundException("Registro RFID não encontrado com ID: " + id));
+            return convertToDto(registro);
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public VersaoDTO buscarVersao(Long id) {
+        return shards.em(shards.doId(id), () -> registroRFIDRepository.buscarVersao(id)
+                .orElseThrow(() -> new EntityNotFoundException("Registro RFID não encontrado com ID: " + id)));
     }
 
     @Transactional
-    @CacheEvict(value = "registros", allEntries = true) // Invalidate all paged results
     public RegistroRFIDDTO salvar(RegistroRFIDDTO dto) {
         RegistroRFID entity = new RegistroRFID();
         entity.setPontoLeitura(dto.getPontoLeitura());
         // DataHora should ideally be set by the DTO or based on business logic, setting to now() for simplicity
-        entity.setDataHora(dto.getDataHora() != null ? dto.getDataHora() : LocalDateTime.now());
+        entity.setDataHora(dto.getDataHora() != null ? dto.getDataHora() : LocalDateTime.now(RegistroRFID.FUSO_DATA_HORA));
 
+        // A leitura fica no shard da moto
+        return shards.em(shards.doId(dto.getMotoId()), () -> {
+            Moto moto = motoRepository.findById(dto.getMotoId())
+                    .orElseThrow(() -> new EntityNotFoundException("Moto não encontrada com ID: " + dto.getMotoId()));
+            entity.setMoto(moto);
 
-        Moto moto = motoRepository.findById(dto.getMotoId())
-                .orElseThrow(() -> new EntityNotFoundException("Moto não encontrada com ID: " + dto.getMotoId()));
-        entity.setMoto(moto);
+            RegistroRFID registroSalvo = registroRFIDRepository.save(entity);
+            eventPublisher.publishEvent(RegistrosRFIDAlteradosEvent.gravadas(Collections.singletonList(Leitura.de(registroSalvo))));
+            leiturasGravadas.increment();
+            return convertToDto(registroSalvo);
+        });
+    }
 
-        RegistroRFID registroSalvo = registroRFIDRepository.save(entity);
-        return convertToDto(registroSalvo);
+    /**
+     * Grava um lote de leituras em uma única transação: as motos são resolvidas com uma só consulta,
+     * os INSERTs saem em batch JDBC e um único evento de alteração é publicado para o lote.
+     * Itens inválidos são rejeitados individualmente sem abortar o restante do lote, e repetições da
+     * mesma moto no mesmo ponto dentro da janela de deduplicação são suprimidas.
+     */
+    @Transactional
+    public RegistroRFIDBatchResultDTO salvarEmLote(List<RegistroRFIDDTO> dtos) {
+        if (dtos.size() > maxItensPorLote) {
+            throw new RequisicaoInvalidaException("O lote excede o máximo de " + maxItensPorLote + " registros.");
+        }
+        return gravarLote(dtos, false);
+    }
+
+    /**
+     * Corpo de {@link #salvarEmLote} sem o limite de tamanho, para a importação em chunks.
+     * Precisa ser chamado dentro de uma transação aberta por quem chama. Com {@code historico}, as
+     * leituras não passam pela deduplicação (que vale para o que chega ao vivo) e são gravadas por
+     * {@link RegistroRFIDRepository#inserirEmMassa}, fora do contexto de persistência. Com sharding, as leituras
+     * são separadas pelo shard da moto e cada parte é gravada numa transação própria no seu shard:
+     * o lote deixa de ser atômico entre shards, mas o resultado continua indexado pelo lote recebido.
+     * Se algum shard falhar, os outros ainda são gravados e a falha sai como {@link LoteParcialException},
+     * com o que foi confirmado e os índices que faltam.
+     */
+    RegistroRFIDBatchResultDTO gravarLote(List<RegistroRFIDDTO> dtos, boolean historico) {
+        if (shards.quantidade() == 1) {
+            return gravarNoShard(dtos, historico);
+        }
+        Map<Integer, List<Integer>> indicesPorShard = new TreeMap<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            RegistroRFIDDTO dto = dtos.get(i);
+            indicesPorShard.computeIfAbsent(shards.doId(dto == null ? null : dto.getMotoId()), s -> new ArrayList<>()).add(i);
+        }
+        RegistroRFIDBatchResultDTO resultado = new RegistroRFIDBatchResultDTO();
+        List<Integer> pendentes = new ArrayList<>();
+        RuntimeException falha = null;
+        for (Map.Entry<Integer, List<Integer>> entrada : indicesPorShard.entrySet()) {
+            List<Integer> indices = entrada.getValue();
+            List<RegistroRFIDDTO> parte = indices.stream().map(dtos::get).collect(Collectors.toList());
+            RegistroRFIDBatchResultDTO parcial;
+            try {
+                parcial = shards.emTransacao(entrada.getKey(), () -> gravarNoShard(parte, historico));
+            } catch (RuntimeException e) {
+                // Os demais shards seguem: o que eles confirmarem não pode ser gravado de novo numa nova tentativa
+                pendentes.addAll(indices);
+                if (falha == null) {
+                    falha = e;
+                } else {
+                    falha.addSuppressed(e);
+                }
+                continue;
+            }
+            for (RegistroRFIDBatchResultDTO.Item item : parcial.getItens()) {
+                item.setIndice(indices.get(item.getIndice()));
+                resultado.getItens().add(item);
+            }
+            resultado.setTotalRecebidos(resultado.getTotalRecebidos() + parcial.getTotalRecebidos());
+            resultado.setAceitos(resultado.getAceitos() + parcial.getAceitos());
+            resultado.setRejeitados(resultado.getRejeitados() + parcial.getRejeitados());
+            resultado.setSuprimidos(resultado.getSuprimidos() + parcial.getSuprimidos());
+        }
+        resultado.getItens().sort(Comparator.comparingInt(RegistroRFIDBatchResultDTO.Item::getIndice));
+        if (falha != null) {
+            Collections.sort(pendentes);
+            throw new LoteParcialException(resultado, pendentes, falha);
+        }
+        return resultado;
+    }
+
+    private RegistroRFIDBatchResultDTO gravarNoShard(List<RegistroRFIDDTO> dtos, boolean historico) {
+        Set<Long> motoIds = dtos.stream()
+                .filter(Objects::nonNull)
+                .map(RegistroRFIDDTO::getMotoId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Moto> motos = motoRepository.findAllById(motoIds).stream()
+                .collect(Collectors.toMap(Moto::getId, Function.identity()));
+
+        RegistroRFIDBatchResultDTO resultado = new RegistroRFIDBatchResultDTO();
+        List<RegistroRFID> entidades = new ArrayList<>();
+        List<RegistroRFIDBatchResultDTO.Item> aceitos = new ArrayList<>();
+        List<DeduplicadorLeituras.Aceite> aceitesDedup = new ArrayList<>();
+        LocalDateTime agora = LocalDateTime.now(RegistroRFID.FUSO_DATA_HORA);
+
+        for (int i = 0; i < dtos.size(); i++) {
+            RegistroRFIDDTO dto = dtos.get(i);
+            String erro = validar(dto);
+            if (erro == null && !motos.containsKey(dto.getMotoId())) {
+                erro = "Moto não encontrada com ID: " + dto.getMotoId();
+            }
+            if (erro != null) {
+                resultado.rejeitar(i, erro);
+                continue;
+            }
+
+            LocalDateTime dataHora = dto.getDataHora() != null ? dto.getDataHora() : agora;
+            if (!historico) {
+                DeduplicadorLeituras.Aceite aceite = deduplicador.avaliar(dto.getMotoId(), dto.getPontoLeitura(), dataHora);
+                if (aceite == null) {
+                    resultado.suprimir(i);
+                    continue;
+                }
+                aceitesDedup.add(aceite);
+            }
+
+            RegistroRFID entity = new RegistroRFID();
+            entity.setPontoLeitura(dto.getPontoLeitura());
+            entity.setDataHora(dataHora);
+            entity.setMoto(motos.get(dto.getMotoId()));
+            entidades.add(entity);
+            aceitos.add(resultado.aceitar(i, null));
+        }
+
+        deduplicador.desfazerSeReverter(aceitesDedup);
+        if (historico) {
+            registroRFIDRepository.inserirEmMassa(entidades);
+        } else {
+            registroRFIDRepository.saveAll(entidades);
+        }
+        List<Leitura> gravadas = new ArrayList<>(entidades.size());
+        for (int i = 0; i < entidades.size(); i++) {
+            aceitos.get(i).setId(entidades.get(i).getId());
+            gravadas.add(Leitura.de(entidades.get(i)));
+        }
+        if (!gravadas.isEmpty()) {
+            eventPublisher.publishEvent(RegistrosRFIDAlteradosEvent.gravadas(gravadas));
+        }
+        leiturasGravadas.add(resultado.getAceitos());
+        leiturasRejeitadas.add(resultado.getRejeitados());
+        leiturasSuprimidas.add(resultado.getSuprimidos());
+        return resultado;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        contador(registry, "gravada", leiturasGravadas);
+        contador(registry, "rejeitada", leiturasRejeitadas);
+        contador(registry, "suprimida", leiturasSuprimidas);
+    }
+
+    private static void contador(MeterRegistry registry, String resultado, LongAdder valor) {
+        FunctionCounter.builder("rfid.ingest.leituras", valor, LongAdder::sum)
+                .description("Leituras processadas pelo POST individual e pelas gravações em lote")
+                .tag("resultado", resultado)
+                .register(registry);
     }
 
     @Transactional
     @CachePut(value = "registro", key = "#id")
-    @CacheEvict(value = "registros", allEntries = true)
     public RegistroRFIDDTO atualizar(Long id, RegistroRFIDDTO dto) {
+        int shard = shards.doId(id);
+        if (dto.getMotoId() != null && shards.doId(dto.getMotoId()) != shard) {
+            throw new ConflitoException("A moto " + dto.getMotoId() + " fica em outro shard; leituras não são movidas entre shards.");
+        }
+        return shards.em(shard, () -> atualizarNoShard(id, dto));
+    }
+
+    private RegistroRFIDDTO atualizarNoShard(Long id, RegistroRFIDDTO dto) {
         RegistroRFID registroExistente = registroRFIDRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Registro RFID não encontrado com ID: " + id));
+        if (dto.getVersao() != null && !dto.getVersao().equals(registroExistente.getVersao())) {
+            throw new ConflitoException("O registro RFID " + id + " mudou para a versão " + registroExistente.getVersao()
+                    + " depois de lido.");
+        }
+        Leitura anterior = Leitura.de(registroExistente);
 
         registroExistente.setPontoLeitura(dto.getPontoLeitura());
         if (dto.getDataHora() != null) {
@@ -84,30 +385,60 @@ public class RegistroRFIDService {
             registroExistente.setMoto(moto);
         }
 
-        RegistroRFID registroAtualizado = registroRFIDRepository.save(registroExistente);
+        RegistroRFID registroAtualizado = registroRFIDRepository.saveAndFlush(registroExistente);
+        eventPublisher.publishEvent(new RegistrosRFIDAlteradosEvent(
+                Collections.singletonList(Leitura.de(registroAtualizado)), Collections.singletonList(anterior)));
         return convertToDto(registroAtualizado);
     }
 
     @Transactional
-    @CacheEvict(value = {"registro", "registros"}, allEntries = true) // Evict single and all paged results
+    @CacheEvict(value = "registro", key = "#id")
     public void deletar(Long id) {
-        if (!registroRFIDRepository.existsById(id)) {
-            throw new EntityNotFoundException("Registro RFID não encontrado com ID: " + id);
+        shards.em(shards.doId(id), () -> {
+            RegistroRFID registro = registroRFIDRepository.findById(id)
+                    .orElseThrow(() -> new EntityNotFoundException("Registro RFID não encontrado com ID: " + id));
+            registroRFIDRepository.delete(registro);
+            eventPublisher.publishEvent(RegistrosRFIDAlteradosEvent.removidas(Collections.singletonList(Leitura.de(registro))));
+            return null;
+        });
+    }
+
+    /**
+     * Junta as listas de cada shard, já ordenadas, e mantém as primeiras {@code limite} linhas.
+     */
+    private static List<RegistroRFIDDTO> juntar(List<List<RegistroRFIDDTO>> porShard, Comparator<RegistroRFIDDTO> ordem, int limite) {
+        if (porShard.size() == 1) {
+            return porShard.get(0);
         }
-        registroRFIDRepository.deleteById(id);
+        List<RegistroRFIDDTO> linhas = new ArrayList<>();
+        porShard.forEach(linhas::addAll);
+        linhas.sort(ordem);
+        return linhas.size() > limite ? new ArrayList<>(linhas.subList(0, limite)) : linhas;
     }
 
-    private RegistroRFIDDTO convertToDto(RegistroRFID registroRFID) {
-        RegistroRFIDDTO dto = modelMapper.map(registroRFID, RegistroRFIDDTO.class);
-        if (registroRFID.getMoto() != null) {
-            dto.setMotoId(registroRFID.getMoto().getId());
+    private RegistroRFIDCursorPageDTO montarPaginaCursor(List<RegistroRFIDDTO> linhas, int tamanho, boolean temProximo, boolean temAnterior) {
+        List<RegistroRFIDDTO> pagina = linhas.size() > tamanho ? new ArrayList<>(linhas.subList(0, tamanho)) : linhas;
+        String proximo = temProximo && !pagina.isEmpty() ? RegistroCursor.proximo(pagina.get(pagina.size() - 1)).codificar() : null;
+        String anterior = temAnterior && !pagina.isEmpty() ? RegistroCursor.anterior(pagina.get(0)).codificar() : null;
+        return new RegistroRFIDCursorPageDTO(pagina, tamanho, proximo, anterior);
+    }
+
+    private String validar(RegistroRFIDDTO dto) {
+        if (dto == null) {
+            return "Registro vazio.";
+        }
+        Set<ConstraintViolation<RegistroRFIDDTO>> violacoes = validator.validate(dto);
+        if (violacoes.isEmpty()) {
+            return null;
         }
-        return dto;
+        return violacoes.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
     }
 
-    // convertToEntity might not be strictly needed if mapping is simple and handled in save/update
-    // private RegistroRFID convertToEntity(RegistroRFIDDTO dto) {
-    //     return modelMapper.map(dto, RegistroRFID.class);
-    // }
+    private RegistroRFIDDTO convertToDto(RegistroRFID registroRFID) {
+        return registroRFIDMapper.toDto(registroRFID);
+    }
 }
 
@@ -0,0 +1,45 @@
+package com.example.rfidtracking.service;
+
+import com.example.rfidtracking.model.RegistroRFID;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+public class RegistroRFIDSpecification {
+
+    public static Specification<RegistroRFID> byMoto(Long motoId) {
+        return (root, query, builder) -> {
+            if (motoId == null) {
+                return builder.conjunction();
+            }
+            // Compara direto a FK (moto_id), sem join com MOTO
+            return builder.equal(root.get("moto").get("id"), motoId);
+        };
+    }
+
+    public static Specification<RegistroRFID> byPontoLeitura(String pontoLeitura) {
+        return (root, query, builder) -> {
+            if (pontoLeitura == null || pontoLeitura.isEmpty()) {
+                return builder.conjunction();
+            }
+            // Curingas do filtro são escapados, como no "Containing" das consultas derivadas
+            String escapado = pontoLeitura.toLowerCase().replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+            return builder.like(builder.lower(root.get("pontoLeitura")), "%" + escapado + "%", '\\');
+        };
+    }
+
+    public static Specification<RegistroRFID> byPeriodo(LocalDateTime de, LocalDateTime ate) {
+        return (root, query, builder) -> {
+            if (de != null && ate != null) {
+                return builder.between(root.get("dataHora"), de, ate);
+            }
+            if (de != null) {
+                return builder.greaterThanOrEqualTo(root.get("dataHora"), de);
+            }
+            if (ate != null) {
+                return builder.lessThanOrEqualTo(root.get("dataHora"), ate);
+            }
+            return builder.conjunction();
+        };
+    }
+}
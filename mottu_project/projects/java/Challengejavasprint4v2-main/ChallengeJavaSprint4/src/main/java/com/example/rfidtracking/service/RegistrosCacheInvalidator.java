@@ -0,0 +1,91 @@
+package com.example.rfidtracking.service;
+
+import com.example.rfidtracking.dto.MotoDTO;
+import com.example.rfidtracking.event.MotoAlteradaEvent;
+import com.example.rfidtracking.event.RegistrosRFIDAlteradosEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Invalida o cache paginado "registros" de forma seletiva após o commit: páginas filtradas por um
+ * ponto de leitura que não casa com nenhuma leitura alterada continuam válidas. Alterações da moto
+ * invalidam tudo, porque as páginas trazem modelo e placa e a remoção apaga as leituras em cascata.
+ */
+@Component
+public class RegistrosCacheInvalidator {
+
+    static final String CACHE_REGISTROS = "registros";
+    static final String CACHE_REGISTRO = "registro";
+
+    private final CacheManager cacheManager;
+
+    public RegistrosCacheInvalidator(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @TransactionalEventListener
+    public void aoAlterarRegistros(RegistrosRFIDAlteradosEvent event) {
+        Cache cache = cacheManager.getCache(CACHE_REGISTROS);
+        if (cache == null) {
+            return;
+        }
+        Set<String> pontos = Stream.concat(event.getGravadas().stream(), event.getRemovidas().stream())
+                .map(RegistrosRFIDAlteradosEvent.Leitura::getPontoLeitura)
+                .collect(Collectors.toSet());
+        if (pontos.isEmpty()) {
+            return;
+        }
+
+        Map<Object, Object> entradas = entradas(cache);
+        if (entradas == null) {
+            // Provedor sem acesso às chaves: volta ao comportamento antigo
+            cache.clear();
+            return;
+        }
+        entradas.keySet().removeIf(chave -> !(chave instanceof RegistrosCacheKey)
+                || pontos.stream().anyMatch(((RegistrosCacheKey) chave)::afetadaPor));
+    }
+
+    @TransactionalEventListener
+    public void aoAlterarMoto(MotoAlteradaEvent event) {
+        if (event.isRemocao()) {
+            // As leituras da moto saíram junto com ela (orphanRemoval), sem passar pelo RegistroRFIDService
+            limpar(CACHE_REGISTROS);
+            limpar(CACHE_REGISTRO);
+            return;
+        }
+        MotoDTO anterior = event.getAnterior();
+        MotoDTO atual = event.getAtual();
+        if (anterior != null && (!Objects.equals(anterior.getModelo(), atual.getModelo())
+                || !Objects.equals(anterior.getPlaca(), atual.getPlaca()))) {
+            limpar(CACHE_REGISTROS);
+        }
+    }
+
+    private void limpar(String nome) {
+        Cache cache = cacheManager.getCache(nome);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Object, Object> entradas(Cache cache) {
+        Object nativo = cache.getNativeCache();
+        if (nativo instanceof com.github.benmanes.caffeine.cache.Cache) {
+            return ((com.github.benmanes.caffeine.cache.Cache<Object, Object>) nativo).asMap();
+        }
+        if (nativo instanceof Map) {
+            return (Map<Object, Object>) nativo;
+        }
+        return null;
+    }
+}
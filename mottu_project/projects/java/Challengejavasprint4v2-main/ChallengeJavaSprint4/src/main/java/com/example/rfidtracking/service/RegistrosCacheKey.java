@@ -0,0 +1,66 @@
+package com.example.rfidtracking.service;
+
+import org.springframework.data.domain.Pageable;
+
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Chave do cache "registros". Guarda o filtro separado da paginação para que a invalidação
+ * consiga descartar apenas as páginas cujo filtro de ponto de leitura pode conter a leitura alterada.
+ */
+public final class RegistrosCacheKey {
+
+    private final String filtro;
+    private final int pagina;
+    private final int tamanho;
+    private final String ordenacao;
+    // Page (com total) e Slice da mesma página são valores diferentes no cache
+    private final boolean fatia;
+
+    private RegistrosCacheKey(String filtro, int pagina, int tamanho, String ordenacao, boolean fatia) {
+        this.filtro = filtro == null ? "" : filtro.toLowerCase(Locale.ROOT);
+        this.pagina = pagina;
+        this.tamanho = tamanho;
+        this.ordenacao = ordenacao;
+        this.fatia = fatia;
+    }
+
+    public static RegistrosCacheKey of(String filtro, Pageable pageable) {
+        return new RegistrosCacheKey(filtro, pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort().toString(), false);
+    }
+
+    public static RegistrosCacheKey fatia(String filtro, Pageable pageable) {
+        return new RegistrosCacheKey(filtro, pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort().toString(), true);
+    }
+
+    /**
+     * Uma leitura só altera o resultado desta página se passar no filtro (mesma semântica de
+     * RegistroRFIDSpecification.byPontoLeitura). Sem filtro, qualquer leitura desloca a paginação.
+     */
+    public boolean afetadaPor(String pontoLeitura) {
+        if (filtro.isEmpty()) {
+            return true;
+        }
+        return pontoLeitura != null && pontoLeitura.toLowerCase(Locale.ROOT).contains(filtro);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        RegistrosCacheKey that = (RegistrosCacheKey) o;
+        return pagina == that.pagina && tamanho == that.tamanho && fatia == that.fatia
+                && filtro.equals(that.filtro) && ordenacao.equals(that.ordenacao);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(filtro, pagina, tamanho, ordenacao, fatia);
+    }
+
+    @Override
+    public String toString() {
+        return filtro + "_" + pagina + "_" + tamanho + "_" + ordenacao + (fatia ? "_fatia" : "");
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.rfidtracking.service;
+
+import com.example.rfidtracking.model.RegistroRFID;
+import com.example.rfidtracking.repository.ParticionamentoRegistros;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Optional;
+
+/**
+ * Mantém as partições mensais das leituras: cria os meses à frente e, diariamente, descarta ou
+ * arquiva os meses que saíram do horizonte de retenção inteiros, sem DELETE linha a linha.
+ */
+@Service
+public class RetencaoRegistrosService implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(RetencaoRegistrosService.class);
+
+    public enum AcaoRetencao {
+        DESCARTAR,
+        // Move os meses antigos para o esquema de arquivo em vez de apagá-los
+        ARQUIVAR
+    }
+
+    private final ParticionamentoRegistros particionamento;
+    private final Shards shards;
+    private final CacheManager cacheManager;
+    private final PosicaoMotoService posicaoMotoService;
+    private final int mesesRetidos;
+    private final int mesesAFrente;
+    private final AcaoRetencao acao;
+
+    public RetencaoRegistrosService(ParticionamentoRegistros particionamento, Shards shards, CacheManager cacheManager,
+                                    PosicaoMotoService posicaoMotoService,
+                                    @Value("${rfid.retencao.meses:0}") int mesesRetidos,
+                                    @Value("${rfid.retencao.meses-a-frente:2}") int mesesAFrente,
+                                    @Value("${rfid.retencao.acao:DESCARTAR}") AcaoRetencao acao) {
+        this.particionamento = particionamento;
+        this.shards = shards;
+        this.cacheManager = cacheManager;
+        this.posicaoMotoService = posicaoMotoService;
+        this.mesesRetidos = mesesRetidos;
+        this.mesesAFrente = mesesAFrente;
+        this.acao = acao;
+    }
+
+    /**
+     * Prepara as partições depois que o Hibernate criou a tabela e antes de o servidor web aceitar
+     * requisições, para que a conversão inicial não concorra com gravações.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        prepararParticoes();
+    }
+
+    @Scheduled(cron = "${rfid.retencao.cron:0 30 3 * * *}")
+    public void executar() {
+        prepararParticoes();
+        if (mesesRetidos <= 0) {
+            return;
+        }
+        YearMonth limite = limite();
+        shards.paraCada(shard -> particionamento.descartarAnterioresA(limite, acao == AcaoRetencao.ARQUIVAR));
+
+        // Leituras removidas não podem continuar sendo servidas pelos caches nem pelas posições em memória
+        for (String nome : new String[] {RegistrosCacheInvalidator.CACHE_REGISTROS, RegistrosCacheInvalidator.CACHE_REGISTRO}) {
+            Cache cache = cacheManager.getCache(nome);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+        posicaoMotoService.descartarAnterioresA(limite.atDay(1).atStartOfDay());
+        log.info("Retenção concluída: meses anteriores a {} {}", limite, acao == AcaoRetencao.ARQUIVAR ? "arquivados" : "descartados");
+    }
+
+    private void prepararParticoes() {
+        YearMonth atual = YearMonth.now(RegistroRFID.FUSO_DATA_HORA);
+        // Cada shard tem a sua tabela de leituras, particionada do mesmo jeito
+        shards.paraCada(shard -> particionamento.prepararParticoes(mesesRetidos > 0 ? limite() : atual, atual.plusMonths(mesesAFrente)));
+    }
+
+    /**
+     * Início do período que ainda tem leituras; vazio quando não há retenção configurada.
+     */
+    public Optional<LocalDateTime> inicioRetido() {
+        return mesesRetidos > 0 ? Optional.of(limite().atDay(1).atStartOfDay()) : Optional.empty();
+    }
+
+    /**
+     * Primeiro mês mantido: o mês corrente e os {@code mesesRetidos} meses completos anteriores a ele.
+     */
+    private YearMonth limite() {
+        return YearMonth.now(RegistroRFID.FUSO_DATA_HORA).minusMonths(mesesRetidos);
+    }
+}
@@ -0,0 +1,463 @@
+package com.example.rfidtracking.service;
+
+import com.example.rfidtracking.config.ContextoShard;
+import com.example.rfidtracking.config.EsquemaShards;
+import com.example.rfidtracking.config.RoteadorShards;
+import com.example.rfidtracking.dto.FilialDTO;
+import com.example.rfidtracking.exception.RequisicaoInvalidaException;
+import com.example.rfidtracking.repository.ReplicacaoFiliais;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.support.MutableSortDefinition;
+import org.springframework.beans.support.PropertyComparator;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Distribuição das motos e leituras entre os shards (rfid.sharding.*). Cada filial pertence a um
+ * shard, e os ids de moto e de leitura de cada shard ficam numa faixa própria de {@link #FAIXA_IDS}
+ * ids, então o shard de uma moto ou leitura sai do próprio id, sem consulta. Motos sem filial ficam
+ * no shard 0.
+ * <p>
+ * Com o sharding desligado há um único shard e todos os métodos executam direto, na thread e na
+ * transação de quem chama.
+ */
+@Component
+public class Shards {
+
+    public static final long FAIXA_IDS = 1_000_000_000_000L;
+    // Linhas adiantadas por shard em percorrerOrdenado
+    private static final int CAPACIDADE_FILA = 1024;
+
+    private final int quantidade;
+    // Cópia em memória de Filial.shard; filiais ausentes seguem a regra padrão de shardPadrao
+    private final Map<Long, Integer> shardPorFilial = new ConcurrentHashMap<>();
+    private final TransactionTemplate leitura;
+    private final TransactionTemplate escrita;
+    private final ExecutorService executor;
+
+    public Shards(ObjectProvider<RoteadorShards> roteadorShards, ObjectProvider<EsquemaShards> esquemaShards,
+                  ReplicacaoFiliais replicacaoFiliais, PlatformTransactionManager transactionManager) {
+        RoteadorShards roteador = roteadorShards.getIfAvailable();
+        this.quantidade = roteador == null ? 1 : roteador.quantidade();
+        // Os shards precisam estar com esquema e filiais prontos antes de qualquer serviço usá-los
+        esquemaShards.getIfAvailable();
+
+        this.leitura = new TransactionTemplate(transactionManager);
+        this.leitura.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.leitura.setReadOnly(true);
+        this.escrita = new TransactionTemplate(transactionManager);
+        this.escrita.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        if (quantidade == 1) {
+            this.executor = null;
+            return;
+        }
+        for (FilialDTO filial : replicacaoFiliais.listar()) {
+            mapear(filial.getIdFilial(), filial.getShard() == null ? 0 : filial.getShard());
+        }
+        // Pool sem limite fixo: as exportações seguram uma thread por shard durante todo o streaming,
+        // e as consultas já são limitadas pelos pools de conexão de cada shard
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "rfid-shard-" + contador.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    public int quantidade() {
+        return quantidade;
+    }
+
+    /**
+     * Shard das motos e leituras da filial; sem filial, shard 0.
+     */
+    public int doFilial(Long filialId) {
+        if (filialId == null || quantidade == 1) {
+            return 0;
+        }
+        Integer shard = shardPorFilial.get(filialId);
+        return shard != null ? shard : shardPadrao(filialId);
+    }
+
+    /**
+     * Shard de uma moto ou leitura pelo id. Ids fora das faixas não existem em shard nenhum e vão
+     * para o shard 0, que responde "não encontrado".
+     */
+    public int doId(Long id) {
+        if (id == null || quantidade == 1) {
+            return 0;
+        }
+        long shard = id / FAIXA_IDS;
+        return shard >= 0 && shard < quantidade ? (int) shard : 0;
+    }
+
+    /**
+     * Shard de uma filial nova que não escolheu o seu: distribui as filiais pelo id.
+     */
+    public int shardPadrao(Long filialId) {
+        return (int) Math.floorMod(filialId, (long) quantidade);
+    }
+
+    public void validar(int shard) {
+        if (shard < 0 || shard >= quantidade) {
+            throw new RequisicaoInvalidaException("Shard inválido: " + shard + " (configurados: 0 a " + (quantidade - 1) + ").");
+        }
+    }
+
+    void mapear(Long filialId, int shard) {
+        shardPorFilial.put(filialId, shard);
+    }
+
+    void esquecer(Long filialId) {
+        shardPorFilial.remove(filialId);
+    }
+
+    /**
+     * Executa {@code acao} com o shard definido na thread. Dentro de uma transação, precisa vir antes
+     * do primeiro SQL dela.
+     */
+    public <T> T em(int shard, Supplier<T> acao) {
+        if (quantidade == 1) {
+            return acao.get();
+        }
+        validar(shard);
+        Integer anterior = ContextoShard.definir(shard);
+        try {
+            return acao.get();
+        } finally {
+            ContextoShard.restaurar(anterior);
+        }
+    }
+
+    /**
+     * Executa {@code acao} no shard 0, onde ficam as tabelas globais (filiais canônicas, importações,
+     * agregados). Transações sem shard definido são recusadas pelo roteador, então o acesso a essas
+     * tabelas também precisa ser explícito.
+     */
+    public <T> T global(Supplier<T> acao) {
+        return em(0, acao);
+    }
+
+    /**
+     * Executa {@code acao} numa transação própria no shard, confirmada ao final mesmo que quem chama
+     * esteja em outra transação. Com um só shard, participa da transação de quem chama.
+     */
+    public <T> T emTransacao(int shard, Supplier<T> acao) {
+        if (quantidade == 1) {
+            return acao.get();
+        }
+        return em(shard, () -> escrita.execute(status -> acao.get()));
+    }
+
+    /**
+     * Executa {@code consulta} numa transação somente leitura própria no shard. Com um só shard,
+     * participa da transação de quem chama.
+     */
+    public <T> T lerEm(int shard, Supplier<T> consulta) {
+        if (quantidade == 1) {
+            return consulta.get();
+        }
+        return em(shard, () -> leitura.execute(status -> consulta.get()));
+    }
+
+    /**
+     * Executa {@code acao} em cada shard, em sequência, só com o shard definido na thread: quem chama
+     * cuida das transações (ex.: um TransactionTemplate por operação).
+     */
+    public void paraCada(IntConsumer acao) {
+        for (int shard = 0; shard < quantidade; shard++) {
+            int atual = shard;
+            em(shard, () -> {
+                acao.accept(atual);
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Executa {@code consulta} em cada shard, em sequência, cada um numa transação somente leitura
+     * própria. Para cargas que precisam de um cursor aberto (streams do Spring Data).
+     */
+    public void lerDeCada(IntConsumer consulta) {
+        if (quantidade == 1) {
+            consulta.accept(0);
+            return;
+        }
+        for (int shard = 0; shard < quantidade; shard++) {
+            int atual = shard;
+            em(shard, () -> leitura.execute(status -> {
+                consulta.accept(atual);
+                return null;
+            }));
+        }
+    }
+
+    /**
+     * Scatter-gather: executa a consulta em todos os shards em paralelo, cada um numa transação
+     * somente leitura própria, e devolve os resultados na ordem dos shards.
+     */
+    public <T> List<T> consultarTodos(IntFunction<T> consulta) {
+        if (quantidade == 1) {
+            return Collections.singletonList(consulta.apply(0));
+        }
+        List<Future<T>> futuros = new ArrayList<>(quantidade);
+        for (int shard = 0; shard < quantidade; shard++) {
+            int atual = shard;
+            futuros.add(executor.submit(() -> em(atual, () -> leitura.execute(status -> consulta.apply(atual)))));
+        }
+        List<T> resultados = new ArrayList<>(quantidade);
+        try {
+            for (Future<T> futuro : futuros) {
+                resultados.add(aguardar(futuro));
+            }
+        } finally {
+            futuros.forEach(futuro -> futuro.cancel(true));
+        }
+        return resultados;
+    }
+
+    /**
+     * Página global a partir das páginas de cada shard: cada shard devolve as primeiras
+     * offset + size linhas na mesma ordem, e a página é recortada da junção delas. O custo cresce
+     * com a profundidade da página; para navegar longe, a paginação por cursor é a indicada.
+     * Sem ordenação no {@code pageable} vale {@code padrao}, e o id entra como desempate para que a
+     * ordem no banco e na junção seja a mesma.
+     */
+    public <T> Page<T> consultarPagina(Pageable pageable, Sort padrao, Class<T> tipo, Function<Pageable, Page<T>> consulta) {
+        if (quantidade == 1) {
+            return consulta.apply(pageable);
+        }
+        Sort ordem = ordemComDesempate(pageable, padrao);
+        Pageable porShard = PageRequest.of(0, Math.toIntExact(pageable.getOffset() + pageable.getPageSize()), ordem);
+
+        long total = 0;
+        List<T> linhas = new ArrayList<>();
+        for (Page<T> pagina : consultarTodos(shard -> consulta.apply(porShard))) {
+            total += pagina.getTotalElements();
+            linhas.addAll(pagina.getContent());
+        }
+        return new PageImpl<>(recortar(linhas, comparador(ordem, tipo), pageable), pageable, total);
+    }
+
+    /**
+     * Como {@link #consultarPagina}, sem contagem em nenhum shard: há próxima fatia se algum shard
+     * ainda tinha linhas além das que devolveu ou se a junção passou do fim desta fatia.
+     */
+    public <T> Slice<T> consultarFatia(Pageable pageable, Sort padrao, Class<T> tipo, Function<Pageable, Slice<T>> consulta) {
+        if (quantidade == 1) {
+            return consulta.apply(pageable);
+        }
+        Sort ordem = ordemComDesempate(pageable, padrao);
+        int limite = Math.toIntExact(pageable.getOffset() + pageable.getPageSize());
+        Pageable porShard = PageRequest.of(0, limite, ordem);
+
+        boolean restamEmAlgumShard = false;
+        List<T> linhas = new ArrayList<>();
+        for (Slice<T> fatia : consultarTodos(shard -> consulta.apply(porShard))) {
+            restamEmAlgumShard |= fatia.hasNext();
+            linhas.addAll(fatia.getContent());
+        }
+        boolean temProxima = restamEmAlgumShard || linhas.size() > limite;
+        return new SliceImpl<>(recortar(linhas, comparador(ordem, tipo), pageable), pageable, temProxima);
+    }
+
+    /**
+     * Junção ordenada dos streams de todos os shards com memória limitada: cada shard é lido na sua
+     * própria thread e transação para uma fila curta, e {@code destino} recebe as linhas intercaladas
+     * em {@code ordem}. Cada stream precisa vir do banco nessa mesma ordem.
+     */
+    public <T> void percorrerOrdenado(IntFunction<Stream<T>> consulta, Comparator<T> ordem, Consumer<T> destino) {
+        if (quantidade == 1) {
+            try (Stream<T> linhas = consulta.apply(0)) {
+                linhas.forEachOrdered(destino);
+            }
+            return;
+        }
+        List<FilaShard<T>> filas = new ArrayList<>(quantidade);
+        List<Future<?>> produtores = new ArrayList<>(quantidade);
+        for (int shard = 0; shard < quantidade; shard++) {
+            int atual = shard;
+            FilaShard<T> fila = new FilaShard<>();
+            filas.add(fila);
+            produtores.add(executor.submit(() -> fila.produzir(() -> em(atual, () -> leitura.execute(status -> {
+                try (Stream<T> linhas = consulta.apply(atual)) {
+                    Iterator<T> it = linhas.iterator();
+                    while (it.hasNext()) {
+                        fila.colocar(it.next());
+                    }
+                }
+                return null;
+            })))));
+        }
+        try {
+            PriorityQueue<Cabeca<T>> cabecas = new PriorityQueue<>(quantidade, (a, b) -> ordem.compare(a.linha, b.linha));
+            for (FilaShard<T> fila : filas) {
+                T primeira = fila.proxima();
+                if (primeira != null) {
+                    cabecas.add(new Cabeca<>(primeira, fila));
+                }
+            }
+            while (!cabecas.isEmpty()) {
+                Cabeca<T> cabeca = cabecas.poll();
+                destino.accept(cabeca.linha);
+                T seguinte = cabeca.fila.proxima();
+                if (seguinte != null) {
+                    cabeca.linha = seguinte;
+                    cabecas.add(cabeca);
+                }
+            }
+        } finally {
+            // Se o destino falhou (ex.: cliente desconectou), libera os shards que ainda estavam lendo
+            produtores.forEach(produtor -> produtor.cancel(true));
+        }
+    }
+
+    private static Sort ordemComDesempate(Pageable pageable, Sort padrao) {
+        Sort base = pageable.getSort().isSorted() ? pageable.getSort() : padrao;
+        return base.getOrderFor("id") != null ? base : base.and(Sort.by(base.iterator().next().getDirection(), "id"));
+    }
+
+    private static <T> List<T> recortar(List<T> linhas, Comparator<T> comparador, Pageable pageable) {
+        // Cada shard já vem ordenado: o TimSort reconhece as sequências e só as intercala
+        linhas.sort(comparador);
+        int inicio = (int) Math.min(pageable.getOffset(), linhas.size());
+        int fim = Math.min(inicio + pageable.getPageSize(), linhas.size());
+        return new ArrayList<>(linhas.subList(inicio, fim));
+    }
+
+    /**
+     * Comparador em memória equivalente ao {@code sort} aplicado no banco, sobre as propriedades do DTO.
+     */
+    private static <T> Comparator<T> comparador(Sort sort, Class<T> tipo) {
+        Comparator<T> comparador = null;
+        for (Sort.Order ordem : sort) {
+            if (BeanUtils.getPropertyDescriptor(tipo, ordem.getProperty()) == null) {
+                throw new RequisicaoInvalidaException("Ordenação por " + ordem.getProperty() + " não é suportada com sharding.");
+            }
+            Comparator<T> criterio = new PropertyComparator<>(
+                    new MutableSortDefinition(ordem.getProperty(), ordem.isIgnoreCase(), ordem.isAscending()));
+            comparador = comparador == null ? criterio : comparador.thenComparing(criterio);
+        }
+        return comparador;
+    }
+
+    private static <T> T aguardar(Future<T> futuro) {
+        try {
+            return futuro.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Consulta aos shards interrompida", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Falha ao consultar os shards", e.getCause());
+        }
+    }
+
+    private static final class Cabeca<T> {
+        private T linha;
+        private final FilaShard<T> fila;
+
+        private Cabeca(T linha, FilaShard<T> fila) {
+            this.linha = linha;
+            this.fila = fila;
+        }
+    }
+
+    /**
+     * Fila entre a thread que lê um shard e a que intercala; termina com um marcador de fim ou com a
+     * falha do produtor, repassada a quem consome.
+     */
+    private static final class FilaShard<T> {
+        private static final Object FIM = new Object();
+
+        private final BlockingQueue<Object> linhas = new ArrayBlockingQueue<>(CAPACIDADE_FILA);
+
+        void produzir(Runnable leitura) {
+            Object ultimo = FIM;
+            try {
+                leitura.run();
+            } catch (RuntimeException | Error e) {
+                ultimo = e;
+            }
+            try {
+                linhas.put(ultimo);
+            } catch (InterruptedException e) {
+                // Cancelado: o consumidor já desistiu e não espera mais pelo fim
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        void colocar(T linha) {
+            try {
+                linhas.put(linha);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Leitura do shard cancelada", e);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        T proxima() {
+            Object item;
+            try {
+                item = linhas.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Junção dos shards interrompida", e);
+            }
+            if (item == FIM) {
+                return null;
+            }
+            if (item instanceof RuntimeException) {
+                throw (RuntimeException) item;
+            }
+            if (item instanceof Error) {
+                throw (Error) item;
+            }
+            return (T) item;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.rfidtracking.service;
+
+import com.example.rfidtracking.dto.MotoDTO;
+import com.example.rfidtracking.event.MotoAlteradaEvent;
+import com.example.rfidtracking.repository.MotoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Mapa em memória do código da tag RFID para o id da moto, usado pelos leitores fixos. A busca
+ * aceita uma {@link ChaveTag} montada direto sobre os bytes recebidos, sem criar String por leitura.
+ */
+@Component
+public class TagMotoIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(TagMotoIndex.class);
+
+    private final MotoRepository motoRepository;
+    private final Shards shards;
+    private final ConcurrentMap<ChaveTag, Long> motosPorTag = new ConcurrentHashMap<>();
+
+    public TagMotoIndex(MotoRepository motoRepository, Shards shards) {
+        this.motoRepository = motoRepository;
+        this.shards = shards;
+    }
+
+    /**
+     * Forma canônica do código: sem espaços nas pontas e em maiúsculas; vazio vira {@code null}.
+     */
+    public static String normalizar(String codigoTag) {
+        if (codigoTag == null || codigoTag.trim().isEmpty()) {
+            return null;
+        }
+        return codigoTag.trim().toUpperCase(Locale.ROOT);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void carregar() {
+        AtomicLong total = new AtomicLong();
+        shards.lerDeCada(shard -> {
+            try (Stream<Object[]> linhas = motoRepository.streamTags()) {
+                for (Object[] linha : (Iterable<Object[]>) linhas::iterator) {
+                    motosPorTag.put(new ChaveTag((String) linha[1]), (Long) linha[0]);
+                    total.incrementAndGet();
+                }
+            }
+        });
+        log.info("Mapa de tags RFID carregado com {} motos", total.get());
+    }
+
+    @TransactionalEventListener
+    public void aoAlterarMoto(MotoAlteradaEvent event) {
+        MotoDTO anterior = event.getAnterior();
+        if (anterior != null && anterior.getCodigoTag() != null) {
+            motosPorTag.remove(new ChaveTag(anterior.getCodigoTag()), event.getMotoId());
+        }
+        MotoDTO atual = event.getAtual();
+        if (atual != null && atual.getCodigoTag() != null) {
+            motosPorTag.put(new ChaveTag(atual.getCodigoTag()), event.getMotoId());
+        }
+    }
+
+    /**
+     * Id da moto com a tag, ou {@code null} se a tag não estiver associada a nenhuma moto.
+     */
+    public Long buscar(ChaveTag chave) {
+        return motosPorTag.get(chave);
+    }
+
+    public int tamanho() {
+        return motosPorTag.size();
+    }
+
+    /**
+     * Código de tag em ASCII maiúsculo. As chaves guardadas no mapa são imutáveis; a de busca é
+     * reaproveitada entre leituras e redefinida a partir de um trecho do buffer da conexão.
+     */
+    public static final class ChaveTag {
+        private byte[] bytes;
+        private int tamanho;
+        private int hash;
+
+        private ChaveTag(String codigo) {
+            this.bytes = codigo.trim().toUpperCase(Locale.ROOT).getBytes(StandardCharsets.US_ASCII);
+            this.tamanho = bytes.length;
+            this.hash = calcularHash();
+        }
+
+        /**
+         * Chave de busca reaproveitável com espaço para códigos de até {@code capacidade} bytes.
+         */
+        public static ChaveTag reutilizavel(int capacidade) {
+            ChaveTag chave = new ChaveTag("");
+            chave.bytes = new byte[capacidade];
+            return chave;
+        }
+
+        /**
+         * Redefine a chave com os bytes {@code [inicio, fim)} do buffer, convertidos para maiúsculas.
+         * Devolve {@code false} se o código não couber.
+         */
+        public boolean definir(ByteBuffer origem, int inicio, int fim) {
+            int n = fim - inicio;
+            if (n > bytes.length) {
+                return false;
+            }
+            for (int i = 0; i < n; i++) {
+                byte b = origem.get(inicio + i);
+                bytes[i] = b >= 'a' && b <= 'z' ? (byte) (b - 32) : b;
+            }
+            tamanho = n;
+            hash = calcularHash();
+            return true;
+        }
+
+        private int calcularHash() {
+            int h = 1;
+            for (int i = 0; i < tamanho; i++) {
+                h = 31 * h + bytes[i];
+            }
+            return h;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ChaveTag)) {
+                return false;
+            }
+            ChaveTag outra = (ChaveTag) o;
+            if (tamanho != outra.tamanho || hash != outra.hash) {
+                return false;
+            }
+            for (int i = 0; i < tamanho; i++) {
+                if (bytes[i] != outra.bytes[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public String toString() {
+            return new String(bytes, 0, tamanho, StandardCharsets.US_ASCII);
+        }
+    }
+}
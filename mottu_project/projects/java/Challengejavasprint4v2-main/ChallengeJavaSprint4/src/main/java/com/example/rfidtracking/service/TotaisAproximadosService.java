@@ -0,0 +1,43 @@
+package com.example.rfidtracking.service;
+
+import com.example.rfidtracking.repository.EstatisticasTabelas;
+import com.example.rfidtracking.repository.ParticionamentoRegistros;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import java.util.OptionalLong;
+
+/**
+ * Totais aproximados para as listagens sem filtro, no lugar do COUNT(*) exato: a estimativa vem das
+ * estatísticas do banco (ver {@link EstatisticasTabelas}), somada entre os shards, e fica no cache
+ * "totais-aproximados" pelo TTL configurado.
+ */
+@Service
+public class TotaisAproximadosService {
+
+    public static final String MOTOS = "moto";
+    public static final String REGISTROS = ParticionamentoRegistros.TABELA;
+
+    private final EstatisticasTabelas estatisticasTabelas;
+    private final Shards shards;
+
+    public TotaisAproximadosService(EstatisticasTabelas estatisticasTabelas, Shards shards) {
+        this.estatisticasTabelas = estatisticasTabelas;
+        this.shards = shards;
+    }
+
+    /**
+     * Linhas estimadas da tabela em todos os shards, ou null se algum shard ainda não tem estatística.
+     */
+    @Cacheable(value = "totais-aproximados", key = "#tabela")
+    public Long estimar(String tabela) {
+        long total = 0;
+        for (OptionalLong linhas : shards.consultarTodos(shard -> estatisticasTabelas.linhasEstimadas(tabela))) {
+            if (!linhas.isPresent()) {
+                return null;
+            }
+            total += linhas.getAsLong();
+        }
+        return total;
+    }
+}
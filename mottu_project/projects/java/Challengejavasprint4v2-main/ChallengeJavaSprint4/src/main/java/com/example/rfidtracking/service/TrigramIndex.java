@@ -0,0 +1,178 @@
+package com.example.rfidtracking.service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido de trigramas de um texto para ids. Cada trigrama aponta para um vetor
+ * ordenado de ids, e uma busca por substring vira a interseção desses vetores.
+ * O resultado é um superconjunto dos ids que contêm o termo (ex.: "abcd" casa com
+ * "abc-bcd"), então quem consulta ainda deve aplicar o filtro exato.
+ */
+class TrigramIndex {
+
+    static final int TAMANHO_MINIMO = 3;
+
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    void adicionar(long id, String texto) {
+        long[] trigramas = trigramas(texto);
+        if (trigramas.length == 0) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (long trigrama : trigramas) {
+                postings.computeIfAbsent(trigrama, t -> new Postings()).adicionar(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remover(long id, String texto) {
+        long[] trigramas = trigramas(texto);
+        if (trigramas.length == 0) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (long trigrama : trigramas) {
+                Postings lista = postings.get(trigrama);
+                if (lista != null && lista.remover(id) && lista.tamanho == 0) {
+                    postings.remove(trigrama);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids candidatos a conter {@code termo}, em ordem crescente. Devolve {@code null} quando o termo
+     * é curto demais para o índice e a busca precisa cair no LIKE.
+     */
+    long[] buscar(String termo) {
+        long[] trigramas = trigramas(termo);
+        if (trigramas.length == 0) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            Postings[] listas = new Postings[trigramas.length];
+            for (int i = 0; i < trigramas.length; i++) {
+                listas[i] = postings.get(trigramas[i]);
+                if (listas[i] == null) {
+                    return new long[0];
+                }
+            }
+            // Começa pela lista mais curta para que a interseção encolha o mais cedo possível
+            Arrays.sort(listas, (a, b) -> Integer.compare(a.tamanho, b.tamanho));
+            long[] resultado = Arrays.copyOf(listas[0].ids, listas[0].tamanho);
+            for (int i = 1; i < listas.length && resultado.length > 0; i++) {
+                resultado = intersecao(resultado, listas[i]);
+            }
+            return resultado;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static long[] intersecao(long[] a, long[] b) {
+        return intersecao(a, b, b.length);
+    }
+
+    private static long[] intersecao(long[] a, Postings b) {
+        return intersecao(a, b.ids, b.tamanho);
+    }
+
+    private static long[] intersecao(long[] a, long[] b, int tamanhoB) {
+        long[] resultado = new long[Math.min(a.length, tamanhoB)];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < a.length && j < tamanhoB) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                resultado[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(resultado, n);
+    }
+
+    /**
+     * Trigramas distintos do texto em minúsculas, cada um empacotado em um long (3 x 16 bits).
+     */
+    private static long[] trigramas(String texto) {
+        if (texto == null || texto.length() < TAMANHO_MINIMO) {
+            return new long[0];
+        }
+        String normalizado = texto.toLowerCase(Locale.ROOT);
+        long[] trigramas = new long[normalizado.length() - TAMANHO_MINIMO + 1];
+        for (int i = 0; i < trigramas.length; i++) {
+            trigramas[i] = ((long) normalizado.charAt(i) << 32)
+                    | ((long) normalizado.charAt(i + 1) << 16)
+                    | normalizado.charAt(i + 2);
+        }
+        Arrays.sort(trigramas);
+        int distintos = 0;
+        for (int i = 0; i < trigramas.length; i++) {
+            if (i == 0 || trigramas[i] != trigramas[i - 1]) {
+                trigramas[distintos++] = trigramas[i];
+            }
+        }
+        return Arrays.copyOf(trigramas, distintos);
+    }
+
+    /**
+     * Vetor ordenado de ids com crescimento amortizado. Ids carregados em ordem crescente
+     * (carga inicial) são apenas anexados ao final.
+     */
+    private static final class Postings {
+        private long[] ids = new long[4];
+        private int tamanho;
+
+        private void adicionar(long id) {
+            if (tamanho == 0 || ids[tamanho - 1] < id) {
+                garantirCapacidade();
+                ids[tamanho++] = id;
+                return;
+            }
+            int posicao = Arrays.binarySearch(ids, 0, tamanho, id);
+            if (posicao >= 0) {
+                return;
+            }
+            int insercao = -posicao - 1;
+            garantirCapacidade();
+            System.arraycopy(ids, insercao, ids, insercao + 1, tamanho - insercao);
+            ids[insercao] = id;
+            tamanho++;
+        }
+
+        private boolean remover(long id) {
+            int posicao = Arrays.binarySearch(ids, 0, tamanho, id);
+            if (posicao < 0) {
+                return false;
+            }
+            System.arraycopy(ids, posicao + 1, ids, posicao, tamanho - posicao - 1);
+            tamanho--;
+            return true;
+        }
+
+        private void garantirCapacidade() {
+            if (tamanho == ids.length) {
+                ids = Arrays.copyOf(ids, ids.length + (ids.length >> 1) + 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.rfidtracking.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Primário e réplica em bancos H2 distintos, cada um com uma linha que identifica o banco: a
+ * consulta mostra para onde o roteador mandou cada transação.
+ */
+class RoteadorDataSourceTest {
+
+    private static final long JANELA_MS = 300;
+
+    private SimpleDriverDataSource primario;
+    private HikariDataSource replica;
+    private RoteadorDataSource roteador;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate escrita;
+    private TransactionTemplate leitura;
+
+    @BeforeEach
+    void preparar() {
+        String sufixo = UUID.randomUUID().toString();
+        primario = new SimpleDriverDataSource(new org.h2.Driver(), "jdbc:h2:mem:primario-" + sufixo + ";DB_CLOSE_DELAY=-1", "sa", "");
+        semear(primario, "primario");
+
+        String urlReplica = "jdbc:h2:mem:replica-" + sufixo + ";DB_CLOSE_DELAY=-1";
+        semear(new SimpleDriverDataSource(new org.h2.Driver(), urlReplica, "sa", ""), "replica");
+        replica = new HikariDataSource();
+        replica.setJdbcUrl(urlReplica);
+        replica.setUsername("sa");
+        replica.setPassword("");
+        replica.setReadOnly(true);
+
+        roteador = new RoteadorDataSource(primario, Collections.singletonList(replica), 10_000, new LeituraAposEscrita(JANELA_MS));
+        DataSource dataSource = new LazyConnectionDataSourceProxy(roteador);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        escrita = new TransactionTemplate(transactionManager);
+        leitura = new TransactionTemplate(transactionManager);
+        leitura.setReadOnly(true);
+    }
+
+    @AfterEach
+    void encerrar() {
+        roteador.fechar();
+    }
+
+    @Test
+    void leituraSomenteLeituraVaiParaAReplica() {
+        assertThat(lerOrigem(leitura)).isEqualTo("replica");
+        assertThat(lerOrigem(escrita)).isEqualTo("primario");
+    }
+
+    @Test
+    void depoisDeUmaEscritaAsLeiturasVoltamAoPrimarioPelaJanela() throws InterruptedException {
+        escrita.executeWithoutResult(status -> jdbcTemplate.update("INSERT INTO registro_teste (valor) VALUES (1)"));
+
+        // A réplica ainda não tem a linha nova; dentro da janela a leitura precisa enxergá-la
+        Integer visiveis = leitura.execute(status -> jdbcTemplate.queryForObject("SELECT COUNT(*) FROM registro_teste", Integer.class));
+        assertThat(visiveis).isEqualTo(1);
+        assertThat(lerOrigem(leitura)).isEqualTo("primario");
+
+        Thread.sleep(JANELA_MS + 50);
+        assertThat(lerOrigem(leitura)).isEqualTo("replica");
+    }
+
+    @Test
+    void escritaDesfeitaNaoAbreAJanela() {
+        escrita.executeWithoutResult(status -> {
+            jdbcTemplate.update("INSERT INTO registro_teste (valor) VALUES (1)");
+            status.setRollbackOnly();
+        });
+
+        assertThat(lerOrigem(leitura)).isEqualTo("replica");
+    }
+
+    @Test
+    void replicaForaDoArCaiNoPrimario() {
+        replica.close();
+
+        assertThat(lerOrigem(leitura)).isEqualTo("primario");
+    }
+
+    @Test
+    void conexaoComCredenciaisSegueOMesmoRoteamento() throws Exception {
+        try (Connection conexao = roteador.getConnection("sa", "")) {
+            assertThat(origem(conexao)).isEqualTo("primario");
+        }
+    }
+
+    private String lerOrigem(TransactionTemplate template) {
+        return template.execute(status -> jdbcTemplate.queryForObject("SELECT nome FROM origem", String.class));
+    }
+
+    private static String origem(Connection conexao) throws Exception {
+        try (Statement statement = conexao.createStatement(); ResultSet rs = statement.executeQuery("SELECT nome FROM origem")) {
+            rs.next();
+            return rs.getString(1);
+        }
+    }
+
+    private static void semear(DataSource dataSource, String nome) {
+        JdbcTemplate semente = new JdbcTemplate(dataSource);
+        semente.execute("CREATE TABLE origem (nome VARCHAR(20))");
+        semente.update("INSERT INTO origem (nome) VALUES (?)", nome);
+        semente.execute("CREATE TABLE registro_teste (valor INT)");
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.rfidtracking.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        // Banco próprio: o contexto com MockMvc não é o mesmo dos testes de serviço, que já popularam o testdb
+        "spring.datasource.url=jdbc:h2:mem:motocontroller;DB_CLOSE_ON_EXIT=FALSE;LAZY_QUERY_EXECUTION=1",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+@AutoConfigureMockMvc
+class MotoControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void criacaoIgnoraOIdEnviadoNoCorpo() throws Exception {
+        MvcResult primeira = mockMvc.perform(post("/api/motos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"modelo\": \"Mottu Sport\", \"placa\": \"CTL1A23\"}"))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Number existente = JsonPath.read(primeira.getResponse().getContentAsString(), "$.id");
+
+        // Um id no corpo, inclusive o de uma moto existente, não pode virar atualização nem erro
+        for (long id : new long[] {987654L, existente.longValue()}) {
+            mockMvc.perform(post("/api/motos")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"id\": " + id + ", \"modelo\": \"Mottu E\", \"placa\": \"CTL" + id % 10000 + "\"}"))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.id").value(not(id), Long.class))
+                    .andExpect(jsonPath("$.versao").value(0));
+        }
+        mockMvc.perform(get("/api/motos/" + existente))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.placa").value("CTL1A23"))
+                .andExpect(jsonPath("$.versao").value(0));
+    }
+}
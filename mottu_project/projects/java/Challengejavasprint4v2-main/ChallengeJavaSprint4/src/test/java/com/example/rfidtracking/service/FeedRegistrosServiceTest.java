@@ -0,0 +1,97 @@
+package com.example.rfidtracking.service;
+
+import com.example.rfidtracking.dto.MotoDTO;
+import com.example.rfidtracking.dto.RegistroRFIDBatchResultDTO;
+import com.example.rfidtracking.dto.RegistroRFIDDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Formato do que chega ao assinante do feed: os eventos de uma drenagem saem juntos numa escrita,
+ * mas cada um continua sendo um evento SSE completo, na ordem do commit.
+ */
+@SpringBootTest(properties = {
+        // Banco próprio: o contexto com MockMvc não é o mesmo dos testes de serviço, que já popularam o testdb
+        "spring.datasource.url=jdbc:h2:mem:feed;DB_CLOSE_ON_EXIT=FALSE;LAZY_QUERY_EXECUTION=1",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+@AutoConfigureMockMvc
+class FeedRegistrosServiceTest {
+
+    private static final Pattern EVENTO = Pattern.compile("id:(\\d+)\nevent:registro\ndata:(\\{[^\n]*\\})\n\n");
+    private static final int LEITURAS = 100;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MotoService motoService;
+
+    @Autowired
+    private RegistroRFIDService registroRFIDService;
+
+    @Test
+    void rajadaChegaComoEventosSseCompletosNaOrdem() throws Exception {
+        MotoDTO moto = new MotoDTO();
+        moto.setModelo("Mottu Sport");
+        moto.setPlaca("FED1A23");
+        Long motoId = motoService.salvar(moto).getId();
+
+        MvcResult assinatura = mockMvc.perform(get("/api/registros/stream").param("motoId", motoId.toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        List<RegistroRFIDDTO> lote = new ArrayList<>();
+        for (int i = 0; i < LEITURAS; i++) {
+            RegistroRFIDDTO dto = new RegistroRFIDDTO();
+            dto.setPontoLeitura("Pátio " + i);
+            dto.setDataHora(LocalDateTime.of(2024, 5, 1, 8, 0).plusMinutes(i));
+            dto.setMotoId(motoId);
+            lote.add(dto);
+        }
+        RegistroRFIDBatchResultDTO resultado = registroRFIDService.salvarEmLote(lote);
+
+        MockHttpServletResponse resposta = assinatura.getResponse();
+        long limite = System.currentTimeMillis() + 5000;
+        List<String> ids = new ArrayList<>();
+        String corpo = "";
+        while (System.currentTimeMillis() < limite) {
+            corpo = resposta.getContentAsString(StandardCharsets.UTF_8);
+            ids.clear();
+            Matcher matcher = EVENTO.matcher(corpo);
+            while (matcher.find()) {
+                ids.add(matcher.group(1));
+            }
+            if (ids.size() == LEITURAS) {
+                break;
+            }
+            Thread.sleep(20);
+        }
+
+        assertThat(resposta.getContentType()).startsWith("text/event-stream");
+        List<String> esperados = new ArrayList<>();
+        resultado.getItens().forEach(item -> esperados.add(String.valueOf(item.getId())));
+        assertThat(ids).containsExactlyElementsOf(esperados);
+        // Nada além dos eventos: sem linhas soltas entre um evento e outro, e o acento chega intacto
+        assertThat(EVENTO.matcher(corpo).replaceAll("")).isEmpty();
+        assertThat(corpo).contains("\"pontoLeitura\":\"Pátio 0\"");
+    }
+}
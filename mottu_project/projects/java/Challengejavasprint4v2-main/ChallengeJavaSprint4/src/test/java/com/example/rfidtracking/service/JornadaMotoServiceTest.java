@@ -0,0 +1,162 @@
+package com.example.rfidtracking.service;
+
+import com.example.rfidtracking.dto.AnalisePermanenciaDTO;
+import com.example.rfidtracking.dto.PermanenciaPontoDTO;
+import com.example.rfidtracking.dto.VisitaDTO;
+import com.example.rfidtracking.exception.RequisicaoInvalidaException;
+import com.example.rfidtracking.repository.MotoRepository;
+import com.example.rfidtracking.repository.RegistroRFIDRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Reconstrução de visitas e permanência sobre leituras em memória: o repositório devolve as linhas
+ * de cada janela como a consulta real (ordem de moto e tempo, fim exclusivo).
+ */
+class JornadaMotoServiceTest {
+
+    private static final LocalDateTime DIA = LocalDateTime.of(2024, 3, 4, 0, 0);
+
+    private final List<Object[]> leituras = new ArrayList<>();
+    private final List<JornadaMotoService> servicos = new ArrayList<>();
+    private RegistroRFIDRepository registroRFIDRepository;
+    private MotoRepository motoRepository;
+    private Shards shards;
+
+    @BeforeEach
+    void preparar() {
+        registroRFIDRepository = mock(RegistroRFIDRepository.class);
+        motoRepository = mock(MotoRepository.class);
+        shards = mock(Shards.class);
+        when(shards.quantidade()).thenReturn(1);
+        when(shards.em(anyInt(), any())).thenAnswer(inv -> ((Supplier<?>) inv.getArgument(1)).get());
+        when(motoRepository.existsById(anyLong())).thenReturn(true);
+
+        when(registroRFIDRepository.streamTrajetoDaMoto(anyLong(), any(), any())).thenAnswer(inv ->
+                janela(inv.getArgument(1), inv.getArgument(2)).filter(linha -> linha[0].equals(inv.getArgument(0))));
+        when(registroRFIDRepository.streamTrajetos(any(), any())).thenAnswer(inv ->
+                janela(inv.getArgument(0), inv.getArgument(1)));
+    }
+
+    @AfterEach
+    void encerrar() {
+        servicos.forEach(JornadaMotoService::encerrar);
+    }
+
+    @Test
+    void trocaDePontoFechaAVisitaNaLeituraSeguinte() {
+        ler(1L, "Portao", "08:00", "08:10", "08:20");
+        ler(1L, "Lavagem", "08:30", "08:35");
+        ler(1L, "Patio", "09:10", "09:20");
+
+        List<VisitaDTO> visitas = servico(1).reconstruirJornada(1L, DIA, DIA.plusDays(1));
+
+        assertThat(visitas)
+                .extracting(VisitaDTO::getPontoLeitura, VisitaDTO::getEntrada, VisitaDTO::getSaida,
+                        VisitaDTO::getPermanenciaSegundos, VisitaDTO::getLeituras)
+                .containsExactly(
+                        tuple("Portao", hora("08:00"), hora("08:30"), 1800L, 3),
+                        tuple("Lavagem", hora("08:30"), hora("09:10"), 2400L, 2),
+                        // Visita aberta no fim do período termina na última leitura
+                        tuple("Patio", hora("09:10"), hora("09:20"), 600L, 2));
+    }
+
+    @Test
+    void lacunaMaiorQueOIntervaloMaximoFechaNaUltimaLeitura() {
+        ler(1L, "Portao", "08:00", "08:30");
+        ler(1L, "Oficina", "11:00");
+
+        List<VisitaDTO> visitas = servico(1).reconstruirJornada(1L, DIA, DIA.plusDays(1));
+
+        assertThat(visitas)
+                .extracting(VisitaDTO::getPontoLeitura, VisitaDTO::getSaida, VisitaDTO::getPermanenciaSegundos)
+                .containsExactly(
+                        tuple("Portao", hora("08:30"), 1800L),
+                        tuple("Oficina", hora("11:00"), 0L));
+    }
+
+    @Test
+    void permanenciaETransicoesNaoDependemDaJanela() {
+        ler(1L, "A", "08:00", "08:10");
+        ler(1L, "B", "08:30", "08:40");
+        ler(1L, "C", "09:10");
+        ler(2L, "A", "08:05");
+        ler(2L, "B", "08:15");
+        ler(2L, "A", "08:45", "09:30");
+
+        AnalisePermanenciaDTO porHora = servico(1).analisarPermanencia(null, DIA, DIA.plusDays(1));
+        AnalisePermanenciaDTO porDia = servico(24).analisarPermanencia(null, DIA, DIA.plusDays(1));
+
+        for (AnalisePermanenciaDTO analise : List.of(porHora, porDia)) {
+            assertThat(analise.getMotos()).isEqualTo(2);
+            assertThat(analise.getLeituras()).isEqualTo(9);
+            assertThat(analise.getVisitas()).isEqualTo(6);
+            assertThat(analise.getPontos())
+                    .extracting(PermanenciaPontoDTO::getPontoLeitura, PermanenciaPontoDTO::getVisitas,
+                            PermanenciaPontoDTO::getMinimoSegundos, PermanenciaPontoDTO::getP50Segundos,
+                            PermanenciaPontoDTO::getMaximoSegundos)
+                    .containsExactly(
+                            tuple("A", 3L, 600L, 1800L, 2700L),
+                            tuple("B", 2L, 1800L, 1800L, 2400L),
+                            tuple("C", 1L, 0L, 0L, 0L));
+            assertThat(analise.getTransicoes())
+                    .extracting(t -> t.getOrigem() + ">" + t.getDestino() + "=" + t.getQuantidade())
+                    .containsExactly("A>B=2", "B>A=1", "B>C=1");
+        }
+    }
+
+    @Test
+    void periodoInvertidoERecusado() {
+        assertThatThrownBy(() -> servico(24).reconstruirJornada(1L, DIA, DIA))
+                .isInstanceOf(RequisicaoInvalidaException.class);
+    }
+
+    private JornadaMotoService servico(long janelaHoras) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+        // Uma moto por tarefa e duas threads, para que a junção dos acumuladores também seja exercitada
+        JornadaMotoService servico = new JornadaMotoService(registroRFIDRepository, motoRepository, shards,
+                transactionTemplate, janelaHoras, 120, 92, 1, 2);
+        servicos.add(servico);
+        return servico;
+    }
+
+    private void ler(Long motoId, String ponto, String... horas) {
+        for (String h : horas) {
+            leituras.add(new Object[] {motoId, ponto, hora(h)});
+        }
+    }
+
+    private Stream<Object[]> janela(LocalDateTime de, LocalDateTime ate) {
+        return leituras.stream()
+                .filter(linha -> !((LocalDateTime) linha[2]).isBefore(de) && ((LocalDateTime) linha[2]).isBefore(ate))
+                .sorted(Comparator.<Object[], Long>comparing(linha -> (Long) linha[0])
+                        .thenComparing(linha -> (LocalDateTime) linha[2]))
+                .collect(Collectors.toList())
+                .stream();
+    }
+
+    private static LocalDateTime hora(String hhmm) {
+        String[] partes = hhmm.split(":");
+        return DIA.withHour(Integer.parseInt(partes[0])).withMinute(Integer.parseInt(partes[1]));
+    }
+}
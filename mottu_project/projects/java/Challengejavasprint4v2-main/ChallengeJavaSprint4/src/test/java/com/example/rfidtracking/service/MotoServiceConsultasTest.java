@@ -0,0 +1,109 @@
+package com.example.rfidtracking.service;
+
+import com.example.rfidtracking.dto.FilialDTO;
+import com.example.rfidtracking.dto.MotoDTO;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Statements das listagens de motos e filiais. O nome da filial vem da junção na própria consulta
+ * da página; se a filial voltar a ser carregada por moto, a contagem cresce com o número de filiais.
+ */
+@SpringBootTest(properties = {
+        // Mesmas propriedades do RegistroRFIDServiceConsultasTest, para reaproveitar o contexto
+        "rfid.agregados.intervalo-aplicacao-ms=3600000",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+class MotoServiceConsultasTest {
+
+    private static final int FILIAIS = 5;
+    private static final int MOTOS_POR_FILIAL = 6;
+
+    @Autowired
+    private MotoService motoService;
+
+    @Autowired
+    private FilialService filialService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estatisticas;
+    private String modelo;
+
+    @BeforeEach
+    void preparar() {
+        estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.setStatisticsEnabled(true);
+        // Modelo único por teste: o filtro isola estas motos das criadas por outros testes do contexto
+        modelo = "Modelo " + UUID.randomUUID().toString().substring(0, 8);
+        List<Long> filialIds = new ArrayList<>();
+        for (int f = 0; f < FILIAIS; f++) {
+            FilialDTO filial = new FilialDTO();
+            filial.setNome("Filial " + f);
+            filial.setCidade("São Paulo");
+            filial.setEstado("SP");
+            filialIds.add(filialService.salvar(filial).getIdFilial());
+        }
+        // Alternando as filiais, qualquer página já mistura todas elas
+        for (int m = 0; m < FILIAIS * MOTOS_POR_FILIAL; m++) {
+            MotoDTO moto = new MotoDTO();
+            moto.setModelo(modelo);
+            moto.setPlaca("F" + UUID.randomUUID().toString().substring(0, 6));
+            moto.setFilialId(filialIds.get(m % FILIAIS));
+            motoService.salvar(moto);
+        }
+    }
+
+    @Test
+    void listagemDeMotosTrazAFilialNaConsultaDaPagina() {
+        estatisticas.clear();
+        // Página menor que o total, para que o COUNT também seja executado
+        Page<MotoDTO> pagina = motoService.listar(PageRequest.of(0, 10), modelo, null, null);
+
+        assertThat(pagina.getTotalElements()).isEqualTo(FILIAIS * MOTOS_POR_FILIAL);
+        assertThat(pagina.getContent()).hasSize(10).allSatisfy(moto -> assertThat(moto.getNomeFilial()).isNotNull());
+        assertThat(pagina.getContent().stream().map(MotoDTO::getFilialId).distinct()).hasSize(FILIAIS);
+        // A página e o COUNT, independentemente de quantas filiais aparecem
+        assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(estatisticas.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void fatiaDeMotosUsaUmaUnicaConsulta() {
+        estatisticas.clear();
+        Slice<MotoDTO> fatia = motoService.fatiar(PageRequest.of(0, 20), modelo, null, null);
+
+        assertThat(fatia.getContent()).hasSize(20).allSatisfy(moto -> assertThat(moto.getNomeFilial()).isNotNull());
+        assertThat(fatia.getContent().stream().map(MotoDTO::getFilialId).distinct()).hasSize(FILIAIS);
+        assertThat(fatia.hasNext()).isTrue();
+        assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(estatisticas.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void listagemDeFiliaisEUmaProjecao() {
+        estatisticas.clear();
+        List<FilialDTO> filiais = filialService.listarTodas();
+
+        assertThat(filiais).hasSizeGreaterThanOrEqualTo(FILIAIS);
+        assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(estatisticas.getEntityLoadCount()).isZero();
+    }
+}
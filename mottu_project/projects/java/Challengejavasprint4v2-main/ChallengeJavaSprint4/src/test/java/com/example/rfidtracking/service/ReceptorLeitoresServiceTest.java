@@ -0,0 +1,105 @@
+package com.example.rfidtracking.service;
+
+import com.example.rfidtracking.dto.LeitoresStatsDTO;
+import com.example.rfidtracking.dto.MotoDTO;
+import com.example.rfidtracking.dto.RegistroRFIDDTO;
+import com.example.rfidtracking.model.RegistroRFID;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.TimeZone;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Abre uma conexão de leitor de verdade contra o receptor e confere as leituras gravadas. O fuso
+ * do JVM é trocado durante o teste para que a conversão do epoch não dependa do fuso da máquina.
+ */
+@SpringBootTest(properties = {
+        // Banco próprio: o contexto dos outros testes continua em cache com o testdb já populado
+        "spring.datasource.url=jdbc:h2:mem:receptor;DB_CLOSE_ON_EXIT=FALSE;LAZY_QUERY_EXECUTION=1",
+        "rfid.leitor.habilitado=true",
+        "rfid.leitor.endereco=127.0.0.1",
+        "rfid.leitor.porta=0",
+        "rfid.ingest.async.intervalo-max-ms=20",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+class ReceptorLeitoresServiceTest {
+
+    private static final TimeZone FUSO_ORIGINAL = TimeZone.getDefault();
+
+    static {
+        TimeZone.setDefault(TimeZone.getTimeZone("America/Sao_Paulo"));
+    }
+
+    @Autowired
+    private ReceptorLeitoresService receptor;
+
+    @Autowired
+    private MotoService motoService;
+
+    @Autowired
+    private RegistroRFIDService registroRFIDService;
+
+    @AfterAll
+    static void restaurarFuso() {
+        TimeZone.setDefault(FUSO_ORIGINAL);
+    }
+
+    @Test
+    void quadrosDoLeitorViramLeiturasDaMotoDaTag() throws Exception {
+        MotoDTO moto = new MotoDTO();
+        moto.setModelo("Mottu E");
+        moto.setPlaca("RCP1A23");
+        moto.setCodigoTag("E200-0001");
+        Long motoId = motoService.salvar(moto).getId();
+        LeitoresStatsDTO antes = receptor.estatisticas();
+
+        LocalDateTime inicio = LocalDateTime.now(RegistroRFID.FUSO_DATA_HORA).withNano(0);
+        try (Socket socket = new Socket("127.0.0.1", antes.getPorta())) {
+            OutputStream saida = socket.getOutputStream();
+            saida.write(("E200-0001,Portao 1,1709550000000\n"
+                    + "DESCONHECIDA,Portao 1,1709550000000\n"
+                    + ",Portao 1\n"
+                    + "E200-0001,Lavagem\r\n").getBytes(StandardCharsets.US_ASCII));
+            saida.flush();
+        }
+
+        List<RegistroRFIDDTO> gravadas = aguardarLeituras(motoId, 2);
+        LocalDateTime fim = LocalDateTime.now(RegistroRFID.FUSO_DATA_HORA);
+
+        assertThat(gravadas).extracting(RegistroRFIDDTO::getPontoLeitura).containsExactly("Portao 1", "Lavagem");
+        // 1709550000000 ms = 2024-03-04T11:00:00Z, independentemente do fuso do servidor
+        assertThat(gravadas.get(0).getDataHora()).isEqualTo(LocalDateTime.of(2024, 3, 4, 11, 0));
+        // Sem instante no quadro vale o da recepção, no mesmo fuso
+        assertThat(gravadas.get(1).getDataHora()).isBetween(inicio, fim);
+
+        LeitoresStatsDTO depois = receptor.estatisticas();
+        assertThat(depois.getQuadros() - antes.getQuadros()).isEqualTo(4);
+        assertThat(depois.getAceitos() - antes.getAceitos()).isEqualTo(2);
+        assertThat(depois.getTagsDesconhecidas() - antes.getTagsDesconhecidas()).isEqualTo(1);
+        assertThat(depois.getInvalidos() - antes.getInvalidos()).isEqualTo(1);
+    }
+
+    private List<RegistroRFIDDTO> aguardarLeituras(Long motoId, int esperadas) throws InterruptedException {
+        long prazo = System.currentTimeMillis() + 10_000;
+        List<RegistroRFIDDTO> gravadas;
+        do {
+            Thread.sleep(50);
+            gravadas = registroRFIDService.listarPorMoto(motoId, null, null, null,
+                    PageRequest.of(0, 10, Sort.by("dataHora"))).getContent();
+        } while (gravadas.size() < esperadas && System.currentTimeMillis() < prazo);
+        return gravadas;
+    }
+}
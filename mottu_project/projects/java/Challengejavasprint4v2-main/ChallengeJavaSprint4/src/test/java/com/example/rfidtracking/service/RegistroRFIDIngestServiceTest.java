@@ -0,0 +1,58 @@
+package com.example.rfidtracking.service;
+
+import com.example.rfidtracking.dto.IngestStatsDTO;
+import com.example.rfidtracking.dto.RegistroRFIDBatchResultDTO;
+import com.example.rfidtracking.dto.RegistroRFIDDTO;
+import com.example.rfidtracking.exception.LoteParcialException;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Nova tentativa depois de um lote gravado só em parte: vai só o que não foi confirmado, e cada
+ * leitura é contada uma vez.
+ */
+class RegistroRFIDIngestServiceTest {
+
+    @Test
+    void novaTentativaReenviaSoAsLeiturasPendentes() throws InterruptedException {
+        RegistroRFIDService registroRFIDService = mock(RegistroRFIDService.class);
+        List<RegistroRFIDDTO> lote = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            RegistroRFIDDTO dto = new RegistroRFIDDTO();
+            dto.setPontoLeitura("Portão " + i);
+            lote.add(dto);
+        }
+        // Os índices 0, 2 e 4 ficaram num shard que confirmou; 1 e 3 no que falhou
+        when(registroRFIDService.salvarEmLote(anyList()))
+                .thenThrow(new LoteParcialException(resultado(3), List.of(1, 3), new IllegalStateException("shard 1 fora")))
+                .thenReturn(resultado(2));
+        RegistroRFIDIngestService ingest = new RegistroRFIDIngestService(registroRFIDService, 10, 1, 10, 50, 1000, 100);
+
+        ingest.gravar(lote);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<RegistroRFIDDTO>> enviados = ArgumentCaptor.forClass(List.class);
+        verify(registroRFIDService, times(2)).salvarEmLote(enviados.capture());
+        assertThat(enviados.getAllValues().get(1)).containsExactly(lote.get(1), lote.get(3));
+        IngestStatsDTO stats = ingest.estatisticas();
+        assertThat(stats.getGravados()).isEqualTo(5);
+        assertThat(stats.getDescartados()).isZero();
+    }
+
+    private static RegistroRFIDBatchResultDTO resultado(int aceitos) {
+        RegistroRFIDBatchResultDTO resultado = new RegistroRFIDBatchResultDTO();
+        resultado.setTotalRecebidos(aceitos);
+        resultado.setAceitos(aceitos);
+        return resultado;
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.rfidtracking.service;
+
+import com.example.rfidtracking.dto.RegistroRFIDBatchResultDTO;
+import com.example.rfidtracking.dto.RegistroRFIDCursorPageDTO;
+import com.example.rfidtracking.dto.RegistroRFIDDTO;
+import com.example.rfidtracking.model.Moto;
+import com.example.rfidtracking.repository.MotoRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Conta os statements preparados pelo Hibernate na gravação em lote e nas listagens. A moto de
+ * RegistroRFID é LAZY: se alguma dessas rotas voltar a carregá-la por leitura, a contagem passa a
+ * crescer com o número de linhas e estes limites estouram.
+ */
+@SpringBootTest(properties = {
+        // Sem aplicação periódica dos agregados, nenhuma outra thread prepara statements durante a medição
+        "rfid.agregados.intervalo-aplicacao-ms=3600000",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+class RegistroRFIDServiceConsultasTest {
+
+    private static final int LEITURAS = 300;
+
+    @Autowired
+    private RegistroRFIDService registroRFIDService;
+
+    @Autowired
+    private MotoRepository motoRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estatisticas;
+    private List<Long> motoIds;
+
+    @BeforeEach
+    void preparar() {
+        estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.setStatisticsEnabled(true);
+        motoIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Moto moto = new Moto();
+            moto.setModelo("Mottu Sport");
+            moto.setPlaca("T" + UUID.randomUUID().toString().substring(0, 6));
+            motoIds.add(motoRepository.save(moto).getId());
+        }
+    }
+
+    @Test
+    void loteNaoCarregaAMotoPorLeitura() {
+        List<RegistroRFIDDTO> lote = leituras(LEITURAS);
+
+        estatisticas.clear();
+        RegistroRFIDBatchResultDTO resultado = registroRFIDService.salvarEmLote(lote);
+
+        assertThat(resultado.getAceitos()).isEqualTo(LEITURAS);
+        // Uma busca das motos, as idas à sequence (50 ids por vez) e os INSERTs em batch
+        assertThat(estatisticas.getPrepareStatementCount()).isLessThanOrEqualTo(3 + LEITURAS / 50);
+        assertThat(estatisticas.getEntityLoadCount()).isLessThanOrEqualTo(motoIds.size());
+    }
+
+    @Test
+    void importacaoGravaSemPassarPeloContextoDePersistencia() {
+        List<RegistroRFIDDTO> lote = leituras(LEITURAS);
+
+        estatisticas.clear();
+        RegistroRFIDBatchResultDTO resultado = transactionTemplate.execute(status -> registroRFIDService.gravarLote(lote, true));
+
+        assertThat(resultado.getAceitos()).isEqualTo(LEITURAS);
+        assertThat(estatisticas.getPrepareStatementCount()).isLessThanOrEqualTo(3 + LEITURAS / 50);
+        assertThat(estatisticas.getEntityInsertCount()).isZero();
+    }
+
+    @Test
+    void listagensProjetamAMotoNaPropriaConsulta() {
+        registroRFIDService.salvarEmLote(leituras(LEITURAS));
+        cacheManager.getCache("registros").clear();
+
+        estatisticas.clear();
+        Page<RegistroRFIDDTO> pagina = registroRFIDService.listar(null, PageRequest.of(0, 100));
+        assertThat(pagina.getContent()).hasSize(100).allSatisfy(dto -> assertThat(dto.getMotoPlaca()).isNotNull());
+        // A página e o COUNT
+        assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(2);
+
+        estatisticas.clear();
+        Slice<RegistroRFIDDTO> fatia = registroRFIDService.fatiar(null, PageRequest.of(1, 100));
+        assertThat(fatia.getContent()).hasSize(100);
+        assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(1);
+
+        estatisticas.clear();
+        Page<RegistroRFIDDTO> porMoto = registroRFIDService.listarPorMoto(motoIds.get(0), null, null, null, PageRequest.of(0, 50));
+        assertThat(porMoto.getContent()).hasSize(50);
+        assertThat(estatisticas.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+
+        estatisticas.clear();
+        RegistroRFIDCursorPageDTO primeira = registroRFIDService.listarPorCursor(null, 100);
+        RegistroRFIDCursorPageDTO segunda = registroRFIDService.listarPorCursor(primeira.getProximoCursor(), 100);
+        assertThat(segunda.getContent()).hasSize(100);
+        assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(estatisticas.getEntityLoadCount()).isZero();
+    }
+
+    /**
+     * Leituras espaçadas além da janela de deduplicação, distribuídas entre as motos do teste.
+     */
+    private List<RegistroRFIDDTO> leituras(int quantidade) {
+        LocalDateTime inicio = LocalDateTime.now().minusDays(1);
+        List<RegistroRFIDDTO> lote = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            RegistroRFIDDTO dto = new RegistroRFIDDTO();
+            dto.setPontoLeitura("Portao " + (i % 4));
+            dto.setDataHora(inicio.plusSeconds(10L * i));
+            dto.setMotoId(motoIds.get(i % motoIds.size()));
+            lote.add(dto);
+        }
+        return lote;
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.rfidtracking.service;
+
+import com.example.rfidtracking.dto.FilialDTO;
+import com.example.rfidtracking.dto.MotoDTO;
+import com.example.rfidtracking.dto.RegistroRFIDBatchResultDTO;
+import com.example.rfidtracking.dto.RegistroRFIDCursorPageDTO;
+import com.example.rfidtracking.dto.RegistroRFIDDTO;
+import com.example.rfidtracking.repository.MotoRepository;
+import com.example.rfidtracking.repository.RegistroRFIDRepository;
+import com.example.rfidtracking.repository.ReplicacaoFiliais;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Três shards H2 (o padrão e dois extras) para exercitar o que só aparece com sharding: a filial
+ * replicada nos shards de dados, o lote dividido pelo shard da moto e as páginas intercaladas.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:shard0;DB_CLOSE_ON_EXIT=FALSE;LAZY_QUERY_EXECUTION=1",
+        "rfid.sharding.habilitado=true",
+        "rfid.sharding.urls=jdbc:h2:mem:shard1;DB_CLOSE_DELAY=-1,jdbc:h2:mem:shard2;DB_CLOSE_DELAY=-1",
+        "rfid.agregados.intervalo-aplicacao-ms=3600000",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+class ShardsIntegracaoTest {
+
+    private static final Comparator<RegistroRFIDDTO> MAIS_RECENTES = Comparator
+            .comparing(RegistroRFIDDTO::getDataHora, Comparator.reverseOrder())
+            .thenComparing(RegistroRFIDDTO::getId, Comparator.reverseOrder());
+
+    @Autowired
+    private Shards shards;
+
+    @Autowired
+    private FilialService filialService;
+
+    @Autowired
+    private MotoService motoService;
+
+    @Autowired
+    private RegistroRFIDService registroRFIDService;
+
+    @Autowired
+    private ReplicacaoFiliais replicacaoFiliais;
+
+    @Autowired
+    private MotoRepository motoRepository;
+
+    @Autowired
+    private RegistroRFIDRepository registroRFIDRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void filialFicaNoShardEscolhidoECopiadaParaOsShardsDeDados() {
+        FilialDTO noShard2 = filialService.salvar(filial(2));
+        FilialDTO semShard = filialService.salvar(filial(null));
+
+        assertThat(shards.quantidade()).isEqualTo(3);
+        assertThat(shards.doFilial(noShard2.getIdFilial())).isEqualTo(2);
+        assertThat(semShard.getShard()).isEqualTo(shards.shardPadrao(semShard.getIdFilial()));
+        // O shard vai no próprio INSERT: a filial nasce na versão 0, sem UPDATE logo em seguida
+        assertThat(noShard2.getVersao()).isZero();
+        assertThat(semShard.getVersao()).isZero();
+        assertThat(filialService.buscarVersao(semShard.getIdFilial()).getVersao()).isZero();
+        for (int shard = 1; shard < shards.quantidade(); shard++) {
+            assertThat(shards.lerEm(shard, replicacaoFiliais::listar))
+                    .extracting(FilialDTO::getIdFilial, FilialDTO::getShard, FilialDTO::getVersao)
+                    .contains(tuple(noShard2.getIdFilial(), 2, 0L),
+                            tuple(semShard.getIdFilial(), semShard.getShard(), 0L));
+        }
+
+        // A moto nasce no shard da filial, e a faixa do id revela esse shard
+        MotoDTO moto = motoService.salvar(moto(noShard2.getIdFilial()));
+        assertThat(shards.doId(moto.getId())).isEqualTo(2);
+        assertThat(shards.lerEm(2, () -> motoRepository.existsById(moto.getId()))).isTrue();
+        assertThat(shards.lerEm(1, () -> motoRepository.existsById(moto.getId()))).isFalse();
+    }
+
+    @Test
+    void loteEDivididoPeloShardDaMotoSemPerderOIndice() {
+        List<Long> motoIds = motosEmCadaShard();
+        String ponto = "Lote " + UUID.randomUUID();
+        long[] antes = contarPorShard();
+
+        List<RegistroRFIDDTO> lote = leituras(motoIds, ponto, LocalDateTime.of(2024, 5, 1, 8, 0), 12);
+        RegistroRFIDBatchResultDTO resultado = registroRFIDService.salvarEmLote(lote);
+
+        assertThat(resultado.getAceitos()).isEqualTo(12);
+        assertThat(resultado.getItens()).extracting(RegistroRFIDBatchResultDTO.Item::getIndice)
+                .containsExactlyElementsOf(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11));
+        for (RegistroRFIDBatchResultDTO.Item item : resultado.getItens()) {
+            Long motoId = lote.get(item.getIndice()).getMotoId();
+            assertThat(shards.doId(item.getId())).isEqualTo(shards.doId(motoId));
+        }
+        long[] depois = contarPorShard();
+        for (int shard = 0; shard < shards.quantidade(); shard++) {
+            assertThat(depois[shard] - antes[shard]).isEqualTo(4);
+        }
+    }
+
+    @Test
+    void paginasECursorIntercalamOsShardsNaOrdemGlobal() {
+        List<Long> motoIds = motosEmCadaShard();
+        String ponto = "Pagina " + UUID.randomUUID();
+        // Mais recentes que as leituras dos outros testes, para que o cursor sem filtro comece por elas
+        List<RegistroRFIDDTO> lote = leituras(motoIds, ponto, LocalDateTime.of(2031, 1, 1, 8, 0), 20);
+        registroRFIDService.salvarEmLote(lote);
+        List<Long> esperado = registroRFIDService.listar(ponto, PageRequest.of(0, 100)).getContent().stream()
+                .sorted(MAIS_RECENTES)
+                .map(RegistroRFIDDTO::getId)
+                .collect(Collectors.toList());
+        assertThat(esperado).hasSize(20);
+
+        List<Long> paginado = new ArrayList<>();
+        for (int pagina = 0; pagina < 3; pagina++) {
+            Page<RegistroRFIDDTO> atual = registroRFIDService.listar(ponto, PageRequest.of(pagina, 7));
+            assertThat(atual.getTotalElements()).isEqualTo(20);
+            atual.forEach(registro -> paginado.add(registro.getId()));
+        }
+        assertThat(paginado).containsExactlyElementsOf(esperado);
+
+        List<Long> porCursor = new ArrayList<>();
+        List<RegistroRFIDCursorPageDTO> paginas = new ArrayList<>();
+        RegistroRFIDCursorPageDTO atual = registroRFIDService.listarPorCursor(null, 7);
+        while (porCursor.size() < 20) {
+            paginas.add(atual);
+            atual.getContent().forEach(registro -> porCursor.add(registro.getId()));
+            atual = registroRFIDService.listarPorCursor(atual.getProximoCursor(), 7);
+        }
+        assertThat(porCursor.subList(0, 20)).containsExactlyElementsOf(esperado);
+
+        // Voltar a partir da segunda página devolve a primeira
+        RegistroRFIDCursorPageDTO anterior = registroRFIDService.listarPorCursor(paginas.get(1).getCursorAnterior(), 7);
+        assertThat(anterior.getContent()).extracting(RegistroRFIDDTO::getId)
+                .containsExactlyElementsOf(esperado.subList(0, 7));
+    }
+
+    @Test
+    void transacaoSemShardDefinidoFalhaEmVezDeCairNoShardZero() {
+        Throwable erro = catchThrowable(() -> transactionTemplate.execute(status -> motoRepository.count()));
+
+        assertThat(NestedExceptionUtils.getMostSpecificCause(erro))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("sem shard definido");
+        Long filiais = shards.global(() -> transactionTemplate.execute(status -> (long) replicacaoFiliais.listar().size()));
+        assertThat(filiais).isNotNull();
+    }
+
+    private List<Long> motosEmCadaShard() {
+        List<Long> motoIds = new ArrayList<>();
+        motoIds.add(motoService.salvar(moto(null)).getId());
+        motoIds.add(motoService.salvar(moto(filialService.salvar(filial(1)).getIdFilial())).getId());
+        motoIds.add(motoService.salvar(moto(filialService.salvar(filial(2)).getIdFilial())).getId());
+        assertThat(motoIds).extracting(shards::doId).containsExactly(0, 1, 2);
+        return motoIds;
+    }
+
+    /**
+     * Leituras alternando entre as motos, um minuto entre cada uma: fora da janela de deduplicação e
+     * com horários intercalados entre os shards.
+     */
+    private static List<RegistroRFIDDTO> leituras(List<Long> motoIds, String ponto, LocalDateTime inicio, int quantidade) {
+        List<RegistroRFIDDTO> lote = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            RegistroRFIDDTO dto = new RegistroRFIDDTO();
+            dto.setPontoLeitura(ponto);
+            dto.setDataHora(inicio.plusMinutes(i));
+            dto.setMotoId(motoIds.get(i % motoIds.size()));
+            lote.add(dto);
+        }
+        return lote;
+    }
+
+    private long[] contarPorShard() {
+        long[] contagens = new long[shards.quantidade()];
+        for (int shard = 0; shard < contagens.length; shard++) {
+            contagens[shard] = shards.lerEm(shard, registroRFIDRepository::count);
+        }
+        return contagens;
+    }
+
+    private static FilialDTO filial(Integer shard) {
+        FilialDTO dto = new FilialDTO();
+        dto.setNome("Filial " + UUID.randomUUID().toString().substring(0, 8));
+        dto.setCidade("São Paulo");
+        dto.setEstado("SP");
+        dto.setShard(shard);
+        return dto;
+    }
+
+    private static MotoDTO moto(Long filialId) {
+        MotoDTO dto = new MotoDTO();
+        dto.setModelo("Mottu Sport");
+        dto.setPlaca("S" + UUID.randomUUID().toString().substring(0, 6));
+        dto.setFilialId(filialId);
+        return dto;
+    }
+}